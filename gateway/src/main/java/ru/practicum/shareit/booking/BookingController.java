@@ -14,11 +14,17 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
+import java.util.List;
 
 @Controller
 @RequestMapping(path = "/bookings")
@@ -31,46 +37,75 @@ public class BookingController {
 
 	private static final String USER_ID_HEADER = "X-Sharer-User-Id";
 
+	private static final int MAX_BATCH_SIZE = 100;
+
 
 	@GetMapping("/{bookingId}")
-	public ResponseEntity<Object> getById(@RequestHeader(USER_ID_HEADER) Long userId,
+	public Mono<ResponseEntity<Object>> getById(@RequestHeader(USER_ID_HEADER) Long userId,
 										  @PathVariable Long bookingId) {
 		log.info("GET /bookings/{} | userId: {}", bookingId, userId);
 		return bookingClient.getById(bookingId, userId);
 	}
 
 	@GetMapping()
-	public ResponseEntity<Object> getAllByBookerId(@RequestHeader(USER_ID_HEADER) Long bookerId,
+	public Mono<ResponseEntity<Object>> getAllByBookerId(@RequestHeader(USER_ID_HEADER) Long bookerId,
 								 	@RequestParam(name = "state", defaultValue = "all") String stateParam,
 									@PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-									@Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
-		log.info("GET /bookings?state={}&from={}&size={} | bookerId: {}", stateParam, from, size, bookerId);
+									@Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+									@RequestParam(name = "cursor", required = false) String cursor) {
+		log.info("GET /bookings?state={}&from={}&size={}&cursor={} | bookerId: {}",
+				stateParam, from, size, cursor, bookerId);
 		BookingState state = BookingState.fromString(stateParam);
-		return bookingClient.getAllByBookerId(bookerId, state, from, size);
+		return bookingClient.getAllByBookerId(bookerId, state, from, size, cursor);
 	}
 
 	@GetMapping("/owner")
-	public ResponseEntity<Object> getAllByOwnerId(@RequestHeader(USER_ID_HEADER) Long ownerId,
+	public Mono<ResponseEntity<Object>> getAllByOwnerId(@RequestHeader(USER_ID_HEADER) Long ownerId,
 											@RequestParam(name = "state", defaultValue = "all") String stateParam,
 											@PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-											@Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
-		log.info("GET /bookings/owner?state={}&from={}&size={} | ownerId: {}", stateParam, from, size, ownerId);
+											@Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+											@RequestParam(name = "cursor", required = false) String cursor) {
+		log.info("GET /bookings/owner?state={}&from={}&size={}&cursor={} | ownerId: {}",
+				stateParam, from, size, cursor, ownerId);
 		BookingState state = BookingState.fromString(stateParam);
-		return bookingClient.getAllByOwnerId(ownerId, state, from, size);
+		return bookingClient.getAllByOwnerId(ownerId, state, from, size, cursor);
 	}
 
 	@PostMapping
-	public ResponseEntity<Object> create(@RequestHeader(USER_ID_HEADER) Long bookerId,
+	public Mono<ResponseEntity<Object>> create(@RequestHeader(USER_ID_HEADER) Long bookerId,
 										 @Validated @RequestBody BookItemRequestDto bookingDto) {
 		log.info("POST /bookings | bookerId: {} | bookingDto: {}", bookerId, bookingDto);
 		return bookingClient.create(bookerId, bookingDto);
 	}
 
+	@PostMapping("/batch")
+	public Mono<ResponseEntity<Object>> createAll(@RequestHeader(USER_ID_HEADER) Long bookerId,
+											@NotEmpty(message = "Пакет бронирований не может быть пустым")
+											@Size(max = MAX_BATCH_SIZE,
+													message = "В пакете не может быть больше " + MAX_BATCH_SIZE
+															+ " бронирований")
+											@RequestBody List<@Valid BookItemRequestDto> bookingDtos) {
+		log.info("POST /bookings/batch | bookerId: {} | bookings: {}", bookerId, bookingDtos.size());
+		return bookingClient.createAll(bookerId, bookingDtos);
+	}
+
 	@PatchMapping("/{bookingId}")
-	public ResponseEntity<Object> approve(@RequestHeader(USER_ID_HEADER) Long ownerId,
+	public Mono<ResponseEntity<Object>> approve(@RequestHeader(USER_ID_HEADER) Long ownerId,
 							  @PathVariable Long bookingId,
 							  @RequestParam Boolean approved) {
 		log.info("PATCH /bookings/{}?approved={} | ownerId: {}", bookingId, approved, ownerId);
 		return bookingClient.approve(bookingId, ownerId, approved);
 	}
+
+	@PatchMapping("/batch")
+	public Mono<ResponseEntity<Object>> approveAll(@RequestHeader(USER_ID_HEADER) Long ownerId,
+											 @RequestParam Boolean approved,
+											 @NotEmpty(message = "Пакет бронирований не может быть пустым")
+											 @Size(max = MAX_BATCH_SIZE,
+													 message = "В пакете не может быть больше " + MAX_BATCH_SIZE
+															 + " бронирований")
+											 @RequestBody List<@NotNull Long> bookingIds) {
+		log.info("PATCH /bookings/batch?approved={} | ownerId: {} | bookingIds: {}", approved, ownerId, bookingIds);
+		return bookingClient.approveAll(ownerId, bookingIds, approved);
+	}
 }
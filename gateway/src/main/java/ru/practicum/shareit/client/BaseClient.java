@@ -1,93 +1,251 @@
 package ru.practicum.shareit.client;
 
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.net.URI;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.lang.Nullable;
+import org.springframework.util.StreamUtils;
 import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 
 public class BaseClient {
+    private static final Set<String> HOP_BY_HOP_HEADERS = Set.of("connection", "keep-alive",
+            "proxy-authenticate", "proxy-authorization", "te", "trailer", "transfer-encoding", "upgrade");
+
+    private static final byte[] EMPTY_BODY = new byte[0];
+
     protected final RestTemplate rest;
 
+    @Nullable
+    protected final WebClient webClient;
+
+    private boolean passThrough = true;
+
+    private long passThroughBufferBytes = 64 * 1024;
+
+    private boolean nonBlocking = false;
+
+    @Nullable
+    private ResponseCache responseCache;
+
+    @Nullable
+    private RequestCoalescer requestCoalescer;
+
     public BaseClient(RestTemplate rest) {
+        this(rest, null);
+    }
+
+    public BaseClient(RestTemplate rest, @Nullable WebClient webClient) {
         this.rest = rest;
+        this.webClient = webClient;
+    }
+
+    /**
+     * В режиме pass-through тело ответа сервера копируется клиенту байтами, без разбора JSON.
+     * Статус и заголовки сервера сохраняются во всех режимах.
+     */
+    @Value("${shareit-gateway.pass-through:true}")
+    public void setPassThrough(boolean passThrough) {
+        this.passThrough = passThrough;
+    }
+
+    /**
+     * Ответ pass-through, длина которого известна и не больше этого порога, читается целиком сразу,
+     * и соединение возвращается в пул до того, как ответ уйдёт клиенту. Более длинный ответ
+     * и ответ без {@code Content-Length} копируются клиенту потоком.
+     */
+    @Value("${shareit-gateway.pass-through-buffer-bytes:65536}")
+    public void setPassThroughBufferBytes(long passThroughBufferBytes) {
+        this.passThroughBufferBytes = passThroughBufferBytes;
+    }
+
+    /**
+     * В неблокирующем режиме запрос к серверу выполняет {@link WebClient}: поток Tomcat освобождается
+     * сразу после валидации, а ответ дописывается асинхронно, когда сервер ответит.
+     * Тело ответа копируется байтами, как в режиме pass-through.
+     * В блокирующем режиме запрос выполняется {@link RestTemplate} при подписке, в потоке запроса,
+     * а {@link BlockingResponseRegistrations} пишет ответ без асинхронной обработки Servlet.
+     */
+    @Value("${shareit-gateway.non-blocking:false}")
+    public void setNonBlocking(boolean nonBlocking) {
+        if (nonBlocking && webClient == null) {
+            throw new IllegalStateException("Неблокирующий режим требует WebClient");
+        }
+        this.nonBlocking = nonBlocking;
     }
 
-    protected ResponseEntity<Object> get(String path) {
+    @Autowired(required = false)
+    public void setResponseCache(@Nullable ResponseCache responseCache) {
+        this.responseCache = responseCache;
+    }
+
+    @Autowired(required = false)
+    public void setRequestCoalescer(@Nullable RequestCoalescer requestCoalescer) {
+        this.requestCoalescer = requestCoalescer;
+    }
+
+    protected Mono<ResponseEntity<Object>> get(String path) {
         return get(path, null, null);
     }
 
-    protected ResponseEntity<Object> get(String path, long userId) {
+    protected Mono<ResponseEntity<Object>> get(String path, long userId) {
         return get(path, userId, null);
     }
 
-    protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected Mono<ResponseEntity<Object>> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, T body) {
+    protected Mono<ResponseEntity<Object>> getCached(String path, @Nullable Long userId) {
+        return getCached(path, userId, null);
+    }
+
+    /**
+     * GET карточки через {@link ResponseCache} и {@link RequestCoalescer}: одновременные одинаковые
+     * запросы объединяются в один запрос к серверу, а сохранённая копия отправляется серверу
+     * как {@code If-None-Match} и выдаётся клиенту, если сервер ответил 304.
+     * Без кеша и объединения работает как {@link #get(String, Long, Map)}.
+     */
+    protected Mono<ResponseEntity<Object>> getCached(String path, @Nullable Long userId,
+                                                     @Nullable Map<String, Object> parameters) {
+        if (responseCache == null && requestCoalescer == null) {
+            return get(path, userId, parameters);
+        }
+        URI uri = expand(path, parameters);
+        ResponseCache.Key key = new ResponseCache.Key(uri, userId);
+        return requestCoalescer != null
+                ? requestCoalescer.coalesce(key, () -> revalidate(uri, key, userId))
+                : revalidate(uri, key, userId);
+    }
+
+    protected <T> Mono<ResponseEntity<Object>> post(String path, T body) {
         return post(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> post(String path, long userId, T body) {
         return post(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> post(String path, Long userId,
+    protected <T> Mono<ResponseEntity<Object>> post(String path, Long userId,
                                               @Nullable Map<String, Object> parameters,
                                               T body) {
         return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> put(String path, long userId, T body) {
         return put(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> put(String path, long userId,
+    protected <T> Mono<ResponseEntity<Object>> put(String path, long userId,
                                              @Nullable Map<String, Object> parameters,
                                              T body) {
         return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, T body) {
         return patch(path, null, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, long userId) {
         return patch(path, userId, null, null);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, long userId, T body) {
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, long userId, T body) {
         return patch(path, userId, null, body);
     }
 
-    protected <T> ResponseEntity<Object> patch(String path, Long userId,
+    protected <T> Mono<ResponseEntity<Object>> patch(String path, Long userId,
                                                @Nullable Map<String, Object> parameters, T body) {
         return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
     }
 
-    protected ResponseEntity<Object> delete(String path) {
+    protected Mono<ResponseEntity<Object>> delete(String path) {
         return delete(path, null, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, long userId) {
+    protected Mono<ResponseEntity<Object>> delete(String path, long userId) {
         return delete(path, userId, null);
     }
 
-    protected ResponseEntity<Object> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
+    protected Mono<ResponseEntity<Object>> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
         return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
     }
 
-    private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId,
-                                                          @Nullable Map<String, Object> parameters,
-                                                          @Nullable T body) {
+    private <T> Mono<ResponseEntity<Object>> makeAndSendRequest(HttpMethod method, String path, Long userId,
+                                                                @Nullable Map<String, Object> parameters,
+                                                                @Nullable T body) {
         HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
+        Mono<ResponseEntity<Object>> response = nonBlocking
+                ? exchangeNonBlocking(method, path, parameters, requestEntity)
+                : Mono.fromCallable(() -> exchangeBlocking(method, path, parameters, requestEntity));
+        if (method != HttpMethod.GET) {
+            response = response.doOnTerminate(() -> invalidate(expand(path, parameters)))
+                    .doOnCancel(() -> invalidate(expand(path, parameters)));
+        }
+        return response.doOnDiscard(ResponseEntity.class, BaseClient::releaseBody);
+    }
+
+    private Mono<ResponseEntity<Object>> revalidate(URI uri, ResponseCache.Key key, @Nullable Long userId) {
+        HttpHeaders headers = defaultHeaders(userId);
+        if (responseCache == null) {
+            return exchangeForBytes(uri, headers).map(BaseClient::toObjectResponse);
+        }
+        ResponseCache cache = responseCache;
+        ResponseCache.CachedResponse cached = cache.get(key);
+        if (cached != null) {
+            headers.setIfNoneMatch(cached.getEtag());
+        }
+        return exchangeForBytes(uri, headers).map(response -> {
+            if (response.getStatusCode() == HttpStatus.NOT_MODIFIED && cached != null) {
+                return cached.toResponseEntity();
+            }
+            cache.put(key, response);
+            return toObjectResponse(response);
+        });
+    }
+
+    /**
+     * Вызывается до того, как ответ на запись уйдёт клиенту: его следующий GET не получит старую копию
+     * из кеша и не присоединится к запросу, начатому до записи.
+     */
+    private void invalidate(URI written) {
+        if (responseCache != null) {
+            responseCache.invalidate(written);
+        }
+        if (requestCoalescer != null) {
+            requestCoalescer.forget(written);
+        }
+    }
+
+    private <T> ResponseEntity<Object> exchangeBlocking(HttpMethod method, String path,
+                                                        @Nullable Map<String, Object> parameters,
+                                                        HttpEntity<T> requestEntity) {
+        if (passThrough) {
+            return exchangePassThrough(method, path, parameters, requestEntity);
+        }
 
         ResponseEntity<Object> shareitServerResponse;
         try {
@@ -102,6 +260,131 @@ public class BaseClient {
         return prepareGatewayResponse(shareitServerResponse);
     }
 
+    private <T> ResponseEntity<Object> exchangePassThrough(HttpMethod method, String path,
+                                                           @Nullable Map<String, Object> parameters,
+                                                           HttpEntity<T> requestEntity) {
+        URI uri = expand(path, parameters);
+        ClientHttpResponse response = null;
+        try {
+            ClientHttpRequest request = rest.getRequestFactory().createRequest(uri, method);
+            request.getHeaders().putAll(requestEntity.getHeaders());
+            writeBody(request, requestEntity.getBody());
+            response = request.execute();
+            return ResponseEntity.status(response.getRawStatusCode())
+                    .headers(copyEndToEndHeaders(response.getHeaders()))
+                    .body(readPassThroughBody(response));
+        } catch (IOException e) {
+            if (response != null) {
+                response.close();
+            }
+            throw new ResourceAccessException("I/O error on " + method + " request for \"" + uri + "\": "
+                    + e.getMessage(), e);
+        }
+    }
+
+    private Resource readPassThroughBody(ClientHttpResponse response) throws IOException {
+        long contentLength = response.getHeaders().getContentLength();
+        if (contentLength < 0 || contentLength > passThroughBufferBytes) {
+            return new ResponseBodyResource(new ResponseBodyStream(response));
+        }
+        try {
+            return new ByteArrayResource(StreamUtils.copyToByteArray(response.getBody()));
+        } finally {
+            response.close();
+        }
+    }
+
+    /**
+     * Ответ, отброшенный до записи клиенту (запрос отменён по таймауту или из-за ошибки),
+     * иначе держал бы соединение из пула до сборки мусора.
+     */
+    private static void releaseBody(ResponseEntity<?> response) {
+        if (response.getBody() instanceof ResponseBodyResource) {
+            ((ResponseBodyResource) response.getBody()).release();
+        }
+    }
+
+    private <T> Mono<ResponseEntity<Object>> exchangeNonBlocking(HttpMethod method, String path,
+                                                                 @Nullable Map<String, Object> parameters,
+                                                                 HttpEntity<T> requestEntity) {
+        WebClient.RequestBodySpec request = webClient.method(method)
+                .uri(path, parameters != null ? parameters : Map.of())
+                .headers(headers -> headers.addAll(requestEntity.getHeaders()));
+        WebClient.RequestHeadersSpec<?> spec = requestEntity.getBody() != null
+                ? request.bodyValue(requestEntity.getBody())
+                : request;
+        return spec.exchangeToMono(BaseClient::toBytesResponse)
+                .map(BaseClient::toObjectResponse);
+    }
+
+    private Mono<ResponseEntity<byte[]>> exchangeForBytes(URI uri, HttpHeaders headers) {
+        if (nonBlocking) {
+            return webClient.get()
+                    .uri(uri)
+                    .headers(requestHeaders -> requestHeaders.addAll(headers))
+                    .exchangeToMono(BaseClient::toBytesResponse);
+        }
+        return Mono.fromCallable(() -> {
+            try {
+                ResponseEntity<byte[]> response = rest.exchange(uri, HttpMethod.GET, new HttpEntity<>(headers),
+                        byte[].class);
+                return ResponseEntity.status(response.getStatusCodeValue())
+                        .headers(copyEndToEndHeaders(response.getHeaders()))
+                        .body(response.hasBody() ? response.getBody() : EMPTY_BODY);
+            } catch (HttpStatusCodeException e) {
+                HttpHeaders responseHeaders = e.getResponseHeaders();
+                return ResponseEntity.status(e.getRawStatusCode())
+                        .headers(responseHeaders != null ? copyEndToEndHeaders(responseHeaders) : new HttpHeaders())
+                        .body(e.getResponseBodyAsByteArray());
+            }
+        });
+    }
+
+    private static Mono<ResponseEntity<byte[]>> toBytesResponse(ClientResponse response) {
+        return response.bodyToMono(byte[].class)
+                .defaultIfEmpty(EMPTY_BODY)
+                .map(body -> ResponseEntity.status(response.rawStatusCode())
+                        .headers(copyEndToEndHeaders(response.headers().asHttpHeaders()))
+                        .body(body));
+    }
+
+    private static ResponseEntity<Object> toObjectResponse(ResponseEntity<byte[]> response) {
+        return ResponseEntity.status(response.getStatusCodeValue())
+                .headers(response.getHeaders())
+                .body(response.getBody());
+    }
+
+    private URI expand(String path, @Nullable Map<String, Object> parameters) {
+        return parameters != null
+                ? rest.getUriTemplateHandler().expand(path, parameters)
+                : rest.getUriTemplateHandler().expand(path);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void writeBody(ClientHttpRequest request, @Nullable Object body) throws IOException {
+        if (body == null) {
+            return;
+        }
+        MediaType contentType = request.getHeaders().getContentType();
+        for (HttpMessageConverter<?> converter : rest.getMessageConverters()) {
+            if (converter.canWrite(body.getClass(), contentType)) {
+                ((HttpMessageConverter<Object>) converter).write(body, contentType, request);
+                return;
+            }
+        }
+        throw new RestClientException("Нет конвертера для тела запроса " + body.getClass().getName());
+    }
+
+    private static HttpHeaders copyEndToEndHeaders(HttpHeaders serverHeaders) {
+        HttpHeaders headers = new HttpHeaders();
+        serverHeaders.forEach((name, values) -> {
+            if (!HOP_BY_HOP_HEADERS.contains(name.toLowerCase())) {
+                headers.addAll(name, values);
+            }
+        });
+        return headers;
+    }
+
     private HttpHeaders defaultHeaders(Long userId) {
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
@@ -125,4 +408,45 @@ public class BaseClient {
 
         return responseBuilder.build();
     }
+
+    /**
+     * Тело ответа, которое копируется клиенту потоком; соединение можно закрыть и не читая тела.
+     */
+    private static class ResponseBodyResource extends InputStreamResource {
+        private final ResponseBodyStream body;
+
+        ResponseBodyResource(ResponseBodyStream body) {
+            super(body);
+            this.body = body;
+        }
+
+        void release() {
+            try {
+                body.close();
+            } catch (IOException e) {
+                // соединение уже закрыто или сломано: возвращать в пул нечего
+            }
+        }
+    }
+
+    /**
+     * Тело ответа сервера; закрывает соединение, когда ответ дописан клиенту.
+     */
+    private static class ResponseBodyStream extends FilterInputStream {
+        private final ClientHttpResponse response;
+
+        ResponseBodyStream(ClientHttpResponse response) throws IOException {
+            super(response.getBody());
+            this.response = response;
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                super.close();
+            } finally {
+                response.close();
+            }
+        }
+    }
 }
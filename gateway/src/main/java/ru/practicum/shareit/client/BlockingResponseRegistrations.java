@@ -0,0 +1,93 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.web.servlet.WebMvcRegistrations;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodReturnValueHandler;
+import org.springframework.web.method.support.ModelAndViewContainer;
+import org.springframework.web.servlet.mvc.method.annotation.HttpEntityMethodProcessor;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Блокирующий режим шлюза ({@code shareit-gateway.non-blocking=false}): {@link Mono} клиента выполняет
+ * запрос RestTemplate при подписке, в потоке запроса. Поэтому ответ контроллера забирается сразу
+ * и пишется как обычный {@link ResponseEntity}, без асинхронной обработки Servlet.
+ * В неблокирующем режиме компонент не создаётся, и {@code Mono} Spring MVC обрабатывает асинхронно.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit-gateway.non-blocking", havingValue = "false", matchIfMissing = true)
+public class BlockingResponseRegistrations implements WebMvcRegistrations {
+
+    @Override
+    public RequestMappingHandlerAdapter getRequestMappingHandlerAdapter() {
+        return new BlockingResponseHandlerAdapter();
+    }
+
+    /**
+     * Ставит {@link BlockingResponseHandler} перед стандартными обработчиками: иначе {@code Mono}
+     * забрал бы обработчик реактивных типов и начал асинхронную обработку.
+     */
+    private static class BlockingResponseHandlerAdapter extends RequestMappingHandlerAdapter {
+
+        @Override
+        public void afterPropertiesSet() {
+            super.afterPropertiesSet();
+            List<HandlerMethodReturnValueHandler> handlers = new ArrayList<>(getReturnValueHandlers());
+            HandlerMethodReturnValueHandler entityHandler = handlers.stream()
+                    .filter(HttpEntityMethodProcessor.class::isInstance)
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("Не найден обработчик ResponseEntity"));
+            handlers.add(0, new BlockingResponseHandler(entityHandler));
+            setReturnValueHandlers(handlers);
+        }
+    }
+
+    private static class BlockingResponseHandler implements HandlerMethodReturnValueHandler {
+
+        private static final MethodParameter RESPONSE_ENTITY = responseEntityType();
+
+        private final HandlerMethodReturnValueHandler entityHandler;
+
+        BlockingResponseHandler(HandlerMethodReturnValueHandler entityHandler) {
+            this.entityHandler = entityHandler;
+        }
+
+        @Override
+        public boolean supportsReturnType(MethodParameter returnType) {
+            return Mono.class.isAssignableFrom(returnType.getParameterType());
+        }
+
+        @Override
+        public void handleReturnValue(Object returnValue, MethodParameter returnType,
+                                      ModelAndViewContainer mavContainer, NativeWebRequest webRequest)
+                throws Exception {
+            Object response = returnValue != null ? ((Mono<?>) returnValue).block() : null;
+            entityHandler.handleReturnValue(response, RESPONSE_ENTITY, mavContainer, webRequest);
+        }
+
+        private static MethodParameter responseEntityType() {
+            Method method = ReflectionUtils.findMethod(BlockingResponseHandler.class, "responseEntity");
+            if (method == null) {
+                throw new IllegalStateException("Не найден метод responseEntity");
+            }
+            return new MethodParameter(method, -1);
+        }
+
+        /**
+         * Тип ответа, под который стандартный обработчик выбирает конвертер тела.
+         */
+        @SuppressWarnings("unused")
+        private static ResponseEntity<Object> responseEntity() {
+            return null;
+        }
+    }
+}
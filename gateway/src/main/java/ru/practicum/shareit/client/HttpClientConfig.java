@@ -0,0 +1,136 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.PoolingHttpClientConnectionManagerMetricsBinder;
+import io.netty.channel.ChannelOption;
+import org.apache.http.HeaderElement;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.message.BasicHeaderElementIterator;
+import org.apache.http.protocol.HTTP;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Общий HTTP-клиент для обращений шлюза к серверу.
+ * <p>
+ * Все клиенты ({@code ItemClient}, {@code BookingClient}, {@code UserClient}, {@code ItemRequestClient})
+ * используют один пул соединений, поэтому лимиты {@code max-total}/{@code max-per-route} действуют
+ * на шлюз целиком, а keep-alive соединения переиспользуются между клиентами.
+ * Занятость пула публикуется в actuator как метрики {@code httpcomponents.httpclient.pool.*}.
+ * <p>
+ * Для неблокирующего режима ({@code shareit-gateway.non-blocking=true}) те же настройки применяются
+ * к пулу reactor-netty: Spring Boot передаёт бин {@link ClientHttpConnector} во все {@code WebClient.Builder}.
+ * Метрики этого пула — {@code reactor.netty.connection.provider.*}.
+ */
+@Configuration
+public class HttpClientConfig {
+
+    public static final String POOL_NAME = "shareit-server";
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager shareItConnectionManager(
+            @Value("${shareit-gateway.http-client.max-total:200}") int maxTotal,
+            @Value("${shareit-gateway.http-client.max-per-route:100}") int maxPerRoute,
+            @Value("${shareit-gateway.http-client.validate-after-inactivity:2s}") Duration validateAfterInactivity) {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(maxTotal);
+        connectionManager.setDefaultMaxPerRoute(maxPerRoute);
+        connectionManager.setValidateAfterInactivity((int) validateAfterInactivity.toMillis());
+        return connectionManager;
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient shareItHttpClient(
+            PoolingHttpClientConnectionManager shareItConnectionManager,
+            @Value("${shareit-gateway.http-client.keep-alive:30s}") Duration keepAlive,
+            @Value("${shareit-gateway.http-client.idle-timeout:60s}") Duration idleTimeout,
+            @Value("${shareit-gateway.http-client.connect-timeout:2s}") Duration connectTimeout,
+            @Value("${shareit-gateway.http-client.read-timeout:30s}") Duration readTimeout,
+            @Value("${shareit-gateway.http-client.lease-timeout:2s}") Duration leaseTimeout) {
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout((int) connectTimeout.toMillis())
+                .setSocketTimeout((int) readTimeout.toMillis())
+                .setConnectionRequestTimeout((int) leaseTimeout.toMillis())
+                .build();
+        return HttpClients.custom()
+                .setConnectionManager(shareItConnectionManager)
+                .setKeepAliveStrategy(keepAliveStrategy(keepAlive))
+                .setDefaultRequestConfig(requestConfig)
+                .evictExpiredConnections()
+                .evictIdleConnections(idleTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    @Bean
+    public ClientHttpRequestFactory shareItRequestFactory(CloseableHttpClient shareItHttpClient) {
+        return new HttpComponentsClientHttpRequestFactory(shareItHttpClient);
+    }
+
+    @Bean
+    public MeterBinder shareItConnectionPoolMetrics(PoolingHttpClientConnectionManager shareItConnectionManager) {
+        return new PoolingHttpClientConnectionManagerMetricsBinder(shareItConnectionManager, POOL_NAME);
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider shareItConnectionProvider(
+            @Value("${shareit-gateway.http-client.max-per-route:100}") int maxPerRoute,
+            @Value("${shareit-gateway.http-client.idle-timeout:60s}") Duration idleTimeout,
+            @Value("${shareit-gateway.http-client.lease-timeout:2s}") Duration leaseTimeout) {
+        return ConnectionProvider.builder(POOL_NAME)
+                .maxConnections(maxPerRoute)
+                .maxIdleTime(idleTimeout)
+                .pendingAcquireTimeout(leaseTimeout)
+                .evictInBackground(idleTimeout)
+                .metrics(true)
+                .build();
+    }
+
+    @Bean
+    public ClientHttpConnector shareItClientHttpConnector(
+            ConnectionProvider shareItConnectionProvider,
+            @Value("${shareit-gateway.http-client.connect-timeout:2s}") Duration connectTimeout,
+            @Value("${shareit-gateway.http-client.read-timeout:30s}") Duration readTimeout) {
+        HttpClient httpClient = HttpClient.create(shareItConnectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .responseTimeout(readTimeout);
+        return new ReactorClientHttpConnector(httpClient);
+    }
+
+    // Вспомогательные методы
+
+    /**
+     * Держит соединение столько, сколько разрешил сервер в заголовке {@code Keep-Alive: timeout=N},
+     * но не дольше настроенного {@code keep-alive}.
+     */
+    static ConnectionKeepAliveStrategy keepAliveStrategy(Duration keepAlive) {
+        long maxMillis = keepAlive.toMillis();
+        return (response, context) -> {
+            BasicHeaderElementIterator it = new BasicHeaderElementIterator(response.headerIterator(HTTP.CONN_KEEP_ALIVE));
+            while (it.hasNext()) {
+                HeaderElement element = it.nextElement();
+                if ("timeout".equalsIgnoreCase(element.getName()) && element.getValue() != null) {
+                    try {
+                        return Math.min(Long.parseLong(element.getValue()) * 1000, maxMillis);
+                    } catch (NumberFormatException ignored) {
+                        // некорректное значение — используем настройку шлюза
+                    }
+                }
+            }
+            return maxMillis;
+        };
+    }
+}
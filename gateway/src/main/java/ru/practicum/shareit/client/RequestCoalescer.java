@@ -0,0 +1,51 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Объединение одинаковых GET-запросов, выполняющихся одновременно (single-flight).
+ * <p>
+ * Первый запрос с данным ключом уходит на сервер, остальные, пришедшие до его ответа,
+ * подписываются на тот же результат — ответ или ошибку. Ключ тот же, что у {@link ResponseCache}:
+ * URI с параметрами и {@code X-Sharer-User-Id}, поэтому владелец вещи и остальные пользователи
+ * в один запрос не объединяются. Запись удаляется до выдачи результата ожидающим: следующий
+ * запрос снова идёт на сервер. Запись через шлюз ({@link #forget}) отвязывает новые запросы
+ * от уже начатых, чтобы клиент не получил ответ, прочитанный до его собственного изменения.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit-gateway.coalescing.enabled", havingValue = "true", matchIfMissing = true)
+public class RequestCoalescer {
+
+    private final Map<ResponseCache.Key, Flight> inFlight = new ConcurrentHashMap<>();
+
+    public Mono<ResponseEntity<Object>> coalesce(ResponseCache.Key key,
+                                                 Supplier<Mono<ResponseEntity<Object>>> request) {
+        return Mono.defer(() -> inFlight.computeIfAbsent(key, k -> new Flight(k, request)).response);
+    }
+
+    public void forget(URI written) {
+        inFlight.keySet().removeIf(key -> key.isAffectedBy(written));
+    }
+
+    public int size() {
+        return inFlight.size();
+    }
+
+    private class Flight {
+        private final Mono<ResponseEntity<Object>> response;
+
+        Flight(ResponseCache.Key key, Supplier<Mono<ResponseEntity<Object>>> request) {
+            this.response = Mono.defer(request)
+                    .doOnTerminate(() -> inFlight.remove(key, this))
+                    .cache();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package ru.practicum.shareit.client;
+
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Кеш ответов сервера на GET-запросы карточек, ограниченный по числу записей (LRU).
+ * <p>
+ * Ключ — URI с параметрами и {@code X-Sharer-User-Id}: сервер обогащает ответ данными,
+ * зависящими от пользователя. Сохраняются только ответы 2xx с ETag; сервер помечает их
+ * {@code no-cache}, поэтому запись выдаётся клиенту только после ответа 304 на {@code If-None-Match}.
+ * Запись через шлюз удаляет записи ресурса и его родителей ({@code POST /items/1/comment} — {@code /items/1})
+ * для всех пользователей.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit-gateway.cache.enabled", havingValue = "true", matchIfMissing = true)
+public class ResponseCache {
+
+    private final Map<Key, CachedResponse> entries;
+
+    public ResponseCache(@Value("${shareit-gateway.cache.max-entries:10000}") int maxEntries) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, CachedResponse> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    @Nullable
+    public synchronized CachedResponse get(Key key) {
+        return entries.get(key);
+    }
+
+    /**
+     * Запоминает ответ, если он успешен и содержит ETag; иначе удаляет устаревшую запись.
+     */
+    public synchronized void put(Key key, ResponseEntity<byte[]> response) {
+        String etag = response.getHeaders().getETag();
+        if (response.getStatusCode().is2xxSuccessful() && etag != null && response.getBody() != null) {
+            entries.put(key, new CachedResponse(etag, response.getStatusCodeValue(), response.getHeaders(),
+                    response.getBody()));
+        } else {
+            entries.remove(key);
+        }
+    }
+
+    public synchronized void invalidate(URI written) {
+        entries.keySet().removeIf(key -> key.isAffectedBy(written));
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    @Getter
+    @EqualsAndHashCode
+    public static class Key {
+        private final String path;
+
+        @Nullable
+        private final String query;
+
+        @Nullable
+        private final Long userId;
+
+        public Key(URI uri, @Nullable Long userId) {
+            this.path = uri.getPath();
+            this.query = uri.getRawQuery();
+            this.userId = userId;
+        }
+
+        /**
+         * Запись в ресурс или в его дочерний путь меняет ответ на GET ресурса.
+         */
+        public boolean isAffectedBy(URI written) {
+            String writtenPath = written.getPath();
+            return writtenPath.equals(path) || writtenPath.startsWith(path + "/");
+        }
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class CachedResponse {
+        private final String etag;
+
+        private final int status;
+
+        private final HttpHeaders headers;
+
+        private final byte[] body;
+
+        public ResponseEntity<Object> toResponseEntity() {
+            return ResponseEntity.status(status).headers(headers).body(body);
+        }
+    }
+}
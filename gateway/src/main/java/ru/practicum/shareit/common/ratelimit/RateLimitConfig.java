@@ -0,0 +1,47 @@
+package ru.practicum.shareit.common.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Лимиты запросов к шлюзу по классам маршрутов ({@code shareit-gateway.rate-limit.*}).
+ * Фильтр стоит сразу за фильтром метрик actuator, поэтому отклонённые запросы видны и в {@code http.server.requests}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "shareit-gateway.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitConfig {
+
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilter(
+            @Value("${shareit-gateway.rate-limit.search.per-second:10}") double searchPerSecond,
+            @Value("${shareit-gateway.rate-limit.search.burst:20}") int searchBurst,
+            @Value("${shareit-gateway.rate-limit.listing.per-second:20}") double listingPerSecond,
+            @Value("${shareit-gateway.rate-limit.listing.burst:40}") int listingBurst,
+            @Value("${shareit-gateway.rate-limit.read.per-second:50}") double readPerSecond,
+            @Value("${shareit-gateway.rate-limit.read.burst:100}") int readBurst,
+            @Value("${shareit-gateway.rate-limit.write.per-second:10}") double writePerSecond,
+            @Value("${shareit-gateway.rate-limit.write.burst:20}") int writeBurst,
+            @Value("${shareit-gateway.rate-limit.max-buckets:100000}") int maxBuckets,
+            MeterRegistry meterRegistry,
+            ObjectMapper objectMapper) {
+        Map<RouteClass, RateLimitFilter.Limit> limits = new EnumMap<>(RouteClass.class);
+        limits.put(RouteClass.SEARCH, new RateLimitFilter.Limit(searchPerSecond, searchBurst));
+        limits.put(RouteClass.LISTING, new RateLimitFilter.Limit(listingPerSecond, listingBurst));
+        limits.put(RouteClass.READ, new RateLimitFilter.Limit(readPerSecond, readBurst));
+        limits.put(RouteClass.WRITE, new RateLimitFilter.Limit(writePerSecond, writeBurst));
+
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(
+                new RateLimitFilter(limits, maxBuckets, meterRegistry, objectMapper, System::nanoTime));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
@@ -0,0 +1,218 @@
+package ru.practicum.shareit.common.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import ru.practicum.shareit.common.ErrorResponse;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Ограничение частоты запросов по пользователю ({@code X-Sharer-User-Id}) и классу маршрута.
+ * <p>
+ * У каждой пары пользователь — {@link RouteClass} своя {@link TokenBucket}. Запрос сверх лимита
+ * получает 429 с {@code Retry-After} до контроллера, валидации и обращения к серверу.
+ * Запросы без заголовка пользователя считаются по адресу клиента. Отклонённые запросы
+ * публикуются как метрика {@value #REJECTED_METRIC} с тегом {@code route}.
+ * <p>
+ * Корзин не бывает больше {@code maxBuckets}: когда место кончилось, полные корзины давно не обращавшихся
+ * клиентов удаляются, а если удалить нечего — новые клиенты делят одну корзину своего класса маршрута.
+ */
+@Slf4j
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    public static final String REJECTED_METRIC = "shareit.gateway.rate-limit.rejected";
+
+    public static final String BUCKETS_METRIC = "shareit.gateway.rate-limit.buckets";
+
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+
+    /**
+     * Поиск полных корзин проходит по всем корзинам, поэтому запускается не чаще раза в секунду,
+     * сколько бы новых клиентов ни пришло.
+     */
+    private static final long EVICTION_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final Map<RouteClass, Limit> limits;
+
+    private final Map<RouteClass, Map<String, TokenBucket>> buckets = new EnumMap<>(RouteClass.class);
+
+    private final Map<RouteClass, TokenBucket> overflowBuckets = new EnumMap<>(RouteClass.class);
+
+    private final Map<RouteClass, Counter> rejected = new EnumMap<>(RouteClass.class);
+
+    private final AtomicInteger bucketCount = new AtomicInteger();
+
+    private final AtomicLong evictedAt;
+
+    private final int maxBuckets;
+
+    private final ObjectMapper objectMapper;
+
+    private final LongSupplier nanoClock;
+
+    public RateLimitFilter(Map<RouteClass, Limit> limits, int maxBuckets, MeterRegistry meterRegistry,
+                           ObjectMapper objectMapper, LongSupplier nanoClock) {
+        this.limits = new EnumMap<>(limits);
+        this.maxBuckets = maxBuckets;
+        this.objectMapper = objectMapper;
+        this.nanoClock = nanoClock;
+        long now = nanoClock.getAsLong();
+        this.evictedAt = new AtomicLong(now - EVICTION_INTERVAL_NANOS);
+        this.limits.forEach((routeClass, limit) -> {
+            if (limit.getPerSecond() > 0) {
+                overflowBuckets.put(routeClass, new TokenBucket(limit.getPerSecond(), limit.getBurst(), now));
+            }
+        });
+        for (RouteClass routeClass : RouteClass.values()) {
+            buckets.put(routeClass, new ConcurrentHashMap<>());
+            rejected.put(routeClass, Counter.builder(REJECTED_METRIC)
+                    .description("Запросы, отклонённые шлюзом с ответом 429")
+                    .tag("route", routeClass.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+        Gauge.builder(BUCKETS_METRIC, this, RateLimitFilter::bucketCount)
+                .description("Пары пользователь — класс маршрута с активным лимитом")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return request.getRequestURI().startsWith(request.getContextPath() + "/actuator");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        RouteClass routeClass = RouteClass.of(request.getMethod(),
+                request.getRequestURI().substring(request.getContextPath().length()));
+        Limit limit = limits.get(routeClass);
+        if (limit == null || limit.getPerSecond() <= 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long now = nanoClock.getAsLong();
+        long waitNanos = getBucket(routeClass, limit, getClientKey(request), now).tryAcquire(now);
+        if (waitNanos == 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        rejected.get(routeClass).increment();
+        log.debug("429: {} {} | client: {}", request.getMethod(), request.getRequestURI(), getClientKey(request));
+        reject(response, routeClass, waitNanos);
+    }
+
+    int bucketCount() {
+        return bucketCount.get();
+    }
+
+    // Вспомогательные методы
+
+    private TokenBucket getBucket(RouteClass routeClass, Limit limit, String client, long now) {
+        Map<String, TokenBucket> routeBuckets = buckets.get(routeClass);
+        TokenBucket bucket = routeBuckets.get(client);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (!reserveBucket(now)) {
+            return overflowBuckets.get(routeClass);
+        }
+        TokenBucket created = new TokenBucket(limit.getPerSecond(), limit.getBurst(), now);
+        TokenBucket existing = routeBuckets.putIfAbsent(client, created);
+        if (existing != null) {
+            bucketCount.decrementAndGet();
+            return existing;
+        }
+        return created;
+    }
+
+    /**
+     * Занимает место под новую корзину; место занимается до вставки, поэтому одновременные
+     * новые клиенты не превысят {@code maxBuckets}.
+     */
+    private boolean reserveBucket(long now) {
+        while (true) {
+            int count = bucketCount.get();
+            if (count >= maxBuckets) {
+                if (!evictFullBuckets(now)) {
+                    return false;
+                }
+            } else if (bucketCount.compareAndSet(count, count + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Полные корзины принадлежат клиентам, которые давно не обращались к шлюзу.
+     *
+     * @return удалена ли хотя бы одна корзина
+     */
+    private boolean evictFullBuckets(long now) {
+        long last = evictedAt.get();
+        if (now - last < EVICTION_INTERVAL_NANOS || !evictedAt.compareAndSet(last, now)) {
+            return false;
+        }
+        int evicted = 0;
+        for (Map<String, TokenBucket> routeBuckets : buckets.values()) {
+            for (Map.Entry<String, TokenBucket> entry : routeBuckets.entrySet()) {
+                if (entry.getValue().isFull(now) && routeBuckets.remove(entry.getKey(), entry.getValue())) {
+                    evicted++;
+                }
+            }
+        }
+        bucketCount.addAndGet(-evicted);
+        return evicted > 0;
+    }
+
+    private static String getClientKey(HttpServletRequest request) {
+        String userId = request.getHeader(USER_ID_HEADER);
+        return userId != null ? userId : "ip:" + request.getRemoteAddr();
+    }
+
+    private void reject(HttpServletResponse response, RouteClass routeClass, long waitNanos) throws IOException {
+        long retryAfterSeconds = Math.max(1, (waitNanos + 999_999_999L) / 1_000_000_000L);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setCharacterEncoding("UTF-8");
+        objectMapper.writeValue(response.getOutputStream(), new ErrorResponse("429 - Too Many Requests",
+                "Превышен лимит запросов " + routeClass.name().toLowerCase() + ", повторите через "
+                        + retryAfterSeconds + " с"));
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class Limit {
+        /**
+         * Скорость пополнения; 0 — без ограничения.
+         */
+        private final double perSecond;
+
+        /**
+         * Сколько запросов подряд разрешено после простоя.
+         */
+        private final int burst;
+    }
+}
@@ -0,0 +1,34 @@
+package ru.practicum.shareit.common.ratelimit;
+
+/**
+ * Класс маршрута, для которого задаётся отдельный лимит запросов.
+ */
+public enum RouteClass {
+    /**
+     * Полнотекстовый поиск вещей — самый дорогой запрос к базе.
+     */
+    SEARCH,
+    /**
+     * Списки: вещи владельца, бронирования, запросы, пользователи.
+     */
+    LISTING,
+    /**
+     * Карточка одной сущности: {@code GET /items/1}.
+     */
+    READ,
+    /**
+     * Любой запрос, кроме GET и HEAD.
+     */
+    WRITE;
+
+    public static RouteClass of(String method, String path) {
+        if (!"GET".equals(method) && !"HEAD".equals(method)) {
+            return WRITE;
+        }
+        if (path.endsWith("/search")) {
+            return SEARCH;
+        }
+        String lastSegment = path.substring(path.lastIndexOf('/') + 1);
+        return !lastSegment.isEmpty() && lastSegment.chars().allMatch(Character::isDigit) ? READ : LISTING;
+    }
+}
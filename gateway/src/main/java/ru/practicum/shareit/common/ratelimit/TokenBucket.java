@@ -0,0 +1,51 @@
+package ru.practicum.shareit.common.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Корзина токенов без блокировок.
+ * <p>
+ * Вместо числа токенов хранится момент, когда корзина снова станет полной (GCRA):
+ * каждый запрос сдвигает его на время пополнения одного токена, а если момент уходит
+ * дальше ёмкости корзины — запрос отклоняется. Списание — один {@code compareAndSet}.
+ */
+class TokenBucket {
+
+    private final long nanosPerToken;
+
+    private final long capacityNanos;
+
+    private final AtomicLong fullAt;
+
+    TokenBucket(double tokensPerSecond, int capacity, long now) {
+        this.nanosPerToken = Math.max(1, (long) (1_000_000_000L / tokensPerSecond));
+        this.capacityNanos = nanosPerToken * capacity;
+        this.fullAt = new AtomicLong(now);
+    }
+
+    /**
+     * Списывает токен.
+     *
+     * @return 0, если токен списан; иначе через сколько наносекунд появится следующий
+     */
+    long tryAcquire(long now) {
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, now) + nanosPerToken;
+            long excess = next - now - capacityNanos;
+            if (excess > 0) {
+                return excess;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Полная корзина ничем не отличается от новой, поэтому её можно удалить.
+     */
+    boolean isFull(long now) {
+        return fullAt.get() <= now;
+    }
+}
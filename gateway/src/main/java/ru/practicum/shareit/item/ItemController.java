@@ -14,6 +14,7 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.common.Create;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
@@ -33,14 +34,14 @@ public class ItemController {
 
 
     @GetMapping("/{itemId}")
-    public ResponseEntity<Object> getById(@RequestHeader(value = USER_ID_HEADER, required = false) Long userId,
+    public Mono<ResponseEntity<Object>> getById(@RequestHeader(value = USER_ID_HEADER, required = false) Long userId,
                                   @PathVariable Long itemId) {
         log.info("GET /items/{}", itemId);
         return itemClient.getByIdAndUserId(itemId, userId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllByOwnerId(@RequestHeader(USER_ID_HEADER) Long ownerId,
+    public Mono<ResponseEntity<Object>> getAllByOwnerId(@RequestHeader(USER_ID_HEADER) Long ownerId,
             @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
             @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
         log.info("GET /items?from={}&size={} | ownerId: {}", from, size, ownerId);
@@ -48,22 +49,31 @@ public class ItemController {
     }
 
     @GetMapping("/search")
-    public ResponseEntity<Object> getAllByKeyword(@RequestParam(name = "text") String text,
+    public Mono<ResponseEntity<Object>> getAllByKeyword(@RequestParam(name = "text") String text,
             @RequestParam(name = "from", defaultValue = "0") Integer from,
             @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
         log.info("GET /items/search?text={}&from={}&size={}", text, from, size);
         return itemClient.getAllByKeyword(text, from, size);
     }
 
+    @GetMapping("/{itemId}/comments")
+    public Mono<ResponseEntity<Object>> getComments(@PathVariable Long itemId,
+            @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+            @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+            @RequestParam(name = "cursor", required = false) String cursor) {
+        log.info("GET /items/{}/comments?from={}&size={}&cursor={}", itemId, from, size, cursor);
+        return itemClient.getComments(itemId, from, size, cursor);
+    }
+
     @PostMapping
-    public ResponseEntity<Object> add(@Positive @RequestHeader(USER_ID_HEADER) Long ownerId,
+    public Mono<ResponseEntity<Object>> add(@Positive @RequestHeader(USER_ID_HEADER) Long ownerId,
                        @Validated(Create.class) @RequestBody ItemDto itemDto) {
         log.info("POST /items | ownerId: {} | itemDto: {}", ownerId, itemDto);
         return itemClient.save(ownerId, itemDto);
     }
 
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> addComment(@Positive @RequestHeader(USER_ID_HEADER) Long authorId,
+    public Mono<ResponseEntity<Object>> addComment(@Positive @RequestHeader(USER_ID_HEADER) Long authorId,
                                  @PathVariable Long itemId,
                                  @Validated(Create.class) @RequestBody CommentDto commentDto) {
         log.info("POST /items/{}/comment | authorId: {} | commentDto: {}", itemId, authorId, commentDto);
@@ -71,7 +81,7 @@ public class ItemController {
     }
 
     @PatchMapping("/{itemId}")
-    public ResponseEntity<Object> update(@Positive @RequestHeader(USER_ID_HEADER) Long ownerId,
+    public Mono<ResponseEntity<Object>> update(@Positive @RequestHeader(USER_ID_HEADER) Long ownerId,
                           @PathVariable Long itemId,
                           @RequestBody ItemDto itemDto) {
         log.info("PATCH /items | ownerId: {} | itemId: {} | itemDto: {}", ownerId, itemId, itemDto);
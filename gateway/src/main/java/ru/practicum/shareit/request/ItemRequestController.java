@@ -13,6 +13,7 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.common.Create;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
@@ -32,20 +33,20 @@ public class ItemRequestController {
     private final ItemRequestClient requestClient;
 
     @GetMapping("/{requestId}")
-    public ResponseEntity<Object> getById(@Positive @RequestHeader(USER_ID_HEADER) Long userId,
+    public Mono<ResponseEntity<Object>> getById(@Positive @RequestHeader(USER_ID_HEADER) Long userId,
                                           @Positive @PathVariable Long requestId) {
         log.info("GET /requests/{} | userId: {}", requestId, userId);
         return requestClient.getById(requestId, userId);
     }
 
     @GetMapping
-    public ResponseEntity<Object> getAllByRequestorId(@Positive @RequestHeader(USER_ID_HEADER) Long requestorId) {
+    public Mono<ResponseEntity<Object>> getAllByRequestorId(@Positive @RequestHeader(USER_ID_HEADER) Long requestorId) {
         log.info("GET /requests | requestorId: {} ", requestorId);
         return requestClient.getAllByRequestorId(requestorId);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Object> getAllByOtherUsers(@Positive @RequestHeader(USER_ID_HEADER) Long userId,
+    public Mono<ResponseEntity<Object>> getAllByOtherUsers(@Positive @RequestHeader(USER_ID_HEADER) Long userId,
             @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
             @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
         log.info("GET /requests/all?from={}&size={} | userId = {}", from, size, userId);
@@ -53,7 +54,7 @@ public class ItemRequestController {
     }
 
     @PostMapping
-    public ResponseEntity<Object> save(@Positive @RequestHeader(USER_ID_HEADER) Long requestorId,
+    public Mono<ResponseEntity<Object>> save(@Positive @RequestHeader(USER_ID_HEADER) Long requestorId,
                                @Validated(Create.class) @RequestBody ItemRequestDto requestDto) {
         log.info("POST /requests | requestorId: {} | requestDto: {}", requestorId, requestDto);
         requestDto.setRequestorId(requestorId);
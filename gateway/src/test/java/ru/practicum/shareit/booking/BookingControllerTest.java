@@ -6,16 +6,19 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.core.io.InputStreamResource;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.user.dto.UserDto;
 
+import java.io.ByteArrayInputStream;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
@@ -26,7 +29,9 @@ import java.util.List;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.isA;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -34,6 +39,8 @@ import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -60,7 +67,7 @@ class BookingControllerTest {
         BookingDto inputDto = createBookingDto();
 
         when(bookingClient.create(isA(long.class), isA(BookItemRequestDto.class)))
-                .thenReturn(new ResponseEntity<>(HttpStatus.BAD_REQUEST));
+                .thenReturn(Mono.just(new ResponseEntity<>(HttpStatus.BAD_REQUEST)));
 
         mvc.perform(post("/bookings")
                         .header(USER_ID_HEADER, userId)
@@ -81,7 +88,7 @@ class BookingControllerTest {
         BookingDto inputDto = createBookingDto();
 
         when(bookingClient.create(isA(long.class), isA(BookItemRequestDto.class)))
-                .thenReturn(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+                .thenReturn(Mono.just(new ResponseEntity<>(HttpStatus.NOT_FOUND)));
 
         mvc.perform(post("/bookings")
                         .header(USER_ID_HEADER, userId)
@@ -102,7 +109,7 @@ class BookingControllerTest {
         BookingDto inputDto = createBookingDto();
 
         when(bookingClient.create(isA(long.class), isA(BookItemRequestDto.class)))
-                .thenReturn(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+                .thenReturn(Mono.just(new ResponseEntity<>(HttpStatus.NOT_FOUND)));
 
         mvc.perform(post("/bookings")
                         .header(USER_ID_HEADER, userId)
@@ -179,6 +186,99 @@ class BookingControllerTest {
                 .create(isA(long.class), isA(BookItemRequestDto.class));
     }
 
+    @Test
+    @SneakyThrows
+    void createAll_whenAllEntriesValid_thenBatchForwarded() {
+        Long userId = 1L;
+        List<BookItemRequestDto> inputDtos = Arrays.asList(
+                createBookItemRequestDto(LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2)),
+                createBookItemRequestDto(LocalDateTime.now().plusDays(3), LocalDateTime.now().plusDays(4)));
+
+        when(bookingClient.createAll(isA(long.class), anyList()))
+                .thenReturn(Mono.just(new ResponseEntity<>(HttpStatus.OK)));
+
+        mvc.perform(post("/bookings/batch")
+                        .header(USER_ID_HEADER, userId)
+                        .content(mapper.writeValueAsString(inputDtos))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        verify(bookingClient, times(1))
+                .createAll(isA(long.class), anyList());
+    }
+
+    @Test
+    @SneakyThrows
+    void createAll_whenOneEntryHasNoStart_thenStatusIsBadRequest() {
+        Long userId = 1L;
+        List<BookItemRequestDto> inputDtos = Arrays.asList(
+                createBookItemRequestDto(LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(2)),
+                createBookItemRequestDto(null, LocalDateTime.now().plusDays(4)));
+
+        mvc.perform(post("/bookings/batch")
+                        .header(USER_ID_HEADER, userId)
+                        .content(mapper.writeValueAsString(inputDtos))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        verify(bookingClient, never())
+                .createAll(isA(long.class), anyList());
+    }
+
+    @Test
+    @SneakyThrows
+    void createAll_whenBatchIsEmpty_thenStatusIsBadRequest() {
+        mvc.perform(post("/bookings/batch")
+                        .header(USER_ID_HEADER, 1L)
+                        .content("[]")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        verify(bookingClient, never())
+                .createAll(isA(long.class), anyList());
+    }
+
+    @Test
+    @SneakyThrows
+    void approveAll_whenIdsGiven_thenBatchForwarded() {
+        when(bookingClient.approveAll(isA(long.class), anyList(), isA(Boolean.class)))
+                .thenReturn(Mono.just(new ResponseEntity<>(HttpStatus.OK)));
+
+        mvc.perform(patch("/bookings/batch")
+                        .header(USER_ID_HEADER, 1L)
+                        .param("approved", "true")
+                        .content(mapper.writeValueAsString(Arrays.asList(1L, 2L)))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        verify(bookingClient, times(1))
+                .approveAll(isA(long.class), anyList(), isA(Boolean.class));
+    }
+
+    @Test
+    @SneakyThrows
+    void approveAll_whenBatchIsEmpty_thenStatusIsBadRequest() {
+        mvc.perform(patch("/bookings/batch")
+                        .header(USER_ID_HEADER, 1L)
+                        .param("approved", "true")
+                        .content("[]")
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isBadRequest());
+
+        verify(bookingClient, never())
+                .approveAll(isA(long.class), anyList(), isA(Boolean.class));
+    }
+
     @Test
     @SneakyThrows
     void create_whenEndBeforeStart_thenStatusIsBadRequest() {
@@ -189,7 +289,7 @@ class BookingControllerTest {
         );
 
         when(bookingClient.create(isA(long.class), isA(BookItemRequestDto.class)))
-                .thenReturn(new ResponseEntity<>(HttpStatus.BAD_REQUEST));
+                .thenReturn(Mono.just(new ResponseEntity<>(HttpStatus.BAD_REQUEST)));
 
         mvc.perform(post("/bookings")
                         .header(USER_ID_HEADER, userId)
@@ -232,7 +332,7 @@ class BookingControllerTest {
         BookingDto outputDto = createBookingDtoOut();
 
         when(bookingClient.create(isA(long.class), isA(BookItemRequestDto.class)))
-                .thenReturn(new ResponseEntity<>(outputDto, HttpStatus.OK));
+                .thenReturn(Mono.just(new ResponseEntity<>(outputDto, HttpStatus.OK)));
 
         mvc.perform(post("/bookings")
                         .header(USER_ID_HEADER, outputDto.getBooker().getId())
@@ -263,7 +363,7 @@ class BookingControllerTest {
         inputDto.setBookerId(bookerId);
 
         when(bookingClient.create(isA(long.class), isA(BookItemRequestDto.class)))
-                .thenReturn(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+                .thenReturn(Mono.just(new ResponseEntity<>(HttpStatus.NOT_FOUND)));
 
         mvc.perform(post("/bookings")
                         .header(USER_ID_HEADER, bookerId)
@@ -287,7 +387,7 @@ class BookingControllerTest {
         String approved = "true";
 
         when(bookingClient.approve(isA(Long.class), isA(Long.class), isA(boolean.class)))
-                .thenReturn(new ResponseEntity<>(outputDto, HttpStatus.OK));
+                .thenReturn(Mono.just(new ResponseEntity<>(outputDto, HttpStatus.OK)));
 
         mvc.perform(patch("/bookings/{bookingId}", bookingId)
                         .header(USER_ID_HEADER, ownerId)
@@ -317,7 +417,7 @@ class BookingControllerTest {
         String approved = "false";
 
         when(bookingClient.approve(isA(Long.class), isA(Long.class), isA(boolean.class)))
-                .thenReturn(new ResponseEntity<>(outputDto, HttpStatus.OK));
+                .thenReturn(Mono.just(new ResponseEntity<>(outputDto, HttpStatus.OK)));
 
         mvc.perform(patch("/bookings/{bookingId}", bookingId)
                         .header(USER_ID_HEADER, ownerId)
@@ -345,7 +445,7 @@ class BookingControllerTest {
         String approved = "true";
 
         when(bookingClient.approve(isA(Long.class), isA(Long.class), isA(boolean.class)))
-                .thenReturn(new ResponseEntity<>(HttpStatus.BAD_REQUEST));
+                .thenReturn(Mono.just(new ResponseEntity<>(HttpStatus.BAD_REQUEST)));
 
         mvc.perform(patch("/bookings/{bookingId}", bookingId)
                         .header(USER_ID_HEADER, userId)
@@ -364,7 +464,7 @@ class BookingControllerTest {
         String approved = "true";
 
         when(bookingClient.approve(isA(Long.class), isA(Long.class), isA(boolean.class)))
-                .thenReturn(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+                .thenReturn(Mono.just(new ResponseEntity<>(HttpStatus.NOT_FOUND)));
 
         mvc.perform(patch("/bookings/{bookingId}", bookingId)
                         .header(USER_ID_HEADER, userId)
@@ -383,7 +483,7 @@ class BookingControllerTest {
         String approved = "true";
 
         when(bookingClient.approve(isA(Long.class), isA(Long.class), isA(boolean.class)))
-                .thenReturn(new ResponseEntity<>(HttpStatus.BAD_REQUEST));
+                .thenReturn(Mono.just(new ResponseEntity<>(HttpStatus.BAD_REQUEST)));
 
         mvc.perform(patch("/bookings/{bookingId}", bookingId)
                         .header(USER_ID_HEADER, userId)
@@ -402,7 +502,7 @@ class BookingControllerTest {
         Long bookerId = outputDto.getBooker().getId();
 
         when(bookingClient.getById(isA(Long.class), isA(Long.class)))
-                .thenReturn(new ResponseEntity<>(outputDto, HttpStatus.OK));
+                .thenReturn(Mono.just(new ResponseEntity<>(outputDto, HttpStatus.OK)));
 
         mvc.perform(get("/bookings/{bookingId}", bookingId)
                         .header(USER_ID_HEADER, bookerId))
@@ -421,6 +521,26 @@ class BookingControllerTest {
                 .getById(isA(Long.class), isA(Long.class));
     }
 
+    @Test
+    @SneakyThrows
+    void getById_whenServerResponseStreamed_thenBytesStatusAndHeadersPassedThrough() {
+        String serverBody = "{\"error\":\"404 - Not Found\",\"description\":\"Бронирование не найдено\"}";
+
+        when(bookingClient.getById(isA(Long.class), isA(Long.class)))
+                .thenReturn(Mono.just(ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-Next-Cursor", "cursor")
+                        .body(new InputStreamResource(new ByteArrayInputStream(
+                                serverBody.getBytes(StandardCharsets.UTF_8))))));
+
+        mvc.perform(get("/bookings/{bookingId}", 1L)
+                        .header(USER_ID_HEADER, 1L))
+                .andExpect(status().isNotFound())
+                .andExpect(header().string("X-Next-Cursor", "cursor"))
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(content().bytes(serverBody.getBytes(StandardCharsets.UTF_8)));
+    }
+
     @Test
     @SneakyThrows
     void getById_whenUserIsOwner_thenStatusIsOkAndDtoReturned() {
@@ -429,7 +549,7 @@ class BookingControllerTest {
         Long ownerId = 1L;
 
         when(bookingClient.getById(isA(Long.class), isA(Long.class)))
-                .thenReturn(new ResponseEntity<>(outputDto, HttpStatus.OK));
+                .thenReturn(Mono.just(new ResponseEntity<>(outputDto, HttpStatus.OK)));
 
         mvc.perform(get("/bookings/{bookingId}", bookingId)
                         .header(USER_ID_HEADER, ownerId))
@@ -456,7 +576,7 @@ class BookingControllerTest {
         Long userId = 2L;
 
         when(bookingClient.getById(isA(Long.class), isA(Long.class)))
-                .thenReturn(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+                .thenReturn(Mono.just(new ResponseEntity<>(HttpStatus.NOT_FOUND)));
 
         mvc.perform(get("/bookings/{bookingId}", bookingId)
                         .header(USER_ID_HEADER, userId))
@@ -473,7 +593,7 @@ class BookingControllerTest {
         Long userId = 3L;
 
         when(bookingClient.getById(isA(Long.class), isA(Long.class)))
-                .thenReturn(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+                .thenReturn(Mono.just(new ResponseEntity<>(HttpStatus.NOT_FOUND)));
 
         mvc.perform(get("/bookings/{bookingId}", bookingId)
                         .header(USER_ID_HEADER, userId))
@@ -489,15 +609,16 @@ class BookingControllerTest {
         Long bookerId = 1000L;
 
         when(bookingClient.getAllByBookerId(isA(Long.class), isA(BookingState.class),
-                isA(Integer.class), isA(Integer.class)))
-                .thenReturn(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+                isA(Integer.class), isA(Integer.class), isNull()))
+                .thenReturn(Mono.just(new ResponseEntity<>(HttpStatus.NOT_FOUND)));
 
         mvc.perform(get("/bookings")
                         .header(USER_ID_HEADER, bookerId))
                 .andExpect(status().isNotFound());
 
         verify(bookingClient, times(1))
-                .getAllByBookerId(isA(Long.class), isA(BookingState.class), isA(Integer.class), isA(Integer.class));
+                .getAllByBookerId(isA(Long.class), isA(BookingState.class), isA(Integer.class), isA(Integer.class),
+                        isNull());
     }
 
     @Test
@@ -507,8 +628,8 @@ class BookingControllerTest {
         String invalidState = "unknown";
 
         when(bookingClient.getAllByBookerId(isA(Long.class), isA(BookingState.class),
-                isA(Integer.class), isA(Integer.class)))
-                .thenReturn(new ResponseEntity<>(HttpStatus.BAD_REQUEST));
+                isA(Integer.class), isA(Integer.class), isNull()))
+                .thenReturn(Mono.just(new ResponseEntity<>(HttpStatus.BAD_REQUEST)));
 
         mvc.perform(get("/bookings")
                         .header(USER_ID_HEADER, bookerId)
@@ -516,7 +637,8 @@ class BookingControllerTest {
                 .andExpect(status().isBadRequest());
 
         verify(bookingClient, never())
-                .getAllByBookerId(isA(Long.class), isA(BookingState.class), isA(Integer.class), isA(Integer.class));
+                .getAllByBookerId(isA(Long.class), isA(BookingState.class), isA(Integer.class), isA(Integer.class),
+                        isNull());
     }
 
     @Test
@@ -531,7 +653,8 @@ class BookingControllerTest {
                 .andExpect(status().isBadRequest());
 
         verify(bookingClient, never())
-                .getAllByBookerId(isA(Long.class), isA(BookingState.class), isA(Integer.class), isA(Integer.class));
+                .getAllByBookerId(isA(Long.class), isA(BookingState.class), isA(Integer.class), isA(Integer.class),
+                        isNull());
     }
 
     @Test
@@ -546,7 +669,8 @@ class BookingControllerTest {
                 .andExpect(status().isBadRequest());
 
         verify(bookingClient, never())
-                .getAllByBookerId(isA(Long.class), isA(BookingState.class), isA(Integer.class), isA(Integer.class));
+                .getAllByBookerId(isA(Long.class), isA(BookingState.class), isA(Integer.class), isA(Integer.class),
+                        isNull());
     }
 
     @Test
@@ -561,7 +685,8 @@ class BookingControllerTest {
                 .andExpect(status().isBadRequest());
 
         verify(bookingClient, never())
-                .getAllByBookerId(isA(Long.class), isA(BookingState.class), isA(Integer.class), isA(Integer.class));
+                .getAllByBookerId(isA(Long.class), isA(BookingState.class), isA(Integer.class), isA(Integer.class),
+                        isNull());
     }
 
     @Test
@@ -570,15 +695,16 @@ class BookingControllerTest {
         Long ownerId = 1000L;
 
         when(bookingClient.getAllByOwnerId(isA(Long.class), isA(BookingState.class),
-                isA(Integer.class), isA(Integer.class)))
-                .thenReturn(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+                isA(Integer.class), isA(Integer.class), isNull()))
+                .thenReturn(Mono.just(new ResponseEntity<>(HttpStatus.NOT_FOUND)));
 
         mvc.perform(get("/bookings/owner")
                         .header(USER_ID_HEADER, ownerId))
                 .andExpect(status().isNotFound());
 
         verify(bookingClient, times(1))
-                .getAllByOwnerId(isA(Long.class), isA(BookingState.class), isA(Integer.class), isA(Integer.class));
+                .getAllByOwnerId(isA(Long.class), isA(BookingState.class), isA(Integer.class), isA(Integer.class),
+                        isNull());
     }
 
     @Test
@@ -588,8 +714,8 @@ class BookingControllerTest {
         String invalidState = "unknown";
 
         when(bookingClient.getAllByOwnerId(isA(Long.class), isA(BookingState.class),
-                isA(Integer.class), isA(Integer.class)))
-                .thenReturn(new ResponseEntity<>(HttpStatus.BAD_REQUEST));
+                isA(Integer.class), isA(Integer.class), isNull()))
+                .thenReturn(Mono.just(new ResponseEntity<>(HttpStatus.BAD_REQUEST)));
 
         mvc.perform(get("/bookings/owner")
                         .header(USER_ID_HEADER, ownerId)
@@ -597,7 +723,8 @@ class BookingControllerTest {
                 .andExpect(status().isBadRequest());
 
         verify(bookingClient, never())
-                .getAllByOwnerId(isA(Long.class), isA(BookingState.class), isA(Integer.class), isA(Integer.class));
+                .getAllByOwnerId(isA(Long.class), isA(BookingState.class), isA(Integer.class), isA(Integer.class),
+                        isNull());
     }
 
     @Test
@@ -612,7 +739,8 @@ class BookingControllerTest {
                 .andExpect(status().isBadRequest());
 
         verify(bookingClient, never())
-                .getAllByOwnerId(isA(Long.class), isA(BookingState.class), isA(Integer.class), isA(Integer.class));
+                .getAllByOwnerId(isA(Long.class), isA(BookingState.class), isA(Integer.class), isA(Integer.class),
+                        isNull());
     }
 
     @Test
@@ -627,7 +755,8 @@ class BookingControllerTest {
                 .andExpect(status().isBadRequest());
 
         verify(bookingClient, never())
-                .getAllByOwnerId(isA(Long.class), isA(BookingState.class), isA(Integer.class), isA(Integer.class));
+                .getAllByOwnerId(isA(Long.class), isA(BookingState.class), isA(Integer.class), isA(Integer.class),
+                        isNull());
     }
 
     @Test
@@ -642,7 +771,8 @@ class BookingControllerTest {
                 .andExpect(status().isBadRequest());
 
         verify(bookingClient, never())
-                .getAllByOwnerId(isA(Long.class), isA(BookingState.class), isA(Integer.class), isA(Integer.class));
+                .getAllByOwnerId(isA(Long.class), isA(BookingState.class), isA(Integer.class), isA(Integer.class),
+                        isNull());
     }
 
     @Test
@@ -653,8 +783,8 @@ class BookingControllerTest {
         List<BookingDto> bookings = createBookingDtosByBooker();
 
         when(bookingClient.getAllByBookerId(isA(Long.class), isA(BookingState.class),
-                isA(Integer.class), isA(Integer.class)))
-                .thenReturn(new ResponseEntity<>(bookings, HttpStatus.OK));
+                isA(Integer.class), isA(Integer.class), isNull()))
+                .thenReturn(Mono.just(new ResponseEntity<>(bookings, HttpStatus.OK)));
 
         mvc.perform(get("/bookings")
                         .header(USER_ID_HEADER, bookerId))
@@ -690,7 +820,8 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$[2].item.name", is(bookings.get(2).getItem().getName())));
 
         verify(bookingClient, times(1))
-                .getAllByBookerId(isA(Long.class), isA(BookingState.class), isA(Integer.class), isA(Integer.class));
+                .getAllByBookerId(isA(Long.class), isA(BookingState.class), isA(Integer.class), isA(Integer.class),
+                        isNull());
     }
 
     @Test
@@ -702,8 +833,8 @@ class BookingControllerTest {
         List<BookingDto> bookings = createBookingDtosByBooker();
 
         when(bookingClient.getAllByBookerId(isA(Long.class), isA(BookingState.class),
-                isA(Integer.class), isA(Integer.class)))
-                .thenReturn(new ResponseEntity<>(bookings, HttpStatus.OK));
+                isA(Integer.class), isA(Integer.class), isNull()))
+                .thenReturn(Mono.just(new ResponseEntity<>(bookings, HttpStatus.OK)));
 
         mvc.perform(get("/bookings")
                         .header(USER_ID_HEADER, bookerId)
@@ -740,7 +871,8 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$[2].item.name", is(bookings.get(2).getItem().getName())));
 
         verify(bookingClient, times(1))
-                .getAllByBookerId(isA(Long.class), isA(BookingState.class), isA(Integer.class), isA(Integer.class));
+                .getAllByBookerId(isA(Long.class), isA(BookingState.class), isA(Integer.class), isA(Integer.class),
+                        isNull());
     }
 
     @Test
@@ -754,8 +886,8 @@ class BookingControllerTest {
         bookings.remove(0);
 
         when(bookingClient.getAllByBookerId(isA(Long.class), isA(BookingState.class),
-                isA(Integer.class), isA(Integer.class)))
-                .thenReturn(new ResponseEntity<>(bookings, HttpStatus.OK));
+                isA(Integer.class), isA(Integer.class), isNull()))
+                .thenReturn(Mono.just(new ResponseEntity<>(bookings, HttpStatus.OK)));
 
         mvc.perform(get("/bookings")
                         .header(USER_ID_HEADER, bookerId)
@@ -784,7 +916,8 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$[1].item.name", is(bookings.get(1).getItem().getName())));
 
         verify(bookingClient, times(1))
-                .getAllByBookerId(isA(Long.class), isA(BookingState.class), isA(Integer.class), isA(Integer.class));
+                .getAllByBookerId(isA(Long.class), isA(BookingState.class), isA(Integer.class), isA(Integer.class),
+                        isNull());
     }
 
     @Test
@@ -795,8 +928,8 @@ class BookingControllerTest {
         List<BookingDto> bookings = createBookingDtosByOwner();
 
         when(bookingClient.getAllByOwnerId(isA(Long.class), isA(BookingState.class),
-                isA(Integer.class), isA(Integer.class)))
-                .thenReturn(new ResponseEntity<>(bookings, HttpStatus.OK));
+                isA(Integer.class), isA(Integer.class), isNull()))
+                .thenReturn(Mono.just(new ResponseEntity<>(bookings, HttpStatus.OK)));
 
         mvc.perform(get("/bookings/owner")
                         .header(USER_ID_HEADER, ownerId))
@@ -823,7 +956,8 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$[1].item.name", is(bookings.get(1).getItem().getName())));
 
         verify(bookingClient, times(1))
-                .getAllByOwnerId(isA(Long.class), isA(BookingState.class), isA(Integer.class), isA(Integer.class));
+                .getAllByOwnerId(isA(Long.class), isA(BookingState.class), isA(Integer.class), isA(Integer.class),
+                        isNull());
     }
 
     @Test
@@ -835,8 +969,8 @@ class BookingControllerTest {
         List<BookingDto> bookings = createBookingDtosByOwner();
 
         when(bookingClient.getAllByOwnerId(isA(Long.class), isA(BookingState.class),
-                isA(Integer.class), isA(Integer.class)))
-                .thenReturn(new ResponseEntity<>(bookings, HttpStatus.OK));
+                isA(Integer.class), isA(Integer.class), isNull()))
+                .thenReturn(Mono.just(new ResponseEntity<>(bookings, HttpStatus.OK)));
 
         mvc.perform(get("/bookings/owner")
                         .header(USER_ID_HEADER, ownerId)
@@ -864,7 +998,8 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$[1].item.name", is(bookings.get(1).getItem().getName())));
 
         verify(bookingClient, times(1))
-                .getAllByOwnerId(isA(Long.class), isA(BookingState.class), isA(Integer.class), isA(Integer.class));
+                .getAllByOwnerId(isA(Long.class), isA(BookingState.class), isA(Integer.class), isA(Integer.class),
+                        isNull());
     }
 
     @Test
@@ -878,8 +1013,8 @@ class BookingControllerTest {
         bookings.remove(0);
 
         when(bookingClient.getAllByOwnerId(isA(Long.class), isA(BookingState.class),
-                isA(Integer.class), isA(Integer.class)))
-                .thenReturn(new ResponseEntity<>(bookings, HttpStatus.OK));
+                isA(Integer.class), isA(Integer.class), isNull()))
+                .thenReturn(Mono.just(new ResponseEntity<>(bookings, HttpStatus.OK)));
 
         mvc.perform(get("/bookings/owner")
                         .header(USER_ID_HEADER, ownerId)
@@ -899,7 +1034,8 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$[0].item.name", is(bookings.get(0).getItem().getName())));
 
         verify(bookingClient, times(1))
-                .getAllByOwnerId(isA(Long.class), isA(BookingState.class), isA(Integer.class), isA(Integer.class));
+                .getAllByOwnerId(isA(Long.class), isA(BookingState.class), isA(Integer.class), isA(Integer.class),
+                        isNull());
     }
 
 
@@ -0,0 +1,398 @@
+package ru.practicum.shareit.client;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.core.io.Resource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.test.web.client.ExpectedCount;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import reactor.core.publisher.BaseSubscriber;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.booking.dto.BookItemRequestDto;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.content;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.headerDoesNotExist;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class BaseClientTest {
+
+    private static final String SERVER_URL = "http://localhost:9090/bookings";
+
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+
+    private MockRestServiceServer server;
+
+    private BaseClient client;
+
+
+    @BeforeEach
+    void setUp() {
+        RestTemplate rest = new RestTemplateBuilder()
+                .uriTemplateHandler(new DefaultUriBuilderFactory(SERVER_URL))
+                .build();
+        server = MockRestServiceServer.bindTo(rest).build();
+        client = new BaseClient(rest);
+    }
+
+    @Test
+    @SneakyThrows
+    void get_whenServerReturnsError_thenStatusHeadersAndBytesPassedThrough() {
+        byte[] body = "{\"error\":\"404 - Not Found\",  \"description\":\"Не найдено\"}"
+                .getBytes(StandardCharsets.UTF_8);
+        server.expect(requestTo(SERVER_URL + "/1"))
+                .andExpect(method(HttpMethod.GET))
+                .andExpect(header(USER_ID_HEADER, "2"))
+                .andRespond(withStatus(HttpStatus.NOT_FOUND)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .headers(createHeaders("X-Next-Cursor", "cursor"))
+                        .body(body));
+
+        ResponseEntity<Object> response = client.get("/1", 2L).block();
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertEquals("cursor", response.getHeaders().getFirst("X-Next-Cursor"));
+        assertArrayEquals(body, readBody(response));
+        server.verify();
+    }
+
+    @Test
+    @SneakyThrows
+    void get_whenParametersGiven_thenExpandedIntoUri() {
+        server.expect(requestTo(SERVER_URL + "?state=ALL&from=0&size=10"))
+                .andRespond(withSuccess("[]", MediaType.APPLICATION_JSON));
+
+        ResponseEntity<Object> response = client.get("?state={state}&from={from}&size={size}", 1L,
+                Map.of("state", "ALL", "from", 0, "size", 10)).block();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertArrayEquals("[]".getBytes(StandardCharsets.UTF_8), readBody(response));
+    }
+
+    @Test
+    @SneakyThrows
+    void post_whenBodyGiven_thenSerializedWithMessageConverters() {
+        server.expect(requestTo(SERVER_URL))
+                .andExpect(method(HttpMethod.POST))
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().json("{\"itemId\": 1}"))
+                .andRespond(withStatus(HttpStatus.CREATED)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .body("{\"id\": 1}"));
+
+        ResponseEntity<Object> response = client.post("", 1L, new BookItemRequestDto(1L,
+                LocalDateTime.of(2030, 1, 1, 10, 0), LocalDateTime.of(2030, 1, 2, 10, 0))).block();
+
+        assertEquals(HttpStatus.CREATED, response.getStatusCode());
+        assertArrayEquals("{\"id\": 1}".getBytes(StandardCharsets.UTF_8), readBody(response));
+    }
+
+    @Test
+    @SneakyThrows
+    void get_whenServerSendsHopByHopHeaders_thenTheyAreNotForwarded() {
+        server.expect(requestTo(SERVER_URL + "/1"))
+                .andRespond(withSuccess("{}", MediaType.APPLICATION_JSON)
+                        .headers(createHeaders("Connection", "close", "Keep-Alive", "timeout=5")));
+
+        ResponseEntity<Object> response = client.get("/1", 1L).block();
+
+        assertFalse(response.getHeaders().containsKey("Connection"));
+        assertFalse(response.getHeaders().containsKey("Keep-Alive"));
+        readBody(response);
+    }
+
+    @Test
+    @SneakyThrows
+    void get_whenBodyFitsBufferLimit_thenConnectionReleasedBeforeResponseReturned() {
+        byte[] body = "{\"id\": 1}".getBytes(StandardCharsets.UTF_8);
+        CountDownLatch closed = new CountDownLatch(1);
+        BaseClient bufferingClient = createPassThroughClient(body, new CountDownLatch(1), new CountDownLatch(0),
+                closed);
+
+        ResponseEntity<Object> response = bufferingClient.get("/1", 1L).block();
+
+        assertEquals(0, closed.getCount());
+        assertArrayEquals(body, readBody(response));
+    }
+
+    @Test
+    @SneakyThrows
+    void get_whenStreamedResponseDiscardedAfterCancel_thenConnectionReleased() {
+        CountDownLatch requested = new CountDownLatch(1);
+        CountDownLatch serverAnswered = new CountDownLatch(1);
+        CountDownLatch closed = new CountDownLatch(1);
+        BaseClient streamingClient = createPassThroughClient(new byte[1024], requested, serverAnswered, closed);
+        streamingClient.setPassThroughBufferBytes(0);
+        BaseSubscriber<ResponseEntity<Object>> subscriber = new BaseSubscriber<>() {
+        };
+
+        new Thread(() -> streamingClient.get("/1", 1L).subscribe(subscriber)).start();
+        assertTrue(requested.await(5, TimeUnit.SECONDS));
+        subscriber.dispose();
+        serverAnswered.countDown();
+
+        assertTrue(closed.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void get_whenPassThroughDisabled_thenBodyParsed() {
+        client.setPassThrough(false);
+        server.expect(requestTo(SERVER_URL + "/1"))
+                .andRespond(withSuccess("{\"id\": 1}", MediaType.APPLICATION_JSON));
+
+        ResponseEntity<Object> response = client.get("/1", 1L).block();
+
+        assertTrue(response.getBody() instanceof Map);
+        assertEquals(1, ((Map<?, ?>) response.getBody()).get("id"));
+    }
+
+    @Test
+    void getCached_whenServerAnswersNotModified_thenCachedBodyReturned() {
+        client.setResponseCache(new ResponseCache(100));
+        server.expect(requestTo(SERVER_URL + "/1"))
+                .andExpect(headerDoesNotExist(HttpHeaders.IF_NONE_MATCH))
+                .andRespond(withSuccess("{\"id\": 1}", MediaType.APPLICATION_JSON)
+                        .headers(createHeaders(HttpHeaders.ETAG, "\"v1\"")));
+        server.expect(requestTo(SERVER_URL + "/1"))
+                .andExpect(header(HttpHeaders.IF_NONE_MATCH, "\"v1\""))
+                .andRespond(withStatus(HttpStatus.NOT_MODIFIED));
+
+        client.getCached("/1", 1L).block();
+        ResponseEntity<Object> response = client.getCached("/1", 1L).block();
+
+        server.verify();
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals("\"v1\"", response.getHeaders().getETag());
+        assertArrayEquals("{\"id\": 1}".getBytes(StandardCharsets.UTF_8), (byte[]) response.getBody());
+    }
+
+    @Test
+    void getCached_whenOtherUser_thenNotRevalidatedWithForeignEtag() {
+        client.setResponseCache(new ResponseCache(100));
+        server.expect(ExpectedCount.twice(), requestTo(SERVER_URL + "/1"))
+                .andExpect(headerDoesNotExist(HttpHeaders.IF_NONE_MATCH))
+                .andRespond(withSuccess("{}", MediaType.APPLICATION_JSON)
+                        .headers(createHeaders(HttpHeaders.ETAG, "\"v1\"")));
+
+        client.getCached("/1", 1L).block();
+        client.getCached("/1", 2L).block();
+
+        server.verify();
+    }
+
+    @Test
+    @SneakyThrows
+    void patch_whenResourceCached_thenEntryInvalidated() {
+        ResponseCache cache = new ResponseCache(100);
+        client.setResponseCache(cache);
+        server.expect(requestTo(SERVER_URL + "/1"))
+                .andExpect(method(HttpMethod.GET))
+                .andRespond(withSuccess("{}", MediaType.APPLICATION_JSON)
+                        .headers(createHeaders(HttpHeaders.ETAG, "\"v1\"")));
+        server.expect(requestTo(SERVER_URL + "/1"))
+                .andExpect(method(HttpMethod.PATCH))
+                .andRespond(withSuccess("{}", MediaType.APPLICATION_JSON));
+
+        client.getCached("/1", 1L).block();
+        assertEquals(1, cache.size());
+        readBody(client.patch("/1", 1L, Map.of("name", "Дрель")).block());
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void getCached_whenNonBlockingAndNotModified_thenCachedBodyReturned() {
+        List<ClientRequest> requests = new ArrayList<>();
+        List<ClientResponse> responses = new ArrayList<>(List.of(
+                ClientResponse.create(HttpStatus.OK)
+                        .header(HttpHeaders.ETAG, "\"v1\"")
+                        .body("{\"id\": 1}")
+                        .build(),
+                ClientResponse.create(HttpStatus.NOT_MODIFIED).build()));
+        WebClient webClient = WebClient.builder()
+                .exchangeFunction(request -> {
+                    requests.add(request);
+                    return Mono.just(responses.remove(0));
+                })
+                .build();
+        BaseClient nonBlockingClient = new BaseClient(new RestTemplateBuilder()
+                .uriTemplateHandler(new DefaultUriBuilderFactory(SERVER_URL))
+                .build(), webClient);
+        nonBlockingClient.setNonBlocking(true);
+        nonBlockingClient.setResponseCache(new ResponseCache(100));
+
+        nonBlockingClient.getCached("/1", 1L).block();
+        ResponseEntity<Object> response = nonBlockingClient.getCached("/1", 1L).block();
+
+        assertEquals("\"v1\"", requests.get(1).headers().getFirst(HttpHeaders.IF_NONE_MATCH));
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertArrayEquals("{\"id\": 1}".getBytes(StandardCharsets.UTF_8), (byte[]) response.getBody());
+    }
+
+    @Test
+    void getCached_whenIdenticalRequestsInFlight_thenOneServerRequest() {
+        List<ClientRequest> requests = new ArrayList<>();
+        WebClient webClient = WebClient.builder()
+                .exchangeFunction(request -> {
+                    requests.add(request);
+                    return Mono.just(ClientResponse.create(HttpStatus.OK).body("{\"id\": 1}").build())
+                            .delayElement(Duration.ofMillis(100));
+                })
+                .build();
+        BaseClient nonBlockingClient = new BaseClient(new RestTemplateBuilder()
+                .uriTemplateHandler(new DefaultUriBuilderFactory(SERVER_URL))
+                .build(), webClient);
+        nonBlockingClient.setNonBlocking(true);
+        nonBlockingClient.setRequestCoalescer(new RequestCoalescer());
+
+        List<ResponseEntity<Object>> responses = Flux.merge(
+                nonBlockingClient.getCached("/1", 1L),
+                nonBlockingClient.getCached("/1", 1L),
+                nonBlockingClient.getCached("/1", 2L)).collectList().block();
+
+        assertEquals(3, responses.size());
+        assertEquals(2, requests.size());
+        assertEquals(Set.of("1", "2"), requests.stream()
+                .map(request -> request.headers().getFirst(USER_ID_HEADER))
+                .collect(Collectors.toSet()));
+    }
+
+    @Test
+    void get_whenNonBlocking_thenStatusHeadersAndBytesPassedThrough() {
+        List<ClientRequest> requests = new ArrayList<>();
+        BaseClient nonBlockingClient = createNonBlockingClient(requests, ClientResponse.create(HttpStatus.NOT_FOUND)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .header("X-Next-Cursor", "abc")
+                .header("Keep-Alive", "timeout=5")
+                .body("{\"error\":\"404 - Not Found\"}")
+                .build());
+
+        ResponseEntity<Object> response = nonBlockingClient.get("/{id}", 2L, Map.of("id", 1)).block();
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertEquals("abc", response.getHeaders().getFirst("X-Next-Cursor"));
+        assertFalse(response.getHeaders().containsKey("Keep-Alive"));
+        assertArrayEquals("{\"error\":\"404 - Not Found\"}".getBytes(StandardCharsets.UTF_8),
+                (byte[]) response.getBody());
+        assertEquals(1, requests.size());
+        assertEquals(HttpMethod.GET, requests.get(0).method());
+        assertEquals(SERVER_URL + "/1", requests.get(0).url().toString());
+        assertEquals("2", requests.get(0).headers().getFirst(USER_ID_HEADER));
+    }
+
+    @Test
+    void post_whenNonBlockingAndEmptyResponse_thenEmptyBody() {
+        List<ClientRequest> requests = new ArrayList<>();
+        BaseClient nonBlockingClient = createNonBlockingClient(requests,
+                ClientResponse.create(HttpStatus.OK).build());
+
+        ResponseEntity<Object> response = nonBlockingClient.post("", 1L, Map.of("itemId", 1)).block();
+
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(0, ((byte[]) response.getBody()).length);
+        assertEquals(HttpMethod.POST, requests.get(0).method());
+        assertEquals(MediaType.APPLICATION_JSON, requests.get(0).headers().getContentType());
+    }
+
+    @Test
+    void setNonBlocking_whenNoWebClient_thenIllegalState() {
+        assertThrows(IllegalStateException.class, () -> client.setNonBlocking(true));
+    }
+
+
+    // -------------------------
+    // Вспомогательные методы
+    // -------------------------
+
+    private BaseClient createNonBlockingClient(List<ClientRequest> requests, ClientResponse response) {
+        WebClient webClient = WebClient.builder()
+                .uriBuilderFactory(new DefaultUriBuilderFactory(SERVER_URL))
+                .exchangeFunction(request -> {
+                    requests.add(request);
+                    return Mono.just(response);
+                })
+                .build();
+        BaseClient nonBlockingClient = new BaseClient(new RestTemplate(), webClient);
+        nonBlockingClient.setNonBlocking(true);
+        return nonBlockingClient;
+    }
+
+    /**
+     * Клиент, сервер которого отмечает запрос в requested, отвечает телом body с {@code Content-Length},
+     * дождавшись serverAnswered, и отмечает в closed закрытие ответа.
+     */
+    private BaseClient createPassThroughClient(byte[] body, CountDownLatch requested, CountDownLatch serverAnswered,
+                                               CountDownLatch closed) {
+        RestTemplate rest = new RestTemplateBuilder()
+                .uriTemplateHandler(new DefaultUriBuilderFactory(SERVER_URL))
+                .requestFactory(() -> (uri, method) -> new MockClientHttpRequest(method, uri) {
+                    @Override
+                    @SneakyThrows
+                    protected MockClientHttpResponse executeInternal() {
+                        requested.countDown();
+                        serverAnswered.await();
+                        MockClientHttpResponse response = new MockClientHttpResponse(body, HttpStatus.OK) {
+                            @Override
+                            public void close() {
+                                super.close();
+                                closed.countDown();
+                            }
+                        };
+                        response.getHeaders().setContentLength(body.length);
+                        return response;
+                    }
+                })
+                .build();
+        return new BaseClient(rest);
+    }
+
+    private HttpHeaders createHeaders(String... namesAndValues) {
+        HttpHeaders headers = new HttpHeaders();
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            headers.add(namesAndValues[i], namesAndValues[i + 1]);
+        }
+        return headers;
+    }
+
+    @SneakyThrows
+    private byte[] readBody(ResponseEntity<Object> response) {
+        try (InputStream body = ((Resource) response.getBody()).getInputStream()) {
+            return body.readAllBytes();
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package ru.practicum.shareit.client;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.SneakyThrows;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.HttpVersion;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.protocol.BasicHttpContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.client.AbstractClientHttpRequestFactoryWrapper;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+import ru.practicum.shareit.booking.BookingClient;
+import ru.practicum.shareit.item.ItemClient;
+import ru.practicum.shareit.request.ItemRequestClient;
+import ru.practicum.shareit.user.UserClient;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+@SpringBootTest(properties = {
+        "shareit-gateway.http-client.max-total=7",
+        "shareit-gateway.http-client.max-per-route=3"
+})
+class HttpClientConfigTest {
+
+    @Autowired
+    private ClientHttpRequestFactory shareItRequestFactory;
+
+    @Autowired
+    private PoolingHttpClientConnectionManager connectionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private BookingClient bookingClient;
+
+    @Autowired
+    private ItemClient itemClient;
+
+    @Autowired
+    private UserClient userClient;
+
+    @Autowired
+    private ItemRequestClient itemRequestClient;
+
+    private HttpServer server;
+
+
+    @AfterEach
+    void tearDown() {
+        if (server != null) {
+            server.stop(0);
+        }
+    }
+
+    @Test
+    void clients_whenCreated_thenShareOneRequestFactory() {
+        assertSame(shareItRequestFactory, unwrap(bookingClient.rest.getRequestFactory()));
+        assertSame(shareItRequestFactory, unwrap(itemClient.rest.getRequestFactory()));
+        assertSame(shareItRequestFactory, unwrap(userClient.rest.getRequestFactory()));
+        assertSame(shareItRequestFactory, unwrap(itemRequestClient.rest.getRequestFactory()));
+    }
+
+    @Test
+    void connectionManager_whenConfigured_thenLimitsApplied() {
+        assertEquals(7, connectionManager.getMaxTotal());
+        assertEquals(3, connectionManager.getDefaultMaxPerRoute());
+    }
+
+    @Test
+    void metrics_whenRegistered_thenPoolGaugesAvailable() {
+        assertNotNull(meterRegistry.find("httpcomponents.httpclient.pool.total.pending")
+                .tag("httpclient", HttpClientConfig.POOL_NAME).gauge());
+        assertNotNull(meterRegistry.find("httpcomponents.httpclient.pool.total.connections")
+                .tag("httpclient", HttpClientConfig.POOL_NAME).tag("state", "leased").gauge());
+        assertNotNull(meterRegistry.find("httpcomponents.httpclient.pool.total.max")
+                .tag("httpclient", HttpClientConfig.POOL_NAME).gauge());
+    }
+
+    @Test
+    @SneakyThrows
+    void requestFactory_whenSequentialRequests_thenConnectionReused() {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            byte[] body = "{}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+        RestTemplate rest = new RestTemplate(shareItRequestFactory);
+        String url = "http://localhost:" + server.getAddress().getPort() + "/items";
+
+        for (int i = 0; i < 5; i++) {
+            rest.getForObject(url, String.class);
+        }
+
+        assertEquals(0, connectionManager.getTotalStats().getLeased());
+        assertEquals(1, connectionManager.getTotalStats().getAvailable());
+    }
+
+    @Test
+    void keepAliveStrategy_whenServerSendsTimeout_thenMinOfServerAndConfig() {
+        HttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, HttpStatus.SC_OK, "OK");
+        response.addHeader("Keep-Alive", "timeout=5, max=100");
+
+        assertEquals(5_000, HttpClientConfig.keepAliveStrategy(Duration.ofSeconds(30))
+                .getKeepAliveDuration(response, new BasicHttpContext()));
+        assertEquals(2_000, HttpClientConfig.keepAliveStrategy(Duration.ofSeconds(2))
+                .getKeepAliveDuration(response, new BasicHttpContext()));
+    }
+
+    @Test
+    void keepAliveStrategy_whenNoHeader_thenConfiguredKeepAlive() {
+        HttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, HttpStatus.SC_OK, "OK");
+
+        assertEquals(30_000, HttpClientConfig.keepAliveStrategy(Duration.ofSeconds(30))
+                .getKeepAliveDuration(response, new BasicHttpContext()));
+    }
+
+    // Вспомогательные методы
+
+    /**
+     * RestTemplateBuilder добавляет interceptor метрик actuator, поэтому фабрика клиента — обёртка над общей.
+     */
+    private static ClientHttpRequestFactory unwrap(ClientHttpRequestFactory factory) {
+        while (factory instanceof AbstractClientHttpRequestFactoryWrapper) {
+            factory = (ClientHttpRequestFactory) ReflectionTestUtils.getField(factory, "requestFactory");
+        }
+        return factory;
+    }
+}
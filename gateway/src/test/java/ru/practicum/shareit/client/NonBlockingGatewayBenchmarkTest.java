@@ -0,0 +1,165 @@
+package ru.practicum.shareit.client;
+
+import com.sun.net.httpserver.HttpServer;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.shareit.ShareItGateway;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Нагрузочный тест шлюза с фиксированным пулом Tomcat: сервер отвечает с задержкой,
+ * клиентов в несколько раз больше, чем потоков шлюза. В блокирующем режиме одновременно
+ * к серверу уходит не больше запросов, чем потоков Tomcat; в неблокирующем — все.
+ * Запуск: mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+@Slf4j
+class NonBlockingGatewayBenchmarkTest {
+
+    private static final int TOMCAT_THREADS = 8;
+
+    private static final int CONCURRENT_CLIENTS = 64;
+
+    private static final int REQUESTS_PER_CLIENT = 8;
+
+    private static final long SERVER_LATENCY_MILLIS = 100;
+
+    private static final byte[] PAYLOAD = "{\"id\":1,\"name\":\"Пользователь\",\"email\":\"user@mail.ru\"}"
+            .getBytes(StandardCharsets.UTF_8);
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    private HttpServer server;
+
+
+    @BeforeEach
+    @SneakyThrows
+    void setUp() {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/", exchange -> {
+            int current = inFlight.incrementAndGet();
+            maxInFlight.accumulateAndGet(current, Math::max);
+            try {
+                Thread.sleep(SERVER_LATENCY_MILLIS);
+                exchange.getResponseHeaders().add("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, PAYLOAD.length);
+                exchange.getResponseBody().write(PAYLOAD);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                inFlight.decrementAndGet();
+                exchange.close();
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void getById_whenClientsOutnumberTomcatThreads_thenNonBlockingSustainsMoreConcurrency() {
+        Result blocking = run(false);
+        Result nonBlocking = run(true);
+
+        log.info("{} clients, {} Tomcat threads, {} ms server latency: blocking {} req/s ({} in flight), "
+                        + "non-blocking {} req/s ({} in flight)",
+                CONCURRENT_CLIENTS, TOMCAT_THREADS, SERVER_LATENCY_MILLIS,
+                Math.round(blocking.requestsPerSecond), blocking.maxInFlight,
+                Math.round(nonBlocking.requestsPerSecond), nonBlocking.maxInFlight);
+
+        assertTrue(blocking.maxInFlight <= TOMCAT_THREADS);
+        assertTrue(nonBlocking.maxInFlight > TOMCAT_THREADS);
+    }
+
+
+    // -------------------------
+    // Вспомогательные методы
+    // -------------------------
+
+    @SneakyThrows
+    private Result run(boolean nonBlocking) {
+        maxInFlight.set(0);
+        try (ConfigurableApplicationContext gateway = startGateway(nonBlocking)) {
+            String url = "http://localhost:" + gateway.getEnvironment().getProperty("local.server.port") + "/users/1";
+            HttpClient httpClient = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+            HttpRequest request = HttpRequest.newBuilder(URI.create(url)).GET().build();
+            send(httpClient, request, 1);
+
+            ExecutorService clients = Executors.newFixedThreadPool(CONCURRENT_CLIENTS);
+            try {
+                maxInFlight.set(0);
+                long started = System.nanoTime();
+                List<Future<?>> futures = new ArrayList<>();
+                for (int i = 0; i < CONCURRENT_CLIENTS; i++) {
+                    futures.add(clients.submit(() -> send(httpClient, request, REQUESTS_PER_CLIENT)));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+                double seconds = (System.nanoTime() - started) / 1_000_000_000.0;
+                return new Result(CONCURRENT_CLIENTS * REQUESTS_PER_CLIENT / seconds, maxInFlight.get());
+            } finally {
+                clients.shutdownNow();
+            }
+        }
+    }
+
+    @SneakyThrows
+    private static Void send(HttpClient httpClient, HttpRequest request, int times) {
+        for (int i = 0; i < times; i++) {
+            HttpResponse<byte[]> response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+            assertEquals(200, response.statusCode());
+            assertEquals(PAYLOAD.length, response.body().length);
+        }
+        return null;
+    }
+
+    private ConfigurableApplicationContext startGateway(boolean nonBlocking) {
+        return new SpringApplicationBuilder(ShareItGateway.class)
+                .run("--server.port=0",
+                        "--server.tomcat.threads.max=" + TOMCAT_THREADS,
+                        "--server.tomcat.threads.min-spare=" + TOMCAT_THREADS,
+                        "--shareit-server.url=http://localhost:" + server.getAddress().getPort(),
+                        "--shareit-gateway.non-blocking=" + nonBlocking,
+                        "--shareit-gateway.rate-limit.enabled=false",
+                        "--logging.level.org.springframework.web.client.RestTemplate=INFO");
+    }
+
+    private static class Result {
+        private final double requestsPerSecond;
+
+        private final int maxInFlight;
+
+        Result(double requestsPerSecond, int maxInFlight) {
+            this.requestsPerSecond = requestsPerSecond;
+            this.maxInFlight = maxInFlight;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package ru.practicum.shareit.client;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.ResourceHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Пропускная способность шлюза на ответах сервера около 1 МБ: разбор в Object и повторная
+ * сериализация Jackson против копирования байтов. Запуск: mvn test -Pbenchmark
+ */
+@Tag("benchmark")
+@Slf4j
+class PassThroughBenchmarkTest {
+
+    private static final int RESPONSE_BYTES = 1024 * 1024;
+
+    private static final int WARMUP = 30;
+
+    private static final int ROUNDS = 100;
+
+    private final byte[] payload = createPayload();
+
+
+    @Test
+    void get_whenResponseIs1Mb_thenPassThroughCopiesSameBytes() {
+        BaseClient parsing = createClient(false);
+        BaseClient passThrough = createClient(true);
+        HttpMessageConverter<Object> jackson = new MappingJackson2HttpMessageConverter();
+        HttpMessageConverter<Object> bytes = cast(new ResourceHttpMessageConverter());
+
+        assertEquals(payload.length, proxy(passThrough, bytes));
+
+        double parsingMbPerSecond = measure(parsing, jackson);
+        double passThroughMbPerSecond = measure(passThrough, bytes);
+
+        log.info("{} KB responses: parse and re-serialize {} MB/s, pass-through {} MB/s",
+                payload.length / 1024, Math.round(parsingMbPerSecond), Math.round(passThroughMbPerSecond));
+    }
+
+
+    // -------------------------
+    // Вспомогательные методы
+    // -------------------------
+
+    private double measure(BaseClient client, HttpMessageConverter<Object> converter) {
+        for (int i = 0; i < WARMUP; i++) {
+            proxy(client, converter);
+        }
+        long written = 0;
+        long started = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            written += proxy(client, converter);
+        }
+        double seconds = (System.nanoTime() - started) / 1_000_000_000.0;
+        return written / 1024.0 / 1024.0 / seconds;
+    }
+
+    /**
+     * Запрос к серверу и запись ответа в выходной поток, как это делает Spring MVC для ResponseEntity.
+     */
+    private long proxy(BaseClient client, HttpMessageConverter<Object> converter) {
+        ResponseEntity<Object> response = client.get("", 1L).block();
+        CountingOutputMessage output = new CountingOutputMessage();
+        try {
+            converter.write(response.getBody(), MediaType.APPLICATION_JSON, output);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return output.count;
+    }
+
+    private BaseClient createClient(boolean passThrough) {
+        RestTemplate rest = new RestTemplateBuilder()
+                .uriTemplateHandler(new DefaultUriBuilderFactory("http://localhost:9090/bookings"))
+                .requestFactory(() -> (uri, method) -> {
+                    MockClientHttpRequest request = new MockClientHttpRequest(method, uri);
+                    MockClientHttpResponse response = new MockClientHttpResponse(payload, HttpStatus.OK);
+                    response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+                    request.setResponse(response);
+                    return request;
+                })
+                .build();
+        BaseClient client = new BaseClient(rest);
+        client.setPassThrough(passThrough);
+        return client;
+    }
+
+    private byte[] createPayload() {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; json.length() < RESPONSE_BYTES; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"id\":").append(i)
+                    .append(",\"start\":\"2030-01-01T10:00:00\",\"end\":\"2030-01-02T10:00:00\"")
+                    .append(",\"status\":\"APPROVED\",\"bookerId\":").append(i % 100)
+                    .append(",\"item\":{\"id\":").append(i % 1000)
+                    .append(",\"name\":\"Дрель ").append(i).append("\",\"available\":true}}");
+        }
+        return json.append(']').toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static HttpMessageConverter<Object> cast(HttpMessageConverter<?> converter) {
+        return (HttpMessageConverter<Object>) converter;
+    }
+
+    private static class CountingOutputMessage implements HttpOutputMessage {
+        private final HttpHeaders headers = new HttpHeaders();
+
+        private long count;
+
+        @Override
+        public OutputStream getBody() {
+            return new OutputStream() {
+                @Override
+                public void write(int b) {
+                    count++;
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) {
+                    count += len;
+                }
+            };
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RequestCoalescerTest {
+
+    private final RequestCoalescer coalescer = new RequestCoalescer();
+
+    private final AtomicInteger upstreamCalls = new AtomicInteger();
+
+    private final Sinks.One<ResponseEntity<Object>> upstream = Sinks.one();
+
+
+    @Test
+    void coalesce_whenSameKeyInFlight_thenOneUpstreamRequestSharedByAll() {
+        ResponseCache.Key key = key("/items/1", 1L);
+        List<ResponseEntity<Object>> received = new ArrayList<>();
+
+        for (int i = 0; i < 3; i++) {
+            coalescer.coalesce(key, this::callUpstream).subscribe(received::add);
+        }
+        ResponseEntity<Object> response = ResponseEntity.ok("{}");
+        upstream.tryEmitValue(response);
+
+        assertEquals(1, upstreamCalls.get());
+        assertEquals(3, received.size());
+        received.forEach(each -> assertSame(response, each));
+        assertEquals(0, coalescer.size());
+    }
+
+    @Test
+    void coalesce_whenOtherUser_thenSeparateUpstreamRequest() {
+        coalescer.coalesce(key("/items/1", 1L), this::callUpstream).subscribe();
+        coalescer.coalesce(key("/items/1", 2L), this::callUpstream).subscribe();
+
+        assertEquals(2, upstreamCalls.get());
+        assertEquals(2, coalescer.size());
+    }
+
+    @Test
+    void coalesce_whenPreviousRequestCompleted_thenNewUpstreamRequest() {
+        ResponseCache.Key key = key("/items/1", 1L);
+
+        coalescer.coalesce(key, () -> Mono.just(ResponseEntity.ok("{}"))).block();
+        coalescer.coalesce(key, this::callUpstream).subscribe();
+
+        assertEquals(1, upstreamCalls.get());
+    }
+
+    @Test
+    void coalesce_whenUpstreamFails_thenErrorFannedOutAndKeyReleased() {
+        ResponseCache.Key key = key("/items/1", 1L);
+        List<Throwable> errors = new ArrayList<>();
+
+        coalescer.coalesce(key, this::callUpstream).subscribe(response -> { }, errors::add);
+        coalescer.coalesce(key, this::callUpstream).subscribe(response -> { }, errors::add);
+        upstream.tryEmitError(new IllegalStateException("Сервер недоступен"));
+
+        assertEquals(1, upstreamCalls.get());
+        assertEquals(2, errors.size());
+        assertTrue(errors.stream().allMatch(IllegalStateException.class::isInstance));
+        assertEquals(0, coalescer.size());
+    }
+
+    @Test
+    void forget_whenResourceWritten_thenNextRequestNotJoinedToEarlierOne() {
+        ResponseCache.Key key = key("/items/1", 1L);
+
+        coalescer.coalesce(key, this::callUpstream).subscribe();
+        coalescer.forget(URI.create("http://localhost:9090/items/1"));
+        coalescer.coalesce(key, this::callUpstream).subscribe();
+
+        assertEquals(2, upstreamCalls.get());
+    }
+
+
+    // -------------------------
+    // Вспомогательные методы
+    // -------------------------
+
+    private Mono<ResponseEntity<Object>> callUpstream() {
+        upstreamCalls.incrementAndGet();
+        return upstream.asMono();
+    }
+
+    private ResponseCache.Key key(String path, Long userId) {
+        return new ResponseCache.Key(URI.create("http://localhost:9090" + path), userId);
+    }
+}
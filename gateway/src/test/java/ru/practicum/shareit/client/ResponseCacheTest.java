@@ -0,0 +1,90 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ResponseCacheTest {
+
+    private final ResponseCache cache = new ResponseCache(2);
+
+
+    @Test
+    void put_whenMaxEntriesExceeded_thenLeastRecentlyUsedEvicted() {
+        ResponseCache.Key first = key("/items/1", 1L);
+        ResponseCache.Key second = key("/items/2", 1L);
+        ResponseCache.Key third = key("/items/3", 1L);
+
+        cache.put(first, response(HttpStatus.OK, "\"1\""));
+        cache.put(second, response(HttpStatus.OK, "\"2\""));
+        cache.get(first);
+        cache.put(third, response(HttpStatus.OK, "\"3\""));
+
+        assertNotNull(cache.get(first));
+        assertNull(cache.get(second));
+        assertNotNull(cache.get(third));
+    }
+
+    @Test
+    void put_whenNoEtagOrError_thenEntryRemoved() {
+        ResponseCache.Key key = key("/items/1", 1L);
+        cache.put(key, response(HttpStatus.OK, "\"1\""));
+
+        cache.put(key, response(HttpStatus.NOT_FOUND, "\"1\""));
+        assertNull(cache.get(key));
+
+        cache.put(key, ResponseEntity.ok("{}".getBytes(StandardCharsets.UTF_8)));
+        assertNull(cache.get(key));
+    }
+
+    @Test
+    void invalidate_whenResourceOrChildWritten_thenEntriesOfAllUsersRemoved() {
+        ResponseCache.Key owner = key("/items/1", 1L);
+        ResponseCache.Key booker = key("/items/1", 2L);
+        cache.put(owner, response(HttpStatus.OK, "\"1\""));
+        cache.put(booker, response(HttpStatus.OK, "\"1\""));
+
+        cache.invalidate(URI.create("http://localhost:9090/items/1/comment"));
+
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void invalidate_whenOtherResourceWritten_thenEntryKept() {
+        ResponseCache.Key key = key("/items/1", 1L);
+        cache.put(key, response(HttpStatus.OK, "\"1\""));
+
+        cache.invalidate(URI.create("http://localhost:9090/items/10"));
+        cache.invalidate(URI.create("http://localhost:9090/items"));
+
+        assertNotNull(cache.get(key));
+    }
+
+    @Test
+    void key_whenQueryDiffers_thenDifferentEntries() {
+        cache.put(key("/items/search?text=a", null), response(HttpStatus.OK, "\"a\""));
+
+        assertNull(cache.get(key("/items/search?text=b", null)));
+        assertNotNull(cache.get(key("/items/search?text=a", null)));
+    }
+
+
+    // -------------------------
+    // Вспомогательные методы
+    // -------------------------
+
+    private ResponseCache.Key key(String path, Long userId) {
+        return new ResponseCache.Key(URI.create("http://localhost:9090" + path), userId);
+    }
+
+    private ResponseEntity<byte[]> response(HttpStatus status, String etag) {
+        return ResponseEntity.status(status).eTag(etag).body("{}".getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,150 @@
+package ru.practicum.shareit.common.ratelimit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimitFilterTest {
+
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private long now = 0;
+
+    private RateLimitFilter filter;
+
+
+    @BeforeEach
+    void setUp() {
+        filter = createFilter(100);
+    }
+
+    @Test
+    @SneakyThrows
+    void doFilter_whenBurstExhausted_thenTooManyRequestsWithRetryAfterAndMetric() {
+        assertEquals(HttpStatus.OK.value(), send("GET", "/items/search", "1").getStatus());
+        assertEquals(HttpStatus.OK.value(), send("GET", "/items/search", "1").getStatus());
+
+        MockHttpServletResponse response = send("GET", "/items/search", "1");
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), response.getStatus());
+        assertEquals("1", response.getHeader(HttpHeaders.RETRY_AFTER));
+        assertTrue(response.getContentAsString().contains("429 - Too Many Requests"));
+        assertEquals(1.0, meterRegistry.get(RateLimitFilter.REJECTED_METRIC).tag("route", "search")
+                .counter().count());
+    }
+
+    @Test
+    void doFilter_whenTokenRefilled_thenRequestAllowedAgain() {
+        send("GET", "/items/search", "1");
+        send("GET", "/items/search", "1");
+
+        now += TimeUnit.SECONDS.toNanos(1);
+
+        assertEquals(HttpStatus.OK.value(), send("GET", "/items/search", "1").getStatus());
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), send("GET", "/items/search", "1").getStatus());
+    }
+
+    @Test
+    void doFilter_whenOtherUserOrAnonymous_thenSeparateBuckets() {
+        send("GET", "/items/search", "1");
+        send("GET", "/items/search", "1");
+
+        assertEquals(HttpStatus.OK.value(), send("GET", "/items/search", "2").getStatus());
+        assertEquals(HttpStatus.OK.value(), send("GET", "/items/search", null).getStatus());
+        assertEquals(3, filter.bucketCount());
+    }
+
+    @Test
+    void doFilter_whenRouteClassUnlimitedOrNotConfigured_thenNoBucket() {
+        for (int i = 0; i < 10; i++) {
+            assertEquals(HttpStatus.OK.value(), send("POST", "/items", "1").getStatus());
+            assertEquals(HttpStatus.OK.value(), send("GET", "/items", "1").getStatus());
+        }
+        assertEquals(0, filter.bucketCount());
+    }
+
+    @Test
+    void doFilter_whenMaxBucketsReached_thenNewClientsShareOneBucket() {
+        filter = createFilter(2);
+        send("GET", "/items/search", "1");
+        send("GET", "/items/search", "2");
+
+        assertEquals(HttpStatus.OK.value(), send("GET", "/items/search", "3").getStatus());
+        assertEquals(HttpStatus.OK.value(), send("GET", "/items/search", "4").getStatus());
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), send("GET", "/items/search", "5").getStatus());
+        assertEquals(2, filter.bucketCount());
+    }
+
+    @Test
+    void doFilter_whenMaxBucketsReachedAndIdleBucketsFull_thenIdleBucketsEvicted() {
+        filter = createFilter(2);
+        send("GET", "/items/search", "1");
+        send("GET", "/items/search", "2");
+
+        now += TimeUnit.SECONDS.toNanos(2);
+        send("GET", "/items/search", "3");
+        send("GET", "/items/search", "3");
+
+        assertEquals(1, filter.bucketCount());
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), send("GET", "/items/search", "3").getStatus());
+        assertEquals(HttpStatus.OK.value(), send("GET", "/items/search", "4").getStatus());
+    }
+
+    @Test
+    void routeClass_whenMethodAndPathGiven_thenClassified() {
+        assertEquals(RouteClass.SEARCH, RouteClass.of("GET", "/items/search"));
+        assertEquals(RouteClass.READ, RouteClass.of("GET", "/items/12"));
+        assertEquals(RouteClass.LISTING, RouteClass.of("GET", "/items"));
+        assertEquals(RouteClass.LISTING, RouteClass.of("GET", "/bookings/owner"));
+        assertEquals(RouteClass.LISTING, RouteClass.of("GET", "/requests/all"));
+        assertEquals(RouteClass.WRITE, RouteClass.of("PATCH", "/bookings/1"));
+        assertEquals(RouteClass.WRITE, RouteClass.of("POST", "/items/1/comment"));
+    }
+
+
+    // -------------------------
+    // Вспомогательные методы
+    // -------------------------
+
+    private RateLimitFilter createFilter(int maxBuckets) {
+        Map<RouteClass, RateLimitFilter.Limit> limits = new EnumMap<>(RouteClass.class);
+        limits.put(RouteClass.SEARCH, new RateLimitFilter.Limit(1, 2));
+        limits.put(RouteClass.WRITE, new RateLimitFilter.Limit(0, 0));
+        return new RateLimitFilter(limits, maxBuckets, meterRegistry, new ObjectMapper(), () -> now);
+    }
+
+    @SneakyThrows
+    private MockHttpServletResponse send(String method, String path, String userId) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        if (userId != null) {
+            request.addHeader(USER_ID_HEADER, userId);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request, response, chain);
+        if (response.getStatus() == HttpStatus.OK.value()) {
+            assertEquals(request, chain.getRequest());
+        } else {
+            assertNull(chain.getRequest());
+        }
+        return response;
+    }
+}
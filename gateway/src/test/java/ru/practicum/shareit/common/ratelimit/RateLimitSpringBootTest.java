@@ -0,0 +1,68 @@
+package ru.practicum.shareit.common.ratelimit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.item.ItemClient;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "shareit-gateway.rate-limit.search.per-second=0.001",
+        "shareit-gateway.rate-limit.search.burst=2"
+})
+@AutoConfigureMockMvc
+class RateLimitSpringBootTest {
+
+    private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+
+    @MockBean
+    private ItemClient itemClient;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private MockMvc mvc;
+
+
+    @Test
+    @SneakyThrows
+    void search_whenLimitExceeded_thenRejectedBeforeClient() {
+        when(itemClient.getAllByKeyword(any(), any(), any()))
+                .thenReturn(Mono.just(ResponseEntity.ok("[]")));
+
+        for (int i = 0; i < 2; i++) {
+            mvc.perform(get("/items/search")
+                            .param("text", "дрель")
+                            .header(USER_ID_HEADER, 1L))
+                    .andExpect(status().isOk());
+        }
+        mvc.perform(get("/items/search")
+                        .param("text", "дрель")
+                        .header(USER_ID_HEADER, 1L))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER))
+                .andExpect(jsonPath("$.error").value("429 - Too Many Requests"));
+
+        verify(itemClient, times(2)).getAllByKeyword(any(), any(), any());
+        assertEquals(1.0, meterRegistry.get(RateLimitFilter.REJECTED_METRIC).tag("route", "search")
+                .counter().count());
+    }
+}
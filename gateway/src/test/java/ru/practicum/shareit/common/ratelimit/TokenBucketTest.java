@@ -0,0 +1,71 @@
+package ru.practicum.shareit.common.ratelimit;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketTest {
+
+    @Test
+    void tryAcquire_whenCapacityExhausted_thenWaitUntilNextToken() {
+        TokenBucket bucket = new TokenBucket(10, 3, 0);
+
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(0, bucket.tryAcquire(0));
+        assertEquals(0, bucket.tryAcquire(0));
+
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(100), bucket.tryAcquire(0));
+        assertEquals(0, bucket.tryAcquire(TimeUnit.MILLISECONDS.toNanos(100)));
+    }
+
+    @Test
+    void isFull_whenIdleLongEnough_thenTrue() {
+        TokenBucket bucket = new TokenBucket(10, 3, 0);
+        bucket.tryAcquire(0);
+        bucket.tryAcquire(0);
+
+        assertFalse(bucket.isFull(TimeUnit.MILLISECONDS.toNanos(150)));
+        assertTrue(bucket.isFull(TimeUnit.MILLISECONDS.toNanos(200)));
+    }
+
+    @Test
+    @SneakyThrows
+    void tryAcquire_whenConcurrentThreads_thenExactlyCapacityGranted() {
+        TokenBucket bucket = new TokenBucket(0.001, 1000, 0);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> futures = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            futures.add(executor.submit(() -> {
+                start.await();
+                int granted = 0;
+                for (int j = 0; j < 500; j++) {
+                    if (bucket.tryAcquire(0) == 0) {
+                        granted++;
+                    }
+                }
+                return granted;
+            }));
+        }
+
+        start.countDown();
+        int granted = 0;
+        for (Future<Integer> future : futures) {
+            granted += future.get();
+        }
+        executor.shutdown();
+
+        assertEquals(1000, granted);
+    }
+}
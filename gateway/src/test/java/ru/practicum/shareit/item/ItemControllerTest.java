@@ -10,6 +10,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
@@ -32,6 +33,7 @@ import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -60,7 +62,7 @@ class ItemControllerTest {
         outputDto.setId(expectedItemId);
 
         when(itemClient.save(isA(Long.class), isA(ItemDto.class)))
-                .thenReturn(new ResponseEntity<>(outputDto, HttpStatus.OK));
+                .thenReturn(Mono.just(new ResponseEntity<>(outputDto, HttpStatus.OK)));
 
         mvc.perform(post("/items")
                         .header(USER_ID_HEADER, ownerId)
@@ -93,7 +95,7 @@ class ItemControllerTest {
         outputDto.setRequestId(requestId);
 
         when(itemClient.save(isA(Long.class), isA(ItemDto.class)))
-                .thenReturn(new ResponseEntity<>(outputDto, HttpStatus.OK));
+                .thenReturn(Mono.just(new ResponseEntity<>(outputDto, HttpStatus.OK)));
 
         mvc.perform(post("/items")
                         .header(USER_ID_HEADER, ownerId)
@@ -134,7 +136,7 @@ class ItemControllerTest {
         ItemDto inputDto = createItemDto();
 
         when(itemClient.save(isA(Long.class), isA(ItemDto.class)))
-                .thenReturn(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+                .thenReturn(Mono.just(new ResponseEntity<>(HttpStatus.NOT_FOUND)));
 
         mvc.perform(post("/items")
                         .header(USER_ID_HEADER, ownerId)
@@ -156,7 +158,7 @@ class ItemControllerTest {
         inputDto.setRequestId(requestId);
 
         when(itemClient.save(isA(Long.class), isA(ItemDto.class)))
-                .thenReturn(new ResponseEntity<>(HttpStatus.BAD_REQUEST));
+                .thenReturn(Mono.just(new ResponseEntity<>(HttpStatus.BAD_REQUEST)));
 
         mvc.perform(post("/items")
                         .header(USER_ID_HEADER, ownerId)
@@ -233,7 +235,7 @@ class ItemControllerTest {
         outputDto.setId(itemId);
 
         when(itemClient.update(isA(Long.class), isA(Long.class), isA(ItemDto.class)))
-                .thenReturn(new ResponseEntity<>(outputDto, HttpStatus.OK));
+                .thenReturn(Mono.just(new ResponseEntity<>(outputDto, HttpStatus.OK)));
 
         mvc.perform(patch("/items/{itemId}", itemId)
                         .header(USER_ID_HEADER, ownerId)
@@ -278,7 +280,7 @@ class ItemControllerTest {
         ItemDto inputDto = createItemDto();
 
         when(itemClient.update(isA(Long.class), isA(Long.class), isA(ItemDto.class)))
-                .thenReturn(new ResponseEntity<>(HttpStatus.FORBIDDEN));
+                .thenReturn(Mono.just(new ResponseEntity<>(HttpStatus.FORBIDDEN)));
 
         mvc.perform(patch("/items/{itemId}", itemId)
                         .header(USER_ID_HEADER, ownerId)
@@ -303,7 +305,7 @@ class ItemControllerTest {
         outputDto.setId(itemId);
 
         when(itemClient.update(isA(Long.class), isA(Long.class), isA(ItemDto.class)))
-                .thenReturn(new ResponseEntity<>(outputDto, HttpStatus.OK));
+                .thenReturn(Mono.just(new ResponseEntity<>(outputDto, HttpStatus.OK)));
 
         mvc.perform(patch("/items/{itemId}", itemId)
                         .header(USER_ID_HEADER, ownerId)
@@ -332,7 +334,7 @@ class ItemControllerTest {
         outputDto.setId(itemId);
 
         when(itemClient.update(isA(Long.class), isA(Long.class), isA(ItemDto.class)))
-                .thenReturn(new ResponseEntity<>(outputDto, HttpStatus.OK));
+                .thenReturn(Mono.just(new ResponseEntity<>(outputDto, HttpStatus.OK)));
 
         mvc.perform(patch("/items/{itemId}", itemId)
                         .header(USER_ID_HEADER, ownerId)
@@ -361,7 +363,7 @@ class ItemControllerTest {
         outputDto.setId(itemId);
 
         when(itemClient.update(isA(Long.class), isA(Long.class), isA(ItemDto.class)))
-                .thenReturn(new ResponseEntity<>(outputDto, HttpStatus.OK));
+                .thenReturn(Mono.just(new ResponseEntity<>(outputDto, HttpStatus.OK)));
 
         mvc.perform(patch("/items/{itemId}", itemId)
                         .header(USER_ID_HEADER, ownerId)
@@ -388,7 +390,7 @@ class ItemControllerTest {
         outputDto.setId(itemId);
 
         when(itemClient.getByIdAndUserId(any(), any()))
-                .thenReturn(new ResponseEntity<>(outputDto, HttpStatus.OK));
+                .thenReturn(Mono.just(new ResponseEntity<>(outputDto, HttpStatus.OK)));
 
         mvc.perform(get("/items/{itemId}", itemId)
                         .header(USER_ID_HEADER, userId))
@@ -402,6 +404,36 @@ class ItemControllerTest {
                 .getByIdAndUserId(isA(Long.class), isA(Long.class));
     }
 
+    @Test
+    @SneakyThrows
+    void getComments_whenCursorPassed_thenForwardedWithNextCursor() {
+        Long itemId = 1L;
+
+        when(itemClient.getComments(itemId, 0, 2, "abc"))
+                .thenReturn(Mono.just(ResponseEntity.ok()
+                        .header("X-Next-Cursor", "def")
+                        .body(Collections.emptyList())));
+
+        mvc.perform(get("/items/{itemId}/comments", itemId)
+                        .param("size", "2")
+                        .param("cursor", "abc"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "def"))
+                .andExpect(jsonPath("$", hasSize(0)));
+
+        verify(itemClient, times(1)).getComments(itemId, 0, 2, "abc");
+    }
+
+    @Test
+    @SneakyThrows
+    void getComments_whenSizeIsZero_thenReturnBadRequest() {
+        mvc.perform(get("/items/{itemId}/comments", 1L)
+                        .param("size", "0"))
+                .andExpect(status().isBadRequest());
+
+        verify(itemClient, never()).getComments(any(), any(), any(), any());
+    }
+
     @Test
     @SneakyThrows
     void getById_whenUserIsNotOwner_thenStatusIsOkAndDtoReturned() {
@@ -411,7 +443,7 @@ class ItemControllerTest {
         outputDto.setId(itemId);
 
         when(itemClient.getByIdAndUserId(any(), any()))
-                .thenReturn(new ResponseEntity<>(outputDto, HttpStatus.OK));
+                .thenReturn(Mono.just(new ResponseEntity<>(outputDto, HttpStatus.OK)));
 
         mvc.perform(get("/items/{itemId}", itemId)
                         .header(USER_ID_HEADER, userId))
@@ -433,7 +465,7 @@ class ItemControllerTest {
         ItemDto outputDto = createItemDtoWithBookings();
 
         when(itemClient.getByIdAndUserId(isA(Long.class), isA(Long.class)))
-                .thenReturn(new ResponseEntity<>(outputDto, HttpStatus.OK));
+                .thenReturn(Mono.just(new ResponseEntity<>(outputDto, HttpStatus.OK)));
 
         mvc.perform(get("/items/{itemId}", itemId)
                         .header(USER_ID_HEADER, userId))
@@ -466,7 +498,7 @@ class ItemControllerTest {
         outputDto.setId(itemId);
 
         when(itemClient.getByIdAndUserId(isA(Long.class), isA(Long.class)))
-                .thenReturn(new ResponseEntity<>(outputDto, HttpStatus.OK));
+                .thenReturn(Mono.just(new ResponseEntity<>(outputDto, HttpStatus.OK)));
 
         mvc.perform(get("/items/{itemId}", itemId)
                         .header(USER_ID_HEADER, userId))
@@ -489,7 +521,7 @@ class ItemControllerTest {
         Long itemId = 1L;
 
         when(itemClient.getByIdAndUserId(any(), any()))
-                .thenReturn(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+                .thenReturn(Mono.just(new ResponseEntity<>(HttpStatus.NOT_FOUND)));
 
         mvc.perform(get("/items/{itemId}", itemId)
                         .header(USER_ID_HEADER, userId))
@@ -508,7 +540,7 @@ class ItemControllerTest {
         outputDto.setId(itemId);
 
         when(itemClient.getByIdAndUserId(any(), any()))
-                .thenReturn(new ResponseEntity<>(outputDto, HttpStatus.OK));
+                .thenReturn(Mono.just(new ResponseEntity<>(outputDto, HttpStatus.OK)));
 
         mvc.perform(get("/items/{itemId}", itemId)
                         .header(USER_ID_HEADER, ownerId))
@@ -535,7 +567,7 @@ class ItemControllerTest {
         itemDto.getComments().add(commentDto);
 
         when(itemClient.getByIdAndUserId(any(), any()))
-                .thenReturn(new ResponseEntity<>(itemDto, HttpStatus.OK));
+                .thenReturn(Mono.just(new ResponseEntity<>(itemDto, HttpStatus.OK)));
 
         mvc.perform(get("/items/{itemId}", itemId)
                         .header(USER_ID_HEADER, userId))
@@ -573,7 +605,7 @@ class ItemControllerTest {
         itemDto.getComments().add(commentDto);
 
         when(itemClient.getByIdAndUserId(any(), any()))
-                .thenReturn(new ResponseEntity<>(itemDto, HttpStatus.OK));
+                .thenReturn(Mono.just(new ResponseEntity<>(itemDto, HttpStatus.OK)));
 
         mvc.perform(get("/items/{itemId}", itemId)
                         .header(USER_ID_HEADER, ownerId))
@@ -612,7 +644,7 @@ class ItemControllerTest {
         List<ItemDto> itemDtos = createItemDtos();
 
         when(itemClient.getAllByOwnerId(isA(Long.class), isA(Integer.class), isA(Integer.class)))
-                .thenReturn(new ResponseEntity<>(itemDtos, HttpStatus.OK));
+                .thenReturn(Mono.just(new ResponseEntity<>(itemDtos, HttpStatus.OK)));
 
         mvc.perform(get("/items")
                         .header(USER_ID_HEADER, ownerId))
@@ -643,7 +675,7 @@ class ItemControllerTest {
         List<ItemDto> itemDtos = createItemDtosWithBookings();
 
         when(itemClient.getAllByOwnerId(isA(Long.class), isA(Integer.class), isA(Integer.class)))
-                .thenReturn(new ResponseEntity<>(itemDtos, HttpStatus.OK));
+                .thenReturn(Mono.just(new ResponseEntity<>(itemDtos, HttpStatus.OK)));
 
         mvc.perform(get("/items")
                         .header(USER_ID_HEADER, ownerId))
@@ -683,7 +715,7 @@ class ItemControllerTest {
         List<ItemDto> outputDtos = new ArrayList<>(Arrays.asList(itemDtos.get(1), itemDtos.get(2)));
 
         when(itemClient.getAllByKeyword(isA(String.class), isA(Integer.class), isA(Integer.class)))
-                .thenReturn(new ResponseEntity<>(outputDtos, HttpStatus.OK));
+                .thenReturn(Mono.just(new ResponseEntity<>(outputDtos, HttpStatus.OK)));
 
         mvc.perform(get("/items/search?text={text}", "keYwOrd")
                         .header(USER_ID_HEADER, userId))
@@ -709,7 +741,7 @@ class ItemControllerTest {
         Long userId = 1L;
 
         when(itemClient.getAllByKeyword(isA(String.class), isA(Integer.class), isA(Integer.class)))
-                .thenReturn(new ResponseEntity<>(Collections.emptyList(), HttpStatus.OK));
+                .thenReturn(Mono.just(new ResponseEntity<>(Collections.emptyList(), HttpStatus.OK)));
 
         mvc.perform(get("/items/search?text={text}", "quErY")
                         .header(USER_ID_HEADER, userId))
@@ -727,7 +759,7 @@ class ItemControllerTest {
         Long userId = 1L;
 
         when(itemClient.getAllByKeyword(isA(String.class), isA(Integer.class), isA(Integer.class)))
-                .thenReturn(new ResponseEntity<>(Collections.emptyList(), HttpStatus.OK));
+                .thenReturn(Mono.just(new ResponseEntity<>(Collections.emptyList(), HttpStatus.OK)));
 
         mvc.perform(get("/items/search?text={text}", "")
                         .header(USER_ID_HEADER, userId))
@@ -747,7 +779,7 @@ class ItemControllerTest {
         CommentDto commentDto = createCommentDto("Comment to Item 1");
 
         when(itemClient.saveComment(isA(Long.class), isA(Long.class), isA(CommentDto.class)))
-                .thenReturn(new ResponseEntity<>(HttpStatus.BAD_REQUEST));
+                .thenReturn(Mono.just(new ResponseEntity<>(HttpStatus.BAD_REQUEST)));
 
         mvc.perform(post("/items/{itemId}/comment", itemId)
                         .header(USER_ID_HEADER, userId)
@@ -790,7 +822,7 @@ class ItemControllerTest {
         CommentDto outputDto = createCommentDtoOut(expectedCommentId, inputDto.getText());
 
         when(itemClient.saveComment(isA(Long.class), isA(Long.class), isA(CommentDto.class)))
-                .thenReturn(new ResponseEntity<>(outputDto, HttpStatus.OK));
+                .thenReturn(Mono.just(new ResponseEntity<>(outputDto, HttpStatus.OK)));
 
         mvc.perform(post("/items/{itemId}/comment", itemId)
                         .header(USER_ID_HEADER, userId)
@@ -816,7 +848,7 @@ class ItemControllerTest {
         CommentDto commentDto = createCommentDto("Comment to Item 1");
 
         when(itemClient.saveComment(isA(Long.class), isA(Long.class), isA(CommentDto.class)))
-                .thenReturn(new ResponseEntity<>(HttpStatus.BAD_REQUEST));
+                .thenReturn(Mono.just(new ResponseEntity<>(HttpStatus.BAD_REQUEST)));
 
         mvc.perform(post("/items/{itemId}/comment", itemId)
                         .header(USER_ID_HEADER, userId)
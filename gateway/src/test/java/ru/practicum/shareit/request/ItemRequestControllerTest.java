@@ -10,6 +10,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.item.dto.ItemItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
@@ -61,7 +62,7 @@ class ItemRequestControllerTest {
                 LocalDateTime.now());
 
         when(requestClient.save(isA(Long.class), isA(ItemRequestDto.class)))
-                .thenReturn(new ResponseEntity<>(outputDto, HttpStatus.OK));
+                .thenReturn(Mono.just(new ResponseEntity<>(outputDto, HttpStatus.OK)));
 
         mvc.perform(post("/requests")
                         .header(USER_ID_HEADER, requestorId)
@@ -179,7 +180,7 @@ class ItemRequestControllerTest {
         ItemRequestDto inputDto = createInputDto();
 
         when(requestClient.save(isA(Long.class), isA(ItemRequestDto.class)))
-                .thenReturn(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+                .thenReturn(Mono.just(new ResponseEntity<>(HttpStatus.NOT_FOUND)));
 
         mvc.perform(post("/requests")
                         .header(USER_ID_HEADER, requestorId)
@@ -201,7 +202,7 @@ class ItemRequestControllerTest {
         Long userId = outputDto.getRequestorId();
 
         when(requestClient.getById(isA(Long.class), isA(Long.class)))
-                .thenReturn(new ResponseEntity<>(outputDto, HttpStatus.OK));
+                .thenReturn(Mono.just(new ResponseEntity<>(outputDto, HttpStatus.OK)));
 
         mvc.perform(get("/requests/{requestId}", requestId)
                         .header(USER_ID_HEADER, userId))
@@ -224,7 +225,7 @@ class ItemRequestControllerTest {
         Long userId = 3L;
 
         when(requestClient.getById(isA(Long.class), isA(Long.class)))
-                .thenReturn(new ResponseEntity<>(outputDto, HttpStatus.OK));
+                .thenReturn(Mono.just(new ResponseEntity<>(outputDto, HttpStatus.OK)));
 
         mvc.perform(get("/requests/{requestId}", requestId)
                         .header(USER_ID_HEADER, userId))
@@ -275,7 +276,7 @@ class ItemRequestControllerTest {
         Long requestId = 1L;
 
         when(requestClient.getById(isA(Long.class), isA(Long.class)))
-                .thenReturn(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+                .thenReturn(Mono.just(new ResponseEntity<>(HttpStatus.NOT_FOUND)));
 
         mvc.perform(get("/requests/{requestId}", requestId)
                         .header(USER_ID_HEADER, userId))
@@ -292,7 +293,7 @@ class ItemRequestControllerTest {
         Long requestId = 1000L;
 
         when(requestClient.getById(isA(Long.class), isA(Long.class)))
-                .thenReturn(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+                .thenReturn(Mono.just(new ResponseEntity<>(HttpStatus.NOT_FOUND)));
 
         mvc.perform(get("/requests/{requestId}", requestId)
                         .header(USER_ID_HEADER, userId))
@@ -310,7 +311,7 @@ class ItemRequestControllerTest {
         List<ItemRequestDto> outputDtos = createDtosForRequestor(requestorId);
 
         when(requestClient.getAllByRequestorId(isA(Long.class)))
-                .thenReturn(new ResponseEntity<>(outputDtos, HttpStatus.OK));
+                .thenReturn(Mono.just(new ResponseEntity<>(outputDtos, HttpStatus.OK)));
 
         mvc.perform(get("/requests")
                         .header(USER_ID_HEADER, requestorId))
@@ -338,7 +339,7 @@ class ItemRequestControllerTest {
         Long requestorId = 2L;
 
         when(requestClient.getAllByRequestorId(isA(Long.class)))
-                .thenReturn(new ResponseEntity<>(Collections.emptyList(), HttpStatus.OK));
+                .thenReturn(Mono.just(new ResponseEntity<>(Collections.emptyList(), HttpStatus.OK)));
 
         mvc.perform(get("/requests")
                         .header(USER_ID_HEADER, requestorId))
@@ -359,7 +360,7 @@ class ItemRequestControllerTest {
         List<ItemRequestDto> outputDtos = createDtosForRequestorWithItems(requestorId);
 
         when(requestClient.getAllByRequestorId(isA(Long.class)))
-                .thenReturn(new ResponseEntity<>(outputDtos, HttpStatus.OK));
+                .thenReturn(Mono.just(new ResponseEntity<>(outputDtos, HttpStatus.OK)));
 
         mvc.perform(get("/requests")
                         .header(USER_ID_HEADER, requestorId))
@@ -400,7 +401,7 @@ class ItemRequestControllerTest {
         Long requestorId = 1000L;
 
         when(requestClient.getAllByRequestorId(isA(Long.class)))
-                .thenReturn(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+                .thenReturn(Mono.just(new ResponseEntity<>(HttpStatus.NOT_FOUND)));
 
         mvc.perform(get("/requests")
                         .header(USER_ID_HEADER, requestorId))
@@ -419,7 +420,7 @@ class ItemRequestControllerTest {
         List<ItemRequestDto> outputDtos = createDtosForRequestor(otherUser);
 
         when(requestClient.getAllByOtherUsers(isA(Long.class), isA(Integer.class), isA(Integer.class)))
-                .thenReturn(new ResponseEntity<>(outputDtos, HttpStatus.OK));
+                .thenReturn(Mono.just(new ResponseEntity<>(outputDtos, HttpStatus.OK)));
 
         mvc.perform(get("/requests/all")
                         .header(USER_ID_HEADER, userId))
@@ -453,7 +454,7 @@ class ItemRequestControllerTest {
         outputDtos.remove(1);
 
         when(requestClient.getAllByOtherUsers(isA(Long.class), isA(Integer.class), isA(Integer.class)))
-                .thenReturn(new ResponseEntity<>(outputDtos, HttpStatus.OK));
+                .thenReturn(Mono.just(new ResponseEntity<>(outputDtos, HttpStatus.OK)));
 
         mvc.perform(get("/requests/all")
                         .header(USER_ID_HEADER, userId)
@@ -482,7 +483,7 @@ class ItemRequestControllerTest {
         outputDtos.remove(1);
 
         when(requestClient.getAllByOtherUsers(isA(Long.class), isA(Integer.class), isA(Integer.class)))
-                .thenReturn(new ResponseEntity<>(outputDtos, HttpStatus.OK));
+                .thenReturn(Mono.just(new ResponseEntity<>(outputDtos, HttpStatus.OK)));
 
         mvc.perform(get("/requests/all")
                         .header(USER_ID_HEADER, userId)
@@ -512,7 +513,7 @@ class ItemRequestControllerTest {
         outputDtos.remove(1);
 
         when(requestClient.getAllByOtherUsers(isA(Long.class), isA(Integer.class), isA(Integer.class)))
-                .thenReturn(new ResponseEntity<>(outputDtos, HttpStatus.OK));
+                .thenReturn(Mono.just(new ResponseEntity<>(outputDtos, HttpStatus.OK)));
 
         mvc.perform(get("/requests/all")
                         .header(USER_ID_HEADER, userId)
@@ -552,7 +553,7 @@ class ItemRequestControllerTest {
         Long userId = 1L;
 
         when(requestClient.getAllByOtherUsers(isA(Long.class), isA(Integer.class), isA(Integer.class)))
-                .thenReturn(new ResponseEntity<>(Collections.emptyList(), HttpStatus.OK));
+                .thenReturn(Mono.just(new ResponseEntity<>(Collections.emptyList(), HttpStatus.OK)));
 
         mvc.perform(get("/requests/all")
                         .header(USER_ID_HEADER, userId)
@@ -13,6 +13,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.RequestBuilder;
 import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.web.client.ResourceAccessException;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.nio.charset.StandardCharsets;
@@ -33,6 +35,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(UserController.class)
@@ -69,7 +72,7 @@ class UserControllerTest {
             outputDto.setId(1L);
 
             when(userClient.create(isA(UserDto.class)))
-                    .thenReturn(new ResponseEntity<>(outputDto, HttpStatus.OK));
+                    .thenReturn(Mono.just(new ResponseEntity<>(outputDto, HttpStatus.OK)));
 
             ResultActions result =  mvc.perform(buildRequest(inputDto))
                     .andExpect(status().isOk());
@@ -109,7 +112,7 @@ class UserControllerTest {
             UserDto inputDto = createUserDto();
 
             when(userClient.create(isA(UserDto.class)))
-                    .thenReturn(new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR));
+                    .thenReturn(Mono.just(new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR)));
 
             mvc.perform(buildRequest(inputDto))
                     .andExpect(status().isInternalServerError());
@@ -137,7 +140,7 @@ class UserControllerTest {
             userUpdate.setId(1L);
 
             when(userClient.update(isA(Long.class), isA(UserDto.class)))
-                    .thenReturn(new ResponseEntity<>(userUpdate, HttpStatus.OK));
+                    .thenReturn(Mono.just(new ResponseEntity<>(userUpdate, HttpStatus.OK)));
 
             ResultActions result = mvc.perform(buildRequest(userUpdate))
                     .andExpect(status().isOk());
@@ -162,7 +165,7 @@ class UserControllerTest {
             nameUpdate.setId(userId);
 
             when(userClient.update(isA(Long.class), isA(UserDto.class)))
-                    .thenReturn(new ResponseEntity<>(userUpdated, HttpStatus.OK));
+                    .thenReturn(Mono.just(new ResponseEntity<>(userUpdated, HttpStatus.OK)));
 
             ResultActions result = mvc.perform(buildRequest(nameUpdate))
                     .andExpect(status().isOk());
@@ -187,7 +190,7 @@ class UserControllerTest {
             newEmailDto.setId(userId);
 
             when(userClient.update(isA(Long.class), isA(UserDto.class)))
-                    .thenReturn(new ResponseEntity<>(userUpdated, HttpStatus.OK));
+                    .thenReturn(Mono.just(new ResponseEntity<>(userUpdated, HttpStatus.OK)));
 
             ResultActions result = mvc.perform(buildRequest(newEmailDto))
                     .andExpect(status().isOk());
@@ -206,7 +209,7 @@ class UserControllerTest {
             newEmailDto.setId(userId);
 
             when(userClient.update(isA(Long.class), isA(UserDto.class)))
-                    .thenReturn(new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR));
+                    .thenReturn(Mono.just(new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR)));
 
             mvc.perform(buildRequest(newEmailDto))
                     .andExpect(status().isInternalServerError());
@@ -231,7 +234,7 @@ class UserControllerTest {
             outputDto.setId(userId);
 
             when(userClient.getById(isA(Long.class)))
-                    .thenReturn(new ResponseEntity<>(outputDto, HttpStatus.OK));
+                    .thenReturn(Mono.just(new ResponseEntity<>(outputDto, HttpStatus.OK)));
 
             ResultActions result = mvc.perform(buildRequest(userId))
                     .andExpect(status().isOk());
@@ -247,7 +250,7 @@ class UserControllerTest {
             Long userId = 100L;
 
             when(userClient.getById(isA(Long.class)))
-                    .thenReturn(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+                    .thenReturn(Mono.just(new ResponseEntity<>(HttpStatus.NOT_FOUND)));
 
             mvc.perform(buildRequest(userId))
                     .andExpect(status().isNotFound());
@@ -255,6 +258,28 @@ class UserControllerTest {
             verify(userClient, times(1))
                     .getById(isA(Long.class));
         }
+
+        @Test
+        @SneakyThrows
+        void getById_whenBlockingMode_thenAnsweredWithoutAsyncDispatch() {
+            when(userClient.getById(isA(Long.class)))
+                    .thenReturn(Mono.just(new ResponseEntity<>(createUserDto(), HttpStatus.OK)));
+
+            mvc.perform(buildRequest(1L))
+                    .andExpect(request().asyncNotStarted())
+                    .andExpect(status().isOk());
+        }
+
+        @Test
+        @SneakyThrows
+        void getById_whenClientFails_thenErrorHandledOnRequestThread() {
+            when(userClient.getById(isA(Long.class)))
+                    .thenReturn(Mono.error(new ResourceAccessException("Сервер недоступен")));
+
+            mvc.perform(buildRequest(1L))
+                    .andExpect(request().asyncNotStarted())
+                    .andExpect(status().is5xxServerError());
+        }
     }
 
     @Nested
@@ -279,7 +304,7 @@ class UserControllerTest {
             List<UserDto> userDtos = createUserDtos();
 
             when(userClient.getAll(isA(Integer.class), isA(Integer.class)))
-                    .thenReturn(new ResponseEntity<>(userDtos, HttpStatus.OK));
+                    .thenReturn(Mono.just(new ResponseEntity<>(userDtos, HttpStatus.OK)));
 
             ResultActions result = mvc.perform(buildRequest(null, null))
                     .andExpect(status().isOk());
@@ -298,7 +323,7 @@ class UserControllerTest {
             List<UserDto> output = Collections.singletonList(dtos.get(from));
 
             when(userClient.getAll(isA(Integer.class), isA(Integer.class)))
-                    .thenReturn(new ResponseEntity<>(Collections.singletonList(dtos.get(from)), HttpStatus.OK));
+                    .thenReturn(Mono.just(new ResponseEntity<>(Collections.singletonList(dtos.get(from)), HttpStatus.OK)));
 
             ResultActions result = mvc.perform(buildRequest(from, size))
                     .andExpect(status().isOk());
@@ -13,10 +13,15 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import ru.practicum.shareit.booking.dto.BookingApprovalResultDto;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.common.CustomPageRequest;
+import ru.practicum.shareit.common.KeysetCursor;
 
+import javax.servlet.http.HttpServletResponse;
 import java.util.List;
 
 
@@ -28,12 +33,16 @@ public class BookingController {
 
     private final BookingService bookingService;
     private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final Sort START_DESC = Sort.by(Sort.Direction.DESC, "start", "id");
 
 
     @GetMapping("/{bookingId}")
     public BookingDto getById(@RequestHeader(USER_ID_HEADER) Long userId,
-                              @PathVariable Long bookingId) {
+                              @PathVariable Long bookingId,
+                              WebRequest request) {
         log.info("GET /bookings/{} | userId: {}", bookingId, userId);
+        if (request.checkNotModified(bookingService.getETag(bookingId, userId))) return null;
         return bookingService.getById(bookingId, userId);
     }
 
@@ -41,20 +50,34 @@ public class BookingController {
     public List<BookingDto> getAllByBookerId(@RequestHeader(USER_ID_HEADER) Long bookerId,
             @RequestParam(name = "state", defaultValue = "all") String state,
             @RequestParam(name = "from", defaultValue = "0") Integer from,
-            @RequestParam(name = "size", defaultValue = "10") Integer size) {
-        log.info("GET /bookings?state={}&from={}&size={} | bookerId: {}", state, from, size, bookerId);
-        return bookingService.getAllByBookerId(bookerId, state,
-                new CustomPageRequest(from, size, Sort.by(Sort.Direction.DESC, "start")));
+            @RequestParam(name = "size", defaultValue = "10") Integer size,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            HttpServletResponse response) {
+        log.info("GET /bookings?state={}&from={}&size={}&cursor={} | bookerId: {}",
+                state, from, size, cursor, bookerId);
+        List<BookingDto> bookings = cursor == null
+                ? bookingService.getAllByBookerId(bookerId, state, new CustomPageRequest(from, size, START_DESC))
+                : bookingService.getAllByBookerId(bookerId, state, KeysetCursor.decode(cursor),
+                        new CustomPageRequest(0, size, START_DESC));
+        setNextCursor(response, bookings, size);
+        return bookings;
     }
 
     @GetMapping("/owner")
     public List<BookingDto> getAllByOwnerId(@RequestHeader(USER_ID_HEADER) Long ownerId,
             @RequestParam(name = "state", defaultValue = "all") String state,
             @RequestParam(name = "from", defaultValue = "0") Integer from,
-            @RequestParam(name = "size", defaultValue = "10") Integer size) {
-        log.info("GET /bookings/owner?state={}&from={}&size={} | ownerId: {}", state, from, size, ownerId);
-        return bookingService.getAllByOwnerId(ownerId, state,
-                new CustomPageRequest(from, size, Sort.by(Sort.Direction.DESC, "start")));
+            @RequestParam(name = "size", defaultValue = "10") Integer size,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            HttpServletResponse response) {
+        log.info("GET /bookings/owner?state={}&from={}&size={}&cursor={} | ownerId: {}",
+                state, from, size, cursor, ownerId);
+        List<BookingDto> bookings = cursor == null
+                ? bookingService.getAllByOwnerId(ownerId, state, new CustomPageRequest(from, size, START_DESC))
+                : bookingService.getAllByOwnerId(ownerId, state, KeysetCursor.decode(cursor),
+                        new CustomPageRequest(0, size, START_DESC));
+        setNextCursor(response, bookings, size);
+        return bookings;
     }
 
     @PostMapping
@@ -65,6 +88,13 @@ public class BookingController {
         return bookingService.create(bookingDto);
     }
 
+    @PostMapping("/batch")
+    public List<BookingBatchResultDto> createAll(@RequestHeader(USER_ID_HEADER) Long bookerId,
+                                                 @RequestBody List<BookingDto> bookingDtos) {
+        log.info("POST /bookings/batch | bookerId: {} | bookings: {}", bookerId, bookingDtos.size());
+        return bookingService.createAll(bookerId, bookingDtos);
+    }
+
     @PatchMapping("/{bookingId}")
     public BookingDto approve(@RequestHeader(USER_ID_HEADER) Long ownerId,
                               @PathVariable Long bookingId,
@@ -72,4 +102,18 @@ public class BookingController {
         log.info("PATCH /bookings/{}?approved={} | ownerId: {}", bookingId, approved, ownerId);
         return bookingService.approve(bookingId, ownerId, approved);
     }
+
+    @PatchMapping("/batch")
+    public List<BookingApprovalResultDto> approveAll(@RequestHeader(USER_ID_HEADER) Long ownerId,
+                                                     @RequestParam Boolean approved,
+                                                     @RequestBody List<Long> bookingIds) {
+        log.info("PATCH /bookings/batch?approved={} | ownerId: {} | bookingIds: {}", approved, ownerId, bookingIds);
+        return bookingService.approveAll(ownerId, bookingIds, approved);
+    }
+
+    private void setNextCursor(HttpServletResponse response, List<BookingDto> bookings, Integer size) {
+        if (bookings.size() < size) return;
+        BookingDto last = bookings.get(bookings.size() - 1);
+        response.setHeader(NEXT_CURSOR_HEADER, new KeysetCursor(last.getStart(), last.getId()).encode());
+    }
 }
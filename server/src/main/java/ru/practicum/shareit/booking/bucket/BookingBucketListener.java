@@ -0,0 +1,38 @@
+package ru.practicum.shareit.booking.bucket;
+
+import org.springframework.beans.factory.ObjectProvider;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingTimeBucket;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostUpdate;
+import javax.persistence.PrePersist;
+import javax.persistence.PreUpdate;
+import java.time.LocalDateTime;
+
+/**
+ * Пересчитывает временную корзину при записи бронирования и сообщает планировщику о его границах.
+ * Пересчет при update не дает сущности, загруженной до срабатывания планировщика, вернуть старую корзину.
+ */
+public class BookingBucketListener {
+
+    private final ObjectProvider<BookingBucketScheduler> scheduler;
+
+
+    public BookingBucketListener(ObjectProvider<BookingBucketScheduler> scheduler) {
+        this.scheduler = scheduler;
+    }
+
+
+    @PrePersist
+    @PreUpdate
+    public void assignBucket(Booking booking) {
+        booking.setBucket(BookingTimeBucket.of(booking.getStart(), booking.getEnd(), LocalDateTime.now()));
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Booking booking) {
+        scheduler.ifAvailable(bucketScheduler -> bucketScheduler.register(booking));
+    }
+}
@@ -0,0 +1,187 @@
+package ru.practicum.shareit.booking.bucket;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingTimeBucket;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Переводит бронирования между корзинами FUTURE, CURRENT и PAST по мере наступления их начала и окончания.
+ * <p>
+ * Моменты переходов в пределах горизонта держатся в упорядоченном множестве, планировщик просыпается
+ * к ближайшему из них. Сам переход выполняется идемпотентными массовыми update'ами по всем
+ * бронированиям, чьё время уже наступило, поэтому после перезапуска или пропущенного срабатывания
+ * первый же запуск догоняет все накопившиеся переходы.
+ * <p>
+ * Update'ы выполняются без монитора планировщика: {@link #register} вызывается из транзакций запросов,
+ * и ожидание монитора, пока update ждёт их блокировок строк, было бы взаимоблокировкой, которую база не видит.
+ */
+@Component
+@Slf4j
+public class BookingBucketScheduler {
+
+    private static final Duration RETRY_DELAY = Duration.ofSeconds(5);
+
+    private static final Duration MAX_RETRY_DELAY = Duration.ofMinutes(5);
+
+    private final BookingRepository bookingRepository;
+
+    private final TaskScheduler taskScheduler;
+
+    private final Duration horizon;
+
+    private final NavigableSet<LocalDateTime> transitions = new ConcurrentSkipListSet<>();
+
+    private final ReentrantLock advancing = new ReentrantLock();
+
+    private volatile LocalDateTime loadedUntil;
+
+    private int failures;
+
+    private LocalDateTime wakeupAt;
+
+    private ScheduledFuture<?> wakeup;
+
+
+    @Autowired
+    public BookingBucketScheduler(BookingRepository bookingRepository, TaskScheduler taskScheduler,
+                                  @Value("${shareit.booking.bucket.horizon:PT1H}") Duration horizon) {
+        this.bookingRepository = bookingRepository;
+        this.taskScheduler = taskScheduler;
+        this.horizon = horizon;
+    }
+
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        advance();
+    }
+
+    /**
+     * Добавляет границы нового бронирования, если они попадают в уже загруженный горизонт.
+     * Внутри транзакции — только после коммита, чтобы update планировщика уже видел строку.
+     * Если граница успела наступить до коммита, срабатывание к ней могло пройти мимо незакоммиченной
+     * строки, поэтому переход запускается сразу.
+     */
+    public void register(Booking booking) {
+        LocalDateTime start = booking.getStart();
+        LocalDateTime end = booking.getEnd();
+        BookingTimeBucket bucket = booking.getBucket();
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            register(start, end, bucket);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                register(start, end, bucket);
+            }
+        });
+    }
+
+    /**
+     * Любая ошибка — недоступная база, неудачное открытие транзакции — не должна оставить планировщик
+     * без следующего срабатывания: повтор планируется всегда, с паузой, растущей при повторных сбоях.
+     */
+    public void advance() {
+        advancing.lock();
+        LocalDateTime now = LocalDateTime.now();
+        boolean advanced = false;
+        Duration retryDelay = RETRY_DELAY;
+        try {
+            int moved = bookingRepository.moveToPastBucket(now)
+                    + bookingRepository.moveToCurrentBucket(now)
+                    + bookingRepository.assignFutureBucket(now);
+            if (moved > 0) {
+                log.debug("Бронирований переведено в другую корзину: {}", moved);
+            }
+
+            transitions.headSet(now, true).clear();
+            if (loadedUntil == null || !loadedUntil.isAfter(now)) {
+                loadTransitions(now);
+            }
+            failures = 0;
+            advanced = true;
+        } catch (RuntimeException e) {
+            retryDelay = retryDelay(++failures);
+            log.warn("Не удалось обновить корзины бронирований, повтор через {}", retryDelay, e);
+        } finally {
+            advancing.unlock();
+            if (advanced) {
+                scheduleWakeup(now);
+            } else {
+                schedule(now.plus(retryDelay));
+            }
+        }
+    }
+
+
+    // -------------------------
+    // Вспомогательные методы
+    // -------------------------
+
+    private void register(LocalDateTime start, LocalDateTime end, BookingTimeBucket bucket) {
+        if (loadedUntil == null) return;
+
+        LocalDateTime now = LocalDateTime.now();
+        if (bucket != BookingTimeBucket.of(start, end, now)) {
+            transitions.add(now);
+        }
+        addTransition(start, now);
+        addTransition(end, now);
+        scheduleWakeup(now);
+    }
+
+    private static Duration retryDelay(int failures) {
+        Duration delay = RETRY_DELAY.multipliedBy(1L << Math.min(failures - 1, 10));
+        return delay.compareTo(MAX_RETRY_DELAY) < 0 ? delay : MAX_RETRY_DELAY;
+    }
+
+    private void loadTransitions(LocalDateTime now) {
+        loadedUntil = now.plus(horizon);
+        transitions.addAll(bookingRepository.findStartsInBucketBetween(now, loadedUntil));
+        transitions.addAll(bookingRepository.findEndsInBucketBetween(now, loadedUntil));
+    }
+
+    private void addTransition(LocalDateTime instant, LocalDateTime now) {
+        if (instant != null && instant.isAfter(now) && !instant.isAfter(loadedUntil)) {
+            transitions.add(instant);
+        }
+    }
+
+    /**
+     * Монитор защищает только ссылку на запланированное срабатывание и не держится во время запросов к базе.
+     */
+    private synchronized void scheduleWakeup(LocalDateTime now) {
+        LocalDateTime first = transitions.ceiling(LocalDateTime.MIN);
+        LocalDateTime next = first == null ? loadedUntil : first;
+        if (wakeup != null && !wakeup.isDone() && wakeupAt.isAfter(now) && !next.isBefore(wakeupAt)) return;
+
+        schedule(next);
+    }
+
+    private synchronized void schedule(LocalDateTime instant) {
+        if (wakeup != null) {
+            wakeup.cancel(false);
+        }
+        wakeupAt = instant;
+        wakeup = taskScheduler.schedule(this::advance, instant.atZone(ZoneId.systemDefault()).toInstant());
+    }
+}
@@ -0,0 +1,40 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.springframework.http.HttpStatus;
+import ru.practicum.shareit.common.ErrorResponse;
+
+/**
+ * Результат подтверждения или отклонения одного бронирования из пакета: бронирование с новым
+ * статусом либо ошибка с тем же статусом и текстом, что вернул бы одиночный PATCH /bookings/{id}.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class BookingApprovalResultDto {
+
+    private Long bookingId;
+
+    private Integer status;
+
+    private BookingDto booking;
+
+    private ErrorResponse error;
+
+
+    public static BookingApprovalResultDto updated(Long bookingId, BookingDto booking) {
+        return new BookingApprovalResultDto(bookingId, HttpStatus.OK.value(), booking, null);
+    }
+
+    public static BookingApprovalResultDto failed(Long bookingId, RuntimeException exception) {
+        HttpStatus status = BookingBatchResultDto.getStatus(exception);
+        return new BookingApprovalResultDto(bookingId, status.value(), null,
+                new ErrorResponse(status.value() + " - " + status.getReasonPhrase(), exception.getMessage()));
+    }
+}
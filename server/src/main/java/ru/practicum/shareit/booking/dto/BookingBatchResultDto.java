@@ -0,0 +1,51 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+import org.springframework.http.HttpStatus;
+import ru.practicum.shareit.common.ErrorResponse;
+import ru.practicum.shareit.common.exception.ConflictException;
+import ru.practicum.shareit.common.exception.EntityNotFoundException;
+import ru.practicum.shareit.common.exception.ForbiddenException;
+
+/**
+ * Результат одного бронирования из пакета: созданное бронирование либо ошибка
+ * с тем же статусом и текстом, что вернул бы одиночный POST /bookings.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@ToString
+public class BookingBatchResultDto {
+
+    private Integer index;
+
+    private Integer status;
+
+    private BookingDto booking;
+
+    private ErrorResponse error;
+
+
+    public static BookingBatchResultDto created(int index, BookingDto booking) {
+        return new BookingBatchResultDto(index, HttpStatus.CREATED.value(), booking, null);
+    }
+
+    public static BookingBatchResultDto failed(int index, RuntimeException exception) {
+        HttpStatus status = getStatus(exception);
+        return new BookingBatchResultDto(index, status.value(), null,
+                new ErrorResponse(status.value() + " - " + status.getReasonPhrase(), exception.getMessage()));
+    }
+
+
+    static HttpStatus getStatus(RuntimeException exception) {
+        if (exception instanceof EntityNotFoundException) return HttpStatus.NOT_FOUND;
+        if (exception instanceof ConflictException) return HttpStatus.CONFLICT;
+        if (exception instanceof ForbiddenException) return HttpStatus.FORBIDDEN;
+        return HttpStatus.BAD_REQUEST;
+    }
+}
@@ -0,0 +1,43 @@
+package ru.practicum.shareit.booking.index;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class BookingInterval {
+
+    private final Long id;
+
+    private final Long itemId;
+
+    private final LocalDateTime start;
+
+    private final LocalDateTime end;
+
+    private final Long bookerId;
+
+    private final BookingState status;
+
+
+    public static BookingInterval of(Booking booking) {
+        return new BookingInterval(booking.getId(), booking.getItem().getId(), booking.getStart(),
+                booking.getEnd(), booking.getBooker().getId(), booking.getStatus());
+    }
+
+    public boolean isApproved() {
+        return BookingState.APPROVED.equals(status);
+    }
+
+    public boolean isActive() {
+        return BookingState.WAITING.equals(status) || BookingState.APPROVED.equals(status);
+    }
+
+    public boolean overlaps(LocalDateTime otherStart, LocalDateTime otherEnd) {
+        return start.isBefore(otherEnd) && end.isAfter(otherStart);
+    }
+}
@@ -0,0 +1,200 @@
+package ru.practicum.shareit.booking.index;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.lock.ItemBookingLocks;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+@Component
+public class ItemAvailabilityIndex {
+
+    private final BookingRepository bookingRepository;
+
+    private final Map<Long, ItemBookingIntervals> items;
+
+    private final AtomicLong modifications = new AtomicLong();
+
+    private final AtomicInteger pendingCommits = new AtomicInteger();
+
+
+    @Autowired
+    public ItemAvailabilityIndex(BookingRepository bookingRepository,
+                                 @Value("${shareit.booking.index.max-items:10000}") int maxItems) {
+        this.bookingRepository = bookingRepository;
+        this.items = Collections.synchronizedMap(new LinkedHashMap<Long, ItemBookingIntervals>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, ItemBookingIntervals> eldest) {
+                return size() > maxItems;
+            }
+        });
+    }
+
+
+    public List<BookingInterval> findOverlaps(Long itemId, LocalDateTime start, LocalDateTime end) {
+        return getIntervals(itemId).findOverlaps(start, end);
+    }
+
+    /**
+     * Последнее и следующее подтвержденные бронирования каждой вещи на момент now.
+     * Вещи, которых нет в индексе, загружаются одним запросом.
+     */
+    public Map<Long, ItemBookingSummary> findLastAndNext(Collection<Long> itemIds, LocalDateTime now) {
+        Map<Long, ItemBookingSummary> summaries = new HashMap<>();
+        getIntervals(itemIds).forEach((itemId, intervals) -> summaries.put(itemId, intervals.summarize(now)));
+        return summaries;
+    }
+
+    /**
+     * Пересечения для нескольких запрошенных интервалов разом. Каждый интервал сравнивается
+     * с сохраненными бронированиями и с предыдущими интервалами списка, у которых пересечений не нашлось.
+     * Вещи, которых нет в индексе, загружаются одним запросом.
+     */
+    public List<List<BookingInterval>> findOverlaps(List<BookingInterval> requested) {
+        Map<Long, ItemBookingIntervals> intervals = getIntervals(requested.stream()
+                .map(BookingInterval::getItemId)
+                .collect(Collectors.toSet()));
+        Map<Long, List<BookingInterval>> accepted = new HashMap<>();
+
+        List<List<BookingInterval>> overlaps = new ArrayList<>(requested.size());
+        for (BookingInterval interval : requested) {
+            List<BookingInterval> itemAccepted = accepted.computeIfAbsent(interval.getItemId(),
+                    itemId -> new ArrayList<>());
+            List<BookingInterval> found = new ArrayList<>(intervals.get(interval.getItemId())
+                    .findOverlaps(interval.getStart(), interval.getEnd()));
+            for (BookingInterval other : itemAccepted) {
+                if (other.overlaps(interval.getStart(), interval.getEnd())) {
+                    found.add(other);
+                }
+            }
+            if (found.isEmpty()) {
+                itemAccepted.add(interval);
+            }
+            overlaps.add(found);
+        }
+        return overlaps;
+    }
+
+    public void put(Booking booking) {
+        Long itemId = booking.getItem().getId();
+        BookingInterval interval = BookingInterval.of(booking);
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            modifications.incrementAndGet();
+            apply(itemId, interval);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private boolean applied;
+
+            /**
+             * Откат записи должен случиться до того, как {@link ItemBookingLocks} отпустит вещь.
+             */
+            @Override
+            public int getOrder() {
+                return ItemBookingLocks.SYNCHRONIZATION_ORDER - 1;
+            }
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                pendingCommits.incrementAndGet();
+                modifications.incrementAndGet();
+                applied = true;
+                apply(itemId, interval);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (!applied) return;
+                if (status != STATUS_COMMITTED) {
+                    items.remove(itemId);
+                }
+                modifications.incrementAndGet();
+                pendingCommits.decrementAndGet();
+            }
+        });
+    }
+
+    public boolean isCached(Long itemId) {
+        return items.containsKey(itemId);
+    }
+
+
+    // -------------------------
+    // Вспомогательные методы
+    // -------------------------
+
+    private ItemBookingIntervals getIntervals(Long itemId) {
+        ItemBookingIntervals cached = items.get(itemId);
+        if (cached != null) return cached;
+
+        long modificationsBeforeLoad = modifications.get();
+        boolean noPendingCommits = pendingCommits.get() == 0;
+        ItemBookingIntervals loaded = new ItemBookingIntervals(
+                bookingRepository.findActiveIntervalsByItemId(itemId));
+
+        if (noPendingCommits && modificationsBeforeLoad == modifications.get()) {
+            items.putIfAbsent(itemId, loaded);
+        }
+        return loaded;
+    }
+
+    private Map<Long, ItemBookingIntervals> getIntervals(Collection<Long> itemIds) {
+        Map<Long, ItemBookingIntervals> found = new HashMap<>();
+        List<Long> missingIds = new ArrayList<>();
+        for (Long itemId : itemIds) {
+            ItemBookingIntervals cached = items.get(itemId);
+            if (cached != null) {
+                found.put(itemId, cached);
+            } else {
+                missingIds.add(itemId);
+            }
+        }
+        if (!missingIds.isEmpty()) {
+            found.putAll(loadIntervals(missingIds));
+        }
+        return found;
+    }
+
+    private Map<Long, ItemBookingIntervals> loadIntervals(List<Long> itemIds) {
+        long modificationsBeforeLoad = modifications.get();
+        boolean noPendingCommits = pendingCommits.get() == 0;
+        Map<Long, List<BookingInterval>> intervalsByItemId = bookingRepository
+                .findActiveIntervalsByItemIds(itemIds)
+                .stream()
+                .collect(Collectors.groupingBy(BookingInterval::getItemId));
+
+        Map<Long, ItemBookingIntervals> loaded = new HashMap<>();
+        for (Long itemId : itemIds) {
+            loaded.put(itemId, new ItemBookingIntervals(
+                    intervalsByItemId.getOrDefault(itemId, Collections.emptyList())));
+        }
+
+        if (noPendingCommits && modificationsBeforeLoad == modifications.get()) {
+            loaded.forEach(items::putIfAbsent);
+        }
+        return loaded;
+    }
+
+    private void apply(Long itemId, BookingInterval interval) {
+        ItemBookingIntervals cached = items.get(itemId);
+        if (cached != null) {
+            cached.put(interval);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package ru.practicum.shareit.booking.index;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+/**
+ * Активные (WAITING и APPROVED) бронирования одной вещи, упорядоченные по началу.
+ * Активные бронирования вещи не пересекаются, поэтому упорядочены и по окончанию:
+ * пересечения с [start, end) образуют непрерывный отрезок, который находится за O(log n).
+ */
+class ItemBookingIntervals {
+
+    private static final Comparator<BookingInterval> BY_START = Comparator
+            .comparing(BookingInterval::getStart)
+            .thenComparing(BookingInterval::getId);
+
+    private final NavigableSet<BookingInterval> intervals = new TreeSet<>(BY_START);
+
+    private final Map<Long, BookingInterval> intervalsById = new HashMap<>();
+
+
+    ItemBookingIntervals(Collection<BookingInterval> activeIntervals) {
+        activeIntervals.forEach(this::put);
+    }
+
+    synchronized List<BookingInterval> findOverlaps(LocalDateTime start, LocalDateTime end) {
+        List<BookingInterval> overlaps = new ArrayList<>();
+        BookingInterval probe = new BookingInterval(Long.MIN_VALUE, null, end, end, null, null);
+        Iterator<BookingInterval> candidates = intervals.headSet(probe, false).descendingIterator();
+
+        while (candidates.hasNext()) {
+            BookingInterval candidate = candidates.next();
+            if (!candidate.overlaps(start, end)) break;
+            overlaps.add(0, candidate);
+        }
+        return overlaps;
+    }
+
+    /**
+     * Последнее начавшееся (start <= now) и ближайшее будущее подтвержденные бронирования.
+     */
+    synchronized ItemBookingSummary summarize(LocalDateTime now) {
+        BookingInterval probe = new BookingInterval(Long.MAX_VALUE, null, now, now, null, null);
+        return new ItemBookingSummary(
+                findFirstApproved(intervals.headSet(probe, true).descendingIterator()),
+                findFirstApproved(intervals.tailSet(probe, false).iterator()));
+    }
+
+    synchronized void put(BookingInterval interval) {
+        remove(interval.getId());
+        if (interval.isActive()) {
+            intervals.add(interval);
+            intervalsById.put(interval.getId(), interval);
+        }
+    }
+
+    synchronized void remove(Long bookingId) {
+        BookingInterval removed = intervalsById.remove(bookingId);
+        if (removed != null) {
+            intervals.remove(removed);
+        }
+    }
+
+    synchronized int size() {
+        return intervals.size();
+    }
+
+    private BookingInterval findFirstApproved(Iterator<BookingInterval> candidates) {
+        while (candidates.hasNext()) {
+            BookingInterval candidate = candidates.next();
+            if (candidate.isApproved()) return candidate;
+        }
+        return null;
+    }
+}
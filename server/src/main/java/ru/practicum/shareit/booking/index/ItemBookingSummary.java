@@ -0,0 +1,14 @@
+package ru.practicum.shareit.booking.index;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class ItemBookingSummary {
+
+    private final BookingInterval lastBooking;
+
+    private final BookingInterval nextBooking;
+
+}
@@ -0,0 +1,98 @@
+package ru.practicum.shareit.booking.lock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Полосатые блокировки по ID вещи: проверка пересечений и вставка бронирования одной вещи выполняются
+ * последовательно, а бронирования разных вещей, попавших в разные полосы, друг друга не ждут.
+ * <p>
+ * Внутри транзакции блокировка снимается только после её завершения, чтобы следующий поток увидел
+ * уже закоммиченное бронирование.
+ */
+@Component
+public class ItemBookingLocks {
+
+    /**
+     * Порядок синхронизации, снимающей блокировки: она выполняется после остальных, в том числе после
+     * отката записи в {@code ItemAvailabilityIndex}, чтобы следующий поток не увидел откаченное бронирование.
+     */
+    public static final int SYNCHRONIZATION_ORDER = Ordered.LOWEST_PRECEDENCE;
+
+    private final ReentrantLock[] stripes;
+
+
+    @Autowired
+    public ItemBookingLocks(@Value("${shareit.booking.lock.stripes:64}") int stripes) {
+        this.stripes = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+    }
+
+
+    public void lockUntilCompletion(Long itemId) {
+        lockAllUntilCompletion(Collections.singletonList(itemId));
+    }
+
+    /**
+     * Полосы захватываются по возрастанию номера, поэтому пакеты с пересекающимися вещами
+     * не могут заблокировать друг друга.
+     */
+    public void lockAllUntilCompletion(Collection<Long> itemIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Блокировка вещи требует активной транзакции");
+        }
+
+        List<ReentrantLock> locked = new ArrayList<>();
+        itemIds.stream()
+                .map(this::getStripeIndex)
+                .collect(Collectors.toCollection(TreeSet::new))
+                .forEach(index -> {
+                    stripes[index].lock();
+                    locked.add(stripes[index]);
+                });
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public int getOrder() {
+                return SYNCHRONIZATION_ORDER;
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                for (int i = locked.size() - 1; i >= 0; i--) {
+                    locked.get(i).unlock();
+                }
+            }
+        });
+    }
+
+    boolean isLocked(Long itemId) {
+        return getStripe(itemId).isLocked();
+    }
+
+
+    // -------------------------
+    // Вспомогательные методы
+    // -------------------------
+
+    private ReentrantLock getStripe(Long itemId) {
+        return stripes[getStripeIndex(itemId)];
+    }
+
+    private int getStripeIndex(Long itemId) {
+        return Math.floorMod(itemId.hashCode(), stripes.length);
+    }
+}
@@ -3,6 +3,7 @@ package ru.practicum.shareit.booking.mapper;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.index.BookingInterval;
 import ru.practicum.shareit.booking.model.Booking;
 
 @Mapper(componentModel = "spring")
@@ -19,11 +20,9 @@ public interface BookingMapper {
     @Mapping(target = "itemName", source = "item.name")
     BookingDto toBookingDto(Booking booking);
 
-    @Mapping(target = "itemId", source = "item.id")
-    @Mapping(target = "itemName", source = "item.name")
-    @Mapping(target = "bookerId", source = "booker.id")
+    @Mapping(target = "itemName", source = "itemName")
     @Mapping(target = "booker", ignore = true)
     @Mapping(target = "item", ignore = true)
-    BookingDto toBookingDtoLite(Booking booking);
+    BookingDto toBookingDtoLite(BookingInterval interval, String itemName);
 
 }
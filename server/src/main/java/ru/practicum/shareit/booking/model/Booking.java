@@ -3,11 +3,14 @@ package ru.practicum.shareit.booking.model;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import ru.practicum.shareit.booking.bucket.BookingBucketListener;
+import ru.practicum.shareit.booking.bucket.BookingBucketScheduler;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.EnumType;
 import javax.persistence.Enumerated;
 import javax.persistence.FetchType;
@@ -16,11 +19,14 @@ import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
+import javax.persistence.Version;
 import java.time.LocalDateTime;
 
 
 @Entity
+@EntityListeners(BookingBucketListener.class)
 @Table(name = "bookings", schema = "public")
 @Getter
 @Setter
@@ -28,9 +34,17 @@ import java.time.LocalDateTime;
 public class Booking {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookings_seq")
+    @SequenceGenerator(name = "bookings_seq", sequenceName = "bookings_seq", allocationSize = 50)
     private Long id;
 
+    /**
+     * Увеличивается при каждом изменении строки; используется в ETag ответов.
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
+
     @Column(name = "starts")
     private LocalDateTime start;
 
@@ -48,4 +62,11 @@ public class Booking {
     @Enumerated(EnumType.STRING)
     private BookingState status;
 
+    /**
+     * Пересчитывается при каждой записи сущности и массовыми update'ами {@link BookingBucketScheduler}.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "bucket")
+    private BookingTimeBucket bucket;
+
 }
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.booking.model;
+
+import java.time.LocalDateTime;
+
+public enum BookingTimeBucket {
+    FUTURE,
+    CURRENT,
+    PAST;
+
+    public static BookingTimeBucket of(LocalDateTime start, LocalDateTime end, LocalDateTime now) {
+        if (start == null || end == null) return null;
+        if (!end.isAfter(now)) return PAST;
+        if (!start.isAfter(now)) return CURRENT;
+        return FUTURE;
+    }
+}
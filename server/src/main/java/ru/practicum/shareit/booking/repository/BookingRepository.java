@@ -1,57 +1,83 @@
 package ru.practicum.shareit.booking.repository;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.index.BookingInterval;
 import ru.practicum.shareit.booking.model.Booking;
-import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.BookingTimeBucket;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
 
-    @Query("select b from Booking as b " +
-            "where b.booker = :booker " +
-            "and b.item = :item " +
-            "and b.start < :now " +
-            "and b.status = 'APPROVED'")
-    List<Booking> findByBookerAndItemPast(@Param("booker") User booker,
-                                          @Param("item") Item item,
-                                          @Param("now") LocalDateTime now);
-
+    /**
+     * Брал ли пользователь вещь в аренду: достаточно одного подтверждённого бронирования,
+     * начавшегося до {@code now}. Подзапрос останавливается на первой подходящей строке индекса
+     * {@code (booker_id, item_id, starts)}, сколько бы бронирований ни было у пользователя.
+     * Статус записан в запросе литералом, чтобы PostgreSQL мог взять частичный индекс по APPROVED.
+     */
+    @Query(nativeQuery = true,
+            value = "select exists (" +
+                    "select 1 from bookings b " +
+                    "where b.booker_id = :bookerId " +
+                    "and b.item_id = :itemId " +
+                    "and b.status = 'APPROVED' " +
+                    "and b.starts < :now " +
+                    "limit 1)")
+    boolean existsApprovedStartedBefore(@Param("bookerId") Long bookerId,
+                                        @Param("itemId") Long itemId,
+                                        @Param("now") LocalDateTime now);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
     @Query("select b from Booking as b " +
             "where b.booker = ?1")
     List<Booking> findAllByBooker(User booker, Pageable pageable);
 
+    @EntityGraph(attributePaths = {"item", "booker"})
     @Query("select b from Booking as b " +
             "where b.booker = ?1 " +
-            "and b.status = 'WAITING'")
-    List<Booking> findAllByBookerWaiting(User booker, Pageable pageable);
+            "and (b.start < ?2 or (b.start = ?2 and b.id < ?3))")
+    List<Booking> findAllByBookerKeyset(User booker, LocalDateTime cursorStart, Long cursorId, Pageable pageable);
 
+    @EntityGraph(attributePaths = {"item", "booker"})
     @Query("select b from Booking as b " +
             "where b.booker = ?1 " +
-            "and b.status = 'REJECTED'")
-    List<Booking> findAllByBookerRejected(User booker, Pageable pageable);
+            "and b.status = 'WAITING'")
+    List<Booking> findAllByBookerWaiting(User booker, Pageable pageable);
 
+    @EntityGraph(attributePaths = {"item", "booker"})
     @Query("select b from Booking as b " +
             "where b.booker = ?1 " +
-            "and b.end <= ?2 ")
-    List<Booking> findAllByBookerPast(User booker, LocalDateTime now, Pageable pageable);
+            "and b.status = 'WAITING' " +
+            "and (b.start < ?2 or (b.start = ?2 and b.id < ?3))")
+    List<Booking> findAllByBookerWaitingKeyset(User booker, LocalDateTime cursorStart, Long cursorId,
+                                               Pageable pageable);
 
+    @EntityGraph(attributePaths = {"item", "booker"})
     @Query("select b from Booking as b " +
             "where b.booker = ?1 " +
-            "and b.start <= ?2 " +
-            "and b.end > ?2 ")
-    List<Booking> findAllByBookerCurrent(User booker, LocalDateTime now, Pageable pageable);
+            "and b.status = 'REJECTED'")
+    List<Booking> findAllByBookerRejected(User booker, Pageable pageable);
 
+    @EntityGraph(attributePaths = {"item", "booker"})
     @Query("select b from Booking as b " +
             "where b.booker = ?1 " +
-            "and b.start > ?2 ")
-    List<Booking> findAllByBookerFuture(User booker, LocalDateTime now, Pageable pageable);
+            "and b.status = 'REJECTED' " +
+            "and (b.start < ?2 or (b.start = ?2 and b.id < ?3))")
+    List<Booking> findAllByBookerRejectedKeyset(User booker, LocalDateTime cursorStart, Long cursorId,
+                                                Pageable pageable);
 
+    @EntityGraph(attributePaths = {"item", "booker"})
     @Query("select b from Booking b " +
             "where b.item.id in " +
             "(select item.id from Item item " +
@@ -59,6 +85,16 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
             "and item.isAvailable = true)")
     List<Booking> findByOwnerId(Long ownerId, Pageable pageable);
 
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("select b from Booking as b " +
+            "where b.item in " +
+            "(select item.id from Item item " +
+            "where item.owner.id = ?1 " +
+            "and item.isAvailable = true) " +
+            "and (b.start < ?2 or (b.start = ?2 and b.id < ?3))")
+    List<Booking> findByOwnerIdKeyset(Long ownerId, LocalDateTime cursorStart, Long cursorId, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
     @Query("select b from Booking as b " +
             "where b.item in " +
             "(select item.id from Item item " +
@@ -67,6 +103,18 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
             "and b.status = 'WAITING'")
     List<Booking> findByOwnerIdWaiting(Long ownerId, Pageable pageable);
 
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("select b from Booking as b " +
+            "where b.item in " +
+            "(select item.id from Item item " +
+            "where item.owner.id = ?1 " +
+            "and item.isAvailable = true) " +
+            "and b.status = 'WAITING' " +
+            "and (b.start < ?2 or (b.start = ?2 and b.id < ?3))")
+    List<Booking> findByOwnerIdWaitingKeyset(Long ownerId, LocalDateTime cursorStart, Long cursorId,
+                                             Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
     @Query("select b from Booking as b " +
             "where b.item in " +
             "(select item.id from Item item " +
@@ -75,98 +123,130 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
             "and b.status = 'REJECTED'")
     List<Booking> findByOwnerIdRejected(Long ownerId, Pageable pageable);
 
+    @EntityGraph(attributePaths = {"item", "booker"})
     @Query("select b from Booking as b " +
             "where b.item in " +
             "(select item.id from Item item " +
             "where item.owner.id = ?1 " +
             "and item.isAvailable = true) " +
-            "and b.end <= ?2 ")
-    List<Booking> findByOwnerIdPast(Long ownerId, LocalDateTime now, Pageable pageable);
+            "and b.status = 'REJECTED' " +
+            "and (b.start < ?2 or (b.start = ?2 and b.id < ?3))")
+    List<Booking> findByOwnerIdRejectedKeyset(Long ownerId, LocalDateTime cursorStart, Long cursorId,
+                                              Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("select b from Booking as b " +
+            "where b.booker = ?1 " +
+            "and b.bucket = ?2")
+    List<Booking> findAllByBookerAndBucket(User booker, BookingTimeBucket bucket, Pageable pageable);
 
+    @EntityGraph(attributePaths = {"item", "booker"})
+    @Query("select b from Booking as b " +
+            "where b.booker = ?1 " +
+            "and b.bucket = ?2 " +
+            "and (b.start < ?3 or (b.start = ?3 and b.id < ?4))")
+    List<Booking> findAllByBookerAndBucketKeyset(User booker, BookingTimeBucket bucket,
+                                                 LocalDateTime cursorStart, Long cursorId, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "booker"})
     @Query("select b from Booking as b " +
             "where b.item in " +
             "(select item.id from Item item " +
             "where item.owner.id = ?1 " +
             "and item.isAvailable = true) " +
-            "and b.start <= ?2 " +
-            "and b.end > ?2 ")
-    List<Booking> findByOwnerIdCurrent(Long ownerId, LocalDateTime now, Pageable pageable);
+            "and b.bucket = ?2")
+    List<Booking> findByOwnerIdAndBucket(Long ownerId, BookingTimeBucket bucket, Pageable pageable);
 
+    @EntityGraph(attributePaths = {"item", "booker"})
     @Query("select b from Booking as b " +
             "where b.item in " +
             "(select item.id from Item item " +
             "where item.owner.id = ?1 " +
             "and item.isAvailable = true) " +
-            "and b.start > ?2 ")
-    List<Booking> findByOwnerIdFuture(Long ownerId, LocalDateTime now, Pageable pageable);
-
-    @Query("select booking from Booking booking " +
-            "where booking.start in " +
-            "(select max(b.start) " +
-            "from Booking as b " +
-            "where b.item.id in :itemId " +
+            "and b.bucket = ?2 " +
+            "and (b.start < ?3 or (b.start = ?3 and b.id < ?4))")
+    List<Booking> findByOwnerIdAndBucketKeyset(Long ownerId, BookingTimeBucket bucket,
+                                               LocalDateTime cursorStart, Long cursorId, Pageable pageable);
+
+    @EntityGraph(attributePaths = {"item", "item.owner", "booker"})
+    @Query("select b from Booking as b " +
+            "where b.id in :ids")
+    List<Booking> findAllWithItemByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select b.version as version, b.booker.id as bookerId, b.booker.version as bookerVersion, " +
+            "b.item.owner.id as ownerId, b.item.version as itemVersion " +
+            "from Booking b " +
+            "where b.id = :bookingId")
+    Optional<BookingVersion> findVersionById(@Param("bookingId") Long bookingId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Booking b set b.status = :status, b.version = b.version + 1 " +
+            "where b.id in :ids " +
+            "and b.status = 'WAITING'")
+    int updateWaitingStatus(@Param("ids") Collection<Long> ids, @Param("status") BookingState status);
+
+    @Transactional
+    @Modifying
+    @Query("update Booking b set b.bucket = 'PAST' " +
+            "where (b.bucket is null or b.bucket in ('FUTURE', 'CURRENT')) " +
+            "and b.end <= :now")
+    int moveToPastBucket(@Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("update Booking b set b.bucket = 'CURRENT' " +
+            "where (b.bucket is null or b.bucket = 'FUTURE') " +
             "and b.start <= :now " +
-            "and b.status = 'APPROVED') " +
-            "and booking.item.id in :itemId")
-    Booking findLastByItemId(@Param("itemId") Long itemId,
-                             @Param("now") LocalDateTime now);
+            "and b.end > :now")
+    int moveToCurrentBucket(@Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("update Booking b set b.bucket = 'FUTURE' " +
+            "where b.bucket is null " +
+            "and b.start > :now")
+    int assignFutureBucket(@Param("now") LocalDateTime now);
+
+    @Query("select distinct b.start from Booking b " +
+            "where b.bucket = 'FUTURE' " +
+            "and b.start > :from " +
+            "and b.start <= :to")
+    List<LocalDateTime> findStartsInBucketBetween(@Param("from") LocalDateTime from,
+                                                  @Param("to") LocalDateTime to);
+
+    @Query("select distinct b.end from Booking b " +
+            "where b.bucket in ('FUTURE', 'CURRENT') " +
+            "and b.end > :from " +
+            "and b.end <= :to")
+    List<LocalDateTime> findEndsInBucketBetween(@Param("from") LocalDateTime from,
+                                                @Param("to") LocalDateTime to);
+
+    @Query("select new ru.practicum.shareit.booking.index.BookingInterval(" +
+            "b.id, b.item.id, b.start, b.end, b.booker.id, b.status) " +
+            "from Booking b " +
+            "where b.item.id = :itemId " +
+            "and b.status in ('WAITING', 'APPROVED')")
+    List<BookingInterval> findActiveIntervalsByItemId(@Param("itemId") Long itemId);
 
-    @Query(nativeQuery = true,
-            value = "select * from bookings b " +
-                    "inner join (" +
-                    "select item_id, max(starts) as last_start from bookings " +
-                    "where starts <= :now " +
-                    "and item_id in :itemIds " +
-                    "and status = 'APPROVED' " +
-                    "group by item_id" +
-                    ") last_bookings " +
-                    "on b.item_id = last_bookings.item_id " +
-                    "and b.starts = last_start " +
-                    "where b.id = " +
-                    "(select max(id) from bookings " +
-                    "where item_id = b.item_id " +
-                    "and starts = b.starts)")
-    List<Booking> findLastByItemIds(@Param("itemIds") List<Long> itemIds,
-                                    @Param("now") LocalDateTime now);
-
-    @Query("select booking from Booking booking " +
-            "where booking.start in " +
-            "(select min(b.start) " +
-            "from Booking as b " +
-            "where b.item.id in :itemId " +
-            "and b.start > :now " +
-            "and b.status = 'APPROVED') " +
-            "and booking.item.id in :itemId")
-    Booking findNextByItemId(@Param("itemId") Long itemId,
-                             @Param("now") LocalDateTime now);
+    @Query("select new ru.practicum.shareit.booking.index.BookingInterval(" +
+            "b.id, b.item.id, b.start, b.end, b.booker.id, b.status) " +
+            "from Booking b " +
+            "where b.item.id in :itemIds " +
+            "and b.status in ('WAITING', 'APPROVED')")
+    List<BookingInterval> findActiveIntervalsByItemIds(@Param("itemIds") Collection<Long> itemIds);
 
-    @Query(nativeQuery = true,
-            value = "select * from bookings b " +
-                    "inner join (" +
-                    "select item_id, min(starts) as next_start from bookings " +
-                    "where starts > :now " +
-                    "and item_id in :itemIds " +
-                    "and status = 'APPROVED'" +
-                    "group by item_id" +
-                    ") next_bookings " +
-                    "on b.item_id = next_bookings.item_id " +
-                    "and b.starts = next_start " +
-                    "where b.id = " +
-                    "(select max(id) from bookings " +
-                    "where item_id = b.item_id " +
-                    "and starts = b.starts)")
-    List<Booking> findNextByItemIds(@Param("itemIds") List<Long> itemIds,
-                                    @Param("now") LocalDateTime now);
+    /**
+     * Версии бронирования, вещи и арендатора — всё, из чего собирается {@code BookingDto}.
+     */
+    interface BookingVersion {
+        long getVersion();
 
-    @Query("select b from Booking b " +
-            "where b.item.id = :itemId " +
-            "and (b.start = :starts " +
-            "or b.end = :ends " +
-            "or (b.start between :starts and :ends) " +
-            "or (b.end between :starts and :ends) " +
-            "or (:starts between b.start and b.end) " +
-            "or (:ends between b.start and b.end))")
-    List<Booking> findOverlaps(@Param("itemId") Long itemId,
-                               @Param("starts") LocalDateTime starts,
-                               @Param("ends") LocalDateTime ends);
+        Long getBookerId();
+
+        long getBookerVersion();
+
+        Long getOwnerId();
+
+        long getItemVersion();
+    }
 }
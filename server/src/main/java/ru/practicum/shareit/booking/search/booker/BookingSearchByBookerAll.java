@@ -17,6 +17,10 @@ public class BookingSearchByBookerAll implements BookingSearchByBooker {
 
     @Override
     public List<Booking> search(BookingSearchByBookerParams params) {
+        if (params.getCursor() != null) {
+            return bookingRepository.findAllByBookerKeyset(params.getBooker(),
+                    params.getCursor().getTimestamp(), params.getCursor().getId(), params.getPageable());
+        }
         return bookingRepository.findAllByBooker(params.getBooker(), params.getPageable());
     }
 
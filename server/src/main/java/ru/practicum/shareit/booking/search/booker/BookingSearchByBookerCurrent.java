@@ -4,10 +4,10 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 import ru.practicum.shareit.booking.dto.BookingStateDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingTimeBucket;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.booking.search.booker.params.BookingSearchByBookerParams;
 
-import java.time.LocalDateTime;
 import java.util.List;
 
 @Component
@@ -18,8 +18,12 @@ public class BookingSearchByBookerCurrent implements BookingSearchByBooker {
 
     @Override
     public List<Booking> search(BookingSearchByBookerParams params) {
-        return bookingRepository.findAllByBookerCurrent(params.getBooker(),
-                LocalDateTime.now(), params.getPageable());
+        if (params.getCursor() != null) {
+            return bookingRepository.findAllByBookerAndBucketKeyset(params.getBooker(), BookingTimeBucket.CURRENT,
+                    params.getCursor().getTimestamp(), params.getCursor().getId(), params.getPageable());
+        }
+        return bookingRepository.findAllByBookerAndBucket(params.getBooker(), BookingTimeBucket.CURRENT,
+                params.getPageable());
     }
 
     @Override
@@ -17,6 +17,10 @@ public class BookingSearchByBookerRejected implements BookingSearchByBooker {
 
     @Override
     public List<Booking> search(BookingSearchByBookerParams params) {
+        if (params.getCursor() != null) {
+            return bookingRepository.findAllByBookerRejectedKeyset(params.getBooker(),
+                    params.getCursor().getTimestamp(), params.getCursor().getId(), params.getPageable());
+        }
         return bookingRepository.findAllByBookerRejected(params.getBooker(), params.getPageable());
     }
 
@@ -17,6 +17,10 @@ public class BookingSearchByBookerWaiting implements BookingSearchByBooker {
 
     @Override
     public List<Booking> search(BookingSearchByBookerParams params) {
+        if (params.getCursor() != null) {
+            return bookingRepository.findAllByBookerWaitingKeyset(params.getBooker(),
+                    params.getCursor().getTimestamp(), params.getCursor().getId(), params.getPageable());
+        }
         return bookingRepository.findAllByBookerWaiting(params.getBooker(), params.getPageable());
     }
 
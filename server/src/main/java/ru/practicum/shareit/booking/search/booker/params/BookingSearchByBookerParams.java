@@ -3,6 +3,7 @@ package ru.practicum.shareit.booking.search.booker.params;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.common.KeysetCursor;
 import ru.practicum.shareit.user.model.User;
 
 @Getter
@@ -13,4 +14,6 @@ public class BookingSearchByBookerParams {
 
     private final Pageable pageable;
 
+    private final KeysetCursor cursor;
+
 }
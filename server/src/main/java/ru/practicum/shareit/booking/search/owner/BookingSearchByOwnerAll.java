@@ -17,6 +17,10 @@ public class BookingSearchByOwnerAll implements BookingSearchByOwner {
 
     @Override
     public List<Booking> search(BookingSearchByOwnerParams params) {
+        if (params.getCursor() != null) {
+            return bookingRepository.findByOwnerIdKeyset(params.getOwnerId(),
+                    params.getCursor().getTimestamp(), params.getCursor().getId(), params.getPageable());
+        }
         return bookingRepository.findByOwnerId(params.getOwnerId(), params.getPageable());
     }
 
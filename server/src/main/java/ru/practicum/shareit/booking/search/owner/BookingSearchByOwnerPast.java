@@ -4,10 +4,10 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 import ru.practicum.shareit.booking.dto.BookingStateDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingTimeBucket;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.booking.search.owner.params.BookingSearchByOwnerParams;
 
-import java.time.LocalDateTime;
 import java.util.List;
 
 @Component
@@ -18,7 +18,12 @@ public class BookingSearchByOwnerPast implements BookingSearchByOwner {
 
     @Override
     public List<Booking> search(BookingSearchByOwnerParams params) {
-        return bookingRepository.findByOwnerIdPast(params.getOwnerId(), LocalDateTime.now(), params.getPageable());
+        if (params.getCursor() != null) {
+            return bookingRepository.findByOwnerIdAndBucketKeyset(params.getOwnerId(), BookingTimeBucket.PAST,
+                    params.getCursor().getTimestamp(), params.getCursor().getId(), params.getPageable());
+        }
+        return bookingRepository.findByOwnerIdAndBucket(params.getOwnerId(), BookingTimeBucket.PAST,
+                params.getPageable());
     }
 
     @Override
@@ -18,6 +18,10 @@ public class BookingSearchByOwnerRejected implements BookingSearchByOwner {
 
     @Override
     public List<Booking> search(BookingSearchByOwnerParams params) {
+        if (params.getCursor() != null) {
+            return bookingRepository.findByOwnerIdRejectedKeyset(params.getOwnerId(),
+                    params.getCursor().getTimestamp(), params.getCursor().getId(), params.getPageable());
+        }
         return bookingRepository.findByOwnerIdRejected(params.getOwnerId(), params.getPageable());
     }
 
@@ -17,6 +17,10 @@ public class BookingSearchByOwnerWaiting implements BookingSearchByOwner {
 
     @Override
     public List<Booking> search(BookingSearchByOwnerParams params) {
+        if (params.getCursor() != null) {
+            return bookingRepository.findByOwnerIdWaitingKeyset(params.getOwnerId(),
+                    params.getCursor().getTimestamp(), params.getCursor().getId(), params.getPageable());
+        }
         return bookingRepository.findByOwnerIdWaiting(params.getOwnerId(), params.getPageable());
     }
 
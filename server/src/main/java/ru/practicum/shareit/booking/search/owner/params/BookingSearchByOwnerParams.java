@@ -3,6 +3,7 @@ package ru.practicum.shareit.booking.search.owner.params;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.common.KeysetCursor;
 
 @Getter
 @AllArgsConstructor
@@ -12,4 +13,6 @@ public class BookingSearchByOwnerParams {
 
     private final Pageable pageable;
 
+    private final KeysetCursor cursor;
+
 }
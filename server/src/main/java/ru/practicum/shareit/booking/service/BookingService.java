@@ -1,18 +1,34 @@
 package ru.practicum.shareit.booking.service;
 
 import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.dto.BookingApprovalResultDto;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.common.KeysetCursor;
 
 import java.util.List;
 
 public interface BookingService {
     BookingDto create(BookingDto bookingDto);
 
+    List<BookingBatchResultDto> createAll(Long bookerId, List<BookingDto> bookingDtos);
+
     BookingDto approve(Long bookingId, Long ownerId, Boolean approved);
 
+    List<BookingApprovalResultDto> approveAll(Long ownerId, List<Long> bookingIds, Boolean approved);
+
     BookingDto getById(Long bookingId, Long userId);
 
+    /**
+     * ETag ответа {@link #getById}; {@code null}, если бронирование недоступно пользователю.
+     */
+    String getETag(Long bookingId, Long userId);
+
     List<BookingDto> getAllByBookerId(Long bookerId, String state, Pageable pageable);
 
+    List<BookingDto> getAllByBookerId(Long bookerId, String state, KeysetCursor cursor, Pageable pageable);
+
     List<BookingDto> getAllByOwnerId(Long ownerId, String state, Pageable pageable);
+
+    List<BookingDto> getAllByOwnerId(Long ownerId, String state, KeysetCursor cursor, Pageable pageable);
 }
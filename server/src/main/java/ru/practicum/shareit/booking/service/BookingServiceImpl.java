@@ -4,8 +4,13 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingApprovalResultDto;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingStateDto;
+import ru.practicum.shareit.booking.index.BookingInterval;
+import ru.practicum.shareit.booking.index.ItemAvailabilityIndex;
+import ru.practicum.shareit.booking.lock.ItemBookingLocks;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingState;
@@ -14,19 +19,26 @@ import ru.practicum.shareit.booking.search.booker.BookingSearchByBooker;
 import ru.practicum.shareit.booking.search.booker.params.BookingSearchByBookerParams;
 import ru.practicum.shareit.booking.search.owner.BookingSearchByOwner;
 import ru.practicum.shareit.booking.search.owner.params.BookingSearchByOwnerParams;
+import ru.practicum.shareit.common.ETags;
+import ru.practicum.shareit.common.KeysetCursor;
 import ru.practicum.shareit.common.exception.ConflictException;
 import ru.practicum.shareit.common.exception.EntityNotFoundException;
 import ru.practicum.shareit.common.exception.ValidationException;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserLookup;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -34,22 +46,27 @@ import java.util.stream.Collectors;
 public class BookingServiceImpl implements BookingService {
 
     private final BookingRepository bookingRepository;
-    private final UserRepository userRepository;
+    private final UserLookup userLookup;
     private final ItemRepository itemRepository;
     private final BookingMapper bookingMapper;
+    private final ItemAvailabilityIndex availabilityIndex;
+    private final ItemBookingLocks itemLocks;
     private final Map<BookingStateDto, BookingSearchByOwner> ownerQueries;
     private final Map<BookingStateDto, BookingSearchByBooker> bookerQueries;
 
 
     @Autowired
-    public BookingServiceImpl(BookingRepository bookingRepository, UserRepository userRepository,
+    public BookingServiceImpl(BookingRepository bookingRepository, UserLookup userLookup,
                               ItemRepository itemRepository, BookingMapper bookingMapper,
+                              ItemAvailabilityIndex availabilityIndex, ItemBookingLocks itemLocks,
                               List<BookingSearchByOwner> searchByOwnerQueries,
                               List<BookingSearchByBooker> searchByBookerQueries) {
         this.bookingRepository = bookingRepository;
-        this.userRepository = userRepository;
+        this.userLookup = userLookup;
         this.itemRepository = itemRepository;
         this.bookingMapper = bookingMapper;
+        this.availabilityIndex = availabilityIndex;
+        this.itemLocks = itemLocks;
         ownerQueries = new HashMap<>();
         bookerQueries = new HashMap<>();
         for (BookingSearchByOwner query : searchByOwnerQueries) {
@@ -64,7 +81,7 @@ public class BookingServiceImpl implements BookingService {
     @Override
     public BookingDto getById(Long bookingId, Long userId) {
         Booking booking = getBooking(bookingId);
-        getUser(userId);
+        userLookup.checkExists(userId);
 
         if (isUserAuthorized(userId, booking)) {
             return bookingMapper.toBookingDto(booking);
@@ -74,13 +91,28 @@ public class BookingServiceImpl implements BookingService {
         }
     }
 
+    @Override
+    public String getETag(Long bookingId, Long userId) {
+        return bookingRepository.findVersionById(bookingId)
+                .filter(booking -> Objects.equals(userId, booking.getBookerId()) ||
+                        Objects.equals(userId, booking.getOwnerId()))
+                .map(booking -> ETags.of(bookingId, booking.getVersion(), booking.getBookerVersion(),
+                        booking.getItemVersion()))
+                .orElse(null);
+    }
+
     @Override
     public List<BookingDto> getAllByBookerId(Long bookerId, String state, Pageable pageable) {
+        return getAllByBookerId(bookerId, state, null, pageable);
+    }
+
+    @Override
+    public List<BookingDto> getAllByBookerId(Long bookerId, String state, KeysetCursor cursor, Pageable pageable) {
         BookingStateDto stateDto = BookingStateDto.fromString(state);
-        User booker = getUser(bookerId);
+        User booker = userLookup.getReference(bookerId);
 
         List<Booking> foundBookings = bookerQueries.get(stateDto)
-                .search(new BookingSearchByBookerParams(booker, pageable));
+                .search(new BookingSearchByBookerParams(booker, pageable, cursor));
         if (foundBookings.isEmpty()) return Collections.emptyList();
 
         return foundBookings.stream()
@@ -90,11 +122,16 @@ public class BookingServiceImpl implements BookingService {
 
     @Override
     public List<BookingDto> getAllByOwnerId(Long ownerId, String state, Pageable pageable) {
+        return getAllByOwnerId(ownerId, state, null, pageable);
+    }
+
+    @Override
+    public List<BookingDto> getAllByOwnerId(Long ownerId, String state, KeysetCursor cursor, Pageable pageable) {
         BookingStateDto stateDto = BookingStateDto.fromString(state);
-        getUser(ownerId);
+        userLookup.checkExists(ownerId);
 
         List<Booking> bookings = ownerQueries.get(stateDto)
-                .search(new BookingSearchByOwnerParams(ownerId, pageable));
+                .search(new BookingSearchByOwnerParams(ownerId, pageable, cursor));
         if (bookings.isEmpty()) return Collections.emptyList();
 
         return bookings.stream()
@@ -105,15 +142,77 @@ public class BookingServiceImpl implements BookingService {
     @Override
     @Transactional
     public BookingDto create(BookingDto bookingDto) {
-        User booker = getUser(bookingDto.getBookerId());
+        User booker = userLookup.getReference(bookingDto.getBookerId());
         Item item = getItem(bookingDto.getItemId());
+        itemLocks.lockUntilCompletion(item.getId());
         validateBeforeCreate(item, bookingDto, booker);
+        validateNoOverlaps(item, bookingDto);
 
         Booking booking = bookingMapper.toBooking(bookingDto);
         booking.setBooker(booker);
         booking.setItem(item);
 
-        return bookingMapper.toBookingDto(bookingRepository.save(booking));
+        Booking savedBooking = bookingRepository.save(booking);
+        availabilityIndex.put(savedBooking);
+        return bookingMapper.toBookingDto(savedBooking);
+    }
+
+    @Override
+    @Transactional
+    public List<BookingBatchResultDto> createAll(Long bookerId, List<BookingDto> bookingDtos) {
+        User booker = userLookup.getReference(bookerId);
+        Map<Long, Item> items = itemRepository.findAllById(bookingDtos.stream()
+                        .map(BookingDto::getItemId)
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        itemLocks.lockAllUntilCompletion(items.keySet());
+
+        BookingBatchResultDto[] results = new BookingBatchResultDto[bookingDtos.size()];
+        List<Integer> candidates = new ArrayList<>();
+        for (int i = 0; i < bookingDtos.size(); i++) {
+            BookingDto bookingDto = bookingDtos.get(i);
+            try {
+                Item item = items.get(bookingDto.getItemId());
+                if (item == null) {
+                    throw new EntityNotFoundException("Не найдена вещь с ID " + bookingDto.getItemId(), Item.class);
+                }
+                validateBeforeCreate(item, bookingDto, booker);
+                candidates.add(i);
+            } catch (EntityNotFoundException | ValidationException e) {
+                results[i] = BookingBatchResultDto.failed(i, e);
+            }
+        }
+
+        List<List<BookingInterval>> overlaps = availabilityIndex.findOverlaps(candidates.stream()
+                .map(i -> new BookingInterval(null, bookingDtos.get(i).getItemId(), bookingDtos.get(i).getStart(),
+                        bookingDtos.get(i).getEnd(), bookerId, BookingState.WAITING))
+                .collect(Collectors.toList()));
+
+        List<Integer> accepted = new ArrayList<>();
+        List<Booking> bookings = new ArrayList<>();
+        for (int c = 0; c < candidates.size(); c++) {
+            int i = candidates.get(c);
+            if (!overlaps.get(c).isEmpty()) {
+                results[i] = BookingBatchResultDto.failed(i, new ConflictException(getOverlapsMessage(overlaps.get(c))));
+                continue;
+            }
+            Booking booking = bookingMapper.toBooking(bookingDtos.get(i));
+            booking.setBooker(booker);
+            booking.setItem(items.get(bookingDtos.get(i).getItemId()));
+            accepted.add(i);
+            bookings.add(booking);
+        }
+
+        List<Booking> savedBookings = bookingRepository.saveAll(bookings);
+        for (int b = 0; b < savedBookings.size(); b++) {
+            Booking savedBooking = savedBookings.get(b);
+            availabilityIndex.put(savedBooking);
+            results[accepted.get(b)] = BookingBatchResultDto.created(accepted.get(b),
+                    bookingMapper.toBookingDto(savedBooking));
+        }
+        return Arrays.asList(results);
     }
 
     @Override
@@ -127,10 +226,73 @@ public class BookingServiceImpl implements BookingService {
         } else {
             booking.setStatus(BookingState.REJECTED);
         }
+        availabilityIndex.put(booking);
 
         return bookingMapper.toBookingDto(booking);
     }
 
+    @Override
+    @Transactional
+    public List<BookingApprovalResultDto> approveAll(Long ownerId, List<Long> bookingIds, Boolean approved) {
+        userLookup.checkExists(ownerId);
+        List<Long> ids = bookingIds.stream()
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        Map<Long, Booking> bookings = bookingRepository.findAllWithItemByIdIn(new HashSet<>(ids)).stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+
+        BookingApprovalResultDto[] results = new BookingApprovalResultDto[ids.size()];
+        List<Integer> accepted = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+        for (int i = 0; i < ids.size(); i++) {
+            Long bookingId = ids.get(i);
+            try {
+                if (!seen.add(bookingId)) {
+                    throw new ValidationException("Бронирование с ID " + bookingId + " уже есть в пакете");
+                }
+                Booking booking = bookings.get(bookingId);
+                if (booking == null) {
+                    throw new EntityNotFoundException("Не найдено бронирование с ID " + bookingId, Booking.class);
+                }
+                validateStatusChangeable(booking);
+                validateApprover(ownerId, booking);
+                accepted.add(i);
+            } catch (EntityNotFoundException | ValidationException e) {
+                results[i] = BookingApprovalResultDto.failed(bookingId, e);
+            }
+        }
+        if (accepted.isEmpty()) return Arrays.asList(results);
+
+        BookingState status = approved ? BookingState.APPROVED : BookingState.REJECTED;
+        List<Long> acceptedIds = accepted.stream()
+                .map(ids::get)
+                .collect(Collectors.toList());
+        if (bookingRepository.updateWaitingStatus(acceptedIds, status) != acceptedIds.size()) {
+            // Часть строк успела измениться или удалиться после чтения: их итог берётся из базы
+            bookings = bookingRepository.findAllWithItemByIdIn(acceptedIds).stream()
+                    .collect(Collectors.toMap(Booking::getId, Function.identity()));
+        }
+
+        // После массового UPDATE контекст очищен: статус меняется только у отсоединённых копий.
+        // Прочитанные до UPDATE копии ещё в WAITING, перечитанные — уже в итоговом статусе из базы
+        for (Integer i : accepted) {
+            Long bookingId = ids.get(i);
+            Booking booking = bookings.get(bookingId);
+            if (booking == null) {
+                results[i] = BookingApprovalResultDto.failed(bookingId,
+                        new EntityNotFoundException("Не найдено бронирование с ID " + bookingId, Booking.class));
+            } else if (booking.getStatus() == BookingState.WAITING || booking.getStatus() == status) {
+                booking.setStatus(status);
+                availabilityIndex.put(booking);
+                results[i] = BookingApprovalResultDto.updated(bookingId, bookingMapper.toBookingDto(booking));
+            } else {
+                results[i] = BookingApprovalResultDto.failed(bookingId,
+                        new ConflictException("Статус бронирования изменился во время обработки, повторите запрос"));
+            }
+        }
+        return Arrays.asList(results);
+    }
+
 
     // -------------------------
     // Вспомогательные методы
@@ -143,13 +305,6 @@ public class BookingServiceImpl implements BookingService {
                 ));
     }
 
-    private User getUser(Long userId) {
-        return userRepository.findById(userId)
-                .orElseThrow(() -> new EntityNotFoundException(
-                        "Не найден пользователь с ID " + userId, User.class
-                ));
-    }
-
     private Item getItem(Long itemId) {
         return itemRepository.findById(itemId)
                 .orElseThrow(() -> new EntityNotFoundException(
@@ -173,26 +328,38 @@ public class BookingServiceImpl implements BookingService {
         if (!item.getIsAvailable()) {
             throw new ValidationException("Вещь недоступна для бронирования");
         }
+    }
 
-        List<Booking> overlaps = bookingRepository.findOverlaps(item.getId(),
+    private void validateNoOverlaps(Item item, BookingDto bookingDto) {
+        List<BookingInterval> overlaps = availabilityIndex.findOverlaps(item.getId(),
                 bookingDto.getStart(), bookingDto.getEnd());
 
         if (!overlaps.isEmpty()) {
-            StringBuilder messageBuilder = new StringBuilder();
-            messageBuilder.append("Пересечение по времени с другими бронированиями: ");
-            overlaps.forEach(overlap -> messageBuilder.append(overlap.getStart()).append(" — ")
-                    .append(overlap.getEnd()).append("; "));
-            String errorMessage = messageBuilder.toString();
-
-            throw new ConflictException(errorMessage);
+            throw new ConflictException(getOverlapsMessage(overlaps));
         }
     }
 
+    private String getOverlapsMessage(List<BookingInterval> overlaps) {
+        StringBuilder messageBuilder = new StringBuilder();
+        messageBuilder.append("Пересечение по времени с другими бронированиями: ");
+        overlaps.forEach(overlap -> messageBuilder.append(overlap.getStart()).append(" — ")
+                .append(overlap.getEnd()).append("; "));
+        return messageBuilder.toString();
+    }
+
     private void validateBeforeApprove(Long ownerId, Booking booking) {
+        validateStatusChangeable(booking);
+        userLookup.checkExists(ownerId);
+        validateApprover(ownerId, booking);
+    }
+
+    private void validateStatusChangeable(Booking booking) {
         if (BookingState.APPROVED.equals(booking.getStatus()) || BookingState.REJECTED.equals(booking.getStatus())) {
             throw new ValidationException("Менять статус этого бронирования уже нельзя");
         }
-        getUser(ownerId);
+    }
+
+    private void validateApprover(Long ownerId, Booking booking) {
         if (Objects.equals(ownerId, booking.getBooker().getId())) {
             throw new EntityNotFoundException("Подтверждать бронирование может только владелец вещи", Booking.class);
         }
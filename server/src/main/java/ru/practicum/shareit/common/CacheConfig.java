@@ -0,0 +1,12 @@
+package ru.practicum.shareit.common;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String ITEM_SEARCH_CACHE = "itemSearch";
+
+}
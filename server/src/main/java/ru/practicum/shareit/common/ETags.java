@@ -0,0 +1,20 @@
+package ru.practicum.shareit.common;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * Строгие ETag ответов, собранные из версий сущностей, а не из тела ответа.
+ * Позволяют ответить 304 до загрузки и обогащения данных.
+ */
+public final class ETags {
+
+    private ETags() {
+    }
+
+    public static String of(Object... parts) {
+        return Arrays.stream(parts)
+                .map(String::valueOf)
+                .collect(Collectors.joining(".", "\"", "\""));
+    }
+}
@@ -2,6 +2,7 @@ package ru.practicum.shareit.common;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -51,6 +52,17 @@ public class ErrorHandler {
         return new ErrorResponse("409 - Conflict", exception.getMessage());
     }
 
+    /**
+     * Сущность изменил другой запрос между чтением и коммитом, например одновременное подтверждение
+     * одного бронирования: клиент получает тот же ответ, что и при любом другом конфликте.
+     */
+    @ExceptionHandler
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handleOptimisticLockingFailure(final ObjectOptimisticLockingFailureException exception) {
+        return handleConflictException(new ConflictException(
+                "Объект уже изменён другим запросом, обновите данные и повторите запрос"));
+    }
+
     @ExceptionHandler
     @ResponseStatus(HttpStatus.INTERNAL_SERVER_ERROR)
     public ErrorResponse handleInternalException(final Throwable exception) {
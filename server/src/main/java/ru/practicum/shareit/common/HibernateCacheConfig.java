@@ -0,0 +1,73 @@
+package ru.practicum.shareit.common;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Кеш второго уровня Hibernate для пользователей, вещей и запросов и кеш запроса
+ * {@code ItemRepository.findAllByRequestIds} ({@code shareit.hibernate.cache.*}).
+ * <p>
+ * Регионы хранятся в Caffeine через JCache, размер и время жизни записей задаются свойствами.
+ * Стратегия {@code READ_WRITE} обновляет запись после коммита изменения, а результаты запросов
+ * сбрасываются при любой записи в их таблицы, поэтому устаревшие данные не читаются.
+ * Регион отметок времени таблиц не вытесняется: без него кеш запросов не узнал бы об изменениях.
+ * Статистика Hibernate включается вместе с кешем и публикуется в actuator
+ * как {@code hibernate.second.level.cache.*} и {@code hibernate.cache.query.*}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "shareit.hibernate.cache.enabled", havingValue = "true")
+public class HibernateCacheConfig {
+
+    public static final String USER_REGION = "user";
+
+    public static final String ITEM_REGION = "item";
+
+    public static final String REQUEST_REGION = "request";
+
+    private static final String QUERY_RESULTS_REGION = "default-query-results-region";
+
+    private static final String UPDATE_TIMESTAMPS_REGION = "default-update-timestamps-region";
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(
+            @Value("${shareit.hibernate.cache.max-entries:10000}") long maxEntries,
+            @Value("${shareit.hibernate.cache.expire-after-write:PT10M}") Duration expireAfterWrite) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("shareit:hibernate:" + UUID.randomUUID()), getClass().getClassLoader());
+
+        for (String region : new String[]{USER_REGION, ITEM_REGION, REQUEST_REGION, QUERY_RESULTS_REGION}) {
+            CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+            configuration.setMaximumSize(OptionalLong.of(maxEntries));
+            configuration.setExpireAfterWrite(OptionalLong.of(expireAfterWrite.toNanos()));
+            cacheManager.createCache(region, configuration);
+        }
+        cacheManager.createCache(UPDATE_TIMESTAMPS_REGION, new CaffeineConfiguration<>());
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer hibernateCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+            properties.put(AvailableSettings.GENERATE_STATISTICS, true);
+        };
+    }
+}
@@ -0,0 +1,29 @@
+package ru.practicum.shareit.common;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import org.springframework.web.servlet.mvc.WebContentInterceptor;
+
+/**
+ * HTTP-кеширование карточек вещей, пользователей и запросов.
+ * <p>
+ * Ответы помечаются {@code Cache-Control: private, no-cache}: шлюз может хранить копию,
+ * но перед каждой выдачей обязан проверить её запросом с {@code If-None-Match}.
+ * ETag карточек контроллеры собирают из версий сущностей и отвечают 304 до загрузки данных.
+ * Тело ответа не буферизуется и не хешируется: списки и поиск ETag не получают.
+ */
+@Configuration
+public class HttpCacheConfig implements WebMvcConfigurer {
+
+    static final String[] CACHEABLE_PATHS = {"/items/*", "/users/*", "/requests/*"};
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        WebContentInterceptor interceptor = new WebContentInterceptor();
+        interceptor.setSupportedMethods((String[]) null);
+        interceptor.addCacheMapping(CacheControl.noCache().cachePrivate(), CACHEABLE_PATHS);
+        registry.addInterceptor(interceptor);
+    }
+}
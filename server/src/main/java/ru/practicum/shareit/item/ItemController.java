@@ -13,11 +13,14 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.common.CustomPageRequest;
+import ru.practicum.shareit.common.KeysetCursor;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.service.ItemService;
 
+import javax.servlet.http.HttpServletResponse;
 import java.util.List;
 
 @RestController
@@ -28,12 +31,16 @@ public class ItemController {
 
     private final ItemService itemService;
     private static final String USER_ID_HEADER = "X-Sharer-User-Id";
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final Sort CREATED_DESC = Sort.by(Sort.Direction.DESC, "created", "id");
 
 
     @GetMapping("/{itemId}")
     public ItemDto getById(@RequestHeader(value = USER_ID_HEADER, required = false) Long userId,
-                           @PathVariable Long itemId) {
+                           @PathVariable Long itemId,
+                           WebRequest request) {
         log.info("GET /items/{}", itemId);
+        if (request.checkNotModified(itemService.getETag(itemId, userId))) return null;
         return itemService.getByIdAndUserId(itemId, userId);
     }
 
@@ -55,6 +62,21 @@ public class ItemController {
                 new CustomPageRequest(from, size, Sort.by("id")));
     }
 
+    @GetMapping("/{itemId}/comments")
+    public List<CommentDto> getComments(@PathVariable Long itemId,
+            @RequestParam(name = "from", defaultValue = "0") Integer from,
+            @RequestParam(name = "size", defaultValue = "10") Integer size,
+            @RequestParam(name = "cursor", required = false) String cursor,
+            HttpServletResponse response) {
+        log.info("GET /items/{}/comments?from={}&size={}&cursor={}", itemId, from, size, cursor);
+        List<CommentDto> comments = cursor == null
+                ? itemService.getComments(itemId, null, new CustomPageRequest(from, size, CREATED_DESC))
+                : itemService.getComments(itemId, KeysetCursor.decode(cursor),
+                        new CustomPageRequest(0, size, CREATED_DESC));
+        setNextCursor(response, comments, size);
+        return comments;
+    }
+
     @PostMapping
     public ItemDto add(@RequestHeader(USER_ID_HEADER) Long ownerId,
                        @RequestBody ItemDto itemDto) {
@@ -82,4 +104,10 @@ public class ItemController {
         itemDto.setOwnerId(ownerId);
         return itemService.update(itemDto);
     }
+
+    private void setNextCursor(HttpServletResponse response, List<CommentDto> comments, Integer size) {
+        if (comments.size() < size) return;
+        CommentDto last = comments.get(comments.size() - 1);
+        response.setHeader(NEXT_CURSOR_HEADER, new KeysetCursor(last.getCreated(), last.getId()).encode());
+    }
 }
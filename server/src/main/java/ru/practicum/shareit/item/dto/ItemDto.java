@@ -31,8 +31,13 @@ public class ItemDto {
 
     private Long requestId;
 
+    /**
+     * Последние отзывы; полный список — {@code GET /items/{id}/comments}.
+     */
     private List<CommentDto> comments = new ArrayList<>();
 
+    private Long commentCount;
+
 
     public static boolean isNameNotNull(ItemDto itemDto) {
         return itemDto.getName() != null && !itemDto.getName().isEmpty();
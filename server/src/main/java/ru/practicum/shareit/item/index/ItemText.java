@@ -0,0 +1,16 @@
+package ru.practicum.shareit.item.index;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class ItemText {
+
+    private final Long id;
+
+    private final String name;
+
+    private final String description;
+
+}
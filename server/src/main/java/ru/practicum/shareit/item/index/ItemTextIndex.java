@@ -0,0 +1,194 @@
+package ru.practicum.shareit.item.index;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * Инвертированный индекс по названию и описанию доступных вещей.
+ * Слова делятся только по пробельным символам, поэтому запрос из одного слова
+ * находит те же вещи, что и поиск подстроки в исходном тексте.
+ * <p>
+ * Изменения, сделанные в транзакции, попадают в общий индекс только после её фиксации;
+ * до этого их видит лишь поиск внутри той же транзакции.
+ */
+@Component
+public class ItemTextIndex {
+
+    private final ItemRepository itemRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final ItemTextPostings postings = new ItemTextPostings();
+
+    private volatile boolean loaded;
+
+
+    @Autowired
+    public ItemTextIndex(ItemRepository itemRepository) {
+        this.itemRepository = itemRepository;
+    }
+
+
+    /**
+     * Приводит запрос к виду, в котором его разбирает индекс: нижний регистр, без пробелов по краям,
+     * слова через один пробел. Запросы с одинаковым видом находят одно и то же.
+     */
+    public static String normalize(String query) {
+        return ItemTextPostings.normalize(query);
+    }
+
+    /**
+     * Возвращает идентификаторы вещей, содержащих все слова запроса, по убыванию релевантности:
+     * совпадение слова целиком важнее совпадения начала слова, а оно важнее вхождения в середину.
+     */
+    public List<Long> search(String query, long offset, int limit) {
+        Set<String> terms = ItemTextPostings.tokenize(query);
+        if (terms.isEmpty()) return Collections.emptyList();
+        ensureLoaded();
+
+        PendingTexts pending = findPendingTexts();
+        ItemTextPostings pendingPostings = pending == null ? null : pending.toPostings();
+
+        lock.readLock().lock();
+        try {
+            Map<Long, Integer> scores = null;
+            for (String term : terms) {
+                Map<Long, Integer> termScores = postings.score(term);
+                if (pending != null) {
+                    termScores.keySet().removeAll(pending.texts.keySet());
+                    termScores.putAll(pendingPostings.score(term));
+                }
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    scores.keySet().retainAll(termScores.keySet());
+                    scores.replaceAll((itemId, score) -> score + termScores.get(itemId));
+                }
+                if (scores.isEmpty()) return Collections.emptyList();
+            }
+            return scores.entrySet().stream()
+                    .sorted(Comparator.comparing(Map.Entry<Long, Integer>::getValue).reversed()
+                            .thenComparing(Map.Entry::getKey))
+                    .skip(offset)
+                    .limit(limit)
+                    .map(Map.Entry::getKey)
+                    .collect(Collectors.toList());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void put(Item item) {
+        ItemText text = Boolean.TRUE.equals(item.getIsAvailable())
+                ? new ItemText(item.getId(), item.getName(), item.getDescription())
+                : null;
+        change(item.getId(), text);
+    }
+
+    public void remove(Long itemId) {
+        change(itemId, null);
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+
+    // -------------------------
+    // Вспомогательные методы
+    // -------------------------
+
+    private void ensureLoaded() {
+        if (loaded) return;
+        lock.writeLock().lock();
+        try {
+            if (loaded) return;
+            itemRepository.findAllAvailableTexts()
+                    .forEach(text -> postings.put(text.getId(), text.getName(), text.getDescription()));
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Вне транзакции изменение применяется сразу, иначе откладывается до её фиксации.
+     * {@code null} вместо текста означает, что вещь удалена или недоступна.
+     */
+    private void change(Long itemId, ItemText text) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            apply(itemId, text);
+            return;
+        }
+        PendingTexts pending = findPendingTexts();
+        if (pending == null) {
+            pending = new PendingTexts();
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.texts.put(itemId, text);
+    }
+
+    private void apply(Long itemId, ItemText text) {
+        lock.writeLock().lock();
+        try {
+            if (!loaded) return;
+            postings.remove(itemId);
+            if (text != null) {
+                postings.put(itemId, text.getName(), text.getDescription());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private PendingTexts findPendingTexts() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) return null;
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingTexts && ((PendingTexts) synchronization).getIndex() == this) {
+                return (PendingTexts) synchronization;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Тексты вещей, изменённых текущей транзакцией, в порядке изменения.
+     */
+    private class PendingTexts implements TransactionSynchronization {
+
+        private final Map<Long, ItemText> texts = new LinkedHashMap<>();
+
+        @Override
+        public void afterCommit() {
+            texts.forEach(ItemTextIndex.this::apply);
+        }
+
+        ItemTextPostings toPostings() {
+            ItemTextPostings pendingPostings = new ItemTextPostings();
+            texts.forEach((itemId, text) -> {
+                if (text != null) {
+                    pendingPostings.put(itemId, text.getName(), text.getDescription());
+                }
+            });
+            return pendingPostings;
+        }
+
+        ItemTextIndex getIndex() {
+            return ItemTextIndex.this;
+        }
+    }
+}
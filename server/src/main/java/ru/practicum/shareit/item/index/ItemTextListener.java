@@ -0,0 +1,33 @@
+package ru.practicum.shareit.item.index;
+
+import org.springframework.beans.factory.ObjectProvider;
+import ru.practicum.shareit.item.model.Item;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+
+/**
+ * Поддерживает {@link ItemTextIndex} в актуальном состоянии при любой записи вещи через JPA.
+ */
+public class ItemTextListener {
+
+    private final ObjectProvider<ItemTextIndex> index;
+
+
+    public ItemTextListener(ObjectProvider<ItemTextIndex> index) {
+        this.index = index;
+    }
+
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Item item) {
+        index.ifAvailable(textIndex -> textIndex.put(item));
+    }
+
+    @PostRemove
+    public void onRemove(Item item) {
+        index.ifAvailable(textIndex -> textIndex.remove(item.getId()));
+    }
+}
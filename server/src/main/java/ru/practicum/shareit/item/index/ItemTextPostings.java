@@ -0,0 +1,170 @@
+package ru.practicum.shareit.item.index;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Слова вещей с полями, в которых они встречаются, и словарь n-грамм этих слов.
+ * Слово запроса ищется не перебором всего словаря, а пересечением множеств слов, содержащих его n-граммы.
+ * Класс не синхронизирован: доступ к нему упорядочивает {@link ItemTextIndex}.
+ */
+class ItemTextPostings {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private static final int NAME = 1;
+    private static final int DESCRIPTION = 2;
+
+    private static final int EXACT = 3;
+    private static final int PREFIX = 2;
+    private static final int INFIX = 1;
+
+    /**
+     * Длина n-грамм словаря. Подстроки слова короче неё тоже хранятся в словаре,
+     * поэтому запрос из одного-двух символов находится одним обращением.
+     */
+    private static final int GRAM = 3;
+
+    private final Map<String, Map<Long, Integer>> postings = new HashMap<>();
+
+    private final Map<String, Set<String>> tokensByGram = new HashMap<>();
+
+    private final Map<Long, Set<String>> itemTokens = new HashMap<>();
+
+
+    void put(Long itemId, String name, String description) {
+        remove(itemId);
+
+        Set<String> tokens = new HashSet<>();
+        addPostings(itemId, tokenize(name), NAME, tokens);
+        addPostings(itemId, tokenize(description), DESCRIPTION, tokens);
+        itemTokens.put(itemId, tokens);
+    }
+
+    void remove(Long itemId) {
+        Set<String> tokens = itemTokens.remove(itemId);
+        if (tokens == null) return;
+        for (String token : tokens) {
+            Map<Long, Integer> items = postings.get(token);
+            items.remove(itemId);
+            if (items.isEmpty()) {
+                postings.remove(token);
+                removeGrams(token);
+            }
+        }
+    }
+
+    /**
+     * Вещи, в словах которых встречается term, с суммой качества совпадения по названию и описанию:
+     * совпадение слова целиком важнее совпадения начала слова, а оно важнее вхождения в середину.
+     */
+    Map<Long, Integer> score(String term) {
+        Map<Long, int[]> fieldQualities = new HashMap<>();
+        for (String token : findTokens(term)) {
+            int quality = quality(token, term);
+            postings.get(token).forEach((itemId, fields) -> {
+                int[] qualities = fieldQualities.computeIfAbsent(itemId, id -> new int[2]);
+                if ((fields & NAME) != 0) qualities[0] = Math.max(qualities[0], quality);
+                if ((fields & DESCRIPTION) != 0) qualities[1] = Math.max(qualities[1], quality);
+            });
+        }
+
+        Map<Long, Integer> scores = new HashMap<>();
+        fieldQualities.forEach((itemId, qualities) -> scores.put(itemId, qualities[0] + qualities[1]));
+        return scores;
+    }
+
+    static String normalize(String text) {
+        if (text == null) return "";
+        return WHITESPACE.matcher(text.trim().toLowerCase(Locale.ROOT)).replaceAll(" ");
+    }
+
+    static Set<String> tokenize(String text) {
+        String normalized = normalize(text);
+        if (normalized.isEmpty()) return Collections.emptySet();
+        return Arrays.stream(normalized.split(" "))
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+
+    // -------------------------
+    // Вспомогательные методы
+    // -------------------------
+
+    private Collection<String> findTokens(String term) {
+        if (term.length() <= GRAM) return tokensByGram.getOrDefault(term, Collections.emptySet());
+
+        Set<String> candidates = null;
+        for (int i = 0; i + GRAM <= term.length(); i++) {
+            Set<String> tokens = tokensByGram.get(term.substring(i, i + GRAM));
+            if (tokens == null) return Collections.emptySet();
+            if (candidates == null || tokens.size() < candidates.size()) {
+                candidates = tokens;
+            }
+        }
+        return candidates.stream()
+                .filter(token -> token.contains(term))
+                .collect(Collectors.toList());
+    }
+
+    private void addPostings(Long itemId, Set<String> fieldTokens, int field, Set<String> tokens) {
+        for (String token : fieldTokens) {
+            postings.computeIfAbsent(token, t -> {
+                        addGrams(t);
+                        return new HashMap<>();
+                    })
+                    .merge(itemId, field, (current, added) -> current | added);
+            tokens.add(token);
+        }
+    }
+
+    private void addGrams(String token) {
+        for (String gram : grams(token)) {
+            tokensByGram.computeIfAbsent(gram, g -> new HashSet<>()).add(token);
+        }
+    }
+
+    private void removeGrams(String token) {
+        for (String gram : grams(token)) {
+            Set<String> tokens = tokensByGram.get(gram);
+            tokens.remove(token);
+            if (tokens.isEmpty()) {
+                tokensByGram.remove(gram);
+            }
+        }
+    }
+
+    private static Set<String> grams(String token) {
+        Set<String> grams = new HashSet<>();
+        for (int length = 1; length <= GRAM; length++) {
+            for (int i = 0; i + length <= token.length(); i++) {
+                grams.add(token.substring(i, i + length));
+            }
+        }
+        return grams;
+    }
+
+    private static int quality(String token, String term) {
+        String word = trimPunctuation(token);
+        if (word.equals(term)) return EXACT;
+        if (word.startsWith(term)) return PREFIX;
+        return INFIX;
+    }
+
+    private static String trimPunctuation(String token) {
+        int start = 0;
+        int end = token.length();
+        while (start < end && !Character.isLetterOrDigit(token.charAt(start))) start++;
+        while (end > start && !Character.isLetterOrDigit(token.charAt(end - 1))) end--;
+        return token.substring(start, end);
+    }
+}
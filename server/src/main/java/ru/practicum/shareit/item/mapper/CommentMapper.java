@@ -4,6 +4,7 @@ import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.repository.CommentRepository;
 
 @Mapper(componentModel = "spring")
 public interface CommentMapper {
@@ -18,4 +19,6 @@ public interface CommentMapper {
     @Mapping(target = "authorName", source = "author.name")
     CommentDto toCommentDto(Comment comment);
 
+    CommentDto toCommentDto(CommentRepository.CommentView comment);
+
 }
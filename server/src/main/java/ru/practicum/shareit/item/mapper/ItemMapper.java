@@ -5,6 +5,7 @@ import org.mapstruct.Mapping;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemItemRequestDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
 
 @Mapper(componentModel = "spring")
 public interface ItemMapper {
@@ -14,6 +15,7 @@ public interface ItemMapper {
     @Mapping(target = "owner", ignore = true)
     @Mapping(target = "isAvailable", source = "available")
     @Mapping(target = "request", ignore = true)
+    @Mapping(target = "commentCount", ignore = true)
     Item toItem(ItemDto itemDto);
 
     @Mapping(target = "comments", ignore = true)
@@ -24,6 +26,12 @@ public interface ItemMapper {
     @Mapping(target = "nextBooking", ignore = true)
     ItemDto toItemDto(Item item);
 
+    @Mapping(target = "comments", ignore = true)
+    @Mapping(target = "ownerId", ignore = true)
+    @Mapping(target = "lastBooking", ignore = true)
+    @Mapping(target = "nextBooking", ignore = true)
+    ItemDto toItemDto(ItemRepository.OwnerItem item);
+
     @Mapping(target = "available", source = "isAvailable")
     @Mapping(target = "ownerId", source = "owner.id")
     @Mapping(target = "requestId", source = "request.id")
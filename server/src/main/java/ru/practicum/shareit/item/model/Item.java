@@ -3,11 +3,17 @@ package ru.practicum.shareit.item.model;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import ru.practicum.shareit.common.HibernateCacheConfig;
+import ru.practicum.shareit.item.index.ItemTextListener;
+import ru.practicum.shareit.item.search.ItemSearchCacheListener;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.EntityListeners;
 import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
@@ -15,22 +21,34 @@ import javax.persistence.Id;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
 import javax.persistence.OneToOne;
+import javax.persistence.SequenceGenerator;
 import javax.persistence.Table;
+import javax.persistence.Version;
 import javax.persistence.Transient;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
 @Table(name = "items", schema = "public")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = HibernateCacheConfig.ITEM_REGION)
+@EntityListeners({ItemTextListener.class, ItemSearchCacheListener.class})
 @Getter
 @Setter
 @NoArgsConstructor
 public class Item {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "items_seq")
+    @SequenceGenerator(name = "items_seq", sequenceName = "items_seq", allocationSize = 50)
     private Long id;
 
+    /**
+     * Увеличивается при каждом изменении строки; используется в ETag ответов.
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
+
     @Column(name = "name", length = 100, nullable = false)
     private String name;
 
@@ -48,7 +66,20 @@ public class Item {
     @JoinColumn(name = "request_id")
     private ItemRequest request;
 
+    /**
+     * Число отзывов. Увеличивается на загруженной вещи при сохранении отзыва, поэтому проходит
+     * проверку версии и обновляет запись вещи в кеше второго уровня.
+     */
+    @Column(name = "comment_count", nullable = false)
+    private long commentCount;
+
     @Transient
     private List<Comment> comments = new ArrayList<>();
 
+    /**
+     * Поля, по которым ищется вещь, на момент загрузки. Заполняет {@link ItemSearchCacheListener}.
+     */
+    @Transient
+    private List<Object> searchedFields;
+
 }
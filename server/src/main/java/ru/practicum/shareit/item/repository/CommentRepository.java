@@ -1,17 +1,96 @@
 package ru.practicum.shareit.item.repository;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.item.model.Comment;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
 
-    List<Comment> findAllByItem_Id(Long itemId);
+    @EntityGraph(attributePaths = {"author"})
+    @Query("select c from Comment c " +
+            "where c.item.id = :itemId")
+    List<Comment> findAllByItemId(@Param("itemId") Long itemId, Pageable pageable);
 
+    @EntityGraph(attributePaths = {"author"})
     @Query("select c from Comment c " +
-            "where c.item.id in :itemIds")
-    List<Comment> findAllByItemIds(@Param("itemIds") List<Long> itemIds);
+            "where c.item.id = :itemId " +
+            "and (c.created < :cursorCreated or (c.created = :cursorCreated and c.id < :cursorId))")
+    List<Comment> findAllByItemIdKeyset(@Param("itemId") Long itemId,
+                                        @Param("cursorCreated") LocalDateTime cursorCreated,
+                                        @Param("cursorId") Long cursorId,
+                                        Pageable pageable);
+
+    /**
+     * Не больше {@code limit} последних отзывов каждой вещи вместе с именами авторов, одним запросом.
+     */
+    @Query(nativeQuery = true,
+            value = "select c.id as id, c.text as text, c.item_id as itemId, c.author_id as authorId, " +
+                    "u.name as authorName, c.created as created " +
+                    "from (" +
+                    "select comments.*, row_number() over (" +
+                    "partition by item_id order by created desc, id desc) as row_num " +
+                    "from comments " +
+                    "where item_id in :itemIds" +
+                    ") c " +
+                    "join users u on u.id = c.author_id " +
+                    "where c.row_num <= :limit " +
+                    "order by c.item_id, c.created desc, c.id desc")
+    List<CommentView> findLatestByItemIds(@Param("itemIds") Collection<Long> itemIds,
+                                          @Param("limit") int limit);
+
+    /**
+     * То же, что {@link #findLatestByItemIds}, но только для PostgreSQL: для каждой вещи читается
+     * не больше {@code limit} строк индекса comments_item_created_idx вместо нумерации всех её отзывов.
+     */
+    @Query(nativeQuery = true,
+            value = "select c.id as id, c.text as text, c.item_id as itemId, c.author_id as authorId, " +
+                    "u.name as authorName, c.created as created " +
+                    "from items i " +
+                    "cross join lateral (" +
+                    "select comments.* from comments " +
+                    "where comments.item_id = i.id " +
+                    "order by comments.created desc, comments.id desc " +
+                    "limit :limit" +
+                    ") c " +
+                    "join users u on u.id = c.author_id " +
+                    "where i.id in :itemIds " +
+                    "order by c.item_id, c.created desc, c.id desc")
+    List<CommentView> findLatestByItemIdsLateral(@Param("itemIds") Collection<Long> itemIds,
+                                                 @Param("limit") int limit);
+
+    /**
+     * Сумма версий авторов последних {@code limit} отзывов вещи. Версии только растут, поэтому сумма
+     * меняется, когда автор отзыва из карточки меняет имя.
+     */
+    @Query(nativeQuery = true,
+            value = "select coalesce(sum(u.version), 0) " +
+                    "from (" +
+                    "select comments.author_id from comments " +
+                    "where comments.item_id = :itemId " +
+                    "order by comments.created desc, comments.id desc " +
+                    "limit :limit" +
+                    ") c " +
+                    "join users u on u.id = c.author_id")
+    long sumLatestAuthorVersions(@Param("itemId") Long itemId, @Param("limit") int limit);
+
+    interface CommentView {
+        Long getId();
+
+        String getText();
+
+        Long getItemId();
+
+        Long getAuthorId();
+
+        String getAuthorName();
+
+        LocalDateTime getCreated();
+    }
 }
@@ -3,28 +3,164 @@ package ru.practicum.shareit.item.repository;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.item.index.ItemText;
 import ru.practicum.shareit.item.model.Item;
 
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
 
     List<Item> findByOwnerId(Long ownerId, Pageable pageable);
 
+    /**
+     * Страница вещей владельца по возрастанию ID вместе с последним и следующим подтверждёнными
+     * бронированиями, одним запросом. ID бронирований ищутся подзапросами только для вещей страницы,
+     * сами бронирования присоединяются по ним. Бронирования выбираются так же, как в
+     * {@code ItemAvailabilityIndex}: последнее началось не позже now, следующее — позже;
+     * при равном начале — большее и меньшее ID.
+     */
+    @Query(nativeQuery = true,
+            value = "select i.id as id, i.name as name, i.description as description, " +
+                    "i.is_available as available, i.request_id as requestId, i.comment_count as commentCount, " +
+                    "lb.id as lastBookingId, lb.booker_id as lastBookerId, " +
+                    "lb.starts as lastBookingStart, lb.ends as lastBookingEnd, " +
+                    "nb.id as nextBookingId, nb.booker_id as nextBookerId, " +
+                    "nb.starts as nextBookingStart, nb.ends as nextBookingEnd " +
+                    "from (" +
+                    "select page.*, " +
+                    "(select b.id from bookings b " +
+                    "where b.item_id = page.id " +
+                    "and b.status = 'APPROVED' " +
+                    "and b.starts <= :now " +
+                    "order by b.starts desc, b.id desc " +
+                    "limit 1) as last_booking_id, " +
+                    "(select b.id from bookings b " +
+                    "where b.item_id = page.id " +
+                    "and b.status = 'APPROVED' " +
+                    "and b.starts > :now " +
+                    "order by b.starts, b.id " +
+                    "limit 1) as next_booking_id " +
+                    "from (" +
+                    "select * from items " +
+                    "where owner_id = :ownerId " +
+                    "order by id " +
+                    "limit :limit offset :offset" +
+                    ") page" +
+                    ") i " +
+                    "left join bookings lb on lb.id = i.last_booking_id " +
+                    "left join bookings nb on nb.id = i.next_booking_id " +
+                    "order by i.id")
+    List<OwnerItem> findOwnerItems(@Param("ownerId") Long ownerId,
+                                   @Param("now") LocalDateTime now,
+                                   @Param("limit") int limit,
+                                   @Param("offset") long offset);
+
     @Query("select item from Item item " +
             "where item.isAvailable = true " +
             "and (upper(item.name) like upper(concat('%', ?1, '%')) " +
             "or upper(item.description) like upper(concat('%', ?1, '%')))")
     List<Item> searchByKeyword(String keyword, Pageable pageable);
 
+    @Query(value = "select * from items item " +
+            "where item.is_available = true " +
+            "and (item.name ilike concat('%', :keyword, '%') " +
+            "or item.description ilike concat('%', :keyword, '%'))",
+            nativeQuery = true)
+    List<Item> searchByKeywordTrigram(@Param("keyword") String keyword, Pageable pageable);
+
+    @Query("select item from Item item " +
+            "where item.isAvailable = true " +
+            "and item.id in :ids")
+    List<Item> findAvailableByIds(@Param("ids") Collection<Long> ids);
+
+    @Query("select new ru.practicum.shareit.item.index.ItemText(item.id, item.name, item.description) " +
+            "from Item item " +
+            "where item.isAvailable = true")
+    List<ItemText> findAllAvailableTexts();
+
     @Query("select item from Item item " +
             "where item.isAvailable = true " +
             "and item.request.id = ?1 ")
     List<Item> findAllByRequestId(Long requestId);
 
+    /**
+     * При включённом кеше второго уровня результат кешируется и сбрасывается при любой записи в таблицу вещей.
+     */
     @Query("select item from Item item " +
             "where item.isAvailable = true " +
             "and item.request.id in :requestIds")
+    @QueryHints(@QueryHint(name = "org.hibernate.cacheable", value = "true"))
     List<Item> findAllByRequestIds(@Param("requestIds") List<Long> requestIds);
+
+    @Query("select item.version as version, item.owner.id as ownerId, item.commentCount as commentCount " +
+            "from Item item " +
+            "where item.id = :itemId")
+    Optional<ItemVersion> findVersionById(@Param("itemId") Long itemId);
+
+    @Query("select count(item) as count, max(item.id) as lastId, sum(item.version) as versionSum " +
+            "from Item item " +
+            "where item.request.id = :requestId")
+    ItemsStamp findStampByRequestId(@Param("requestId") Long requestId);
+
+    /**
+     * Отзывы не редактируются, поэтому их число вместе с версией вещи задаёт набор отзывов в карточке;
+     * имена их авторов ETag учитывает отдельно, через {@code CommentRepository.sumLatestAuthorVersions}.
+     */
+    interface ItemVersion {
+        long getVersion();
+
+        Long getOwnerId();
+
+        long getCommentCount();
+    }
+
+    /**
+     * Вещь из списка владельца; поля бронирований пусты, если такого бронирования нет.
+     */
+    interface OwnerItem {
+        Long getId();
+
+        String getName();
+
+        String getDescription();
+
+        Boolean getAvailable();
+
+        Long getRequestId();
+
+        long getCommentCount();
+
+        Long getLastBookingId();
+
+        Long getLastBookerId();
+
+        LocalDateTime getLastBookingStart();
+
+        LocalDateTime getLastBookingEnd();
+
+        Long getNextBookingId();
+
+        Long getNextBookerId();
+
+        LocalDateTime getNextBookingStart();
+
+        LocalDateTime getNextBookingEnd();
+    }
+
+    /**
+     * Меняется при добавлении, удалении и изменении любой вещи набора.
+     */
+    interface ItemsStamp {
+        long getCount();
+
+        Long getLastId();
+
+        Long getVersionSum();
+    }
 }
@@ -0,0 +1,39 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.index.ItemTextIndex;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.item.search.mode", havingValue = "index", matchIfMissing = true)
+public class IndexedItemSearch implements ItemSearch {
+
+    private final ItemTextIndex itemTextIndex;
+
+    private final ItemRepository itemRepository;
+
+    @Override
+    public List<Item> search(String keyword, Pageable pageable) {
+        List<Long> itemIds = itemTextIndex.search(keyword, pageable.getOffset(), pageable.getPageSize());
+        if (itemIds.isEmpty()) return Collections.emptyList();
+
+        Map<Long, Item> items = itemRepository.findAvailableByIds(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        return itemIds.stream()
+                .map(items::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+}
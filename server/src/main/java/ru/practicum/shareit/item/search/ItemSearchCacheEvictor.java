@@ -0,0 +1,76 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.common.CacheConfig;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Сбрасывает кеш результатов поиска. Кеш очищается сразу и ещё раз по завершении транзакции,
+ * чтобы не остались результаты, прочитанные до коммита.
+ */
+@Component
+@RequiredArgsConstructor
+public class ItemSearchCacheEvictor {
+
+    private final ObjectProvider<CacheManager> cacheManager;
+
+
+    public void evict() {
+        Cache cache = getCache();
+        if (cache == null) return;
+
+        evictNowAndAfterCompletion(cache::clear);
+    }
+
+    /**
+     * Сбрасывает только результаты, в которых есть вещь: для изменений, не влияющих на состав результатов.
+     * Если кеш не позволяет перебрать записи, очищается целиком.
+     */
+    public void evict(Long itemId) {
+        Cache cache = getCache();
+        if (cache == null) return;
+        if (!(cache instanceof CaffeineCache)) {
+            evictNowAndAfterCompletion(cache::clear);
+            return;
+        }
+
+        Map<Object, Object> entries = ((CaffeineCache) cache).getNativeCache().asMap();
+        evictNowAndAfterCompletion(() -> entries.values().removeIf(result -> contains(result, itemId)));
+    }
+
+
+    // -------------------------
+    // Вспомогательные методы
+    // -------------------------
+
+    private Cache getCache() {
+        CacheManager manager = cacheManager.getIfAvailable();
+        return manager == null ? null : manager.getCache(CacheConfig.ITEM_SEARCH_CACHE);
+    }
+
+    private void evictNowAndAfterCompletion(Runnable eviction) {
+        eviction.run();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) return;
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                eviction.run();
+            }
+        });
+    }
+
+    private static boolean contains(Object result, Long itemId) {
+        return result instanceof List && ((List<?>) result).stream()
+                .anyMatch(item -> item instanceof ItemDto && itemId.equals(((ItemDto) item).getId()));
+    }
+}
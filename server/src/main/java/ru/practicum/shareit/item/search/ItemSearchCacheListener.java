@@ -0,0 +1,61 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.beans.factory.ObjectProvider;
+import ru.practicum.shareit.item.model.Item;
+
+import javax.persistence.PostLoad;
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Сбрасывает кеш результатов поиска при изменении вещи через {@link ItemSearchCacheEvictor}.
+ * <p>
+ * Если не изменились поля, по которым ищется вещь, состав результатов прежний, и сбрасываются
+ * только результаты, в которых вещь уже есть. Иначе вещь могла попасть в любой другой результат,
+ * и кеш очищается целиком.
+ */
+public class ItemSearchCacheListener {
+
+    private final ObjectProvider<ItemSearchCacheEvictor> evictor;
+
+
+    public ItemSearchCacheListener(ObjectProvider<ItemSearchCacheEvictor> evictor) {
+        this.evictor = evictor;
+    }
+
+
+    @PostLoad
+    public void onLoad(Item item) {
+        item.setSearchedFields(searchedFields(item));
+    }
+
+    @PostPersist
+    @PostRemove
+    public void onChange(Item item) {
+        evictor.ifAvailable(ItemSearchCacheEvictor::evict);
+        item.setSearchedFields(searchedFields(item));
+    }
+
+    @PostUpdate
+    public void onUpdate(Item item) {
+        List<Object> searchedFields = searchedFields(item);
+        if (searchedFields.equals(item.getSearchedFields())) {
+            evictor.ifAvailable(cacheEvictor -> cacheEvictor.evict(item.getId()));
+        } else {
+            evictor.ifAvailable(ItemSearchCacheEvictor::evict);
+        }
+        item.setSearchedFields(searchedFields);
+    }
+
+
+    // -------------------------
+    // Вспомогательные методы
+    // -------------------------
+
+    private static List<Object> searchedFields(Item item) {
+        return Arrays.asList(item.getName(), item.getDescription(), item.getIsAvailable());
+    }
+}
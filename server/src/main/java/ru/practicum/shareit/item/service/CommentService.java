@@ -1,5 +1,7 @@
 package ru.practicum.shareit.item.service;
 
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.common.KeysetCursor;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
@@ -9,8 +11,26 @@ public interface CommentService {
 
     CommentDto saveComment(CommentDto commentDto);
 
+    /**
+     * Добавляет в карточку вещи последние отзывы; полный список постранично отдаёт {@link #getAllByItemId}.
+     */
     void getComments(ItemDto itemDto);
 
+    /**
+     * Страница отзывов вещи в порядке {@code pageable}; с курсором — отзывы, следующие за ним
+     * в порядке от новых к старым.
+     */
+    List<CommentDto> getAllByItemId(Long itemId, KeysetCursor cursor, Pageable pageable);
+
+    /**
+     * Добавляет в каждую вещь списка её последние отзывы, одним запросом на весь список.
+     */
     void getComments(List<ItemDto> itemDtos, List<Long> itemIds);
 
+    /**
+     * Версия авторов отзывов, которые {@link #getComments(ItemDto)} встраивает в карточку: входит в её ETag,
+     * потому что карточка показывает имена авторов.
+     */
+    long getLatestAuthorsVersion(Long itemId);
+
 }
@@ -1,10 +1,16 @@
 package ru.practicum.shareit.item.service;
 
-import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.common.KeysetCursor;
 import ru.practicum.shareit.common.exception.EntityNotFoundException;
 import ru.practicum.shareit.common.exception.ValidationException;
 import ru.practicum.shareit.item.dto.CommentDto;
@@ -15,31 +21,73 @@ import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserLookup;
 
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 @Service
-@RequiredArgsConstructor
 @Transactional(readOnly = true)
+@Slf4j
 public class CommentServiceImpl implements CommentService {
 
     private final CommentRepository commentRepository;
-    private final UserRepository userRepository;
+    private final UserLookup userLookup;
     private final ItemRepository itemRepository;
     private final BookingRepository bookingRepository;
     private final CommentMapper commentMapper;
 
+    /**
+     * Последние отзывы выбираются через LATERAL, который есть только в PostgreSQL. Решение принимается
+     * по СУБД, к которой подключён источник данных: диалект Hibernate задан как PostgreSQL и для H2.
+     */
+    private final boolean lateralJoin;
+
+    /**
+     * Сколько последних отзывов встраивается в карточку вещи; остальные отдаёт {@link #getAllByItemId}.
+     */
+    static final int LATEST_COMMENTS = 10;
+
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "created", "id");
+
+
+    @Autowired
+    public CommentServiceImpl(CommentRepository commentRepository,
+                              UserLookup userLookup,
+                              ItemRepository itemRepository,
+                              BookingRepository bookingRepository,
+                              CommentMapper commentMapper,
+                              DataSource dataSource) {
+        this(commentRepository, userLookup, itemRepository, bookingRepository, commentMapper,
+                supportsLateral(dataSource));
+    }
+
+    CommentServiceImpl(CommentRepository commentRepository,
+                       UserLookup userLookup,
+                       ItemRepository itemRepository,
+                       BookingRepository bookingRepository,
+                       CommentMapper commentMapper,
+                       boolean lateralJoin) {
+        this.commentRepository = commentRepository;
+        this.userLookup = userLookup;
+        this.itemRepository = itemRepository;
+        this.bookingRepository = bookingRepository;
+        this.commentMapper = commentMapper;
+        this.lateralJoin = lateralJoin;
+    }
+
 
     @Override
     @Transactional
     public CommentDto saveComment(CommentDto commentDto) {
-        User author = getUser(commentDto.getAuthorId());
+        User author = userLookup.getReference(commentDto.getAuthorId());
         Item item = getItem(commentDto.getItemId());
         commentDto.setCreated(LocalDateTime.now());
         validateAuthorForComment(author, item, commentDto.getCreated());
@@ -48,42 +96,68 @@ public class CommentServiceImpl implements CommentService {
         comment.setItem(item);
         comment.setAuthor(author);
 
-        return commentMapper.toCommentDto(commentRepository.save(comment));
+        CommentDto savedComment = commentMapper.toCommentDto(commentRepository.save(comment));
+        item.setCommentCount(item.getCommentCount() + 1);
+        return savedComment;
     }
 
     @Override
     public void getComments(ItemDto itemDto) {
-        List<Comment> comments = commentRepository.findAllByItem_Id(itemDto.getId());
+        List<Comment> comments = commentRepository.findAllByItemId(itemDto.getId(),
+                PageRequest.of(0, LATEST_COMMENTS, NEWEST_FIRST));
 
         comments.stream()
                 .map(commentMapper::toCommentDto)
                 .forEach(commentDto -> itemDto.getComments().add(commentDto));
     }
 
+    @Override
+    public List<CommentDto> getAllByItemId(Long itemId, KeysetCursor cursor, Pageable pageable) {
+        if (!itemRepository.existsById(itemId)) {
+            throw new EntityNotFoundException("Не найдена вещь с ID " + itemId, Item.class);
+        }
+        List<Comment> comments = cursor == null
+                ? commentRepository.findAllByItemId(itemId, pageable)
+                : commentRepository.findAllByItemIdKeyset(itemId, cursor.getTimestamp(), cursor.getId(), pageable);
+
+        return comments.stream()
+                .map(commentMapper::toCommentDto)
+                .collect(Collectors.toList());
+    }
+
     @Override
     public void getComments(List<ItemDto> itemDtos, List<Long> itemIds) {
-        List<Comment> comments = commentRepository.findAllByItemIds(itemIds);
-        if (comments.isEmpty()) return;
+        if (itemIds.isEmpty()) return;
 
         Map<Long, List<CommentDto>> itemComments = new HashMap<>();
-
+        List<CommentRepository.CommentView> comments = lateralJoin
+                ? commentRepository.findLatestByItemIdsLateral(itemIds, LATEST_COMMENTS)
+                : commentRepository.findLatestByItemIds(itemIds, LATEST_COMMENTS);
         comments.forEach(comment -> itemComments
-                .computeIfAbsent(comment.getItem().getId(), (commentList -> new ArrayList<>()))
-                .add(commentMapper.toCommentDto(comment)));
+                        .computeIfAbsent(comment.getItemId(), (commentList -> new ArrayList<>()))
+                        .add(commentMapper.toCommentDto(comment)));
 
         itemDtos.forEach(itemDto -> itemDto.setComments(
                 itemComments.getOrDefault(itemDto.getId(), Collections.emptyList())));
     }
 
+    @Override
+    public long getLatestAuthorsVersion(Long itemId) {
+        return commentRepository.sumLatestAuthorVersions(itemId, LATEST_COMMENTS);
+    }
+
     // -------------------------
     // Вспомогательные методы
     // -------------------------
 
-    private User getUser(Long userId) {
-        return userRepository.findById(userId)
-                .orElseThrow(() -> new EntityNotFoundException(
-                        "Не найден пользователь с ID " + userId, User.class
-                ));
+    private static boolean supportsLateral(DataSource dataSource) {
+        try {
+            return "PostgreSQL".equals(JdbcUtils.extractDatabaseMetaData(dataSource,
+                    DatabaseMetaData::getDatabaseProductName));
+        } catch (MetaDataAccessException e) {
+            log.warn("Не удалось определить СУБД, последние отзывы выбираются без LATERAL", e);
+            return false;
+        }
     }
 
     private Item getItem(Long itemId) {
@@ -94,8 +168,7 @@ public class CommentServiceImpl implements CommentService {
     }
 
     private void validateAuthorForComment(User author, Item item, LocalDateTime commentCreated) {
-        List<Booking> bookings = bookingRepository.findByBookerAndItemPast(author, item, commentCreated);
-        if (bookings.isEmpty()) {
+        if (!bookingRepository.existsApprovedStartedBefore(author.getId(), item.getId(), commentCreated)) {
             throw new ValidationException(String.format(
                     "Автор с ID %d еще не брал в аренду вещь с ID %d", author.getId(), item.getId()
             ));
@@ -1,6 +1,7 @@
 package ru.practicum.shareit.item.service;
 
 import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.common.KeysetCursor;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
@@ -10,6 +11,12 @@ public interface ItemService {
 
     ItemDto getByIdAndUserId(Long itemId, Long userId);
 
+    /**
+     * ETag ответа {@link #getByIdAndUserId}: версия вещи, число отзывов, а для владельца —
+     * ID последнего и следующего бронирований.
+     */
+    String getETag(Long itemId, Long userId);
+
     List<ItemDto> getAllByOwnerId(Long ownerId, Pageable pageable);
 
     List<ItemDto> getAllByKeyword(String keyword, Pageable pageable);
@@ -19,4 +26,6 @@ public interface ItemService {
     ItemDto update(ItemDto itemUpdateDto);
 
     CommentDto saveComment(CommentDto commentDto);
+
+    List<CommentDto> getComments(Long itemId, KeysetCursor cursor, Pageable pageable);
 }
@@ -1,31 +1,37 @@
 package ru.practicum.shareit.item.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.index.BookingInterval;
+import ru.practicum.shareit.booking.index.ItemAvailabilityIndex;
+import ru.practicum.shareit.booking.index.ItemBookingSummary;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
-import ru.practicum.shareit.booking.model.Booking;
-import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.common.CacheConfig;
+import ru.practicum.shareit.common.ETags;
+import ru.practicum.shareit.common.KeysetCursor;
 import ru.practicum.shareit.common.exception.EntityNotFoundException;
 import ru.practicum.shareit.common.exception.ForbiddenException;
 import ru.practicum.shareit.common.exception.ValidationException;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.index.ItemTextIndex;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearch;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserLookup;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
 import java.util.stream.Collectors;
 
@@ -35,10 +41,11 @@ import java.util.stream.Collectors;
 public class ItemServiceImpl implements ItemService {
 
     private final ItemRepository itemRepository;
-    private final UserRepository userRepository;
-    private final BookingRepository bookingRepository;
+    private final UserLookup userLookup;
+    private final ItemAvailabilityIndex availabilityIndex;
     private final ItemRequestRepository requestRepository;
     private final CommentService commentService;
+    private final ItemSearch itemSearch;
     private final ItemMapper itemMapper;
     private final BookingMapper bookingMapper;
 
@@ -56,28 +63,49 @@ public class ItemServiceImpl implements ItemService {
     }
 
     @Override
-    public List<ItemDto> getAllByOwnerId(Long ownerId, Pageable pageable) {
-        getUser(ownerId);
-        List<Item> userItems = itemRepository.findByOwnerId(ownerId, pageable);
-        if (userItems == null) return Collections.emptyList();
+    public String getETag(Long itemId, Long userId) {
+        ItemRepository.ItemVersion item = itemRepository.findVersionById(itemId)
+                .orElseThrow(() -> new EntityNotFoundException(
+                        "Не найдена вещь с ID " + itemId, Item.class
+                ));
+        long authorsVersion = commentService.getLatestAuthorsVersion(itemId);
+        if (!Objects.equals(userId, item.getOwnerId())) {
+            return ETags.of(itemId, item.getVersion(), item.getCommentCount(), authorsVersion);
+        }
 
-        List<ItemDto> userItemDtos = userItems.stream()
-                .map(itemMapper::toItemDto)
+        ItemBookingSummary summary = availabilityIndex.findLastAndNext(Collections.singletonList(itemId),
+                LocalDateTime.now()).get(itemId);
+        return ETags.of(itemId, item.getVersion(), item.getCommentCount(), authorsVersion, "o",
+                summary == null ? null : getId(summary.getLastBooking()),
+                summary == null ? null : getId(summary.getNextBooking()));
+    }
+
+    @Override
+    public List<ItemDto> getAllByOwnerId(Long ownerId, Pageable pageable) {
+        userLookup.checkExists(ownerId);
+        List<ItemDto> userItemDtos = itemRepository.findOwnerItems(ownerId, LocalDateTime.now(),
+                        pageable.getPageSize(), pageable.getOffset())
+                .stream()
+                .map(this::toItemDto)
                 .collect(Collectors.toList());
         List<Long> itemIds = userItemDtos.stream()
                 .map(ItemDto::getId)
                 .collect(Collectors.toList());
 
-        addLastAndNextBookings(userItemDtos, itemIds, LocalDateTime.now());
         commentService.getComments(userItemDtos, itemIds);
         return userItemDtos;
     }
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.ITEM_SEARCH_CACHE, condition = "!#keyword.trim().isEmpty()",
+            key = "T(ru.practicum.shareit.item.index.ItemTextIndex).normalize(#keyword) "
+                    + "+ ':' + #pageable.offset + ':' + #pageable.pageSize")
     public List<ItemDto> getAllByKeyword(String keyword, Pageable pageable) {
-        if (keyword.isEmpty()) return Collections.emptyList();
+        // Поиск получает тот же вид запроса, что и ключ кеша, иначе под одним ключом оказались бы разные результаты
+        String query = ItemTextIndex.normalize(keyword);
+        if (query.isEmpty()) return Collections.emptyList();
 
-        return itemRepository.searchByKeyword(keyword, pageable)
+        return itemSearch.search(query, pageable)
                 .stream()
                 .map(itemMapper::toItemDto)
                 .collect(Collectors.toList());
@@ -86,7 +114,7 @@ public class ItemServiceImpl implements ItemService {
     @Override
     @Transactional
     public ItemDto save(ItemDto itemDto) {
-        User owner = getUser(itemDto.getOwnerId());
+        User owner = userLookup.getReference(itemDto.getOwnerId());
         Item item = itemMapper.toItem(itemDto);
         item.setOwner(owner);
         setItemRequest(itemDto, item);
@@ -110,6 +138,11 @@ public class ItemServiceImpl implements ItemService {
         return commentService.saveComment(commentDto);
     }
 
+    @Override
+    public List<CommentDto> getComments(Long itemId, KeysetCursor cursor, Pageable pageable) {
+        return commentService.getAllByItemId(itemId, cursor, pageable);
+    }
+
 
     // -------------------------
     // Вспомогательные методы
@@ -122,13 +155,6 @@ public class ItemServiceImpl implements ItemService {
                 ));
     }
 
-    private User getUser(Long userId) {
-        return userRepository.findById(userId)
-                .orElseThrow(() -> new EntityNotFoundException(
-                        "Не найден пользователь с ID " + userId, User.class
-                ));
-    }
-
     private void setItemRequest(ItemDto itemDto, Item item) {
         if (itemDto.getRequestId() == null) return;
 
@@ -161,29 +187,37 @@ public class ItemServiceImpl implements ItemService {
         }
     }
 
+    /**
+     * Бронирования карточки берутся из того же индекса, что и её ETag.
+     */
     private void addLastAndNextBookings(ItemDto itemDto, LocalDateTime now) {
-        Booking lastBooking = bookingRepository.findLastByItemId(itemDto.getId(), now);
-        Booking nextBooking = bookingRepository.findNextByItemId(itemDto.getId(), now);
-        if (lastBooking != null) itemDto.setLastBooking(bookingMapper.toBookingDtoLite(lastBooking));
-        if (nextBooking != null) itemDto.setNextBooking(bookingMapper.toBookingDtoLite(nextBooking));
+        ItemBookingSummary summary = availabilityIndex.findLastAndNext(Collections.singletonList(itemDto.getId()),
+                now).get(itemDto.getId());
+        if (summary == null) return;
+        itemDto.setLastBooking(toBookingDtoLite(summary.getLastBooking(), itemDto));
+        itemDto.setNextBooking(toBookingDtoLite(summary.getNextBooking(), itemDto));
     }
 
-    private void addLastAndNextBookings(List<ItemDto> itemDtos, List<Long> itemIds, LocalDateTime now) {
-        List<Booking> lastBookings = bookingRepository.findLastByItemIds(itemIds, now);
-        List<Booking> nextBookings = bookingRepository.findNextByItemIds(itemIds, now);
-
-        Map<Long, BookingDto> itemLastBookings = new HashMap<>();
-        Map<Long, BookingDto> itemNextBookings = new HashMap<>();
-
-        lastBookings.forEach(booking -> itemLastBookings.put(booking.getItem().getId(),
-                bookingMapper.toBookingDtoLite(booking)));
+    private ItemDto toItemDto(ItemRepository.OwnerItem item) {
+        ItemDto itemDto = itemMapper.toItemDto(item);
+        if (item.getLastBookingId() != null) {
+            itemDto.setLastBooking(toBookingDtoLite(new BookingInterval(item.getLastBookingId(), item.getId(),
+                    item.getLastBookingStart(), item.getLastBookingEnd(), item.getLastBookerId(),
+                    BookingState.APPROVED), itemDto));
+        }
+        if (item.getNextBookingId() != null) {
+            itemDto.setNextBooking(toBookingDtoLite(new BookingInterval(item.getNextBookingId(), item.getId(),
+                    item.getNextBookingStart(), item.getNextBookingEnd(), item.getNextBookerId(),
+                    BookingState.APPROVED), itemDto));
+        }
+        return itemDto;
+    }
 
-        nextBookings.forEach(booking -> itemNextBookings.put(booking.getItem().getId(),
-                bookingMapper.toBookingDtoLite(booking)));
+    private Long getId(BookingInterval interval) {
+        return interval == null ? null : interval.getId();
+    }
 
-        itemDtos.forEach(itemDto -> {
-            itemDto.setLastBooking(itemLastBookings.get(itemDto.getId()));
-            itemDto.setNextBooking(itemNextBookings.get(itemDto.getId()));
-        });
+    private BookingDto toBookingDtoLite(BookingInterval interval, ItemDto itemDto) {
+        return interval == null ? null : bookingMapper.toBookingDtoLite(interval, itemDto.getName());
     }
 }
@@ -12,6 +12,7 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.common.CustomPageRequest;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.service.ItemRequestService;
@@ -31,8 +32,10 @@ public class ItemRequestController {
 
     @GetMapping("/{requestId}")
     public ItemRequestDto getById(@RequestHeader(USER_ID_HEADER) Long userId,
-                                  @PathVariable Long requestId) {
+                                  @PathVariable Long requestId,
+                                  WebRequest request) {
         log.info("GET /requests/{} | userId: {}", requestId, userId);
+        if (request.checkNotModified(requestService.getETag(requestId, userId))) return null;
         return requestService.getById(requestId, userId);
     }
 
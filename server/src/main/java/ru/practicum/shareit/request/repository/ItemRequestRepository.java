@@ -7,6 +7,7 @@ import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.request.model.ItemRequest;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
 
@@ -15,4 +16,8 @@ public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long>
     @Query("select ir from ItemRequest ir " +
             "where ir.requestor.id <> :requestorId ")
     List<ItemRequest> findAllByOtherUsers(@Param("requestorId") Long requestorId, Pageable pageable);
+
+    @Query("select ir.version from ItemRequest ir " +
+            "where ir.id = :requestId")
+    Optional<Long> findVersionById(@Param("requestId") Long requestId);
 }
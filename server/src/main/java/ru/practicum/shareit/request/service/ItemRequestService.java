@@ -9,6 +9,12 @@ public interface ItemRequestService {
 
     ItemRequestDto getById(Long requestId, Long userId);
 
+    /**
+     * ETag ответа {@link #getById}: версия запроса и набор вещей, созданных в ответ на него.
+     * {@code null}, если пользователь или запрос не найдены.
+     */
+    String getETag(Long requestId, Long userId);
+
     List<ItemRequestDto> getAllByRequestorId(Long requestorId);
 
     List<ItemRequestDto> getAllByOtherUsers(Long userId, Pageable pageable);
@@ -5,6 +5,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.common.ETags;
 import ru.practicum.shareit.common.exception.EntityNotFoundException;
 import ru.practicum.shareit.item.dto.ItemItemRequestDto;
 import ru.practicum.shareit.item.mapper.ItemMapper;
@@ -15,7 +16,7 @@ import ru.practicum.shareit.request.mapper.ItemRequestMapper;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
-import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserLookup;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -32,28 +33,40 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
     private final ItemRequestRepository requestRepository;
     private final ItemRepository itemRepository;
-    private final UserRepository userRepository;
+    private final UserLookup userLookup;
     private final ItemRequestMapper requestMapper;
     private final ItemMapper itemMapper;
 
 
     @Override
     public ItemRequestDto getById(Long requestId, Long userId) {
-        getUser(userId);
+        userLookup.checkExists(userId);
         ItemRequest request = getItemRequest(requestId);
         return makeDto(request);
     }
 
+    @Override
+    public String getETag(Long requestId, Long userId) {
+        if (!userLookup.exists(userId)) return null;
+
+        return requestRepository.findVersionById(requestId)
+                .map(version -> {
+                    ItemRepository.ItemsStamp items = itemRepository.findStampByRequestId(requestId);
+                    return ETags.of(requestId, version, items.getCount(), items.getLastId(), items.getVersionSum());
+                })
+                .orElse(null);
+    }
+
     @Override
     public List<ItemRequestDto> getAllByRequestorId(Long requestorId) {
-        getUser(requestorId);
+        userLookup.checkExists(requestorId);
         List<ItemRequest> requests = requestRepository.getAllByRequestorIdOrderByCreatedDesc(requestorId);
         return makeDtos(requests);
     }
 
     @Override
     public List<ItemRequestDto> getAllByOtherUsers(Long userId, Pageable pageable) {
-        getUser(userId);
+        userLookup.checkExists(userId);
         List<ItemRequest> requests = requestRepository.findAllByOtherUsers(userId, pageable);
         return makeDtos(requests);
     }
@@ -61,7 +74,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     @Override
     @Transactional
     public ItemRequestDto save(ItemRequestDto requestDto) {
-        User requestor = getUser(requestDto.getRequestorId());
+        User requestor = userLookup.getReference(requestDto.getRequestorId());
         ItemRequest request = requestMapper.toItemRequest(requestDto);
         request.setRequestor(requestor);
         request.setCreated(LocalDateTime.now());
@@ -80,13 +93,6 @@ public class ItemRequestServiceImpl implements ItemRequestService {
                 ));
     }
 
-    private User getUser(long userId) {
-        return userRepository.findById(userId)
-                .orElseThrow(() -> new EntityNotFoundException(
-                        "Не найден пользователь с ID " + userId, User.class
-                ));
-    }
-
     private List<ItemRequestDto> makeDtos(List<ItemRequest> requests) {
         if (requests.isEmpty()) return Collections.emptyList();
 
@@ -0,0 +1,135 @@
+package ru.practicum.shareit.user.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.common.exception.EntityNotFoundException;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Проверка существования пользователей для сервисов бронирований, вещей, отзывов и запросов.
+ * <p>
+ * Хранит ограниченный по размеру (LRU) набор ID пользователей, уже найденных в базе.
+ * Для известного ID проверка не обращается к базе, а {@link #getReference} возвращает
+ * ссылку {@code getReferenceById}: связь с бронированием или вещью записывается без загрузки строки.
+ * ID запоминается только после коммита транзакции, в которой пользователь был найден или создан,
+ * поэтому строка из откаченной транзакции в набор не попадает. Удаление пользователя через
+ * {@link UserServiceImpl} убирает его ID сразу и ещё раз после коммита; загрузка, начавшаяся
+ * до удаления, свой результат не сохраняет.
+ */
+@Component
+public class UserLookup {
+
+    private final UserRepository userRepository;
+
+    private final Map<Long, Boolean> knownIds;
+
+    private final AtomicLong removals = new AtomicLong();
+
+
+    @Autowired
+    public UserLookup(UserRepository userRepository,
+                      @Value("${shareit.user.lookup.max-users:100000}") int maxUsers) {
+        this.userRepository = userRepository;
+        this.knownIds = Collections.synchronizedMap(new LinkedHashMap<Long, Boolean>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Boolean> eldest) {
+                return size() > maxUsers;
+            }
+        });
+    }
+
+
+    public boolean exists(Long userId) {
+        return isKnown(userId) || load(userId).isPresent();
+    }
+
+    public void checkExists(Long userId) {
+        if (!exists(userId)) {
+            throw notFound(userId);
+        }
+    }
+
+    /**
+     * Пользователь для записи в связь сущности. Для известного ID — ссылка без запроса к базе,
+     * поля которой загрузятся при первом обращении.
+     */
+    public User getReference(Long userId) {
+        if (isKnown(userId)) {
+            return userRepository.getReferenceById(userId);
+        }
+        return load(userId).orElseThrow(() -> notFound(userId));
+    }
+
+    /**
+     * Запоминает только что созданного пользователя после коммита транзакции.
+     */
+    public void remember(Long userId) {
+        long removalsBeforeCommit = removals.get();
+        runAfterCompletion(committed -> {
+            if (committed && removalsBeforeCommit == removals.get()) {
+                knownIds.put(userId, Boolean.TRUE);
+            }
+        });
+    }
+
+    public void forget(Long userId) {
+        removals.incrementAndGet();
+        knownIds.remove(userId);
+        runAfterCompletion(committed -> {
+            removals.incrementAndGet();
+            knownIds.remove(userId);
+        });
+    }
+
+    public boolean isKnown(Long userId) {
+        return userId != null && knownIds.get(userId) != null;
+    }
+
+
+    // -------------------------
+    // Вспомогательные методы
+    // -------------------------
+
+    private Optional<User> load(Long userId) {
+        if (userId == null) return Optional.empty();
+
+        long removalsBeforeLoad = removals.get();
+        Optional<User> user = userRepository.findById(userId);
+        if (user.isPresent()) {
+            runAfterCompletion(committed -> {
+                if (committed && removalsBeforeLoad == removals.get()) {
+                    knownIds.put(userId, Boolean.TRUE);
+                }
+            });
+        }
+        return user;
+    }
+
+    private void runAfterCompletion(Consumer<Boolean> callback) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            callback.accept(true);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                callback.accept(status == STATUS_COMMITTED);
+            }
+        });
+    }
+
+    private static EntityNotFoundException notFound(Long userId) {
+        return new EntityNotFoundException("Не найден пользователь с ID " + userId, User.class);
+    }
+}
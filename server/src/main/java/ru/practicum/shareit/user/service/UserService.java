@@ -11,6 +11,11 @@ public interface UserService {
 
     UserDto getById(Long id);
 
+    /**
+     * ETag ответа {@link #getById}; {@code null}, если пользователь не найден.
+     */
+    String getETag(Long id);
+
     UserDto create(UserDto userDto);
 
     UserDto update(UserDto userDto);
@@ -6,6 +6,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.common.ETags;
 import ru.practicum.shareit.common.exception.EntityNotFoundException;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.mapper.UserMapper;
@@ -23,6 +24,8 @@ public class UserServiceImpl implements UserService {
 
     private final UserRepository userRepository;
 
+    private final UserLookup userLookup;
+
     protected final UserMapper userMapper;
 
     @Override
@@ -38,11 +41,19 @@ public class UserServiceImpl implements UserService {
         return userMapper.toUserDto(user);
     }
 
+    @Override
+    public String getETag(Long id) {
+        return userRepository.findVersionById(id)
+                .map(version -> ETags.of(id, version))
+                .orElse(null);
+    }
+
     @Override
     @Transactional
     public UserDto create(UserDto userDto) {
         User user = userMapper.toUser(userDto);
-        User savedUser = userRepository.save(user);
+        User savedUser = userRepository.saveAndFlush(user);
+        userLookup.remember(savedUser.getId());
         return userMapper.toUserDto(savedUser);
     }
 
@@ -58,6 +69,7 @@ public class UserServiceImpl implements UserService {
     @Transactional
     public void delete(Long id) {
         userRepository.deleteById(id);
+        userLookup.forget(id);
     }
 
 
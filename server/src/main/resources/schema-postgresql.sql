@@ -0,0 +1,67 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS items_name_trgm_idx ON items USING gin (name gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS items_description_trgm_idx ON items USING gin (description gin_trgm_ops);
+
+ALTER TABLE users ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE requests ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE items ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS version BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE items ADD COLUMN IF NOT EXISTS comment_count BIGINT;
+
+UPDATE items i SET comment_count = (SELECT count(*) FROM comments c WHERE c.item_id = i.id)
+    WHERE i.comment_count IS NULL;
+
+ALTER TABLE items ALTER COLUMN comment_count SET DEFAULT 0;
+
+ALTER TABLE items ALTER COLUMN comment_count SET NOT NULL;
+
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+ALTER TABLE users ALTER COLUMN id SET DEFAULT nextval('users_seq');
+
+SELECT setval('users_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM users), (SELECT last_value FROM users_seq)));
+
+ALTER TABLE requests ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+ALTER TABLE requests ALTER COLUMN id SET DEFAULT nextval('requests_seq');
+
+SELECT setval('requests_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM requests), (SELECT last_value FROM requests_seq)));
+
+ALTER TABLE items ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+ALTER TABLE items ALTER COLUMN id SET DEFAULT nextval('items_seq');
+
+SELECT setval('items_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM items), (SELECT last_value FROM items_seq)));
+
+ALTER TABLE bookings ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+ALTER TABLE bookings ALTER COLUMN id SET DEFAULT nextval('bookings_seq');
+
+SELECT setval('bookings_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM bookings), (SELECT last_value FROM bookings_seq)));
+
+ALTER TABLE comments ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+ALTER TABLE comments ALTER COLUMN id SET DEFAULT nextval('comments_seq');
+
+SELECT setval('comments_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM comments), (SELECT last_value FROM comments_seq)));
+
+CREATE INDEX IF NOT EXISTS bookings_item_approved_starts_idx ON bookings (item_id, starts) INCLUDE (id)
+    WHERE status = 'APPROVED';
+
+CREATE INDEX IF NOT EXISTS bookings_item_active_idx ON bookings (item_id) INCLUDE (id, starts, ends, booker_id, status)
+    WHERE status IN ('WAITING', 'APPROVED');
+
+CREATE INDEX IF NOT EXISTS bookings_booker_item_approved_idx ON bookings (booker_id, item_id, starts)
+    WHERE status = 'APPROVED';
+
+CREATE INDEX IF NOT EXISTS bookings_booker_waiting_idx ON bookings (booker_id, starts DESC, id DESC)
+    WHERE status = 'WAITING';
+
+CREATE INDEX IF NOT EXISTS bookings_item_waiting_idx ON bookings (item_id, starts DESC, id DESC)
+    WHERE status = 'WAITING';
@@ -1,6 +1,17 @@
+CREATE SEQUENCE IF NOT EXISTS users_seq START WITH 1 INCREMENT BY 50;
+
+CREATE SEQUENCE IF NOT EXISTS requests_seq START WITH 1 INCREMENT BY 50;
+
+CREATE SEQUENCE IF NOT EXISTS items_seq START WITH 1 INCREMENT BY 50;
+
+CREATE SEQUENCE IF NOT EXISTS bookings_seq START WITH 1 INCREMENT BY 50;
+
+CREATE SEQUENCE IF NOT EXISTS comments_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE IF NOT EXISTS users
 (
-    id        BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    id        BIGINT DEFAULT nextval('users_seq'),
+    version   BIGINT      NOT NULL DEFAULT 0,
     name      VARCHAR(50) NOT NULL,
     email     VARCHAR(100) NOT NULL,
     CONSTRAINT users_pk
@@ -11,7 +22,8 @@ CREATE TABLE IF NOT EXISTS users
 
 CREATE TABLE IF NOT EXISTS requests
 (
-    id           BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    id           BIGINT DEFAULT nextval('requests_seq'),
+    version      BIGINT       NOT NULL DEFAULT 0,
     description  VARCHAR(255) NOT NULL,
     requestor_id BIGINT       NOT NULL,
     created      TIMESTAMP WITHOUT TIME ZONE NOT NULL,
@@ -24,12 +36,14 @@ CREATE TABLE IF NOT EXISTS requests
 
 CREATE TABLE IF NOT EXISTS items
 (
-    id              BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    id              BIGINT DEFAULT nextval('items_seq'),
+    version         BIGINT       NOT NULL DEFAULT 0,
     name            VARCHAR(100) NOT NULL,
     description     VARCHAR(500) NOT NULL,
     is_available    BOOLEAN      NOT NULL,
     owner_id        BIGINT       NOT NULL,
     request_id      BIGINT,
+    comment_count   BIGINT       NOT NULL DEFAULT 0,
     CONSTRAINT items_pk
         PRIMARY KEY (id),
     CONSTRAINT item_owner_fk
@@ -42,12 +56,14 @@ CREATE TABLE IF NOT EXISTS items
 
 CREATE TABLE IF NOT EXISTS bookings
 (
-    id        BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    id        BIGINT DEFAULT nextval('bookings_seq'),
+    version   BIGINT        NOT NULL DEFAULT 0,
     starts    TIMESTAMP WITHOUT TIME ZONE,
     ends      TIMESTAMP WITHOUT TIME ZONE,
     item_id   BIGINT        NOT NULL,
     booker_id BIGINT        NOT NULL,
     status    VARCHAR(10)   NOT NULL,
+    bucket    VARCHAR(10),
     CONSTRAINT bookings_pk
         PRIMARY KEY (id),
     CONSTRAINT booker_fk
@@ -60,7 +76,7 @@ CREATE TABLE IF NOT EXISTS bookings
 
 CREATE TABLE IF NOT EXISTS comments
 (
-    id        BIGINT GENERATED BY DEFAULT AS IDENTITY,
+    id        BIGINT DEFAULT nextval('comments_seq'),
     text      VARCHAR(800) NOT NULL,
     item_id   BIGINT       NOT NULL,
     author_id BIGINT       NOT NULL,
@@ -73,4 +89,29 @@ CREATE TABLE IF NOT EXISTS comments
     CONSTRAINT comments_users_fk
         FOREIGN KEY (author_id)
             REFERENCES users
-);
\ No newline at end of file
+);
+CREATE INDEX IF NOT EXISTS bookings_booker_starts_idx ON bookings (booker_id, starts DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS bookings_item_starts_idx ON bookings (item_id, starts DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS bookings_booker_item_starts_idx ON bookings (booker_id, item_id, starts);
+
+CREATE INDEX IF NOT EXISTS items_owner_id_idx ON items (owner_id, id);
+
+CREATE INDEX IF NOT EXISTS items_request_idx ON items (request_id);
+
+CREATE INDEX IF NOT EXISTS comments_item_created_idx ON comments (item_id, created DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS requests_requestor_created_idx ON requests (requestor_id, created DESC);
+
+CREATE INDEX IF NOT EXISTS requests_created_idx ON requests (created DESC);
+
+ALTER TABLE bookings ADD COLUMN IF NOT EXISTS bucket VARCHAR(10);
+
+CREATE INDEX IF NOT EXISTS bookings_booker_bucket_starts_idx ON bookings (booker_id, bucket, starts DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS bookings_item_bucket_starts_idx ON bookings (item_id, bucket, starts DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS bookings_bucket_starts_idx ON bookings (bucket, starts);
+
+CREATE INDEX IF NOT EXISTS bookings_bucket_ends_idx ON bookings (bucket, ends);
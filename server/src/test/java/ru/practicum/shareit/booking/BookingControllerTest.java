@@ -7,11 +7,13 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.common.KeysetCursor;
 import ru.practicum.shareit.common.exception.BookingStatusException;
 import ru.practicum.shareit.common.exception.EntityNotFoundException;
 import ru.practicum.shareit.common.exception.ValidationException;
@@ -28,6 +30,7 @@ import java.util.List;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.Mockito.isA;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
@@ -36,6 +39,8 @@ import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -332,6 +337,41 @@ class BookingControllerTest {
                 .getById(isA(Long.class), isA(Long.class));
     }
 
+    @Test
+    @SneakyThrows
+    void getById_whenIfNoneMatchEqualsVersionEtag_thenNotModifiedWithoutLoading() {
+        when(bookingService.getETag(1L, 2L))
+                .thenReturn("\"1.1.0.0\"");
+
+        mvc.perform(get("/bookings/{bookingId}", 1L)
+                        .header(USER_ID_HEADER, 2L)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"1.1.0.0\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        verify(bookingService, never()).getById(isA(Long.class), isA(Long.class));
+    }
+
+    @Test
+    @SneakyThrows
+    void getById_whenIfNoneMatchDiffers_thenStatusIsOkAndEtagReturned() {
+        BookingDto outputDto = createBookingDtoOut();
+        Long bookingId = outputDto.getId();
+        Long bookerId = outputDto.getBooker().getId();
+
+        when(bookingService.getETag(bookingId, bookerId))
+                .thenReturn("\"1.2.0.0\"");
+        when(bookingService.getById(isA(Long.class), isA(Long.class)))
+                .thenReturn(outputDto);
+
+        mvc.perform(get("/bookings/{bookingId}", bookingId)
+                        .header(USER_ID_HEADER, bookerId)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"1.1.0.0\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1.2.0.0\""))
+                .andExpect(jsonPath("$.id", is(bookingId), Long.class));
+    }
+
     @Test
     @SneakyThrows
     void getById_whenUserIsOwner_thenStatusIsOkAndDtoReturned() {
@@ -775,6 +815,67 @@ class BookingControllerTest {
     }
 
 
+    @Test
+    @SneakyThrows
+    void getAllByBookerId_whenPageIsFull_thenNextCursorHeaderReturned() {
+        Long bookerId = 2L;
+        String size = "3";
+        List<BookingDto> bookings = createBookingDtosByBooker();
+        BookingDto last = bookings.get(bookings.size() - 1);
+        String expectedCursor = new KeysetCursor(last.getStart(), last.getId()).encode();
+
+        when(bookingService.getAllByBookerId(isA(Long.class), isA(String.class), isA(Pageable.class)))
+                .thenReturn(bookings);
+
+        mvc.perform(get("/bookings")
+                        .header(USER_ID_HEADER, bookerId)
+                        .param("size", size))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", expectedCursor));
+    }
+
+    @Test
+    @SneakyThrows
+    void getAllByOwnerId_whenCursorIsPresent_thenKeysetSearchUsed() {
+        Long ownerId = 1L;
+        LocalDateTime cursorStart = LocalDateTime.of(2030, 1, 1, 12, 0);
+        String cursor = new KeysetCursor(cursorStart, 5L).encode();
+        List<BookingDto> bookings = createBookingDtosByOwner();
+
+        when(bookingService.getAllByOwnerId(isA(Long.class), isA(String.class), isA(KeysetCursor.class),
+                isA(Pageable.class)))
+                .thenReturn(bookings);
+
+        mvc.perform(get("/bookings/owner")
+                        .header(USER_ID_HEADER, ownerId)
+                        .param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(bookings.size())))
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+
+        verify(bookingService, times(1)).getAllByOwnerId(isA(Long.class), isA(String.class),
+                argThat(keysetCursor -> cursorStart.equals(keysetCursor.getTimestamp())
+                        && keysetCursor.getId().equals(5L)),
+                isA(Pageable.class));
+        verify(bookingService, never())
+                .getAllByOwnerId(isA(Long.class), isA(String.class), isA(Pageable.class));
+    }
+
+    @Test
+    @SneakyThrows
+    void getAllByBookerId_whenCursorInvalid_thenStatusIsBadRequest() {
+        Long bookerId = 2L;
+        String cursor = "not-a-cursor";
+
+        mvc.perform(get("/bookings")
+                        .header(USER_ID_HEADER, bookerId)
+                        .param("cursor", cursor))
+                .andExpect(status().isBadRequest());
+
+        verify(bookingService, never()).getAllByBookerId(isA(Long.class), isA(String.class),
+                isA(KeysetCursor.class), isA(Pageable.class));
+    }
+
     // ----------
     // Шаблоны
     // ----------
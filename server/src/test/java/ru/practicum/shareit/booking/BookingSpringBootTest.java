@@ -1,5 +1,6 @@
 package ru.practicum.shareit.booking;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.SneakyThrows;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -7,8 +8,11 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.repository.BookingRepository;
@@ -17,11 +21,21 @@ import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -32,6 +46,8 @@ class BookingSpringBootTest {
 
     private static final String USER_ID_HEADER = "X-Sharer-User-Id";
 
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     @Autowired
     private BookingRepository bookingRepository;
 
@@ -41,6 +57,9 @@ class BookingSpringBootTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ObjectMapper mapper;
+
     @Autowired
     private MockMvc mvc;
 
@@ -197,10 +216,172 @@ class BookingSpringBootTest {
     }
 
 
+    @Test
+    @SneakyThrows
+    void getAllByOwnerId_whenPagedByCursor_thenAllBookingsReturnedOnce() {
+        Long ownerId = user1.getId();
+        String size = "2";
+        for (Booking booking : Arrays.asList(booking1, booking2, booking3, booking4)) {
+            booking.setStart(booking.getStart().truncatedTo(ChronoUnit.MICROS));
+        }
+
+        String cursor = mvc.perform(get("/bookings/owner")
+                        .header(USER_ID_HEADER, ownerId)
+                        .param("size", size))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].id", is(booking4.getId()), Long.class))
+                .andExpect(jsonPath("$[1].id", is(booking3.getId()), Long.class))
+                .andReturn().getResponse().getHeader(NEXT_CURSOR_HEADER);
+
+        String lastCursor = mvc.perform(get("/bookings/owner")
+                        .header(USER_ID_HEADER, ownerId)
+                        .param("size", size)
+                        .param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].id", is(booking2.getId()), Long.class))
+                .andExpect(jsonPath("$[1].id", is(booking1.getId()), Long.class))
+                .andReturn().getResponse().getHeader(NEXT_CURSOR_HEADER);
+
+        mvc.perform(get("/bookings/owner")
+                        .header(USER_ID_HEADER, ownerId)
+                        .param("size", size)
+                        .param("cursor", lastCursor))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)))
+                .andExpect(header().doesNotExist(NEXT_CURSOR_HEADER));
+    }
+    @Test
+    @SneakyThrows
+    void createAll_whenSomeEntriesInvalid_thenEachEntryReportedSeparately() {
+        Long itemId1 = booking1.getItem().getId();
+        Long itemId2 = booking3.getItem().getId();
+        LocalDateTime freeStart = LocalDateTime.now().plusDays(20).truncatedTo(ChronoUnit.SECONDS);
+        List<BookingDto> batch = Arrays.asList(
+                createBookingDto(itemId2, freeStart, freeStart.plusDays(1)),
+                createBookingDto(itemId1, booking1.getStart().plusHours(1), booking1.getStart().plusHours(2)),
+                createBookingDto(Long.MAX_VALUE, freeStart, freeStart.plusDays(1)),
+                createBookingDto(itemId2, freeStart.plusHours(12), freeStart.plusDays(2)),
+                createBookingDto(itemId1, freeStart, freeStart));
+
+        mvc.perform(post("/bookings/batch")
+                        .header(USER_ID_HEADER, user2.getId())
+                        .content(mapper.writeValueAsString(batch))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(batch.size())))
+                .andExpect(jsonPath("$[0].status", is(201)))
+                .andExpect(jsonPath("$[0].booking.itemId", is(itemId2), Long.class))
+                .andExpect(jsonPath("$[0].booking.status", is("WAITING")))
+                .andExpect(jsonPath("$[1].status", is(409)))
+                .andExpect(jsonPath("$[2].status", is(404)))
+                .andExpect(jsonPath("$[3].status", is(409)))
+                .andExpect(jsonPath("$[4].index", is(4)))
+                .andExpect(jsonPath("$[4].status", is(400)))
+                .andExpect(jsonPath("$[4].error.description",
+                        is("Дата завершения аренды не должна совпадать с датой начала аренды")));
+
+        assertEquals(5, bookingRepository.count());
+    }
+
+
+    @Test
+    @SneakyThrows
+    void approveAll_whenSomeBookingsCannotBeChangedOrRepeated_thenOthersUpdatedInOneRequest() {
+        booking2.setStatus(BookingState.WAITING);
+        booking3.setStatus(BookingState.WAITING);
+        bookingRepository.saveAll(Arrays.asList(booking2, booking3));
+        List<Long> bookingIds = Arrays.asList(booking2.getId(), booking1.getId(), Long.MAX_VALUE,
+                booking3.getId(), booking2.getId());
+
+        mvc.perform(patch("/bookings/batch")
+                        .header(USER_ID_HEADER, user1.getId())
+                        .param("approved", "false")
+                        .content(mapper.writeValueAsString(bookingIds))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(5)))
+                .andExpect(jsonPath("$[0].bookingId", is(booking2.getId()), Long.class))
+                .andExpect(jsonPath("$[0].status", is(200)))
+                .andExpect(jsonPath("$[0].booking.status", is("REJECTED")))
+                .andExpect(jsonPath("$[1].status", is(400)))
+                .andExpect(jsonPath("$[1].error.description", is("Менять статус этого бронирования уже нельзя")))
+                .andExpect(jsonPath("$[2].status", is(404)))
+                .andExpect(jsonPath("$[3].bookingId", is(booking3.getId()), Long.class))
+                .andExpect(jsonPath("$[3].status", is(200)))
+                .andExpect(jsonPath("$[4].bookingId", is(booking2.getId()), Long.class))
+                .andExpect(jsonPath("$[4].status", is(400)));
+
+        assertEquals(BookingState.REJECTED, bookingRepository.findById(booking2.getId()).get().getStatus());
+        assertEquals(BookingState.REJECTED, bookingRepository.findById(booking3.getId()).get().getStatus());
+        assertEquals(BookingState.APPROVED, bookingRepository.findById(booking1.getId()).get().getStatus());
+    }
+
+    @Test
+    @SneakyThrows
+    void approveAll_whenBookerApproves_thenStatusIsNotFoundForEachBooking() {
+        booking1.setStatus(BookingState.WAITING);
+        bookingRepository.save(booking1);
+
+        mvc.perform(patch("/bookings/batch")
+                        .header(USER_ID_HEADER, user2.getId())
+                        .param("approved", "true")
+                        .content(mapper.writeValueAsString(Collections.singletonList(booking1.getId())))
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status", is(404)));
+
+        assertEquals(BookingState.WAITING, bookingRepository.findById(booking1.getId()).get().getStatus());
+    }
+
+    @Test
+    @SneakyThrows
+    void getById_whenApprovedAfterEtagIssued_thenNewEtagAndBodyReturned() {
+        booking1.setStatus(BookingState.WAITING);
+        bookingRepository.saveAndFlush(booking1);
+        String etag = mvc.perform(get("/bookings/{bookingId}", booking1.getId())
+                        .header(USER_ID_HEADER, user2.getId()))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mvc.perform(get("/bookings/{bookingId}", booking1.getId())
+                        .header(USER_ID_HEADER, user2.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        mvc.perform(patch("/bookings/{bookingId}", booking1.getId())
+                        .header(USER_ID_HEADER, user1.getId())
+                        .param("approved", "true"))
+                .andExpect(status().isOk());
+
+        String approvedEtag = mvc.perform(get("/bookings/{bookingId}", booking1.getId())
+                        .header(USER_ID_HEADER, user2.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status", is(BookingState.APPROVED.toString())))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, approvedEtag);
+    }
+
+
     // -------------------------
     // Вспомогательные методы
     // -------------------------
 
+    private BookingDto createBookingDto(Long itemId, LocalDateTime start, LocalDateTime end) {
+        BookingDto bookingDto = new BookingDto();
+        bookingDto.setItemId(itemId);
+        bookingDto.setStart(start);
+        bookingDto.setEnd(end);
+        return bookingDto;
+    }
+
     private Booking createBooking(User booker, Item item, LocalDateTime start, LocalDateTime end) {
         Booking booking = new Booking();
         booking.setBooker(booker);
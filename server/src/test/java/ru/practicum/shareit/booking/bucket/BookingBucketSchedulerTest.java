@@ -0,0 +1,222 @@
+package ru.practicum.shareit.booking.bucket;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingTimeBucket;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isA;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BookingBucketSchedulerTest {
+
+    private static final Duration HORIZON = Duration.ofHours(1);
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private TaskScheduler taskScheduler;
+
+    @Mock
+    private ScheduledFuture<?> wakeup;
+
+    private BookingBucketScheduler scheduler;
+
+
+    @BeforeEach
+    void setUp() {
+        scheduler = new BookingBucketScheduler(bookingRepository, taskScheduler, HORIZON);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void start_whenTransitionsMissedWhileStopped_thenCaughtUpBeforeScheduling() {
+        LocalDateTime nextStart = LocalDateTime.now().plusMinutes(10);
+        when(bookingRepository.findStartsInBucketBetween(isA(LocalDateTime.class), isA(LocalDateTime.class)))
+                .thenReturn(Collections.singletonList(nextStart));
+        when(bookingRepository.findEndsInBucketBetween(isA(LocalDateTime.class), isA(LocalDateTime.class)))
+                .thenReturn(Collections.emptyList());
+
+        scheduler.start();
+
+        verify(bookingRepository).moveToPastBucket(isA(LocalDateTime.class));
+        verify(bookingRepository).moveToCurrentBucket(isA(LocalDateTime.class));
+        verify(bookingRepository).assignFutureBucket(isA(LocalDateTime.class));
+        assertEquals(toInstant(nextStart), lastScheduled());
+    }
+
+    @Test
+    void start_whenNoTransitionsInHorizon_thenWakesUpAtHorizonEnd() {
+        LocalDateTime before = LocalDateTime.now();
+
+        scheduler.start();
+
+        Instant wakeup = lastScheduled();
+        assertFalse(wakeup.isBefore(toInstant(before.plus(HORIZON))));
+    }
+
+    @Test
+    void register_whenStartBeforeNextWakeup_thenWakeupMovedEarlier() {
+        LocalDateTime laterStart = LocalDateTime.now().plusMinutes(30);
+        when(bookingRepository.findStartsInBucketBetween(isA(LocalDateTime.class), isA(LocalDateTime.class)))
+                .thenReturn(Collections.singletonList(laterStart));
+        scheduler.start();
+
+        LocalDateTime start = LocalDateTime.now().plusMinutes(5);
+        scheduler.register(createBooking(start, start.plusDays(1)));
+
+        assertEquals(toInstant(start), lastScheduled());
+    }
+
+    @Test
+    void register_whenBoundariesBeyondHorizon_thenWakeupKept() {
+        doReturn(wakeup).when(taskScheduler).schedule(any(Runnable.class), any(Instant.class));
+        scheduler.start();
+        Instant scheduled = lastScheduled();
+
+        LocalDateTime start = LocalDateTime.now().plusDays(2);
+        scheduler.register(createBooking(start, start.plusDays(1)));
+
+        verify(taskScheduler, times(1)).schedule(any(Runnable.class), any(Instant.class));
+        assertEquals(scheduled, lastScheduled());
+    }
+
+    @Test
+    void register_whenInsideTransaction_thenBoundariesAddedAfterCommit() {
+        scheduler.start();
+        Instant scheduled = lastScheduled();
+        TransactionSynchronizationManager.initSynchronization();
+
+        LocalDateTime start = LocalDateTime.now().plusMinutes(5);
+        scheduler.register(createBooking(start, start.plusDays(1)));
+        assertEquals(scheduled, lastScheduled());
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertEquals(toInstant(start), lastScheduled());
+    }
+
+    @Test
+    void register_whenStartPassedBeforeCommit_thenTransitionRunImmediately() {
+        scheduler.start();
+        LocalDateTime start = LocalDateTime.now().plusMinutes(5);
+        Booking booking = createBooking(start, start.plusDays(1));
+        booking.setStart(LocalDateTime.now().minusSeconds(1));
+
+        LocalDateTime before = LocalDateTime.now();
+        scheduler.register(booking);
+
+        assertFalse(lastScheduled().isAfter(toInstant(before.plusSeconds(1))));
+    }
+
+    @Test
+    void register_whenAdvanceWaitsForDatabase_thenNotBlocked() throws Exception {
+        scheduler.start();
+        CountDownLatch updateStarted = new CountDownLatch(1);
+        CountDownLatch releaseUpdate = new CountDownLatch(1);
+        when(bookingRepository.moveToPastBucket(isA(LocalDateTime.class))).thenAnswer(invocation -> {
+            updateStarted.countDown();
+            releaseUpdate.await();
+            return 0;
+        });
+        CompletableFuture<Void> advance = CompletableFuture.runAsync(scheduler::advance);
+        updateStarted.await();
+
+        LocalDateTime start = LocalDateTime.now().plusMinutes(5);
+        assertTimeoutPreemptively(Duration.ofSeconds(5),
+                () -> scheduler.register(createBooking(start, start.plusDays(1))));
+
+        releaseUpdate.countDown();
+        advance.get();
+        assertEquals(toInstant(start), lastScheduled());
+    }
+
+    @Test
+    void start_whenDatabaseUnavailable_thenRetryScheduled() {
+        LocalDateTime before = LocalDateTime.now();
+        when(bookingRepository.moveToPastBucket(isA(LocalDateTime.class)))
+                .thenThrow(new DataAccessResourceFailureException("connection refused"));
+
+        scheduler.start();
+
+        Instant retry = lastScheduled();
+        assertTrue(retry.isBefore(toInstant(before.plus(HORIZON))));
+    }
+
+    @Test
+    void advance_whenTransactionNotCreated_thenRetryScheduledWithBackoff() {
+        LocalDateTime before = LocalDateTime.now();
+        when(bookingRepository.moveToPastBucket(isA(LocalDateTime.class)))
+                .thenThrow(new CannotCreateTransactionException("pool exhausted"));
+
+        scheduler.advance();
+        Instant firstRetry = lastScheduled();
+        scheduler.advance();
+        Instant secondRetry = lastScheduled();
+
+        assertTrue(firstRetry.isAfter(toInstant(before)));
+        assertTrue(Duration.between(toInstant(before), secondRetry)
+                .compareTo(Duration.between(toInstant(before), firstRetry)) > 0);
+    }
+
+
+    // -------------------------
+    // Вспомогательные методы
+    // -------------------------
+
+    private Instant lastScheduled() {
+        ArgumentCaptor<Instant> instants = ArgumentCaptor.forClass(Instant.class);
+        verify(taskScheduler, atLeastOnce()).schedule(any(Runnable.class), instants.capture());
+        List<Instant> values = instants.getAllValues();
+        return values.get(values.size() - 1);
+    }
+
+    private Instant toInstant(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant();
+    }
+
+    private Booking createBooking(LocalDateTime start, LocalDateTime end) {
+        Booking booking = new Booking();
+        booking.setStart(start);
+        booking.setEnd(end);
+        booking.setBucket(BookingTimeBucket.of(start, end, LocalDateTime.now()));
+        return booking;
+    }
+}
@@ -0,0 +1,131 @@
+package ru.practicum.shareit.booking.index;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManager;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+@Tag("benchmark")
+@Slf4j
+class ItemAvailabilityIndexBenchmarkTest {
+
+    private static final int BOOKINGS = 10_000;
+
+    private static final int PROBES = 2_000;
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    /**
+     * Поиск пересечений запросом, который индекс заменил при создании бронирования.
+     */
+    private static final String OVERLAPS_QUERY = "select b.id from Booking b " +
+            "where b.item.id = :itemId " +
+            "and (b.start = :starts " +
+            "or b.end = :ends " +
+            "or (b.start between :starts and :ends) " +
+            "or (b.end between :starts and :ends) " +
+            "or (:starts between b.start and b.end) " +
+            "or (:ends between b.start and b.end))";
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private Item item;
+
+
+    @BeforeEach
+    void setUp() {
+        User owner = userRepository.save(new User(null, "Peter", "peter@example.com"));
+        User booker = userRepository.save(new User(null, "Kate", "kate@example.com"));
+        item = new Item();
+        item.setName("Drill");
+        item.setDescription("Cordless drill");
+        item.setIsAvailable(true);
+        item.setOwner(owner);
+        item = itemRepository.saveAndFlush(item);
+
+        List<Object[]> rows = new ArrayList<>(BOOKINGS);
+        for (int i = 0; i < BOOKINGS; i++) {
+            LocalDateTime start = BASE.plusHours(2L * i);
+            rows.add(new Object[]{Timestamp.valueOf(start), Timestamp.valueOf(start.plusHours(1)),
+                    item.getId(), booker.getId(), "APPROVED"});
+        }
+        jdbcTemplate.batchUpdate("insert into bookings (starts, ends, item_id, booker_id, status) " +
+                "values (?, ?, ?, ?, ?)", rows);
+    }
+
+    @Test
+    void findOverlaps_whenItemHas10kBookings_thenIndexMatchesQuery() {
+        ItemAvailabilityIndex index = new ItemAvailabilityIndex(bookingRepository, 100);
+        List<LocalDateTime> probes = createProbes();
+
+        long queryStarted = System.nanoTime();
+        int queryOverlaps = 0;
+        for (LocalDateTime start : probes) {
+            if (!findOverlapsByQuery(start, start.plusMinutes(30)).isEmpty()) {
+                queryOverlaps++;
+            }
+        }
+        long queryNanos = System.nanoTime() - queryStarted;
+
+        long indexStarted = System.nanoTime();
+        int indexOverlaps = 0;
+        for (LocalDateTime start : probes) {
+            if (!index.findOverlaps(item.getId(), start, start.plusMinutes(30)).isEmpty()) {
+                indexOverlaps++;
+            }
+        }
+        long indexNanos = System.nanoTime() - indexStarted;
+
+        log.info("findOverlaps on {} bookings, {} probes: JPQL {} us/op, index {} us/op (including initial load)",
+                BOOKINGS, PROBES, queryNanos / PROBES / 1000, indexNanos / PROBES / 1000);
+        assertEquals(queryOverlaps, indexOverlaps);
+    }
+
+    private List<Long> findOverlapsByQuery(LocalDateTime start, LocalDateTime end) {
+        return entityManager.createQuery(OVERLAPS_QUERY, Long.class)
+                .setParameter("itemId", item.getId())
+                .setParameter("starts", start)
+                .setParameter("ends", end)
+                .getResultList();
+    }
+
+    private List<LocalDateTime> createProbes() {
+        Random random = new Random(42);
+        List<LocalDateTime> probes = new ArrayList<>(PROBES);
+        for (int i = 0; i < PROBES; i++) {
+            probes.add(BASE.plusHours(random.nextInt(BOOKINGS * 2)).plusMinutes(15));
+        }
+        return probes;
+    }
+}
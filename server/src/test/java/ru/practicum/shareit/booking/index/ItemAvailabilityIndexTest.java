@@ -0,0 +1,245 @@
+package ru.practicum.shareit.booking.index;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.isA;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ItemAvailabilityIndexTest {
+
+    private static final Long ITEM_ID = 1L;
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2030, 1, 1, 12, 0);
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    private ItemAvailabilityIndex index;
+
+
+    @BeforeEach
+    void setUp() {
+        index = new ItemAvailabilityIndex(bookingRepository, 2);
+    }
+
+    @Test
+    void findOverlaps_whenCacheMiss_thenIntervalsLoadedOnce() {
+        when(bookingRepository.findActiveIntervalsByItemId(ITEM_ID))
+                .thenReturn(createIntervals());
+
+        index.findOverlaps(ITEM_ID, BASE, BASE.plusHours(1));
+        index.findOverlaps(ITEM_ID, BASE.plusDays(1), BASE.plusDays(2));
+
+        assertTrue(index.isCached(ITEM_ID));
+        verify(bookingRepository, times(1)).findActiveIntervalsByItemId(ITEM_ID);
+    }
+
+    @Test
+    void findOverlaps_whenIntervalInside_thenBookingReturned() {
+        when(bookingRepository.findActiveIntervalsByItemId(ITEM_ID))
+                .thenReturn(createIntervals());
+
+        List<BookingInterval> overlaps = index.findOverlaps(ITEM_ID,
+                BASE.plusDays(2).plusHours(1), BASE.plusDays(2).plusHours(2));
+
+        assertEquals(1, overlaps.size());
+        assertEquals(2L, overlaps.get(0).getId());
+    }
+
+    @Test
+    void findOverlaps_whenIntervalCoversSeveralBookings_thenAllReturnedInOrder() {
+        when(bookingRepository.findActiveIntervalsByItemId(ITEM_ID))
+                .thenReturn(createIntervals());
+
+        List<BookingInterval> overlaps = index.findOverlaps(ITEM_ID, BASE.minusDays(1), BASE.plusDays(10));
+
+        assertEquals(3, overlaps.size());
+        assertEquals(1L, overlaps.get(0).getId());
+        assertEquals(2L, overlaps.get(1).getId());
+        assertEquals(3L, overlaps.get(2).getId());
+    }
+
+    @Test
+    void findOverlaps_whenIntervalsTouch_thenNoOverlapsReturned() {
+        when(bookingRepository.findActiveIntervalsByItemId(ITEM_ID))
+                .thenReturn(createIntervals());
+
+        List<BookingInterval> overlaps = index.findOverlaps(ITEM_ID, BASE.plusDays(1), BASE.plusDays(2));
+
+        assertTrue(overlaps.isEmpty());
+    }
+
+    @Test
+    void put_whenBookingCreated_thenOverlapFound() {
+        when(bookingRepository.findActiveIntervalsByItemId(ITEM_ID))
+                .thenReturn(Collections.emptyList());
+        index.findOverlaps(ITEM_ID, BASE, BASE.plusHours(1));
+
+        index.put(createBooking(10L, BASE, BASE.plusDays(1), BookingState.WAITING));
+
+        assertEquals(1, index.findOverlaps(ITEM_ID, BASE.plusHours(5), BASE.plusHours(6)).size());
+    }
+
+    @Test
+    void put_whenBookingRejected_thenIntervalReleased() {
+        when(bookingRepository.findActiveIntervalsByItemId(ITEM_ID))
+                .thenReturn(createIntervals());
+        index.findOverlaps(ITEM_ID, BASE, BASE.plusHours(1));
+
+        index.put(createBooking(1L, BASE, BASE.plusDays(1), BookingState.REJECTED));
+
+        assertTrue(index.findOverlaps(ITEM_ID, BASE, BASE.plusDays(1)).isEmpty());
+    }
+
+    @Test
+    void put_whenItemNotCached_thenNothingLoaded() {
+        index.put(createBooking(10L, BASE, BASE.plusDays(1), BookingState.WAITING));
+
+        assertFalse(index.isCached(ITEM_ID));
+        verify(bookingRepository, times(0)).findActiveIntervalsByItemId(isA(Long.class));
+    }
+
+    @Test
+    void findLastAndNext_whenBookingsAroundNow_thenApprovedNeighboursReturned() {
+        when(bookingRepository.findActiveIntervalsByItemIds(Collections.singletonList(ITEM_ID)))
+                .thenReturn(createIntervals());
+
+        ItemBookingSummary summary = index.findLastAndNext(Collections.singletonList(ITEM_ID),
+                BASE.plusDays(2).plusHours(1)).get(ITEM_ID);
+
+        assertEquals(1L, summary.getLastBooking().getId());
+        assertEquals(3L, summary.getNextBooking().getId());
+    }
+
+    @Test
+    void findLastAndNext_whenTimePasses_thenSummaryShifts() {
+        when(bookingRepository.findActiveIntervalsByItemIds(Collections.singletonList(ITEM_ID)))
+                .thenReturn(createIntervals());
+        List<Long> itemIds = Collections.singletonList(ITEM_ID);
+
+        ItemBookingSummary before = index.findLastAndNext(itemIds, BASE.minusHours(1)).get(ITEM_ID);
+        ItemBookingSummary atStart = index.findLastAndNext(itemIds, BASE).get(ITEM_ID);
+        ItemBookingSummary after = index.findLastAndNext(itemIds, BASE.plusDays(6)).get(ITEM_ID);
+
+        assertNull(before.getLastBooking());
+        assertEquals(1L, before.getNextBooking().getId());
+        assertEquals(1L, atStart.getLastBooking().getId());
+        assertEquals(3L, atStart.getNextBooking().getId());
+        assertEquals(3L, after.getLastBooking().getId());
+        assertNull(after.getNextBooking());
+        verify(bookingRepository, times(1)).findActiveIntervalsByItemIds(itemIds);
+    }
+
+    @Test
+    void findLastAndNext_whenSomeItemsCached_thenOnlyMissingItemsLoaded() {
+        when(bookingRepository.findActiveIntervalsByItemId(1L))
+                .thenReturn(createIntervals());
+        when(bookingRepository.findActiveIntervalsByItemIds(Collections.singletonList(2L)))
+                .thenReturn(Collections.emptyList());
+        index.findOverlaps(1L, BASE, BASE.plusHours(1));
+
+        Map<Long, ItemBookingSummary> summaries = index.findLastAndNext(Arrays.asList(1L, 2L), BASE);
+
+        assertEquals(1L, summaries.get(1L).getLastBooking().getId());
+        assertNull(summaries.get(2L).getLastBooking());
+        assertNull(summaries.get(2L).getNextBooking());
+        assertTrue(index.isCached(2L));
+    }
+
+    @Test
+    void put_whenBookingApproved_thenItBecomesNext() {
+        when(bookingRepository.findActiveIntervalsByItemIds(Collections.singletonList(ITEM_ID)))
+                .thenReturn(createIntervals());
+        List<Long> itemIds = Collections.singletonList(ITEM_ID);
+        index.findLastAndNext(itemIds, BASE);
+
+        index.put(createBooking(2L, BASE.plusDays(2), BASE.plusDays(3), BookingState.APPROVED));
+
+        assertEquals(2L, index.findLastAndNext(itemIds, BASE.plusDays(1)).get(ITEM_ID).getNextBooking().getId());
+    }
+
+    @Test
+    void findOverlaps_whenBatchRequested_thenCheckedAgainstStoredAndEarlierEntries() {
+        when(bookingRepository.findActiveIntervalsByItemIds(Collections.singletonList(ITEM_ID)))
+                .thenReturn(createIntervals());
+
+        List<List<BookingInterval>> overlaps = index.findOverlaps(Arrays.asList(
+                createRequested(BASE.plusHours(1), BASE.plusHours(2)),
+                createRequested(BASE.plusDays(6), BASE.plusDays(7)),
+                createRequested(BASE.plusDays(6).plusHours(12), BASE.plusDays(8)),
+                createRequested(BASE.plusDays(7), BASE.plusDays(8))));
+
+        assertEquals(1L, overlaps.get(0).get(0).getId());
+        assertTrue(overlaps.get(1).isEmpty());
+        assertEquals(1, overlaps.get(2).size());
+        assertTrue(overlaps.get(3).isEmpty());
+        verify(bookingRepository, times(1)).findActiveIntervalsByItemIds(Collections.singletonList(ITEM_ID));
+    }
+
+    @Test
+    void findOverlaps_whenMaxItemsExceeded_thenEldestItemEvicted() {
+        when(bookingRepository.findActiveIntervalsByItemId(isA(Long.class)))
+                .thenReturn(Collections.emptyList());
+
+        index.findOverlaps(1L, BASE, BASE.plusHours(1));
+        index.findOverlaps(2L, BASE, BASE.plusHours(1));
+        index.findOverlaps(3L, BASE, BASE.plusHours(1));
+
+        assertFalse(index.isCached(1L));
+        assertTrue(index.isCached(2L));
+        assertTrue(index.isCached(3L));
+    }
+
+
+    // -------------------------
+    // Вспомогательные методы
+    // -------------------------
+
+    private List<BookingInterval> createIntervals() {
+        return Arrays.asList(
+                new BookingInterval(1L, ITEM_ID, BASE, BASE.plusDays(1), 2L, BookingState.APPROVED),
+                new BookingInterval(2L, ITEM_ID, BASE.plusDays(2), BASE.plusDays(3), 2L, BookingState.WAITING),
+                new BookingInterval(3L, ITEM_ID, BASE.plusDays(4), BASE.plusDays(5), 3L, BookingState.APPROVED));
+    }
+
+    private BookingInterval createRequested(LocalDateTime start, LocalDateTime end) {
+        return new BookingInterval(null, ITEM_ID, start, end, 2L, BookingState.WAITING);
+    }
+
+    private Booking createBooking(Long id, LocalDateTime start, LocalDateTime end, BookingState status) {
+        User booker = new User(2L, "Kate", "kate@example.com");
+        Item item = new Item();
+        item.setId(ITEM_ID);
+
+        Booking booking = new Booking();
+        booking.setId(id);
+        booking.setStart(start);
+        booking.setEnd(end);
+        booking.setItem(item);
+        booking.setBooker(booker);
+        booking.setStatus(status);
+        return booking;
+    }
+}
@@ -0,0 +1,95 @@
+package ru.practicum.shareit.booking.lock;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.index.ItemAvailabilityIndex;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ItemBookingLocksTest {
+
+    private final ItemBookingLocks locks = new ItemBookingLocks(4);
+
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void lockUntilCompletion_whenTransactionCompletes_thenLockReleased() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        locks.lockUntilCompletion(1L);
+        assertTrue(locks.isLocked(1L));
+        assertFalse(locks.isLocked(2L));
+
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        assertFalse(locks.isLocked(1L));
+    }
+
+    @Test
+    void lockUntilCompletion_whenCommitFailsAfterIndexUpdate_thenIndexCleanedBeforeUnlock() {
+        BookingRepository bookingRepository = mock(BookingRepository.class);
+        when(bookingRepository.findActiveIntervalsByItemId(1L)).thenReturn(Collections.emptyList());
+        ItemAvailabilityIndex index = new ItemAvailabilityIndex(bookingRepository, 10);
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        index.findOverlaps(1L, start, start.plusDays(1));
+        TransactionSynchronizationManager.initSynchronization();
+
+        locks.lockUntilCompletion(1L);
+        index.put(createBooking(1L, start, start.plusDays(1)));
+        TransactionSynchronizationManager.getSynchronizations().forEach(sync -> sync.beforeCommit(false));
+
+        for (TransactionSynchronization sync : TransactionSynchronizationManager.getSynchronizations()) {
+            boolean lockedBefore = locks.isLocked(1L);
+            sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+            if (lockedBefore && !locks.isLocked(1L)) {
+                assertFalse(index.isCached(1L));
+            }
+        }
+        assertFalse(locks.isLocked(1L));
+    }
+
+    @Test
+    void lockUntilCompletion_whenNoTransaction_thenIllegalStateExceptionThrown() {
+        assertThrows(IllegalStateException.class, () -> locks.lockUntilCompletion(1L));
+        assertFalse(locks.isLocked(1L));
+    }
+
+
+    // -------------------------
+    // Вспомогательные методы
+    // -------------------------
+
+    private Booking createBooking(Long itemId, LocalDateTime start, LocalDateTime end) {
+        Item item = new Item();
+        item.setId(itemId);
+
+        Booking booking = new Booking();
+        booking.setId(10L);
+        booking.setStart(start);
+        booking.setEnd(end);
+        booking.setItem(item);
+        booking.setBooker(new User(2L, "Kate", "kate@example.com"));
+        booking.setStatus(BookingState.WAITING);
+        return booking;
+    }
+}
@@ -0,0 +1,131 @@
+package ru.practicum.shareit.booking.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Вставка бронирований через saveAll по одной строке за обращение к базе (так работала генерация
+ * IDENTITY) и пакетами hibernate.jdbc.batch_size. Запускается на H2: mvn test -Pbenchmark,
+ * на PostgreSQL — {@link PostgresBookingBulkInsertBenchmarkTest}.
+ */
+@SpringBootTest
+@Tag("benchmark")
+@Slf4j
+class BookingBulkInsertBenchmarkTest {
+
+    private static final int BOOKINGS = 10_000;
+
+    private static final int ROUNDS = 3;
+
+    private static final int JDBC_BATCH_SIZE = 50;
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private User booker;
+
+    private Item item;
+
+
+    @BeforeEach
+    void setUp() {
+        User owner = userRepository.save(new User(null, "Peter", "peter@example.com"));
+        booker = userRepository.save(new User(null, "Kate", "kate@example.com"));
+        item = new Item();
+        item.setName("Drill");
+        item.setDescription("Cordless drill");
+        item.setIsAvailable(true);
+        item.setOwner(owner);
+        item = itemRepository.save(item);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        bookingRepository.deleteAllInBatch();
+        itemRepository.deleteAllInBatch();
+        userRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void saveAll_whenJdbcBatchingEnabled_thenMoreRowsPerSecond() {
+        insert(1);
+        insert(JDBC_BATCH_SIZE);
+
+        long rowByRow = measure(1);
+        long batched = measure(JDBC_BATCH_SIZE);
+
+        log.info("{} bookings: row by row {} rows/s, batch_size={} {} rows/s",
+                BOOKINGS, rowByRow, JDBC_BATCH_SIZE, batched);
+        assertEquals((long) BOOKINGS * (2 + 2 * ROUNDS), bookingRepository.count());
+    }
+
+
+    // -------------------------
+    // Вспомогательные методы
+    // -------------------------
+
+    private long measure(int batchSize) {
+        long started = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            insert(batchSize);
+        }
+        return (long) BOOKINGS * ROUNDS * 1_000_000_000L / (System.nanoTime() - started);
+    }
+
+    private void insert(int batchSize) {
+        List<Booking> bookings = createBookings();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+            bookingRepository.saveAll(bookings);
+        });
+    }
+
+    private List<Booking> createBookings() {
+        List<Booking> bookings = new ArrayList<>(BOOKINGS);
+        for (int i = 0; i < BOOKINGS; i++) {
+            Booking booking = new Booking();
+            booking.setBooker(booker);
+            booking.setItem(item);
+            booking.setStart(BASE.plusHours(2L * i));
+            booking.setEnd(BASE.plusHours(2L * i + 1));
+            booking.setStatus(BookingState.APPROVED);
+            bookings.add(booking);
+        }
+        return bookings;
+    }
+}
@@ -0,0 +1,25 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+/**
+ * {@link BookingBulkInsertBenchmarkTest} на PostgreSQL. Нужна отдельная база, таблицы в ней очищаются:
+ * mvn test -Pbenchmark -Dshareit.benchmark.postgres.url=jdbc:postgresql://localhost:5432/shareit-bench
+ */
+@EnabledIfSystemProperty(named = "shareit.benchmark.postgres.url", matches = ".+")
+class PostgresBookingBulkInsertBenchmarkTest extends BookingBulkInsertBenchmarkTest {
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.driverClassName", () -> "org.postgresql.Driver");
+        registry.add("spring.datasource.url", () -> System.getProperty("shareit.benchmark.postgres.url")
+                + "?reWriteBatchedInserts=true");
+        registry.add("spring.datasource.username",
+                () -> System.getProperty("shareit.benchmark.postgres.username", "shareit-adm"));
+        registry.add("spring.datasource.password",
+                () -> System.getProperty("shareit.benchmark.postgres.password", "shareit-passkey"));
+        registry.add("spring.sql.init.platform", () -> "postgresql");
+    }
+}
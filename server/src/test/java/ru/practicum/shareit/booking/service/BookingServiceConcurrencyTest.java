@@ -0,0 +1,215 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.index.BookingInterval;
+import ru.practicum.shareit.booking.index.ItemAvailabilityIndex;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.common.exception.ConflictException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.Random;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+
+/**
+ * Много потоков одновременно бронируют одну и ту же вещь на пересекающиеся интервалы
+ * или подтверждают одно и то же бронирование.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class BookingServiceConcurrencyTest {
+
+    private static final int THREADS = 16;
+
+    private static final int ATTEMPTS_PER_THREAD = 25;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MockMvc mvc;
+
+    @SpyBean
+    private ItemAvailabilityIndex availabilityIndex;
+
+    private Item item;
+
+    private final List<User> bookers = new ArrayList<>();
+
+
+    @BeforeEach
+    public void setUp() {
+        User owner = userRepository.save(createUser("Owner", "owner@example.com"));
+        item = itemRepository.save(createItem(owner));
+        for (int i = 0; i < THREADS; i++) {
+            bookers.add(userRepository.save(createUser("Booker " + i, "booker" + i + "@example.com")));
+        }
+    }
+
+    @AfterEach
+    public void resetDb() {
+        bookingRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+
+    @Test
+    void create_whenManyThreadsBookSameItem_thenNoOverlappingBookingsSaved() throws InterruptedException {
+        LocalDateTime base = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch startGate = new CountDownLatch(1);
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger conflicts = new AtomicInteger();
+        Queue<Throwable> unexpected = new ConcurrentLinkedQueue<>();
+
+        for (int thread = 0; thread < THREADS; thread++) {
+            User booker = bookers.get(thread);
+            Random random = new Random(thread);
+            executor.submit(() -> {
+                startGate.await();
+                for (int attempt = 0; attempt < ATTEMPTS_PER_THREAD; attempt++) {
+                    LocalDateTime start = base.plusHours(random.nextInt(48));
+                    try {
+                        bookingService.create(createBookingDto(booker, start, start.plusHours(1 + random.nextInt(4))));
+                        created.incrementAndGet();
+                    } catch (ConflictException e) {
+                        conflicts.incrementAndGet();
+                    } catch (Throwable e) {
+                        unexpected.add(e);
+                    }
+                }
+                return null;
+            });
+        }
+        startGate.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(2, TimeUnit.MINUTES));
+
+        List<BookingInterval> saved = new ArrayList<>(bookingRepository.findActiveIntervalsByItemId(item.getId()));
+        saved.sort(Comparator.comparing(BookingInterval::getStart));
+
+        assertTrue(unexpected.isEmpty(), () -> "Неожиданные ошибки: " + unexpected);
+        assertTrue(created.get() > 0);
+        assertTrue(conflicts.get() > 0);
+        assertEquals(created.get(), saved.size());
+        for (int i = 1; i < saved.size(); i++) {
+            BookingInterval previous = saved.get(i - 1);
+            BookingInterval current = saved.get(i);
+            assertFalse(previous.overlaps(current.getStart(), current.getEnd()),
+                    () -> "Пересечение бронирований " + previous.getId() + " и " + current.getId());
+        }
+    }
+
+    @Test
+    void approve_whenOwnerApprovesSameBookingTwiceConcurrently_thenOneConflict() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+        Booking booking = bookingRepository.save(createBooking(start, start.plusHours(1)));
+        // Оба запроса прочитали бронирование в статусе WAITING, прежде чем любой из них закоммитил
+        CyclicBarrier bothRead = new CyclicBarrier(2);
+        doAnswer(invocation -> {
+            bothRead.await(10, TimeUnit.SECONDS);
+            return invocation.callRealMethod();
+        }).when(availabilityIndex).put(any(Booking.class));
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        List<Future<Integer>> statuses = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            statuses.add(executor.submit(() -> mvc.perform(patch("/bookings/{bookingId}", booking.getId())
+                            .header("X-Sharer-User-Id", item.getOwner().getId())
+                            .param("approved", "true"))
+                    .andReturn().getResponse().getStatus()));
+        }
+        List<Integer> results = new ArrayList<>();
+        for (Future<Integer> status : statuses) {
+            results.add(status.get(30, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+        results.sort(Comparator.naturalOrder());
+
+        assertEquals(Arrays.asList(200, 409), results);
+        assertEquals(BookingState.APPROVED, bookingRepository.findById(booking.getId()).get().getStatus());
+    }
+
+
+    // -------------------------
+    // Вспомогательные методы
+    // -------------------------
+
+    private BookingDto createBookingDto(User booker, LocalDateTime start, LocalDateTime end) {
+        BookingDto bookingDto = new BookingDto();
+        bookingDto.setItemId(item.getId());
+        bookingDto.setBookerId(booker.getId());
+        bookingDto.setStart(start);
+        bookingDto.setEnd(end);
+        return bookingDto;
+    }
+
+    private Booking createBooking(LocalDateTime start, LocalDateTime end) {
+        Booking booking = new Booking();
+        booking.setItem(item);
+        booking.setBooker(bookers.get(0));
+        booking.setStart(start);
+        booking.setEnd(end);
+        booking.setStatus(BookingState.WAITING);
+        return booking;
+    }
+
+    private Item createItem(User owner) {
+        Item item = new Item();
+        item.setName("Дрель");
+        item.setDescription("Одна на всех");
+        item.setIsAvailable(true);
+        item.setOwner(owner);
+        return item;
+    }
+
+    private User createUser(String name, String email) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(email);
+        return user;
+    }
+}
@@ -9,6 +9,7 @@ import org.springframework.data.domain.Sort;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.BookingTimeBucket;
 import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.booking.search.booker.BookingSearchByBooker;
 import ru.practicum.shareit.booking.search.owner.BookingSearchByOwner;
@@ -27,11 +28,12 @@ import java.util.Optional;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isA;
 import static org.mockito.Mockito.when;
 
 
-@SpringBootTest
+@SpringBootTest(properties = "shareit.user.lookup.max-users=0")
 class BookingServiceImplSBTest {
 
     @Autowired
@@ -92,7 +94,8 @@ class BookingServiceImplSBTest {
 
         when(userRepository.findById(isA(Long.class)))
                 .thenReturn(Optional.of(booker));
-        when(bookingRepository.findAllByBookerFuture(isA(User.class), isA(LocalDateTime.class), isA(Pageable.class)))
+        when(bookingRepository.findAllByBookerAndBucket(isA(User.class), eq(BookingTimeBucket.FUTURE),
+                isA(Pageable.class)))
                 .thenReturn(futureBookings);
 
         List<BookingDto> outputDtos = bookingService.getAllByBookerId(bookerId, state, DEFAULT_PAGEABLE);
@@ -122,7 +125,8 @@ class BookingServiceImplSBTest {
 
         when(userRepository.findById(isA(Long.class)))
                 .thenReturn(Optional.of(booker));
-        when(bookingRepository.findAllByBookerCurrent(isA(User.class), isA(LocalDateTime.class), isA(Pageable.class)))
+        when(bookingRepository.findAllByBookerAndBucket(isA(User.class), eq(BookingTimeBucket.CURRENT),
+                isA(Pageable.class)))
                 .thenReturn(currentBookings);
 
         List<BookingDto> outputDtos = bookingService.getAllByBookerId(bookerId, state, DEFAULT_PAGEABLE);
@@ -153,7 +157,8 @@ class BookingServiceImplSBTest {
 
         when(userRepository.findById(isA(Long.class)))
                 .thenReturn(Optional.of(booker));
-        when(bookingRepository.findAllByBookerPast(isA(User.class), isA(LocalDateTime.class), isA(Pageable.class)))
+        when(bookingRepository.findAllByBookerAndBucket(isA(User.class), eq(BookingTimeBucket.PAST),
+                isA(Pageable.class)))
                 .thenReturn(pastBookings);
 
         List<BookingDto> outputDtos = bookingService.getAllByBookerId(bookerId, state, DEFAULT_PAGEABLE);
@@ -290,7 +295,8 @@ class BookingServiceImplSBTest {
 
         when(userRepository.findById(isA(Long.class)))
                 .thenReturn(Optional.of(owner));
-        when(bookingRepository.findByOwnerIdFuture(isA(Long.class), isA(LocalDateTime.class), isA(Pageable.class)))
+        when(bookingRepository.findByOwnerIdAndBucket(isA(Long.class), eq(BookingTimeBucket.FUTURE),
+                isA(Pageable.class)))
                 .thenReturn(futureBookings);
 
         List<BookingDto> outputDtos = bookingService.getAllByOwnerId(ownerId, state, DEFAULT_PAGEABLE);
@@ -319,7 +325,8 @@ class BookingServiceImplSBTest {
 
         when(userRepository.findById(isA(Long.class)))
                 .thenReturn(Optional.of(owner));
-        when(bookingRepository.findByOwnerIdCurrent(isA(Long.class), isA(LocalDateTime.class), isA(Pageable.class)))
+        when(bookingRepository.findByOwnerIdAndBucket(isA(Long.class), eq(BookingTimeBucket.CURRENT),
+                isA(Pageable.class)))
                 .thenReturn(currentBookings);
 
         List<BookingDto> outputDtos = bookingService.getAllByOwnerId(ownerId, state, DEFAULT_PAGEABLE);
@@ -350,7 +357,8 @@ class BookingServiceImplSBTest {
 
         when(userRepository.findById(isA(Long.class)))
                 .thenReturn(Optional.of(owner));
-        when(bookingRepository.findByOwnerIdPast(isA(Long.class), isA(LocalDateTime.class), isA(Pageable.class)))
+        when(bookingRepository.findByOwnerIdAndBucket(isA(Long.class), eq(BookingTimeBucket.PAST),
+                isA(Pageable.class)))
                 .thenReturn(pastBookings);
 
         List<BookingDto> outputDtos = bookingService.getAllByOwnerId(ownerId, state, DEFAULT_PAGEABLE);
@@ -9,8 +9,12 @@ import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.booking.dto.BookingApprovalResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingStateDto;
+import ru.practicum.shareit.booking.index.BookingInterval;
+import ru.practicum.shareit.booking.index.ItemAvailabilityIndex;
+import ru.practicum.shareit.booking.lock.ItemBookingLocks;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingState;
@@ -28,6 +32,7 @@ import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserLookup;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -38,7 +43,11 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isA;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -60,6 +69,12 @@ class BookingServiceImplTest {
     @Mock
     private ItemRepository itemRepository;
 
+    @Mock
+    private ItemAvailabilityIndex availabilityIndex;
+
+    @Mock
+    private ItemBookingLocks itemLocks;
+
     @Mock
     private BookingSearchByOwner bookingSearchByOwner;
 
@@ -80,9 +95,11 @@ class BookingServiceImplTest {
 
         bookingService = new BookingServiceImpl(
                 bookingRepository,
-                userRepository,
+                new UserLookup(userRepository, 100),
                 itemRepository,
                 bookingMapper,
+                availabilityIndex,
+                itemLocks,
                 searchByOwnerQueries,
                 searchByBookerQueries
         );
@@ -108,6 +125,7 @@ class BookingServiceImplTest {
 
         assertEquals(bookingId, outputDto.getId());
         checkFields(booking, outputDto);
+        verify(availabilityIndex, times(1)).put(booking);
     }
 
     @Test
@@ -224,8 +242,8 @@ class BookingServiceImplTest {
                 .thenReturn(Optional.of(booker));
         when(itemRepository.findById(isA(Long.class)))
                 .thenReturn(Optional.of(item));
-        when(bookingRepository.findOverlaps(isA(Long.class), isA(LocalDateTime.class), isA(LocalDateTime.class)))
-                .thenReturn(Collections.singletonList(existingBooking));
+        when(availabilityIndex.findOverlaps(isA(Long.class), isA(LocalDateTime.class), isA(LocalDateTime.class)))
+                .thenReturn(Collections.singletonList(BookingInterval.of(existingBooking)));
 
         assertThrows(ConflictException.class,
                 () -> bookingService.create(inputDto));
@@ -271,6 +289,40 @@ class BookingServiceImplTest {
         checkFields(booking, outputDto);
     }
 
+    @Test
+    void approveAll_whenRowsChangedBeforeUpdate_thenConflictAndNotFoundReportedPerBooking() {
+        Booking approvedHere = createBooking();
+        Booking rejectedElsewhere = createBooking();
+        rejectedElsewhere.setId(2L);
+        Booking deletedElsewhere = createBooking();
+        deletedElsewhere.setId(3L);
+        User owner = approvedHere.getItem().getOwner();
+        Booking approvedHereReread = createBooking();
+        approvedHereReread.setStatus(BookingState.APPROVED);
+        Booking rejectedElsewhereReread = createBooking();
+        rejectedElsewhereReread.setId(2L);
+        rejectedElsewhereReread.setStatus(BookingState.REJECTED);
+
+        when(userRepository.findById(isA(Long.class)))
+                .thenReturn(Optional.of(owner));
+        when(bookingRepository.findAllWithItemByIdIn(anyCollection()))
+                .thenReturn(Arrays.asList(approvedHere, rejectedElsewhere, deletedElsewhere))
+                .thenReturn(Arrays.asList(approvedHereReread, rejectedElsewhereReread));
+        when(bookingRepository.updateWaitingStatus(anyCollection(), eq(BookingState.APPROVED)))
+                .thenReturn(1);
+
+        List<BookingApprovalResultDto> results = bookingService.approveAll(owner.getId(),
+                Arrays.asList(1L, 2L, 3L, 1L), true);
+
+        assertEquals(4, results.size());
+        assertEquals(200, results.get(0).getStatus());
+        assertEquals(BookingState.APPROVED, results.get(0).getBooking().getStatus());
+        assertEquals(409, results.get(1).getStatus());
+        assertEquals(404, results.get(2).getStatus());
+        assertEquals(400, results.get(3).getStatus());
+        assertEquals(1L, results.get(3).getBookingId());
+    }
+
     @Test
     void approve_whenUserNotFound_thenEntityNotFoundException() {
         Booking booking = createBooking();
@@ -0,0 +1,182 @@
+package ru.practicum.shareit.booking.service;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.common.CustomPageRequest;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Transactional
+class BookingServiceStatementCountTest {
+
+    private static final int BOOKINGS = 12;
+
+    /**
+     * Поиск пользователя и один запрос страницы с join'ами на вещь и арендатора.
+     */
+    private static final long EXPECTED_STATEMENTS = 2;
+
+    private static final int JDBC_BATCH_SIZE = 50;
+
+    private static final Sort DEFAULT_SORT = Sort.by(Sort.Direction.DESC, "start", "id");
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User owner;
+
+    private User booker;
+
+
+    @BeforeEach
+    public void setUp() {
+        owner = userRepository.save(createUser("Peter", "peter@example.com"));
+        booker = userRepository.save(createUser("Kate", "kate@example.com"));
+
+        for (int i = 0; i < BOOKINGS; i++) {
+            Item item = itemRepository.save(createItem(owner, "Item " + i));
+            User itemBooker = i % 2 == 0
+                    ? booker
+                    : userRepository.save(createUser("User " + i, "user" + i + "@example.com"));
+            bookingRepository.save(createBooking(itemBooker, item, LocalDateTime.now().plusDays(i + 1)));
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+
+    @Test
+    void getAllByOwnerId_whenPageMapped_thenStatementCountDoesNotDependOnPageSize() {
+        assertEquals(EXPECTED_STATEMENTS, countStatements(() -> checkMapped(bookingService.getAllByOwnerId(
+                owner.getId(), "all", new CustomPageRequest(0, 2, DEFAULT_SORT)))));
+        assertEquals(EXPECTED_STATEMENTS, countStatements(() -> checkMapped(bookingService.getAllByOwnerId(
+                owner.getId(), "all", new CustomPageRequest(0, BOOKINGS, DEFAULT_SORT)))));
+    }
+
+    @Test
+    void getAllByBookerId_whenPageMapped_thenStatementCountDoesNotDependOnPageSize() {
+        assertEquals(EXPECTED_STATEMENTS, countStatements(() -> checkMapped(bookingService.getAllByBookerId(
+                booker.getId(), "future", new CustomPageRequest(0, 2, DEFAULT_SORT)))));
+        assertEquals(EXPECTED_STATEMENTS, countStatements(() -> checkMapped(bookingService.getAllByBookerId(
+                booker.getId(), "future", new CustomPageRequest(0, BOOKINGS, DEFAULT_SORT)))));
+    }
+
+
+    @Test
+    void approveAll_whenManyBookings_thenSingleSelectAndSingleUpdate() {
+        List<Booking> bookings = bookingRepository.findAll();
+        bookings.forEach(booking -> booking.setStatus(BookingState.WAITING));
+        bookingRepository.saveAll(bookings);
+        entityManager.flush();
+        List<Long> bookingIds = bookings.stream()
+                .map(Booking::getId)
+                .collect(Collectors.toList());
+
+        assertEquals(3, countStatements(() -> bookingService.approveAll(owner.getId(), bookingIds, true)
+                .forEach(result -> assertEquals(200, result.getStatus()))));
+    }
+
+    @Test
+    void saveAll_whenManyBookings_thenInsertedInJdbcBatches() {
+        Item item = itemRepository.save(createItem(owner, "Batch item"));
+        entityManager.flush();
+        List<Booking> bookings = new ArrayList<>();
+        for (int i = 0; i < JDBC_BATCH_SIZE; i++) {
+            bookings.add(createBooking(booker, item, LocalDateTime.now().plusDays(100 + i)));
+        }
+
+        long statements = countStatements(() -> {
+            bookingRepository.saveAll(bookings);
+            entityManager.flush();
+        });
+
+        assertTrue(statements <= 3, "Ожидался один пакетный INSERT и выборка из последовательности, " +
+                "выполнено запросов: " + statements);
+    }
+
+    // -------------------------
+    // Вспомогательные методы
+    // -------------------------
+
+    private long countStatements(Runnable action) {
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void checkMapped(List<BookingDto> bookings) {
+        bookings.forEach(booking -> {
+            assertNotNull(booking.getItemName());
+            assertNotNull(booking.getItem().getName());
+            assertNotNull(booking.getBooker().getName());
+        });
+    }
+
+    private Booking createBooking(User booker, Item item, LocalDateTime start) {
+        Booking booking = new Booking();
+        booking.setBooker(booker);
+        booking.setItem(item);
+        booking.setStart(start);
+        booking.setEnd(start.plusHours(12));
+        booking.setStatus(BookingState.APPROVED);
+        return booking;
+    }
+
+    private Item createItem(User owner, String name) {
+        Item item = new Item();
+        item.setName(name);
+        item.setDescription(name + " Description");
+        item.setIsAvailable(true);
+        item.setOwner(owner);
+        return item;
+    }
+
+    private User createUser(String name, String email) {
+        User user = new User();
+        user.setName(name);
+        user.setEmail(email);
+        return user;
+    }
+}
@@ -0,0 +1,196 @@
+package ru.practicum.shareit.common;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.request.service.ItemRequestService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserService;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Кеш второго уровня и кеш запросов: повторное чтение идёт из кеша, а после изменения
+ * через сервисы читается новое состояние, а не закешированное.
+ */
+@SpringBootTest(properties = "shareit.hibernate.cache.enabled=true")
+class HibernateCacheSpringBootTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private ItemRequestService requestService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private ItemRequestRepository requestRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Statistics statistics;
+
+    private UserDto owner;
+
+    private UserDto requestor;
+
+    private ItemRequestDto request;
+
+    private ItemDto item;
+
+
+    @BeforeEach
+    void setUp() {
+        owner = userService.create(createUserDto("Peter", "cache-peter@example.com"));
+        requestor = userService.create(createUserDto("Kate", "cache-kate@example.com"));
+        request = requestService.save(createRequestDto(requestor.getId()));
+        item = itemService.save(createItemDto(owner.getId(), "Дрель", request.getId()));
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void deleteAll() {
+        itemRepository.deleteAll();
+        requestRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+
+    @Test
+    void getById_whenUserReadTwice_thenSecondReadFromCache() {
+        userService.getById(owner.getId());
+        userService.getById(owner.getId());
+
+        assertTrue(regionHits(HibernateCacheConfig.USER_REGION) > 0);
+    }
+
+    @Test
+    void update_whenUserCached_thenNewNameRead() {
+        userService.getById(owner.getId());
+
+        UserDto update = new UserDto();
+        update.setId(owner.getId());
+        update.setName("Peter Parker");
+        userService.update(update);
+
+        assertEquals("Peter Parker", userService.getById(owner.getId()).getName());
+    }
+
+    @Test
+    void update_whenItemCached_thenNewStateRead() {
+        itemService.getByIdAndUserId(item.getId(), owner.getId());
+        itemService.getByIdAndUserId(item.getId(), owner.getId());
+        assertTrue(regionHits(HibernateCacheConfig.ITEM_REGION) > 0);
+
+        ItemDto update = new ItemDto();
+        update.setId(item.getId());
+        update.setOwnerId(owner.getId());
+        update.setName("Перфоратор");
+        update.setAvailable(false);
+        itemService.update(update);
+
+        ItemDto found = itemService.getByIdAndUserId(item.getId(), owner.getId());
+        assertEquals("Перфоратор", found.getName());
+        assertFalse(found.getAvailable());
+    }
+
+    @Test
+    void getAllByRequestorId_whenItemAddedForCachedRequest_thenQueryCacheInvalidated() {
+        assertEquals(1, requestItemsCount());
+        assertEquals(1, requestItemsCount());
+        assertTrue(statistics.getQueryCacheHitCount() > 0);
+
+        itemService.save(createItemDto(owner.getId(), "Шуруповёрт", request.getId()));
+
+        assertEquals(2, requestItemsCount());
+
+        ItemDto update = new ItemDto();
+        update.setId(item.getId());
+        update.setOwnerId(owner.getId());
+        update.setAvailable(false);
+        itemService.update(update);
+
+        assertEquals(1, requestItemsCount());
+    }
+
+    @Test
+    void metrics_whenCacheEnabled_thenRegionStatisticsPublished() {
+        userService.getById(owner.getId());
+
+        FunctionCounter hits = meterRegistry.find("hibernate.second.level.cache.requests")
+                .tag("region", HibernateCacheConfig.USER_REGION)
+                .tag("result", "hit")
+                .functionCounter();
+
+        assertNotNull(hits);
+        assertTrue(hits.count() > 0);
+    }
+
+
+    // -------------------------
+    // Вспомогательные методы
+    // -------------------------
+
+    private int requestItemsCount() {
+        return requestService.getAllByRequestorId(requestor.getId()).get(0).getItems().size();
+    }
+
+    private long regionHits(String region) {
+        return statistics.getDomainDataRegionStatistics(region).getHitCount();
+    }
+
+    private UserDto createUserDto(String name, String email) {
+        UserDto userDto = new UserDto();
+        userDto.setName(name);
+        userDto.setEmail(email);
+        return userDto;
+    }
+
+    private ItemRequestDto createRequestDto(Long requestorId) {
+        ItemRequestDto requestDto = new ItemRequestDto();
+        requestDto.setDescription("Нужна дрель");
+        requestDto.setRequestorId(requestorId);
+        return requestDto;
+    }
+
+    private ItemDto createItemDto(Long ownerId, String name, Long requestId) {
+        ItemDto itemDto = new ItemDto();
+        itemDto.setName(name);
+        itemDto.setDescription(name + " для ремонта");
+        itemDto.setAvailable(true);
+        itemDto.setOwnerId(ownerId);
+        itemDto.setRequestId(requestId);
+        return itemDto;
+    }
+}
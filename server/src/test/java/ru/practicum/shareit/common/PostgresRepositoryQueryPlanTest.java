@@ -0,0 +1,35 @@
+package ru.practicum.shareit.common;
+
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+/**
+ * {@link RepositoryQueryPlanTest} на PostgreSQL с полумиллионом бронирований. Нужна отдельная база,
+ * таблицы в ней очищаются:
+ * mvn test -Dtest=PostgresRepositoryQueryPlanTest -Dshareit.benchmark.postgres.url=jdbc:postgresql://localhost:5432/shareit-bench
+ */
+@EnabledIfSystemProperty(named = "shareit.benchmark.postgres.url", matches = ".+")
+class PostgresRepositoryQueryPlanTest extends RepositoryQueryPlanTest {
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.driverClassName", () -> "org.postgresql.Driver");
+        registry.add("spring.datasource.url", () -> System.getProperty("shareit.benchmark.postgres.url"));
+        registry.add("spring.datasource.username",
+                () -> System.getProperty("shareit.benchmark.postgres.username", "shareit-adm"));
+        registry.add("spring.datasource.password",
+                () -> System.getProperty("shareit.benchmark.postgres.password", "shareit-passkey"));
+        registry.add("spring.sql.init.platform", () -> "postgresql");
+    }
+
+    @Override
+    protected int getScale() {
+        return 5_000;
+    }
+
+    @Override
+    protected boolean isFullScan(String plan) {
+        return plan.contains("Seq Scan");
+    }
+}
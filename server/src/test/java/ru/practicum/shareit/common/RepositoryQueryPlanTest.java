@@ -0,0 +1,416 @@
+package ru.practicum.shareit.common;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.TestInstance;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.util.ClassUtils;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.BookingTimeBucket;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Планы запросов репозиториев: ни один из них не должен читать таблицу целиком.
+ * Тест вызывает методы репозиториев и объясняет SQL, который они отправили в базу, с теми же параметрами:
+ * {@link StatementRecorder} перехватывает подготовленные запросы на уровне JDBC.
+ * Полный проход по items в поиске по подстроке и в загрузке ItemTextIndex сделан намеренно и не проверяется.
+ * H2 сам индексирует внешние ключи, а его оптимизатор почти не учитывает статистику,
+ * поэтому индексы на внешних ключах и выбор плана на реальных объёмах проверяет только
+ * {@link PostgresRepositoryQueryPlanTest}.
+ */
+@SpringBootTest
+@Import(RepositoryQueryPlanTest.StatementRecorder.class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class RepositoryQueryPlanTest {
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2030, 6, 1, 0, 0);
+
+    private static final LocalDateTime LATER = NOW.plusHours(1);
+
+    private static final Pageable START_DESC =
+            new CustomPageRequest(0, 10, Sort.by(Sort.Direction.DESC, "start", "id"));
+
+    @Autowired
+    protected JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private StatementRecorder statementRecorder;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private ItemRequestRepository itemRequestRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private long ownerId;
+
+    private long bookerId;
+
+    private long itemId;
+
+    private long bookingId;
+
+    private long requestId;
+
+
+    @BeforeAll
+    void setUp() {
+        seed(getScale());
+        ownerId = jdbcTemplate.queryForObject("select min(owner_id) from items", Long.class);
+        bookerId = jdbcTemplate.queryForObject("select min(booker_id) from bookings", Long.class);
+        itemId = jdbcTemplate.queryForObject("select min(item_id) from bookings", Long.class);
+        bookingId = jdbcTemplate.queryForObject("select min(id) from bookings", Long.class);
+        requestId = jdbcTemplate.queryForObject("select min(id) from requests", Long.class);
+    }
+
+    @AfterAll
+    void cleanUp() {
+        jdbcTemplate.update("delete from comments");
+        jdbcTemplate.update("delete from bookings");
+        jdbcTemplate.update("delete from items");
+        jdbcTemplate.update("delete from requests");
+        jdbcTemplate.update("delete from users");
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("queries")
+    void explain_whenRepositoryQuery_thenNoFullScan(String name, Runnable query) {
+        List<RecordedStatement> statements = statementRecorder.record(query);
+
+        assertFalse(statements.isEmpty(), name + ": запрос не отправлен в базу");
+        for (RecordedStatement statement : statements) {
+            String plan = explain(statement);
+            assertFalse(isFullScan(plan), name + ":\n" + statement.sql + "\n" + plan);
+        }
+    }
+
+
+    // -------------------------
+    // Вспомогательные методы
+    // -------------------------
+
+    protected int getScale() {
+        return 200;
+    }
+
+    protected boolean isFullScan(String plan) {
+        return plan.contains(".tableScan");
+    }
+
+    protected void analyze() {
+        jdbcTemplate.execute("analyze");
+    }
+
+    Stream<Arguments> queries() {
+        Pageable idAsc = new CustomPageRequest(0, 10, Sort.by("id"));
+        Pageable newestFirst = new CustomPageRequest(0, 10, Sort.by(Sort.Direction.DESC, "created", "id"));
+        Pageable createdDesc = new CustomPageRequest(0, 10, Sort.by(Sort.Direction.DESC, "created"));
+        List<Arguments> queries = new ArrayList<>(Arrays.asList(
+                query("BookingRepository.existsApprovedStartedBefore", () -> bookingRepository
+                        .existsApprovedStartedBefore(bookerId, itemId, NOW)),
+                query("BookingRepository.findAllByBooker", () -> bookingRepository
+                        .findAllByBooker(booker(), START_DESC)),
+                query("BookingRepository.findAllByBookerKeyset", () -> bookingRepository
+                        .findAllByBookerKeyset(booker(), LATER, Long.MAX_VALUE, START_DESC)),
+                query("BookingRepository.findAllByBookerWaiting", () -> bookingRepository
+                        .findAllByBookerWaiting(booker(), START_DESC)),
+                query("BookingRepository.findAllByBookerWaitingKeyset", () -> bookingRepository
+                        .findAllByBookerWaitingKeyset(booker(), LATER, Long.MAX_VALUE, START_DESC)),
+                query("BookingRepository.findAllByBookerRejected", () -> bookingRepository
+                        .findAllByBookerRejected(booker(), START_DESC)),
+                query("BookingRepository.findAllByBookerRejectedKeyset", () -> bookingRepository
+                        .findAllByBookerRejectedKeyset(booker(), LATER, Long.MAX_VALUE, START_DESC)),
+                query("BookingRepository.findAllByBookerAndBucket", () -> bookingRepository
+                        .findAllByBookerAndBucket(booker(), BookingTimeBucket.FUTURE, START_DESC)),
+                query("BookingRepository.findAllByBookerAndBucketKeyset", () -> bookingRepository
+                        .findAllByBookerAndBucketKeyset(booker(), BookingTimeBucket.FUTURE, LATER, Long.MAX_VALUE,
+                                START_DESC)),
+                query("BookingRepository.findByOwnerId", () -> bookingRepository
+                        .findByOwnerId(ownerId, START_DESC)),
+                query("BookingRepository.findByOwnerIdKeyset", () -> bookingRepository
+                        .findByOwnerIdKeyset(ownerId, LATER, Long.MAX_VALUE, START_DESC)),
+                query("BookingRepository.findByOwnerIdWaiting", () -> bookingRepository
+                        .findByOwnerIdWaiting(ownerId, START_DESC)),
+                query("BookingRepository.findByOwnerIdWaitingKeyset", () -> bookingRepository
+                        .findByOwnerIdWaitingKeyset(ownerId, LATER, Long.MAX_VALUE, START_DESC)),
+                query("BookingRepository.findByOwnerIdRejected", () -> bookingRepository
+                        .findByOwnerIdRejected(ownerId, START_DESC)),
+                query("BookingRepository.findByOwnerIdRejectedKeyset", () -> bookingRepository
+                        .findByOwnerIdRejectedKeyset(ownerId, LATER, Long.MAX_VALUE, START_DESC)),
+                query("BookingRepository.findByOwnerIdAndBucket", () -> bookingRepository
+                        .findByOwnerIdAndBucket(ownerId, BookingTimeBucket.PAST, START_DESC)),
+                query("BookingRepository.findByOwnerIdAndBucketKeyset", () -> bookingRepository
+                        .findByOwnerIdAndBucketKeyset(ownerId, BookingTimeBucket.PAST, LATER, Long.MAX_VALUE,
+                                START_DESC)),
+                query("BookingRepository.findAllWithItemByIdIn", () -> bookingRepository
+                        .findAllWithItemByIdIn(Arrays.asList(bookingId, bookingId + 1, bookingId + 2))),
+                query("BookingRepository.findVersionById", () -> bookingRepository
+                        .findVersionById(bookingId)),
+                query("BookingRepository.findStartsInBucketBetween", () -> bookingRepository
+                        .findStartsInBucketBetween(NOW, LATER)),
+                query("BookingRepository.findEndsInBucketBetween", () -> bookingRepository
+                        .findEndsInBucketBetween(NOW, LATER)),
+                query("BookingRepository.findActiveIntervalsByItemId", () -> bookingRepository
+                        .findActiveIntervalsByItemId(itemId)),
+                query("BookingRepository.findActiveIntervalsByItemIds", () -> bookingRepository
+                        .findActiveIntervalsByItemIds(Arrays.asList(itemId, itemId + 1))),
+                query("ItemRepository.findByOwnerId", () -> itemRepository
+                        .findByOwnerId(ownerId, idAsc)),
+                query("ItemRepository.findOwnerItems", () -> itemRepository
+                        .findOwnerItems(ownerId, NOW, 10, 0)),
+                query("ItemRepository.findAvailableByIds", () -> itemRepository
+                        .findAvailableByIds(Arrays.asList(itemId, itemId + 1, itemId + 2))),
+                query("ItemRepository.findAllByRequestId", () -> itemRepository
+                        .findAllByRequestId(requestId)),
+                query("ItemRepository.findAllByRequestIds", () -> itemRepository
+                        .findAllByRequestIds(Arrays.asList(requestId, requestId + 1))),
+                query("ItemRepository.findVersionById", () -> itemRepository
+                        .findVersionById(itemId)),
+                query("ItemRepository.findStampByRequestId", () -> itemRepository
+                        .findStampByRequestId(requestId)),
+                query("CommentRepository.findAllByItemId", () -> commentRepository
+                        .findAllByItemId(itemId, newestFirst)),
+                query("CommentRepository.findAllByItemIdKeyset", () -> commentRepository
+                        .findAllByItemIdKeyset(itemId, NOW, Long.MAX_VALUE, newestFirst)),
+                query("CommentRepository.findLatestByItemIds", () -> commentRepository
+                        .findLatestByItemIds(Arrays.asList(itemId, itemId + 1), 10)),
+                query("CommentRepository.sumLatestAuthorVersions", () -> commentRepository
+                        .sumLatestAuthorVersions(itemId, 10)),
+                query("ItemRequestRepository.getAllByRequestorIdOrderByCreatedDesc", () -> itemRequestRepository
+                        .getAllByRequestorIdOrderByCreatedDesc(ownerId)),
+                query("ItemRequestRepository.findAllByOtherUsers", () -> itemRequestRepository
+                        .findAllByOtherUsers(ownerId, createdDesc)),
+                query("ItemRequestRepository.findVersionById", () -> itemRequestRepository
+                        .findVersionById(requestId)),
+                query("UserRepository.findVersionById", () -> userRepository
+                        .findVersionById(ownerId))
+        ));
+        String database = jdbcTemplate.execute((ConnectionCallback<String>) connection -> connection.getMetaData()
+                .getDatabaseProductName());
+        if ("PostgreSQL".equals(database)) {
+            queries.add(query("CommentRepository.findLatestByItemIdsLateral", () -> commentRepository
+                    .findLatestByItemIdsLateral(Arrays.asList(itemId, itemId + 1), 10)));
+        }
+        return queries.stream();
+    }
+
+    private static Arguments query(String name, Runnable query) {
+        return Arguments.of(name, query);
+    }
+
+    private User booker() {
+        return userRepository.getReferenceById(bookerId);
+    }
+
+    private String explain(RecordedStatement statement) {
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (PreparedStatement explain = connection.prepareStatement("explain " + statement.sql)) {
+                statement.bind(explain);
+                List<String> plan = new ArrayList<>();
+                try (ResultSet resultSet = explain.executeQuery()) {
+                    while (resultSet.next()) {
+                        plan.add(resultSet.getString(1));
+                    }
+                }
+                return String.join("\n", plan);
+            }
+        });
+    }
+
+    /**
+     * Пользователи владеют десятком вещей, у каждой вещи десяток бронирований со всеми статусами.
+     */
+    private void seed(int scale) {
+        List<Object[]> users = new ArrayList<>();
+        for (int i = 0; i < scale; i++) {
+            users.add(new Object[]{"User " + i, "user" + i + "@example.com"});
+        }
+        jdbcTemplate.batchUpdate("insert into users (name, email) values (?, ?)", users);
+        List<Long> userIds = jdbcTemplate.queryForList("select id from users order by id", Long.class);
+
+        List<Object[]> requests = new ArrayList<>();
+        for (int i = 0; i < scale; i++) {
+            requests.add(new Object[]{"Request " + i, userIds.get(i), Timestamp.valueOf(BASE.minusHours(i))});
+        }
+        jdbcTemplate.batchUpdate("insert into requests (description, requestor_id, created) values (?, ?, ?)",
+                requests);
+        List<Long> requestIds = jdbcTemplate.queryForList("select id from requests order by id", Long.class);
+
+        List<Object[]> items = new ArrayList<>();
+        for (int i = 0; i < scale * 10; i++) {
+            items.add(new Object[]{"Item " + i, "Description " + i, i % 10 != 0, userIds.get(i / 10),
+                    i % 5 == 0 ? requestIds.get(i % scale) : null});
+        }
+        jdbcTemplate.batchUpdate("insert into items (name, description, is_available, owner_id, request_id) " +
+                "values (?, ?, ?, ?, ?)", items);
+        List<Long> itemIds = jdbcTemplate.queryForList("select id from items order by id", Long.class);
+
+        String[] statuses = {"APPROVED", "APPROVED", "WAITING", "REJECTED", "CANCELED"};
+        String[] buckets = {"PAST", "PAST", "CURRENT", "FUTURE", "FUTURE"};
+        List<Object[]> bookings = new ArrayList<>();
+        List<Object[]> comments = new ArrayList<>();
+        for (int i = 0; i < itemIds.size(); i++) {
+            for (int j = 0; j < 10; j++) {
+                LocalDateTime start = BASE.plusDays(j * 30L).plusHours(i % 24);
+                bookings.add(new Object[]{Timestamp.valueOf(start), Timestamp.valueOf(start.plusDays(2)),
+                        itemIds.get(i), userIds.get((i + j + 1) % scale), statuses[j % 5], buckets[j % 5]});
+            }
+            comments.add(new Object[]{"Comment " + i, itemIds.get(i), userIds.get((i + 1) % scale),
+                    Timestamp.valueOf(BASE)});
+        }
+        jdbcTemplate.batchUpdate("insert into bookings (starts, ends, item_id, booker_id, status, bucket) " +
+                "values (?, ?, ?, ?, ?, ?)", bookings);
+        jdbcTemplate.batchUpdate("insert into comments (text, item_id, author_id, created) values (?, ?, ?, ?)",
+                comments);
+        analyze();
+    }
+
+    /**
+     * Подготовленный запрос и вызовы, которыми в него были переданы параметры.
+     */
+    static class RecordedStatement {
+
+        private final String sql;
+
+        private final List<Object[]> parameters;
+
+        private final List<Method> setters;
+
+
+        RecordedStatement(String sql, Map<Integer, Object[]> parameters, Map<Integer, Method> setters) {
+            this.sql = sql;
+            this.parameters = new ArrayList<>(parameters.values());
+            this.setters = new ArrayList<>(setters.values());
+        }
+
+
+        void bind(PreparedStatement statement) throws SQLException {
+            for (int i = 0; i < setters.size(); i++) {
+                invoke(setters.get(i), statement, parameters.get(i));
+            }
+        }
+    }
+
+    /**
+     * Оборачивает источник данных и, пока идёт {@link #record}, запоминает выполненные подготовленные запросы.
+     */
+    static class StatementRecorder implements BeanPostProcessor {
+
+        private final List<RecordedStatement> statements = new CopyOnWriteArrayList<>();
+
+        private volatile boolean recording;
+
+
+        List<RecordedStatement> record(Runnable action) {
+            statements.clear();
+            recording = true;
+            try {
+                action.run();
+            } finally {
+                recording = false;
+            }
+            return new ArrayList<>(statements);
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof DataSource)) return bean;
+            return proxy(bean, result -> result instanceof Connection ? connection((Connection) result) : result);
+        }
+
+        private Connection connection(Connection connection) {
+            return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        Object result = invoke(method, connection, args);
+                        return method.getName().equals("prepareStatement")
+                                ? statement((PreparedStatement) result, (String) args[0])
+                                : result;
+                    });
+        }
+
+        private PreparedStatement statement(PreparedStatement statement, String sql) {
+            Map<Integer, Object[]> parameters = new TreeMap<>();
+            Map<Integer, Method> setters = new TreeMap<>();
+            return (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class},
+                    (proxy, method, args) -> {
+                        String name = method.getName();
+                        if (name.startsWith("set") && args != null && args.length > 1 && args[0] instanceof Integer) {
+                            parameters.put((Integer) args[0], args);
+                            setters.put((Integer) args[0], method);
+                        } else if (name.equals("clearParameters")) {
+                            parameters.clear();
+                            setters.clear();
+                        } else if (recording && name.startsWith("execute") && (args == null || args.length == 0)) {
+                            statements.add(new RecordedStatement(sql, parameters, setters));
+                        }
+                        return invoke(method, statement, args);
+                    });
+        }
+
+        private Object proxy(Object target, Function<Object, Object> wrapResult) {
+            return Proxy.newProxyInstance(getClass().getClassLoader(),
+                    ClassUtils.getAllInterfacesForClass(target.getClass(), getClass().getClassLoader()),
+                    (proxy, method, args) -> wrapResult.apply(invoke(method, target, args)));
+        }
+    }
+
+    private static Object invoke(Method method, Object target, Object[] args) throws SQLException {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof SQLException) throw (SQLException) e.getCause();
+            if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+            throw new IllegalStateException(e.getCause());
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -6,9 +6,11 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.common.KeysetCursor;
 import ru.practicum.shareit.common.exception.EntityNotFoundException;
 import ru.practicum.shareit.common.exception.ForbiddenException;
 import ru.practicum.shareit.common.exception.ValidationException;
@@ -26,6 +28,8 @@ import java.util.List;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -33,6 +37,8 @@ import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -342,6 +348,22 @@ class ItemControllerTest {
         verify(itemService, times(1)).getByIdAndUserId(any(), any());
     }
 
+    @Test
+    @SneakyThrows
+    void getById_whenIfNoneMatchEqualsVersionEtag_thenNotModifiedWithoutLoading() {
+        when(itemService.getETag(1L, 1L))
+                .thenReturn("\"1.3.0.null.o.null.null\"");
+
+        mvc.perform(get("/items/{itemId}", 1L)
+                        .header(USER_ID_HEADER, 1L)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"1.3.0.null.o.null.null\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1.3.0.null.o.null.null\""))
+                .andExpect(content().string(""));
+
+        verify(itemService, never()).getByIdAndUserId(any(), any());
+    }
+
     @Test
     @SneakyThrows
     void getById_whenUserIsNotOwner_thenStatusIsOkAndDtoReturned() {
@@ -738,6 +760,37 @@ class ItemControllerTest {
         verify(itemService, times(1)).saveComment(any());
     }
 
+    @Test
+    @SneakyThrows
+    void getComments_whenPageFull_thenNextCursorReturned() {
+        Long itemId = 1L;
+        List<CommentDto> comments = Arrays.asList(createCommentDtoOut(2L, "Second"),
+                createCommentDtoOut(1L, "First"));
+
+        when(itemService.getComments(any(), any(), any()))
+                .thenReturn(comments);
+
+        mvc.perform(get("/items/{itemId}/comments", itemId)
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].text", is("Second")))
+                .andExpect(header().string("X-Next-Cursor",
+                        new KeysetCursor(comments.get(1).getCreated(), 1L).encode()));
+
+        verify(itemService, times(1)).getComments(eq(itemId), isNull(), any());
+    }
+
+    @Test
+    @SneakyThrows
+    void getComments_whenCursorInvalid_thenStatusIsBadRequest() {
+        mvc.perform(get("/items/{itemId}/comments", 1L)
+                        .param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest());
+
+        verify(itemService, never()).getComments(any(), any(), any());
+    }
+
     // ----------
     // Шаблоны
     // ----------
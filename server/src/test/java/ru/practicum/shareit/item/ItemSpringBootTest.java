@@ -6,7 +6,10 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingState;
@@ -22,11 +25,15 @@ import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -264,6 +271,121 @@ class ItemSpringBootTest {
     }
 
 
+    @Test
+    @SneakyThrows
+    void getById_whenOwnerAndOtherUser_thenDifferentEtags() {
+        setUp();
+
+        String ownerEtag = getEtag(item1.getId(), peter.getId());
+        String otherEtag = getEtag(item1.getId(), paul.getId());
+
+        assertThat(ownerEtag).isNotNull().isNotEqualTo(otherEtag);
+        mvc.perform(get("/items/{itemId}", item1.getId())
+                        .header(USER_ID_HEADER, peter.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, ownerEtag))
+                .andExpect(status().isNotModified());
+        mvc.perform(get("/items/{itemId}", item1.getId())
+                        .header(USER_ID_HEADER, paul.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, ownerEtag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @SneakyThrows
+    void getById_whenItemUpdatedOrCommented_thenEtagChanges() {
+        setUp();
+        String etag = getEtag(item1.getId(), paul.getId());
+
+        item1.setDescription("Updated Description");
+        itemRepository.saveAndFlush(item1);
+        String updatedEtag = getEtag(item1.getId(), paul.getId());
+
+        mvc.perform(post("/items/{itemId}/comment", item1.getId())
+                        .header(USER_ID_HEADER, lastBookingItem1.getBooker().getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"text\": \"Second comment\"}"))
+                .andExpect(status().isOk());
+        String commentedEtag = getEtag(item1.getId(), paul.getId());
+
+        assertThat(updatedEtag).isNotEqualTo(etag);
+        assertThat(commentedEtag).isNotEqualTo(updatedEtag).isNotEqualTo(etag);
+        mvc.perform(get("/items/{itemId}", item1.getId())
+                        .header(USER_ID_HEADER, paul.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.description", is("Updated Description")))
+                .andExpect(jsonPath("$.comments", hasSize(2)))
+                .andExpect(jsonPath("$.commentCount", is(2)));
+    }
+
+    @Test
+    @SneakyThrows
+    void getById_whenCommentAuthorRenamed_thenEtagChanges() {
+        setUp();
+        String etag = getEtag(item1.getId(), paul.getId());
+
+        mvc.perform(patch("/users/{userId}", item1Comment.getAuthor().getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\": \"Katherine\"}"))
+                .andExpect(status().isOk());
+
+        assertThat(getEtag(item1.getId(), paul.getId())).isNotEqualTo(etag);
+        mvc.perform(get("/items/{itemId}", item1.getId())
+                        .header(USER_ID_HEADER, paul.getId())
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    @SneakyThrows
+    void getById_whenManyComments_thenOnlyLatestEmbeddedWithTotalCount() {
+        setUp();
+        for (int i = 0; i < 12; i++) {
+            commentRepository.save(createComment(item1, paul, LocalDateTime.now().minusMinutes(60 - i)));
+            item1.setCommentCount(item1.getCommentCount() + 1);
+        }
+
+        mvc.perform(get("/items/{itemId}", item1.getId())
+                        .header(USER_ID_HEADER, paul.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.comments", hasSize(10)))
+                .andExpect(jsonPath("$.commentCount", is(13)));
+    }
+
+    @Test
+    @SneakyThrows
+    void getComments_whenCursorFollowed_thenAllCommentsNewestFirst() {
+        setUp();
+        LocalDateTime now = LocalDateTime.now();
+        Comment second = commentRepository.save(createComment(item1, paul, now.minusHours(3)));
+        Comment third = commentRepository.save(createComment(item1, paul, now.minusHours(2)));
+
+        MvcResult firstPage = mvc.perform(get("/items/{itemId}/comments", item1.getId())
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].id", is(third.getId()), Long.class))
+                .andExpect(jsonPath("$[1].id", is(second.getId()), Long.class))
+                .andExpect(header().exists("X-Next-Cursor"))
+                .andReturn();
+
+        mvc.perform(get("/items/{itemId}/comments", item1.getId())
+                        .param("size", "2")
+                        .param("cursor", firstPage.getResponse().getHeader("X-Next-Cursor")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(item1Comment.getId()), Long.class))
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+    }
+
+    @Test
+    @SneakyThrows
+    void getComments_whenItemNotFound_thenNotFound() {
+        mvc.perform(get("/items/{itemId}/comments", -1L))
+                .andExpect(status().isNotFound());
+    }
+
+
     // ----------
     // Шаблоны
     // ----------
@@ -276,8 +398,10 @@ class ItemSpringBootTest {
         ItemRequest request1 = requestRepository.save(createItemRequest(
                 kate, LocalDateTime.now().minusDays(9)));
 
-        item1 = itemRepository.save(createItem("Peter's Item 1",
-                "Peter's Item 1 Description (keyword)", peter, request1));
+        item1 = createItem("Peter's Item 1", "Peter's Item 1 Description (keyword)", peter, request1);
+        // Счётчик отзыва item1Comment
+        item1.setCommentCount(1);
+        item1 = itemRepository.save(item1);
         item2 = itemRepository.save(createItem("Peter's Item 2",
                 "Peter's Item 2 Description", peter, null));
         item3 = itemRepository.save(createItem("Peter's Item 3 (keyword)",
@@ -292,6 +416,16 @@ class ItemSpringBootTest {
 
         item1Comment = commentRepository.save(createComment(
                 item1, kate, LocalDateTime.now().minusHours(4)));
+        // Индекс поиска обновляется при INSERT, а тест пишет и ищет в одной транзакции
+        itemRepository.flush();
+    }
+
+    @SneakyThrows
+    private String getEtag(Long itemId, Long userId) {
+        return mvc.perform(get("/items/{itemId}", itemId)
+                        .header(USER_ID_HEADER, userId))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
     }
 
     private Item createItem(String name, String description, User owner, ItemRequest request) {
@@ -323,8 +457,9 @@ class ItemSpringBootTest {
         Booking booking = new Booking();
         booking.setBooker(booker);
         booking.setItem(item);
-        booking.setStart(start);
-        booking.setEnd(end);
+        // Последнее и следующее бронирования читаются из базы, которая хранит микросекунды
+        booking.setStart(start.truncatedTo(ChronoUnit.MICROS));
+        booking.setEnd(end.truncatedTo(ChronoUnit.MICROS));
         booking.setStatus(BookingState.APPROVED);
         return booking;
     }
@@ -334,7 +469,8 @@ class ItemSpringBootTest {
         comment.setText("Item 1 Comment By Kate");
         comment.setItem(item);
         comment.setAuthor(author);
-        comment.setCreated(created);
+        // Список вещей владельца и курсор отзывов строятся из времени, прочитанного из базы
+        comment.setCreated(created.truncatedTo(ChronoUnit.MICROS));
         return comment;
     }
 }
\ No newline at end of file
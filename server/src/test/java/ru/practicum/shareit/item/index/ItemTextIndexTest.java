@@ -0,0 +1,245 @@
+package ru.practicum.shareit.item.index;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ItemTextIndexTest {
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    private ItemTextIndex index;
+
+
+    @BeforeEach
+    void setUp() {
+        index = new ItemTextIndex(itemRepository);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void search_whenCalledTwice_thenTextsLoadedOnce() {
+        when(itemRepository.findAllAvailableTexts())
+                .thenReturn(createTexts());
+
+        index.search("дрель", 0, 10);
+        index.search("отвертка", 0, 10);
+
+        assertTrue(index.isLoaded());
+        verify(itemRepository, times(1)).findAllAvailableTexts();
+    }
+
+    @Test
+    void search_whenQueryIsBlank_thenIndexNotLoaded() {
+        List<Long> found = index.search("   ", 0, 10);
+
+        assertTrue(found.isEmpty());
+        verify(itemRepository, never()).findAllAvailableTexts();
+    }
+
+    @Test
+    void search_whenSingleWord_thenSameItemsAsSubstringSearch() {
+        List<ItemText> texts = createTexts();
+        when(itemRepository.findAllAvailableTexts())
+                .thenReturn(texts);
+
+        for (String keyword : Arrays.asList("дРелЬ", "оТверТ", "аккум", "тор", "+", "(keyword)", "ь", "пила")) {
+            String lowerKeyword = keyword.toLowerCase(Locale.ROOT);
+            List<Long> expected = texts.stream()
+                    .filter(text -> text.getName().toLowerCase(Locale.ROOT).contains(lowerKeyword)
+                            || text.getDescription().toLowerCase(Locale.ROOT).contains(lowerKeyword))
+                    .map(ItemText::getId)
+                    .sorted()
+                    .collect(Collectors.toList());
+
+            List<Long> found = index.search(keyword, 0, 10);
+            Collections.sort(found);
+
+            assertEquals(expected, found, keyword);
+        }
+    }
+
+    @Test
+    void search_whenWholeWordMatchesAndInfixMatches_thenWholeWordRankedFirst() {
+        when(itemRepository.findAllAvailableTexts())
+                .thenReturn(Arrays.asList(
+                        new ItemText(1L, "Дрель-шуруповерт", "Мощная"),
+                        new ItemText(2L, "Дрель", "Ударная"),
+                        new ItemText(3L, "Бормашина", "Для гравировки, как дрель")));
+
+        List<Long> found = index.search("дрель", 0, 10);
+
+        assertEquals(Arrays.asList(2L, 3L, 1L), found);
+    }
+
+    @Test
+    void search_whenPrefixMatches_thenRankedAboveInfix() {
+        when(itemRepository.findAllAvailableTexts())
+                .thenReturn(Arrays.asList(
+                        new ItemText(1L, "Электропила", "Цепная"),
+                        new ItemText(2L, "Пилка", "Для ногтей")));
+
+        List<Long> found = index.search("пил", 0, 10);
+
+        assertEquals(Arrays.asList(2L, 1L), found);
+    }
+
+    @Test
+    void search_whenSeveralWords_thenOnlyItemsWithAllWordsReturned() {
+        when(itemRepository.findAllAvailableTexts())
+                .thenReturn(createTexts());
+
+        List<Long> found = index.search("аккумуляторная отвертка", 0, 10);
+
+        assertEquals(Collections.singletonList(2L), found);
+    }
+
+    @Test
+    void search_whenOffsetAndLimit_thenPageOfRankedListReturned() {
+        when(itemRepository.findAllAvailableTexts())
+                .thenReturn(Arrays.asList(
+                        new ItemText(1L, "Лестница", "Стремянка"),
+                        new ItemText(2L, "Лестница", "Приставная"),
+                        new ItemText(3L, "Лестница", "Раздвижная")));
+
+        List<Long> found = index.search("лестница", 1, 1);
+
+        assertEquals(Collections.singletonList(2L), found);
+    }
+
+    @Test
+    void put_whenItemBecomesUnavailable_thenItemNotFound() {
+        when(itemRepository.findAllAvailableTexts())
+                .thenReturn(createTexts());
+        index.search("дрель", 0, 10);
+
+        index.put(createItem(1L, "Аккумуляторная дрель", "Аккумуляторная дрель + аккумулятор", false));
+
+        assertTrue(index.search("дрель", 0, 10).isEmpty());
+    }
+
+    @Test
+    void put_whenNameUpdated_thenOldWordsForgotten() {
+        when(itemRepository.findAllAvailableTexts())
+                .thenReturn(createTexts());
+        index.search("дрель", 0, 10);
+
+        index.put(createItem(1L, "Перфоратор", "Сетевой", true));
+
+        assertTrue(index.search("дрель", 0, 10).isEmpty());
+        assertEquals(Collections.singletonList(1L), index.search("перфоратор", 0, 10));
+    }
+
+    @Test
+    void put_whenIndexNotLoaded_thenChangeIgnoredAndReadFromDatabaseLater() {
+        index.put(createItem(5L, "Пила", "Ножовка", true));
+        when(itemRepository.findAllAvailableTexts())
+                .thenReturn(Collections.singletonList(new ItemText(5L, "Пила", "Ножовка")));
+
+        assertEquals(Collections.singletonList(5L), index.search("пила", 0, 10));
+    }
+
+    @Test
+    void remove_whenItemRemoved_thenItemNotFound() {
+        when(itemRepository.findAllAvailableTexts())
+                .thenReturn(createTexts());
+        index.search("дрель", 0, 10);
+
+        index.remove(1L);
+
+        assertTrue(index.search("дрель", 0, 10).isEmpty());
+    }
+
+    @Test
+    void put_whenInsideTransaction_thenVisibleToOtherThreadsOnlyAfterCommit() {
+        when(itemRepository.findAllAvailableTexts())
+                .thenReturn(createTexts());
+        index.search("дрель", 0, 10);
+        TransactionSynchronizationManager.initSynchronization();
+
+        index.put(createItem(6L, "Перфоратор", "Сетевой", true));
+        index.put(createItem(1L, "Аккумуляторная дрель", "Аккумуляторная дрель + аккумулятор", false));
+
+        assertEquals(Collections.singletonList(6L), index.search("перфоратор", 0, 10));
+        assertTrue(index.search("дрель", 0, 10).isEmpty());
+        assertTrue(searchInOtherThread("перфоратор").isEmpty());
+        assertEquals(Collections.singletonList(1L), searchInOtherThread("дрель"));
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        assertEquals(Collections.singletonList(6L), searchInOtherThread("перфоратор"));
+        assertTrue(searchInOtherThread("дрель").isEmpty());
+    }
+
+    @Test
+    void remove_whenTransactionRolledBack_thenIndexUnchanged() {
+        when(itemRepository.findAllAvailableTexts())
+                .thenReturn(createTexts());
+        index.search("дрель", 0, 10);
+        TransactionSynchronizationManager.initSynchronization();
+
+        index.remove(1L);
+        assertTrue(index.search("дрель", 0, 10).isEmpty());
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        TransactionSynchronizationManager.clearSynchronization();
+
+        assertEquals(Collections.singletonList(1L), index.search("дрель", 0, 10));
+    }
+
+
+    // -------------------------
+    // Вспомогательные методы
+    // -------------------------
+
+    private List<ItemText> createTexts() {
+        return Arrays.asList(
+                new ItemText(1L, "Аккумуляторная дрель", "Аккумуляторная дрель + аккумулятор"),
+                new ItemText(2L, "Отвертка", "Аккумуляторная отвертка"),
+                new ItemText(3L, "Клей Момент", "Тюбик суперклея марки Момент"),
+                new ItemText(4L, "Item (keyword)", "Description with  double  spaces"),
+                new ItemText(5L, "Пила", "Ручная\tножовка по дереву"));
+    }
+
+    private List<Long> searchInOtherThread(String query) {
+        return CompletableFuture.supplyAsync(() -> index.search(query, 0, 10)).join();
+    }
+
+    private Item createItem(Long id, String name, String description, boolean available) {
+        Item item = new Item();
+        item.setId(id);
+        item.setName(name);
+        item.setDescription(description);
+        item.setIsAvailable(available);
+        return item;
+    }
+}
@@ -5,12 +5,15 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -23,6 +26,8 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 @DataJpaTest
 class CommentRepositoryTest {
 
+    private static final Sort NEWEST_FIRST = Sort.by(Sort.Direction.DESC, "created", "id");
+
     @Autowired
     private CommentRepository commentRepository;
 
@@ -71,57 +76,80 @@ class CommentRepositoryTest {
 
 
     @Test
-    void findAllByItem_Id_whenCommentsExist_thenCommentsListReturned() {
-        int expectedComments = 2;
+    void findAllByItemId_whenCommentsExist_thenNewestFirstPageReturned() {
         Long itemId = item1.getId();
 
-        List<Comment> comments = commentRepository.findAllByItem_Id(itemId);
+        List<Comment> comments = commentRepository.findAllByItemId(itemId, PageRequest.of(0, 1, NEWEST_FIRST));
 
-        assertEquals(expectedComments, comments.size());
-        assertEquals(comment1.getItem(), item1);
-        assertEquals(comment2.getItem(), item1);
-        assertTrue(comments.contains(comment1));
-        assertTrue(comments.contains(comment2));
+        assertEquals(1, comments.size());
+        assertEquals(comment2.getId(), comments.get(0).getId());
+        assertEquals(comment2.getAuthor().getName(), comments.get(0).getAuthor().getName());
         assertNotEquals(comment3.getItem(), item1);
         assertFalse(comments.contains(comment3));
     }
 
     @Test
-    void findAllByItem_Id_whenNoComments_thenEmptyListReturned() {
+    void findAllByItemId_whenNoComments_thenEmptyListReturned() {
         int expectedComments = 0;
         Long itemId = item1.getId();
         commentRepository.deleteAll();
 
-        List<Comment> comments = commentRepository.findAllByItem_Id(itemId);
+        List<Comment> comments = commentRepository.findAllByItemId(itemId, PageRequest.of(0, 10, NEWEST_FIRST));
 
         assertEquals(expectedComments, comments.size());
     }
 
     @Test
-    void findAllByItemIds_whenCommentsExist_thenCommentsListReturned() {
-        int expectedComments = 3;
-        List<Long> itemIds = new ArrayList<>(Arrays.asList(item1.getId(), item2.getId()));
+    void findAllByItemIdKeyset_whenCursorBeforeNewest_thenOlderCommentsReturned() {
+        Long itemId = item1.getId();
 
-        List<Comment> comments = commentRepository.findAllByItemIds(itemIds);
+        List<Comment> comments = commentRepository.findAllByItemIdKeyset(itemId,
+                comment2.getCreated().minusSeconds(1), Long.MAX_VALUE, PageRequest.of(0, 10, NEWEST_FIRST));
 
-        assertEquals(expectedComments, comments.size());
-        assertEquals(comment1.getItem(), item1);
-        assertEquals(comment2.getItem(), item1);
-        assertEquals(comment3.getItem(), item2);
+        assertEquals(1, comments.size());
         assertTrue(comments.contains(comment1));
-        assertTrue(comments.contains(comment2));
-        assertTrue(comments.contains(comment3));
     }
 
     @Test
-    void findAllByItemIds_whenNoComments_thenEmptyListReturned() {
-        int expectedComments = 0;
+    void findLatestByItemIds_whenCommentsExist_thenNewestPerItemWithAuthorNamesReturned() {
+        List<Long> itemIds = new ArrayList<>(Arrays.asList(item1.getId(), item2.getId()));
+
+        List<CommentRepository.CommentView> comments = commentRepository.findLatestByItemIds(itemIds, 1);
+
+        assertEquals(2, comments.size());
+        assertEquals(comment2.getId(), comments.get(0).getId());
+        assertEquals(item1.getId(), comments.get(0).getItemId());
+        assertEquals(comment2.getAuthor().getName(), comments.get(0).getAuthorName());
+        assertEquals(comment2.getCreated().truncatedTo(ChronoUnit.SECONDS),
+                comments.get(0).getCreated().truncatedTo(ChronoUnit.SECONDS));
+        assertEquals(comment3.getId(), comments.get(1).getId());
+        assertEquals(item2.getId(), comments.get(1).getItemId());
+    }
+
+    @Test
+    void findLatestByItemIds_whenNoComments_thenEmptyListReturned() {
         List<Long> itemIds = new ArrayList<>(Arrays.asList(item1.getId(), item2.getId()));
         commentRepository.deleteAll();
 
-        List<Comment> comments = commentRepository.findAllByItemIds(itemIds);
+        List<CommentRepository.CommentView> comments = commentRepository.findLatestByItemIds(itemIds, 10);
 
-        assertEquals(expectedComments, comments.size());
+        assertEquals(0, comments.size());
+    }
+
+    @Test
+    void sumLatestAuthorVersions_whenAuthorRenamed_thenChangesOnlyForLatestComments() {
+        Long itemId = item1.getId();
+        long before = commentRepository.sumLatestAuthorVersions(itemId, 1);
+
+        User olderAuthor = comment1.getAuthor();
+        olderAuthor.setName("Katherine");
+        userRepository.saveAndFlush(olderAuthor);
+        assertEquals(before, commentRepository.sumLatestAuthorVersions(itemId, 1));
+
+        User latestAuthor = comment2.getAuthor();
+        latestAuthor.setName("Paul Smith");
+        userRepository.saveAndFlush(latestAuthor);
+        assertNotEquals(before, commentRepository.sumLatestAuthorVersions(itemId, 1));
     }
 
     // -------------------------
@@ -168,6 +168,41 @@ class ItemRepositoryTest {
         assertEquals(expectedCountCustom, foundItemsCustom.size());
     }
 
+    @Test
+    void searchByKeywordTrigram_whenValid_thenSameItemsAsSearchByKeywordReturned() {
+        String keyword = "keYwOrd";
+        int expectedCount = 3;
+
+        List<Item> foundItems = itemRepository.searchByKeywordTrigram(keyword, DEFAULT_PAGEABLE);
+        List<Item> likeItems = itemRepository.searchByKeyword(keyword, DEFAULT_PAGEABLE);
+
+        assertEquals(expectedCount, foundItems.size());
+        assertEquals(likeItems, foundItems);
+    }
+
+    @Test
+    void searchByKeywordTrigram_whenAnyItemNotAvailable_thenAvailableItemsListReturned() {
+        String keyword = "keYwOrd";
+        int expectedCountAfterUpdate = 2;
+
+        user2Item2.setIsAvailable(false);
+
+        List<Item> foundItemsAfterUpdate = itemRepository.searchByKeywordTrigram(keyword, DEFAULT_PAGEABLE);
+        assertEquals(expectedCountAfterUpdate, foundItemsAfterUpdate.size());
+    }
+
+    @Test
+    void searchByKeywordTrigram_whenFromIs2AndTotalItemsIs3_thenListWithOneItemReturned() {
+        String keyword = "keYwOrd";
+        int expectedCountCustom = 1;
+        Pageable pageableCustom = new CustomPageRequest(2, 10, Sort.by("id"));
+
+        List<Item> foundItemsCustom = itemRepository.searchByKeywordTrigram(keyword, pageableCustom);
+
+        assertEquals(expectedCountCustom, foundItemsCustom.size());
+        assertEquals(user2Item2.getId(), foundItemsCustom.get(0).getId());
+    }
+
     @Test
     void findAllByRequestId_whenValid_thenItemsListReturned() {
         int expectedCount = 1;
@@ -0,0 +1,214 @@
+package ru.practicum.shareit.item.search;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.common.CustomPageRequest;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.CommentService;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest
+@Transactional
+class ItemSearchCacheTest {
+
+    private static final Pageable DEFAULT_PAGEABLE = new CustomPageRequest(0, 10, Sort.by("id"));
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private CommentService commentService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @SpyBean
+    private ItemSearch itemSearch;
+
+    private User owner;
+
+    private ItemDto drill;
+
+
+    @BeforeEach
+    public void setUp() {
+        owner = new User();
+        owner.setName("Peter");
+        owner.setEmail("peter@example.com");
+        owner = userRepository.save(owner);
+
+        ItemDto itemDto = new ItemDto();
+        itemDto.setName("Дрель");
+        itemDto.setDescription("Аккумуляторная дрель");
+        itemDto.setAvailable(true);
+        itemDto.setOwnerId(owner.getId());
+        drill = itemService.save(itemDto);
+        // Индекс поиска обновляется при INSERT, а тест пишет и ищет в одной транзакции
+        entityManager.flush();
+    }
+
+
+    @Test
+    void getAllByKeyword_whenSameKeywordInAnotherCase_thenCachedResultReturned() {
+        double hitsBefore = cacheGets("hit");
+
+        List<ItemDto> first = itemService.getAllByKeyword("дрель", DEFAULT_PAGEABLE);
+        List<ItemDto> second = itemService.getAllByKeyword("ДРЕЛЬ", DEFAULT_PAGEABLE);
+
+        assertEquals(1, first.size());
+        assertEquals(first, second);
+        verify(itemSearch, times(1)).search(any(), any());
+        assertEquals(hitsBefore + 1, cacheGets("hit"));
+    }
+
+    @Test
+    void getAllByKeyword_whenKeywordDiffersOnlyInWhitespace_thenCachedResultReturned() {
+        itemService.getAllByKeyword("аккумуляторная дрель", DEFAULT_PAGEABLE);
+        List<ItemDto> second = itemService.getAllByKeyword("  Аккумуляторная \t ДРЕЛЬ ", DEFAULT_PAGEABLE);
+
+        assertEquals(1, second.size());
+        verify(itemSearch, times(1)).search(any(), any());
+    }
+
+    @Test
+    void getAllByKeyword_whenPageDiffers_thenSearchedAgain() {
+        itemService.getAllByKeyword("дрель", DEFAULT_PAGEABLE);
+        itemService.getAllByKeyword("дрель", new CustomPageRequest(0, 5, Sort.by("id")));
+
+        verify(itemSearch, times(2)).search(any(), any());
+    }
+
+    @Test
+    void getAllByKeyword_whenItemMadeUnavailable_thenCacheInvalidated() {
+        assertEquals(1, itemService.getAllByKeyword("дрель", DEFAULT_PAGEABLE).size());
+
+        ItemDto update = new ItemDto();
+        update.setId(drill.getId());
+        update.setOwnerId(owner.getId());
+        update.setAvailable(false);
+        itemService.update(update);
+        entityManager.flush();
+
+        assertTrue(itemService.getAllByKeyword("дрель", DEFAULT_PAGEABLE).isEmpty());
+        verify(itemSearch, times(2)).search(any(), any());
+    }
+
+    @Test
+    void getAllByKeyword_whenItemRenamed_thenNewNameFound() {
+        assertTrue(itemService.getAllByKeyword("перфоратор", DEFAULT_PAGEABLE).isEmpty());
+
+        ItemDto update = new ItemDto();
+        update.setId(drill.getId());
+        update.setOwnerId(owner.getId());
+        update.setName("Перфоратор");
+        itemService.update(update);
+        entityManager.flush();
+
+        assertEquals(1, itemService.getAllByKeyword("перфоратор", DEFAULT_PAGEABLE).size());
+    }
+
+    @Test
+    void getAllByKeyword_whenCommentAdded_thenCommentCountRefreshed() {
+        assertEquals(0L, itemService.getAllByKeyword("дрель", DEFAULT_PAGEABLE).get(0).getCommentCount());
+        User booker = userRepository.save(new User(null, "Kate", "kate@example.com"));
+        bookingRepository.save(createPastBooking(booker, drill.getId()));
+
+        CommentDto comment = new CommentDto();
+        comment.setText("Хорошая дрель");
+        comment.setItemId(drill.getId());
+        comment.setAuthorId(booker.getId());
+        commentService.saveComment(comment);
+        entityManager.flush();
+
+        assertEquals(1L, itemService.getAllByKeyword("дрель", DEFAULT_PAGEABLE).get(0).getCommentCount());
+        verify(itemSearch, times(2)).search(any(), any());
+    }
+
+    @Test
+    void getAllByKeyword_whenCommentAddedToAnotherItem_thenCachedResultKept() {
+        ItemDto itemDto = new ItemDto();
+        itemDto.setName("Пила");
+        itemDto.setDescription("Ножовка по дереву");
+        itemDto.setAvailable(true);
+        itemDto.setOwnerId(owner.getId());
+        ItemDto saw = itemService.save(itemDto);
+        entityManager.flush();
+        itemService.getAllByKeyword("дрель", DEFAULT_PAGEABLE);
+        User booker = userRepository.save(new User(null, "Kate", "kate@example.com"));
+        bookingRepository.save(createPastBooking(booker, saw.getId()));
+
+        CommentDto comment = new CommentDto();
+        comment.setText("Острая пила");
+        comment.setItemId(saw.getId());
+        comment.setAuthorId(booker.getId());
+        commentService.saveComment(comment);
+        entityManager.flush();
+
+        itemService.getAllByKeyword("дрель", DEFAULT_PAGEABLE);
+        verify(itemSearch, times(1)).search(any(), any());
+    }
+
+    @Test
+    void getAllByKeyword_whenKeywordIsEmpty_thenNotCached() {
+        itemService.getAllByKeyword("", DEFAULT_PAGEABLE);
+        itemService.getAllByKeyword("", DEFAULT_PAGEABLE);
+
+        verify(itemSearch, times(0)).search(any(), any());
+    }
+
+
+    // -------------------------
+    // Вспомогательные методы
+    // -------------------------
+
+    private Booking createPastBooking(User booker, Long itemId) {
+        Booking booking = new Booking();
+        booking.setBooker(booker);
+        booking.setItem(entityManager.getReference(Item.class, itemId));
+        booking.setStart(LocalDateTime.now().minusDays(2));
+        booking.setEnd(LocalDateTime.now().minusDays(1));
+        booking.setStatus(BookingState.APPROVED);
+        return booking;
+    }
+
+    private double cacheGets(String result) {
+        return meterRegistry.get("cache.gets")
+                .tag("cache", "itemSearch")
+                .tag("result", result)
+                .functionCounter()
+                .count();
+    }
+}
@@ -0,0 +1,118 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import ru.practicum.shareit.common.CustomPageRequest;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Сравнение поиска через upper(...) like и через ILIKE с индексами pg_trgm.
+ * Нужна отдельная база PostgreSQL, таблицы items, bookings и comments в ней очищаются:
+ * mvn test -Pbenchmark -Dshareit.benchmark.postgres.url=jdbc:postgresql://localhost:5432/shareit-bench
+ */
+@SpringBootTest(properties = "shareit.item.search.mode=trigram")
+@Tag("benchmark")
+@EnabledIfSystemProperty(named = "shareit.benchmark.postgres.url", matches = ".+")
+@Slf4j
+class TrigramItemSearchBenchmarkTest {
+
+    private static final List<String> KEYWORDS = Arrays.asList(
+            "дрель", "ЛЕСТН", "отвертк", "пила", "a1b2", "шуруповерт", "ремонт", "zzzz");
+
+    private static final int ROUNDS = 5;
+
+    private static final Pageable PAGEABLE = new CustomPageRequest(0, 10, Sort.by("id"));
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.driverClassName", () -> "org.postgresql.Driver");
+        registry.add("spring.datasource.url", () -> System.getProperty("shareit.benchmark.postgres.url"));
+        registry.add("spring.datasource.username",
+                () -> System.getProperty("shareit.benchmark.postgres.username", "shareit-adm"));
+        registry.add("spring.datasource.password",
+                () -> System.getProperty("shareit.benchmark.postgres.password", "shareit-passkey"));
+        registry.add("spring.sql.init.platform", () -> "postgresql");
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.execute("truncate table comments, bookings, items cascade");
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {100_000, 1_000_000})
+    void search_whenManyItems_thenTrigramMatchesLikeQuery(int items) {
+        seed(items);
+
+        long likeMicros = measure(keyword -> itemRepository.searchByKeyword(keyword, PAGEABLE));
+        long trigramMicros = measure(keyword -> itemRepository.searchByKeywordTrigram(keyword, PAGEABLE));
+
+        log.info("{} items: like {} us/op, trigram {} us/op", items, likeMicros, trigramMicros);
+        for (String keyword : KEYWORDS) {
+            assertEquals(ids(itemRepository.searchByKeyword(keyword, PAGEABLE)),
+                    ids(itemRepository.searchByKeywordTrigram(keyword, PAGEABLE)), keyword);
+        }
+    }
+
+
+    // -------------------------
+    // Вспомогательные методы
+    // -------------------------
+
+    private void seed(int items) {
+        jdbcTemplate.update("insert into users (name, email) values ('Bench', 'bench@example.com') " +
+                "on conflict do nothing");
+        Long ownerId = jdbcTemplate.queryForObject("select id from users where email = 'bench@example.com'",
+                Long.class);
+        jdbcTemplate.update("insert into items (name, description, is_available, owner_id) " +
+                "select (array['Дрель', 'Лестница', 'Отвертка', 'Пила', 'Стремянка'])[1 + g % 5] || ' ' || " +
+                "substr(md5(g::text), 1, 8), " +
+                "'Описание ' || md5((g * 7)::text) || ' ' || " +
+                "(array['для ремонта', 'аккумуляторная', 'шуруповерт', 'садовая'])[1 + g % 4], " +
+                "g % 10 <> 0, ? " +
+                "from generate_series(1, ?) g", ownerId, items);
+        jdbcTemplate.execute("analyze items");
+    }
+
+    private long measure(Function<String, List<Item>> search) {
+        KEYWORDS.forEach(search::apply);
+
+        long started = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            KEYWORDS.forEach(search::apply);
+        }
+        return (System.nanoTime() - started) / 1_000 / ((long) ROUNDS * KEYWORDS.size());
+    }
+
+    private List<Long> ids(List<Item> items) {
+        return items.stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
+    }
+}
@@ -1,15 +1,17 @@
 package ru.practicum.shareit.item.service;
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mapstruct.factory.Mappers;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import ru.practicum.shareit.booking.model.Booking;
-import ru.practicum.shareit.booking.model.BookingState;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.common.KeysetCursor;
 import ru.practicum.shareit.common.exception.EntityNotFoundException;
 import ru.practicum.shareit.common.exception.ValidationException;
 import ru.practicum.shareit.item.dto.CommentDto;
@@ -21,6 +23,7 @@ import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserLookup;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -32,6 +35,8 @@ import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.isA;
 import static org.mockito.Mockito.never;
@@ -54,27 +59,33 @@ class CommentServiceImplTest {
     @Mock
     private BookingRepository bookingRepository;
 
-    @InjectMocks
     private CommentServiceImpl commentService;
 
     @Spy
     private final CommentMapper commentMapper = Mappers.getMapper(CommentMapper.class);
 
 
+    @BeforeEach
+    void setUp() {
+        commentService = new CommentServiceImpl(commentRepository, new UserLookup(userRepository, 100),
+                itemRepository, bookingRepository, commentMapper, false);
+    }
+
+
     @Test
     void saveComment_whenValid_thenCommentDtoReturned() {
         CommentDto inputDto = createInputDto();
         User author = createAuthor();
         Item item = createItem();
-        Booking booking = createBooking();
         Comment comment = createComment(inputDto.getText(), item, author, LocalDateTime.now());
 
         when(userRepository.findById(isA(Long.class)))
                 .thenReturn(Optional.of(author));
         when(itemRepository.findById(isA(Long.class)))
                 .thenReturn(Optional.of(item));
-        when(bookingRepository.findByBookerAndItemPast(isA(User.class), isA(Item.class), isA(LocalDateTime.class)))
-                .thenReturn(Collections.singletonList(booking));
+        when(bookingRepository.existsApprovedStartedBefore(isA(Long.class), isA(Long.class),
+                isA(LocalDateTime.class)))
+                .thenReturn(true);
         when(commentRepository.save(isA(Comment.class)))
                 .thenReturn(comment);
 
@@ -92,9 +103,11 @@ class CommentServiceImplTest {
         verify(itemRepository, times(1))
                 .findById(isA(Long.class));
         verify(bookingRepository, times(1))
-                .findByBookerAndItemPast(isA(User.class), isA(Item.class), isA(LocalDateTime.class));
+                .existsApprovedStartedBefore(isA(Long.class), isA(Long.class),
+                        isA(LocalDateTime.class));
         verify(commentRepository, times(1))
                 .save(isA(Comment.class));
+        assertEquals(1L, item.getCommentCount());
     }
 
     @Test
@@ -107,8 +120,9 @@ class CommentServiceImplTest {
                 .thenReturn(Optional.of(author));
         when(itemRepository.findById(isA(Long.class)))
                 .thenReturn(Optional.of(item));
-        when(bookingRepository.findByBookerAndItemPast(isA(User.class), isA(Item.class), isA(LocalDateTime.class)))
-                .thenReturn(Collections.emptyList());
+        when(bookingRepository.existsApprovedStartedBefore(isA(Long.class), isA(Long.class),
+                isA(LocalDateTime.class)))
+                .thenReturn(false);
 
         assertThrows(ValidationException.class,
                 () -> commentService.saveComment(inputDto));
@@ -118,7 +132,8 @@ class CommentServiceImplTest {
         verify(itemRepository, times(1))
                 .findById(isA(Long.class));
         verify(bookingRepository, times(1))
-                .findByBookerAndItemPast(isA(User.class), isA(Item.class), isA(LocalDateTime.class));
+                .existsApprovedStartedBefore(isA(Long.class), isA(Long.class),
+                        isA(LocalDateTime.class));
         verify(commentRepository, never())
                 .save(isA(Comment.class));
     }
@@ -139,7 +154,8 @@ class CommentServiceImplTest {
         verify(itemRepository, never())
                 .findById(isA(Long.class));
         verify(bookingRepository, never())
-                .findByBookerAndItemPast(isA(User.class), isA(Item.class), isA(LocalDateTime.class));
+                .existsApprovedStartedBefore(isA(Long.class), isA(Long.class),
+                        isA(LocalDateTime.class));
         verify(commentRepository, never())
                 .save(isA(Comment.class));
     }
@@ -163,7 +179,8 @@ class CommentServiceImplTest {
         verify(itemRepository, times(1))
                 .findById(isA(Long.class));
         verify(bookingRepository, never())
-                .findByBookerAndItemPast(isA(User.class), isA(Item.class), isA(LocalDateTime.class));
+                .existsApprovedStartedBefore(isA(Long.class), isA(Long.class),
+                        isA(LocalDateTime.class));
         verify(commentRepository, never())
                 .save(isA(Comment.class));
     }
@@ -175,43 +192,94 @@ class CommentServiceImplTest {
         User author = createAuthor();
         Comment comment = createComment("Item 1 Comment", item, author, LocalDateTime.now());
 
-        when(commentRepository.findAllByItem_Id(isA(Long.class)))
+        when(commentRepository.findAllByItemId(isA(Long.class), isA(Pageable.class)))
                 .thenReturn(Collections.singletonList(comment));
 
         commentService.getComments(itemDto);
 
+        assertEquals(1, itemDto.getComments().size());
         verify(commentRepository, times(1))
-                .findAllByItem_Id(isA(Long.class));
+                .findAllByItemId(itemDto.getId(), PageRequest.of(0, CommentServiceImpl.LATEST_COMMENTS,
+                        Sort.by(Sort.Direction.DESC, "created", "id")));
     }
 
     @Test
     void getComments_whenValidAndNoComments_thenNoExceptionThrown() {
         ItemDto itemDto = createItemDtoOut();
 
-        when(commentRepository.findAllByItem_Id(isA(Long.class)))
+        when(commentRepository.findAllByItemId(isA(Long.class), isA(Pageable.class)))
                 .thenReturn(Collections.emptyList());
 
         commentService.getComments(itemDto);
 
         verify(commentRepository, times(1))
-                .findAllByItem_Id(isA(Long.class));
+                .findAllByItemId(isA(Long.class), isA(Pageable.class));
+    }
+
+    @Test
+    void getAllByItemId_whenCursorPassed_thenKeysetQueryUsed() {
+        Item item = createItem();
+        Comment comment = createComment("Item 1 Comment", item, createAuthor(), LocalDateTime.now());
+        KeysetCursor cursor = new KeysetCursor(LocalDateTime.now(), 5L);
+        Pageable pageable = PageRequest.of(0, 2);
+
+        when(itemRepository.existsById(item.getId()))
+                .thenReturn(true);
+        when(commentRepository.findAllByItemIdKeyset(item.getId(), cursor.getTimestamp(), cursor.getId(), pageable))
+                .thenReturn(Collections.singletonList(comment));
+
+        List<CommentDto> comments = commentService.getAllByItemId(item.getId(), cursor, pageable);
+
+        assertEquals(1, comments.size());
+        assertEquals(comment.getText(), comments.get(0).getText());
+        verify(commentRepository, never()).findAllByItemId(any(), any());
     }
 
     @Test
-    void getComments_whenValidAndItemsHaveComments_thenCommentsFound() {
+    void getAllByItemId_whenItemNotFound_thenEntityNotFoundExceptionThrown() {
+        when(itemRepository.existsById(isA(Long.class)))
+                .thenReturn(false);
+
+        EntityNotFoundException exception = assertThrows(EntityNotFoundException.class,
+                () -> commentService.getAllByItemId(1L, null, PageRequest.of(0, 10)));
+
+        assertEquals(Item.class, exception.getEntityClass());
+        verify(commentRepository, never()).findAllByItemId(any(), any());
+    }
+
+    @Test
+    void getComments_whenValidAndItemsHaveComments_thenCommentsAddedToTheirItems() {
         List<ItemDto> itemDtos = createItemDtosOut();
         List<Long> itemIds = itemDtos.stream().map(ItemDto::getId).collect(Collectors.toList());
-        Item item = createItem();
         User author = createAuthor();
-        Comment comment = createComment("Item 1 Comment", item, author, LocalDateTime.now());
 
-        when(commentRepository.findAllByItemIds(anyList()))
-                .thenReturn(Collections.singletonList(comment));
+        when(commentRepository.findLatestByItemIds(itemIds, CommentServiceImpl.LATEST_COMMENTS))
+                .thenReturn(Collections.singletonList(createCommentView(itemIds.get(0), author)));
 
         commentService.getComments(itemDtos, itemIds);
 
+        assertEquals(1, itemDtos.get(0).getComments().size());
+        assertEquals(author.getName(), itemDtos.get(0).getComments().get(0).getAuthorName());
+        assertEquals(0, itemDtos.get(1).getComments().size());
         verify(commentRepository, times(1))
-                .findAllByItemIds(anyList());
+                .findLatestByItemIds(itemIds, CommentServiceImpl.LATEST_COMMENTS);
+    }
+
+    @Test
+    void getComments_whenLateralSupported_thenLateralQueryUsed() {
+        commentService = new CommentServiceImpl(commentRepository, new UserLookup(userRepository, 100),
+                itemRepository, bookingRepository, commentMapper, true);
+        List<ItemDto> itemDtos = createItemDtosOut();
+        List<Long> itemIds = itemDtos.stream().map(ItemDto::getId).collect(Collectors.toList());
+        User author = createAuthor();
+
+        when(commentRepository.findLatestByItemIdsLateral(itemIds, CommentServiceImpl.LATEST_COMMENTS))
+                .thenReturn(Collections.singletonList(createCommentView(itemIds.get(0), author)));
+
+        commentService.getComments(itemDtos, itemIds);
+
+        assertEquals(1, itemDtos.get(0).getComments().size());
+        verify(commentRepository, never()).findLatestByItemIds(anyList(), anyInt());
     }
 
     @Test
@@ -219,13 +287,21 @@ class CommentServiceImplTest {
         List<ItemDto> itemDtos = createItemDtosOut();
         List<Long> itemIds = itemDtos.stream().map(ItemDto::getId).collect(Collectors.toList());
 
-        when(commentRepository.findAllByItemIds(anyList()))
+        when(commentRepository.findLatestByItemIds(anyList(), anyInt()))
                 .thenReturn(Collections.emptyList());
 
         commentService.getComments(itemDtos, itemIds);
 
         verify(commentRepository, times(1))
-                .findAllByItemIds(anyList());
+                .findLatestByItemIds(anyList(), anyInt());
+    }
+
+    @Test
+    void getComments_whenNoItems_thenNoQuery() {
+        commentService.getComments(new ArrayList<>(), new ArrayList<>());
+
+        verify(commentRepository, never())
+                .findLatestByItemIds(anyList(), anyInt());
     }
 
 
@@ -277,6 +353,40 @@ class CommentServiceImplTest {
         return comment;
     }
 
+    private CommentRepository.CommentView createCommentView(Long itemId, User author) {
+        return new CommentRepository.CommentView() {
+            @Override
+            public Long getId() {
+                return 1L;
+            }
+
+            @Override
+            public String getText() {
+                return "Item 1 Comment";
+            }
+
+            @Override
+            public Long getItemId() {
+                return itemId;
+            }
+
+            @Override
+            public Long getAuthorId() {
+                return author.getId();
+            }
+
+            @Override
+            public String getAuthorName() {
+                return author.getName();
+            }
+
+            @Override
+            public LocalDateTime getCreated() {
+                return LocalDateTime.now();
+            }
+        };
+    }
+
     private User createAuthor() {
         return createUser(2L, "Kate", "kate@example.com");
     }
@@ -308,28 +418,4 @@ class CommentServiceImplTest {
         item.setOwner(owner);
         return item;
     }
-
-    private Booking createBooking() {
-        User booker = createAuthor();
-        Item item = createItem();
-
-        return createBooking(
-                LocalDateTime.now().minusDays(3),
-                LocalDateTime.now().minusDays(1),
-                item,
-                booker
-        );
-    }
-
-    private Booking createBooking(LocalDateTime start, LocalDateTime end,
-                                  Item item, User booker) {
-        Booking booking = new Booking();
-        booking.setId(1L);
-        booking.setStart(start);
-        booking.setEnd(end);
-        booking.setItem(item);
-        booking.setBooker(booker);
-        booking.setStatus(BookingState.APPROVED);
-        return booking;
-    }
-}
\ No newline at end of file
+}
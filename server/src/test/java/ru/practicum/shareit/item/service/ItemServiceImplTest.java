@@ -1,17 +1,20 @@
 package ru.practicum.shareit.item.service;
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mapstruct.factory.Mappers;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import ru.practicum.shareit.booking.index.BookingInterval;
+import ru.practicum.shareit.booking.index.ItemAvailabilityIndex;
+import ru.practicum.shareit.booking.index.ItemBookingSummary;
 import ru.practicum.shareit.booking.mapper.BookingMapper;
 import ru.practicum.shareit.booking.model.Booking;
-import ru.practicum.shareit.booking.repository.BookingRepository;
 import ru.practicum.shareit.common.CustomPageRequest;
 import ru.practicum.shareit.common.exception.EntityNotFoundException;
 import ru.practicum.shareit.common.exception.ForbiddenException;
@@ -22,23 +25,31 @@ import ru.practicum.shareit.item.mapper.CommentMapper;
 import ru.practicum.shareit.item.mapper.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearch;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserLookup;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isA;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.times;
@@ -55,7 +66,7 @@ class ItemServiceImplTest {
     private UserRepository userRepository;
 
     @Mock
-    private BookingRepository bookingRepository;
+    private ItemAvailabilityIndex availabilityIndex;
 
     @Mock
     private ItemRequestRepository requestRepository;
@@ -63,7 +74,9 @@ class ItemServiceImplTest {
     @Mock
     private CommentService commentService;
 
-    @InjectMocks
+    @Mock
+    private ItemSearch itemSearch;
+
     private ItemServiceImpl itemService;
 
     @Spy
@@ -76,6 +89,14 @@ class ItemServiceImplTest {
     private final CommentMapper commentMapper = Mappers.getMapper(CommentMapper.class);
 
 
+    @BeforeEach
+    void setUp() {
+        itemService = new ItemServiceImpl(itemRepository, new UserLookup(userRepository, 100),
+                availabilityIndex, requestRepository, commentService, itemSearch,
+                itemMapper, bookingMapper);
+    }
+
+
     @Test
     void save_whenValid_thenDtoWithIdReturned() {
         Long expectedId = 1L;
@@ -309,8 +330,10 @@ class ItemServiceImplTest {
 
         when(userRepository.findById(any()))
                 .thenReturn(Optional.of(owner));
-        when(itemRepository.findByOwnerId(any(), any()))
-                .thenReturn(items);
+        when(itemRepository.findOwnerItems(eq(ownerId), isA(LocalDateTime.class), eq(10), eq(0L)))
+                .thenReturn(items.stream()
+                        .map(item -> createOwnerItem(item, null, null))
+                        .collect(Collectors.toList()));
 
         List<ItemDto> outputDtos = itemService.getAllByOwnerId(ownerId, defaultPageable);
         assertEquals(outputDtos.size(), items.size());
@@ -324,7 +347,7 @@ class ItemServiceImplTest {
         List<Item> relevantItems = new ArrayList<>(Arrays.asList(allItems.get(1), allItems.get(2)));
         Pageable defaultPageable = new CustomPageRequest(0, 10, Sort.by("id"));
 
-        when(itemRepository.searchByKeyword(any(), any()))
+        when(itemSearch.search(any(), any()))
                 .thenReturn(relevantItems);
 
         List<ItemDto> outputDtos = itemService.getAllByKeyword(keyword, defaultPageable);
@@ -338,7 +361,7 @@ class ItemServiceImplTest {
         List<Item> foundItems = Collections.emptyList();
         Pageable defaultPageable = new CustomPageRequest(0, 10, Sort.by("id"));
 
-        when(itemRepository.searchByKeyword(any(), any()))
+        when(itemSearch.search(any(), any()))
                 .thenReturn(foundItems);
 
         List<ItemDto> output = itemService.getAllByKeyword(keyword, defaultPageable);
@@ -370,10 +393,9 @@ class ItemServiceImplTest {
 
         when(itemRepository.findById(any()))
                 .thenReturn(Optional.of(item));
-        when(bookingRepository.findLastByItemId(any(), any()))
-                .thenReturn(lastBooking);
-        when(bookingRepository.findNextByItemId(any(), any()))
-                .thenReturn(nextBooking);
+        when(availabilityIndex.findLastAndNext(eq(Collections.singletonList(item.getId())), any()))
+                .thenReturn(Collections.singletonMap(item.getId(), new ItemBookingSummary(
+                        BookingInterval.of(lastBooking), BookingInterval.of(nextBooking))));
 
         ItemDto outputDto = itemService.getByIdAndUserId(item.getId(), owner.getId());
 
@@ -421,12 +443,9 @@ class ItemServiceImplTest {
 
         when(userRepository.findById(any()))
                 .thenReturn(Optional.of(owner));
-        when(itemRepository.findByOwnerId(any(), any()))
-                .thenReturn(items);
-        when(bookingRepository.findLastByItemIds(any(), any()))
-                .thenReturn(new ArrayList<>(Collections.singletonList(lastBookingItem1)));
-        when(bookingRepository.findNextByItemIds(any(), any()))
-                .thenReturn(new ArrayList<>(Collections.singletonList(nextBookingItem1)));
+        when(itemRepository.findOwnerItems(any(), any(), anyInt(), anyLong()))
+                .thenReturn(Arrays.asList(createOwnerItem(item1, lastBookingItem1, nextBookingItem1),
+                        createOwnerItem(item2, null, null)));
 
         List<ItemDto> outputDtos = itemService.getAllByOwnerId(owner.getId(), defaultPageable);
 
@@ -510,10 +529,9 @@ class ItemServiceImplTest {
 
         when(itemRepository.findById(any()))
                 .thenReturn(Optional.of(item));
-        when(bookingRepository.findLastByItemId(any(), any()))
-                .thenReturn(lastBooking);
-        when(bookingRepository.findNextByItemId(any(), any()))
-                .thenReturn(nextBooking);
+        when(availabilityIndex.findLastAndNext(eq(Collections.singletonList(item.getId())), any()))
+                .thenReturn(Collections.singletonMap(item.getId(), new ItemBookingSummary(
+                        BookingInterval.of(lastBooking), BookingInterval.of(nextBooking))));
         doNothing().when(commentService).getComments(any());
 
         ItemDto outputDto = itemService.getByIdAndUserId(item.getId(), owner.getId());
@@ -547,12 +565,9 @@ class ItemServiceImplTest {
 
         when(userRepository.findById(any()))
                 .thenReturn(Optional.of(owner));
-        when(itemRepository.findByOwnerId(any(), any()))
-                .thenReturn(items);
-        when(bookingRepository.findLastByItemIds(any(), any()))
-                .thenReturn(new ArrayList<>(Collections.singletonList(lastBookingItem1)));
-        when(bookingRepository.findNextByItemIds(any(), any()))
-                .thenReturn(new ArrayList<>(Collections.singletonList(nextBookingItem1)));
+        when(itemRepository.findOwnerItems(any(), any(), anyInt(), anyLong()))
+                .thenReturn(Arrays.asList(createOwnerItem(item1, lastBookingItem1, nextBookingItem1),
+                        createOwnerItem(item2, null, null)));
         doNothing().when(commentService).getComments(any(), any());
 
         List<ItemDto> outputDtos = itemService.getAllByOwnerId(owner.getId(), defaultPageable);
@@ -573,6 +588,28 @@ class ItemServiceImplTest {
     // Вспомогательные методы
     // -------------------------
 
+    private ItemRepository.OwnerItem createOwnerItem(Item item, Booking lastBooking, Booking nextBooking) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("id", item.getId());
+        row.put("name", item.getName());
+        row.put("description", item.getDescription());
+        row.put("available", item.getIsAvailable());
+        row.put("commentCount", 0L);
+        if (lastBooking != null) {
+            row.put("lastBookingId", lastBooking.getId());
+            row.put("lastBookerId", lastBooking.getBooker().getId());
+            row.put("lastBookingStart", lastBooking.getStart());
+            row.put("lastBookingEnd", lastBooking.getEnd());
+        }
+        if (nextBooking != null) {
+            row.put("nextBookingId", nextBooking.getId());
+            row.put("nextBookerId", nextBooking.getBooker().getId());
+            row.put("nextBookingStart", nextBooking.getStart());
+            row.put("nextBookingEnd", nextBooking.getEnd());
+        }
+        return new SpelAwareProxyProjectionFactory().createProjection(ItemRepository.OwnerItem.class, row);
+    }
+
     private void checkFields(ItemDto inputDto, ItemDto outputDto) {
         assertEquals(inputDto.getName(), outputDto.getName());
         assertEquals(inputDto.getDescription(), outputDto.getDescription());
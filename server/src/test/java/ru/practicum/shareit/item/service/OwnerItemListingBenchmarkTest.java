@@ -0,0 +1,187 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import ru.practicum.shareit.booking.index.ItemAvailabilityIndex;
+import ru.practicum.shareit.booking.index.ItemBookingSummary;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.common.CustomPageRequest;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import javax.persistence.EntityManagerFactory;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Список вещей владельца с 1000 вещами: время страниц по 10 и 100 вещей, число запросов
+ * и совпадение последнего и следующего бронирований с {@link ItemAvailabilityIndex}.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Tag("benchmark")
+@Slf4j
+class OwnerItemListingBenchmarkTest {
+
+    private static final int ITEMS = 1_000;
+
+    private static final int BOOKINGS_PER_ITEM = 4;
+
+    private static final int COMMENTS_PER_ITEM = 12;
+
+    private static final int WARMUP_ROUNDS = 200;
+
+    private static final int ROUNDS = 200;
+
+    /**
+     * Страница вещей с бронированиями и последние отзывы; владелец уже известен {@code UserLookup}.
+     */
+    private static final long EXPECTED_STATEMENTS = 2;
+
+    private static final LocalDateTime NOW = LocalDateTime.now();
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private User owner;
+
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(new User(null, "Peter", "peter@example.com"));
+        User booker = userRepository.save(new User(null, "Kate", "kate@example.com"));
+
+        List<Object[]> items = new ArrayList<>(ITEMS);
+        for (int i = 0; i < ITEMS; i++) {
+            items.add(new Object[]{"Item " + i, "Item " + i + " Description", owner.getId(), COMMENTS_PER_ITEM});
+        }
+        jdbcTemplate.batchUpdate("insert into items (name, description, is_available, owner_id, comment_count) " +
+                "values (?, ?, true, ?, ?)", items);
+        List<Long> itemIds = jdbcTemplate.queryForList("select id from items where owner_id = ? order by id",
+                Long.class, owner.getId());
+
+        List<Object[]> bookings = new ArrayList<>();
+        List<Object[]> comments = new ArrayList<>();
+        for (Long itemId : itemIds) {
+            for (int i = 0; i < BOOKINGS_PER_ITEM; i++) {
+                LocalDateTime start = NOW.plusDays(2L * i - BOOKINGS_PER_ITEM);
+                bookings.add(new Object[]{Timestamp.valueOf(start), Timestamp.valueOf(start.plusDays(1)),
+                        itemId, booker.getId()});
+            }
+            for (int i = 0; i < COMMENTS_PER_ITEM; i++) {
+                comments.add(new Object[]{"Comment " + i, itemId, booker.getId(),
+                        Timestamp.valueOf(NOW.minusHours(i + 1))});
+            }
+        }
+        jdbcTemplate.batchUpdate("insert into bookings (starts, ends, item_id, booker_id, status) " +
+                "values (?, ?, ?, ?, 'APPROVED')", bookings);
+        jdbcTemplate.batchUpdate("insert into comments (text, item_id, author_id, created) " +
+                "values (?, ?, ?, ?)", comments);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("delete from comments");
+        jdbcTemplate.update("delete from bookings");
+        jdbcTemplate.update("delete from items");
+        jdbcTemplate.update("delete from users");
+    }
+
+    @Test
+    void getAllByOwnerId_whenOwnerHas1kItems_thenConstantStatementsAndSameBookingsAsIndex() {
+        Pageable firstPage = new CustomPageRequest(0, 10, Sort.by("id"));
+        Pageable largePage = new CustomPageRequest(0, 100, Sort.by("id"));
+        Pageable allItems = new CustomPageRequest(0, ITEMS, Sort.by("id"));
+        itemService.getAllByOwnerId(owner.getId(), firstPage);
+
+        assertEquals(EXPECTED_STATEMENTS,
+                countStatements(() -> itemService.getAllByOwnerId(owner.getId(), firstPage)));
+        assertEquals(EXPECTED_STATEMENTS,
+                countStatements(() -> itemService.getAllByOwnerId(owner.getId(), allItems)));
+
+        log.info("getAllByOwnerId, {} items: page of 10 {} us/op, page of 100 {} us/op",
+                ITEMS, measure(firstPage), measure(largePage));
+
+        List<ItemDto> itemDtos = itemService.getAllByOwnerId(owner.getId(), allItems);
+        assertEquals(ITEMS, itemDtos.size());
+        checkBookings(itemDtos);
+        itemDtos.forEach(itemDto -> {
+            assertEquals(CommentServiceImpl.LATEST_COMMENTS, itemDto.getComments().size());
+            assertEquals(COMMENTS_PER_ITEM, itemDto.getCommentCount());
+        });
+    }
+
+
+    // -------------------------
+    // Вспомогательные методы
+    // -------------------------
+
+    private long measure(Pageable pageable) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            itemService.getAllByOwnerId(owner.getId(), pageable);
+        }
+        long started = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            itemService.getAllByOwnerId(owner.getId(), pageable);
+        }
+        return (System.nanoTime() - started) / ROUNDS / 1000;
+    }
+
+    private void checkBookings(List<ItemDto> itemDtos) {
+        List<Long> itemIds = itemRepository.findByOwnerId(owner.getId(),
+                        new CustomPageRequest(0, ITEMS, Sort.by("id")))
+                .stream()
+                .map(Item::getId)
+                .collect(Collectors.toList());
+        Map<Long, ItemBookingSummary> summaries = new ItemAvailabilityIndex(bookingRepository, ITEMS)
+                .findLastAndNext(itemIds, LocalDateTime.now());
+
+        itemDtos.forEach(itemDto -> {
+            ItemBookingSummary summary = summaries.get(itemDto.getId());
+            assertTrue(itemDto.getLastBooking() != null && itemDto.getNextBooking() != null);
+            assertEquals(summary.getLastBooking().getId(), itemDto.getLastBooking().getId());
+            assertEquals(summary.getNextBooking().getId(), itemDto.getNextBooking().getId());
+        });
+    }
+
+    private long countStatements(Runnable action) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+}
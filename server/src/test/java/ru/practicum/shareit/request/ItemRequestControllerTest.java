@@ -7,6 +7,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.common.exception.EntityNotFoundException;
@@ -33,6 +34,7 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -150,6 +152,21 @@ class ItemRequestControllerTest {
                 .getById(isA(Long.class), isA(Long.class));
     }
 
+    @Test
+    @SneakyThrows
+    void getById_whenIfNoneMatchEqualsVersionEtag_thenNotModifiedWithoutLoading() {
+        when(requestService.getETag(1L, 2L))
+                .thenReturn("\"1.0.1.5.0\"");
+
+        mvc.perform(get("/requests/{requestId}", 1L)
+                        .header(USER_ID_HEADER, 2L)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"1.0.1.5.0\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        verify(requestService, never()).getById(isA(Long.class), isA(Long.class));
+    }
+
     @Test
     @SneakyThrows
     void getById_whenInvokedByOtherUser_thenStatusIsOkAndDtoReturned() {
@@ -1,9 +1,9 @@
 package ru.practicum.shareit.request.service;
 
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mapstruct.factory.Mappers;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -20,6 +20,7 @@ import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repository.UserRepository;
+import ru.practicum.shareit.user.service.UserLookup;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -52,7 +53,6 @@ class ItemRequestServiceImplTest {
     @Mock
     private ItemRepository itemRepository;
 
-    @InjectMocks
     private ItemRequestServiceImpl requestService;
 
     @Spy
@@ -61,6 +61,13 @@ class ItemRequestServiceImplTest {
     @Spy
     private final ItemMapper itemMapper = Mappers.getMapper(ItemMapper.class);
 
+
+    @BeforeEach
+    void setUp() {
+        requestService = new ItemRequestServiceImpl(requestRepository, itemRepository,
+                new UserLookup(userRepository, 100), requestMapper, itemMapper);
+    }
+
     private static final Pageable DEFAULT_PAGEABLE = new CustomPageRequest(0, 10,
             Sort.by(Sort.Direction.DESC, "created"));
 
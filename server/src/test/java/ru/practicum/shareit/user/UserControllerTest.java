@@ -6,6 +6,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.common.exception.EntityNotFoundException;
@@ -29,6 +30,8 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -206,6 +209,57 @@ class UserControllerTest {
         verify(userService, times(1)).getById(any());
     }
 
+    @Test
+    @SneakyThrows
+    void getById_whenValid_thenEtagAndNoCacheReturned() {
+        UserDto outputDto = createUserDto();
+        outputDto.setId(1L);
+
+        when(userService.getETag(1L))
+                .thenReturn("\"1.0\"");
+        when(userService.getById(any()))
+                .thenReturn(outputDto);
+
+        mvc.perform(get("/users/{userId}", 1L))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1.0\""))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"));
+    }
+
+    @Test
+    @SneakyThrows
+    void getById_whenIfNoneMatchEqualsEtag_thenNotModifiedWithoutBody() {
+        UserDto outputDto = createUserDto();
+        outputDto.setId(1L);
+
+        when(userService.getETag(1L))
+                .thenReturn("\"1.0\"");
+        when(userService.getById(any()))
+                .thenReturn(outputDto);
+
+        String etag = mvc.perform(get("/users/{userId}", 1L))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mvc.perform(get("/users/{userId}", 1L)
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    @SneakyThrows
+    void getById_whenIfNoneMatchEqualsVersionEtag_thenNotModifiedWithoutLoading() {
+        when(userService.getETag(1L))
+                .thenReturn("\"1.0\"");
+
+        mvc.perform(get("/users/{userId}", 1L)
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"1.0\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        verify(userService, never()).getById(any());
+    }
+
     @Test
     @SneakyThrows
     void getById_whenUserNotFound_thenReturnNotFound() {
@@ -254,6 +308,17 @@ class UserControllerTest {
         verify(userService, times(1)).getAll(any());
     }
 
+    @Test
+    @SneakyThrows
+    void getAll_whenInvoked_thenNoEtagComputedFromBody() {
+        when(userService.getAll(any()))
+                .thenReturn(createUserDtos());
+
+        mvc.perform(get("/users"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG));
+    }
+
     @Test
     @SneakyThrows
     void getAll_whenFromIs2SizeIs2AndAll3_thenReturnListWithOneUserDto() {
@@ -0,0 +1,108 @@
+package ru.practicum.shareit.user.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.common.exception.EntityNotFoundException;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserLookupTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    private UserLookup userLookup;
+
+
+    @BeforeEach
+    void setUp() {
+        userLookup = new UserLookup(userRepository, 2);
+    }
+
+    @Test
+    void checkExists_whenUserAlreadyFound_thenNoSecondQuery() {
+        when(userRepository.findById(1L))
+                .thenReturn(Optional.of(createUser(1L)));
+
+        userLookup.checkExists(1L);
+        userLookup.checkExists(1L);
+
+        verify(userRepository, times(1)).findById(1L);
+        assertTrue(userLookup.isKnown(1L));
+    }
+
+    @Test
+    void getReference_whenUserKnown_thenReferenceWithoutQuery() {
+        User reference = createUser(1L);
+        userLookup.remember(1L);
+        when(userRepository.getReferenceById(1L))
+                .thenReturn(reference);
+
+        assertSame(reference, userLookup.getReference(1L));
+        verify(userRepository, never()).findById(1L);
+    }
+
+    @Test
+    void checkExists_whenUserNotFound_thenEntityNotFoundExceptionThrownAndNotRemembered() {
+        when(userRepository.findById(1L))
+                .thenReturn(Optional.empty());
+
+        EntityNotFoundException exception = assertThrows(EntityNotFoundException.class,
+                () -> userLookup.checkExists(1L));
+
+        assertEquals(User.class, exception.getEntityClass());
+        assertFalse(userLookup.isKnown(1L));
+    }
+
+    @Test
+    void forget_whenUserDeleted_thenNextCheckQueriesRepository() {
+        userLookup.remember(1L);
+        userLookup.forget(1L);
+        when(userRepository.findById(1L))
+                .thenReturn(Optional.empty());
+
+        assertFalse(userLookup.exists(1L));
+        verify(userRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void remember_whenLimitExceeded_thenLeastRecentlyUsedEvicted() {
+        userLookup.remember(1L);
+        userLookup.remember(2L);
+        userLookup.isKnown(1L);
+        userLookup.remember(3L);
+
+        assertTrue(userLookup.isKnown(1L));
+        assertFalse(userLookup.isKnown(2L));
+        assertTrue(userLookup.isKnown(3L));
+    }
+
+
+    // -------------------------
+    // Вспомогательные методы
+    // -------------------------
+
+    private User createUser(Long id) {
+        User user = new User();
+        user.setId(id);
+        user.setName("user" + id);
+        user.setEmail("user" + id + "@mail.ru");
+        return user;
+    }
+}
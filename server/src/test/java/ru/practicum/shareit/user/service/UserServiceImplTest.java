@@ -38,6 +38,9 @@ class UserServiceImplTest {
     @Mock
     private UserRepository userRepository;
 
+    @Mock
+    private UserLookup userLookup;
+
     @Spy
     private UserMapper mapper = Mappers.getMapper(UserMapper.class);
 
@@ -50,7 +53,7 @@ class UserServiceImplTest {
         UserDto inputDto = createUserDto();
         User savedUser = createUser();
 
-        when(userRepository.save(any()))
+        when(userRepository.saveAndFlush(any()))
                 .thenReturn(savedUser);
 
         UserDto outputDto = userService.create(inputDto);
@@ -61,7 +64,7 @@ class UserServiceImplTest {
     void create_whenEmailDuplicate_thenThrowInternalError() {
         UserDto inputDto = createUserDto();
 
-        when(userRepository.save(any()))
+        when(userRepository.saveAndFlush(any()))
                 .thenThrow(InternalError.class);
 
         assertThrows(InternalError.class, () -> userService.create(inputDto));
@@ -176,6 +179,7 @@ class UserServiceImplTest {
         doNothing().when(userRepository).deleteById(isA(Long.class));
         userService.delete(userID);
         verify(userRepository, times(1)).deleteById(any());
+        verify(userLookup, times(1)).forget(userID);
     }
 
     // -------------------------